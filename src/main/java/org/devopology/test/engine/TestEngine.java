@@ -16,19 +16,37 @@
 
 package org.devopology.test.engine;
 
+import org.devopology.test.engine.support.TestEngineCompositeEngineExecutionListener;
 import org.devopology.test.engine.support.TestEngineConfiguration;
 import org.devopology.test.engine.support.TestEngineConfigurationParameters;
 import org.devopology.test.engine.support.TestEngineDiscoverySelectorResolver;
 import org.devopology.test.engine.support.TestEngineEngineDiscoveryRequest;
 import org.devopology.test.engine.support.TestEngineException;
+import org.devopology.test.engine.support.TestEngineExecutionResults;
 import org.devopology.test.engine.support.TestEngineExecutor;
 import org.devopology.test.engine.support.TestEngineInformation;
+import org.devopology.test.engine.support.TestEnginePlan;
+import org.devopology.test.engine.support.TestEngineRerunFile;
+import org.devopology.test.engine.support.TestEngineRunHistory;
 import org.devopology.test.engine.support.TestEngineSummaryEngineExecutionListener;
 import org.devopology.test.engine.support.TestEngineUtils;
+import org.devopology.test.engine.support.fork.TestEngineCoordinator;
+import org.devopology.test.engine.support.fork.TestEngineForkExecutor;
+import org.devopology.test.engine.support.fork.TestEngineForkProtocol;
+import org.devopology.test.engine.support.fork.TestEngineForkWorker;
 import org.devopology.test.engine.support.logger.Logger;
 import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.devopology.test.engine.support.report.ContentionReportEngineExecutionListener;
+import org.devopology.test.engine.support.report.GcReportEngineExecutionListener;
+import org.devopology.test.engine.support.report.JUnitXmlReportEngineExecutionListener;
+import org.devopology.test.engine.support.report.JsonLinesReportEngineExecutionListener;
+import org.devopology.test.engine.support.report.RerunFileEngineExecutionListener;
+import org.devopology.test.engine.support.report.RunHistoryEngineExecutionListener;
+import org.devopology.test.engine.support.report.SamplingProfilerEngineExecutionListener;
+import org.devopology.test.engine.support.report.TimingReportEngineExecutionListener;
 import org.devopology.test.engine.support.util.HumanReadableTime;
 import org.junit.platform.engine.EngineDiscoveryRequest;
+import org.junit.platform.engine.EngineExecutionListener;
 import org.junit.platform.engine.ExecutionRequest;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.UniqueId;
@@ -37,12 +55,14 @@ import org.junit.platform.engine.support.descriptor.EngineDescriptor;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
 import org.junit.platform.launcher.TestPlan;
 import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
-import org.junit.platform.launcher.listeners.TestExecutionSummary;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.PrintStream;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
@@ -61,6 +81,13 @@ public class TestEngine implements org.junit.platform.engine.TestEngine {
     private static final String ARTIFACT_ID = "test-engine";
     private static final String VERSION = TestEngineInformation.getVersion();
 
+    private static final long WORKER_CONNECT_TIMEOUT_MILLISECONDS = 60000;
+
+    private static boolean reported;
+
+    private volatile TestEngineExecutor testEngineExecutor;
+    private volatile TestEngineCoordinator testEngineCoordinator;
+
     @Override
     public String getId() {
         return ENGINE_ID;
@@ -103,6 +130,36 @@ public class TestEngine implements org.junit.platform.engine.TestEngine {
         return engineDescriptor;
     }
 
+    /**
+     * Method to create the TestDescriptors of a test plan, without discovery
+     *
+     * @param testEnginePlan
+     * @param uniqueId
+     * @return
+     */
+    public TestDescriptor discover(TestEnginePlan testEnginePlan, UniqueId uniqueId) {
+        EngineDescriptor engineDescriptor = new EngineDescriptor(uniqueId, getId());
+
+        new TestEngineDiscoverySelectorResolver().resolvePlan(testEnginePlan, engineDescriptor);
+
+        return engineDescriptor;
+    }
+
+    /**
+     * Method to create the TestDescriptors of the failed tests in a rerun file, without discovery
+     *
+     * @param testEngineRerunFile
+     * @param uniqueId
+     * @return
+     */
+    public TestDescriptor discover(TestEngineRerunFile testEngineRerunFile, UniqueId uniqueId) {
+        EngineDescriptor engineDescriptor = new EngineDescriptor(uniqueId, getId());
+
+        new TestEngineDiscoverySelectorResolver().resolveRerunFile(testEngineRerunFile, engineDescriptor);
+
+        return engineDescriptor;
+    }
+
     @Override
     public void execute(ExecutionRequest executionRequest) {
         if (executionRequest.getRootTestDescriptor().getChildren().size() < 1) {
@@ -127,7 +184,47 @@ public class TestEngine implements org.junit.platform.engine.TestEngine {
             throw new TestEngineException(String.format("Invalid thread count [%d]", threadCount));
         }
 
-        new TestEngineExecutor(threadCount).execute(executionRequest);
+        boolean threadResourceAccounting =
+                TestEngineConfiguration.getBoolean(
+                        "devopology.test.engine.resource.accounting",
+                        "DEVOPOLOGY_TEST_ENGINE_RESOURCE_ACCOUNTING",
+                        false);
+
+        testEngineExecutor = new TestEngineExecutor(threadCount, threadResourceAccounting);
+        testEngineExecutor.execute(executionRequest);
+    }
+
+    /**
+     * Method to execute an ExecutionRequest using a TestEngineCoordinator (workers or forked JVMs)
+     *
+     * @param executionRequest
+     * @param testEngineCoordinator
+     */
+    private void executeCoordinated(ExecutionRequest executionRequest, TestEngineCoordinator testEngineCoordinator) {
+        if (executionRequest.getRootTestDescriptor().getChildren().size() < 1) {
+            return;
+        }
+
+        this.testEngineCoordinator = testEngineCoordinator;
+        testEngineCoordinator.execute(executionRequest);
+    }
+
+    /**
+     * Method to shutdown execution, skipping tests not yet started, and waiting for tests in flight
+     * to finish for a grace period, after which they are reported as aborted
+     *
+     * @param gracePeriodMilliseconds
+     */
+    private void shutdown(long gracePeriodMilliseconds) {
+        TestEngineExecutor testEngineExecutor = this.testEngineExecutor;
+        if (testEngineExecutor != null) {
+            testEngineExecutor.shutdown(gracePeriodMilliseconds);
+        }
+
+        TestEngineCoordinator testEngineCoordinator = this.testEngineCoordinator;
+        if (testEngineCoordinator != null) {
+            testEngineCoordinator.shutdown(gracePeriodMilliseconds);
+        }
     }
 
     /**
@@ -139,6 +236,7 @@ public class TestEngine implements org.junit.platform.engine.TestEngine {
         long startTimeMilliseconds = System.currentTimeMillis();
 
         PrintStream printStream = null;
+        List<Closeable> closeables = new ArrayList<>();
         boolean failed = false;
 
         try {
@@ -154,7 +252,67 @@ public class TestEngine implements org.junit.platform.engine.TestEngine {
             LOGGER.infoRaw(separator);
             LOGGER.infoRaw(banner);
             LOGGER.infoRaw(separator);
-            LOGGER.infoRaw("Scanning all classpath jars for tests...");
+
+            String workerCoordinatorAddress =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.worker",
+                            "DEVOPOLOGY_TEST_ENGINE_WORKER");
+
+            String coordinatorToken =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.coordinator.token",
+                            "DEVOPOLOGY_TEST_ENGINE_COORDINATOR_TOKEN");
+
+            // A worker executes the test classes the coordinator sends, so doesn't discover tests
+            if (workerCoordinatorAddress != null) {
+                LOGGER.info("Worker connecting to coordinator [%s]", workerCoordinatorAddress);
+
+                failed =
+                        TestEngineForkWorker.run(
+                                TestEngineForkProtocol.toInetSocketAddress(workerCoordinatorAddress, "localhost"),
+                                0,
+                                coordinatorToken,
+                                WORKER_CONNECT_TIMEOUT_MILLISECONDS) != 0;
+
+                return;
+            }
+
+            String planImportFilename =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.plan.import",
+                            "DEVOPOLOGY_TEST_ENGINE_PLAN_IMPORT");
+
+            String rerunFilename =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.rerun.file",
+                            "DEVOPOLOGY_TEST_ENGINE_RERUN_FILE");
+
+            TestEngineRerunFile testEngineRerunFile = null;
+
+            if (rerunFilename != null
+                    && TestEngineConfiguration.getBoolean(
+                            "devopology.test.engine.rerun.failed",
+                            "DEVOPOLOGY_TEST_ENGINE_RERUN_FAILED",
+                            false)) {
+                if (new File(rerunFilename).isFile()) {
+                    testEngineRerunFile = TestEngineRerunFile.read(new File(rerunFilename));
+
+                    if (testEngineRerunFile.isEmpty()) {
+                        LOGGER.info("Rerun file [%s] doesn't contain any failed tests", rerunFilename);
+                        return;
+                    }
+                } else {
+                    LOGGER.warning("Rerun file [%s] not found, executing all tests", rerunFilename);
+                }
+            }
+
+            if (testEngineRerunFile != null) {
+                LOGGER.infoRaw("Reading rerun file [%s]...", rerunFilename);
+            } else if (planImportFilename != null) {
+                LOGGER.infoRaw("Reading test plan [%s]...", planImportFilename);
+            } else {
+                LOGGER.infoRaw("Scanning all classpath jars for tests...");
+            }
 
             Set<Path> classPathRoots =
                     new TreeSet<>(Comparator.comparing(o -> o.toAbsolutePath().toFile().getAbsolutePath()));
@@ -189,75 +347,252 @@ public class TestEngine implements org.junit.platform.engine.TestEngine {
 
             TestEngine testEngine = new TestEngine();
 
-            TestDescriptor testDescriptor =
-                    testEngine.discover(launcherDiscoveryRequest, UniqueId.root("/", "/"));
+            TestDescriptor testDescriptor;
+
+            if (testEngineRerunFile != null) {
+                // Discovery isn't needed, since the rerun file contains the failed test classes, test methods, and test parameters
+                testDescriptor = testEngine.discover(testEngineRerunFile, UniqueId.root("/", "/"));
+            } else if (planImportFilename != null) {
+                // Discovery isn't needed, since the test plan contains the test classes, test methods, and test parameters
+                testDescriptor = testEngine.discover(TestEnginePlan.read(new File(planImportFilename)), UniqueId.root("/", "/"));
+            } else {
+                testDescriptor = testEngine.discover(launcherDiscoveryRequest, UniqueId.root("/", "/"));
+            }
 
             if (testDescriptor.getChildren().size() == 0) {
                 LOGGER.error("No tests were found");
                 System.exit(-1);
             }
 
+            String planExportFilename =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.plan.export",
+                            "DEVOPOLOGY_TEST_ENGINE_PLAN_EXPORT");
+
+            // Only write the test plan, tests are executed by later runs reading the test plan
+            if (planExportFilename != null) {
+                int count = TestEnginePlan.write(new File(planExportFilename), testDescriptor);
+                LOGGER.info("Test plan [%s] written with [%d] test classes", planExportFilename, count);
+                return;
+            }
+
+            String historyFilename =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.history.file",
+                            "DEVOPOLOGY_TEST_ENGINE_HISTORY_FILE");
+
+            TestEngineRunHistory testEngineRunHistory = null;
+
+            if (historyFilename != null) {
+                testEngineRunHistory = TestEngineRunHistory.read(new File(historyFilename));
+
+                if (TestEngineConfiguration.getBoolean(
+                        "devopology.test.engine.history.prioritize",
+                        "DEVOPOLOGY_TEST_ENGINE_HISTORY_PRIORITIZE",
+                        false)) {
+                    int count = testEngineRunHistory.prioritize(testDescriptor);
+                    LOGGER.info(
+                            "Prioritized [%d] of [%d] test classes using run history [%s]",
+                            count,
+                            testDescriptor.getChildren().size(),
+                            historyFilename);
+                }
+            }
+
             TestPlan testPlan = TestEngineUtils.createTestPlan(testDescriptor, configurationParameters);
 
             TestEngineSummaryEngineExecutionListener summaryEngineExecutionListener = new TestEngineSummaryEngineExecutionListener(testPlan);
 
-            testEngine.execute(
-                    ExecutionRequest.create(
-                            testDescriptor,
-                            summaryEngineExecutionListener,
-                            launcherDiscoveryRequest.getConfigurationParameters()));
+            List<EngineExecutionListener> engineExecutionListeners = new ArrayList<>();
+            engineExecutionListeners.add(summaryEngineExecutionListener);
 
-            long endTimeMilliseconds = System.currentTimeMillis();
+            String junitXmlReportFilename =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.report.xml",
+                            "DEVOPOLOGY_TEST_ENGINE_REPORT_XML");
 
-            TestExecutionSummary testExecutionSummary = summaryEngineExecutionListener.getSummary();
+            if (junitXmlReportFilename != null) {
+                LOGGER.trace("JUnit XML report [%s]", junitXmlReportFilename);
+                JUnitXmlReportEngineExecutionListener junitXmlReportEngineExecutionListener =
+                        new JUnitXmlReportEngineExecutionListener(new File(junitXmlReportFilename));
+                engineExecutionListeners.add(junitXmlReportEngineExecutionListener);
+                closeables.add(junitXmlReportEngineExecutionListener);
+            }
 
-            banner = "Devopology Test Engine " + VERSION + " Summary";
+            int timingReportTop =
+                    TestEngineConfiguration.getInteger(
+                            "devopology.test.engine.report.timing.top",
+                            "DEVOPOLOGY_TEST_ENGINE_REPORT_TIMING_TOP",
+                            10);
 
-            stringBuilder = new StringBuilder();
-            stringBuilder.append("-".repeat(banner.toCharArray().length));
+            TimingReportEngineExecutionListener timingReportEngineExecutionListener = null;
 
-            separator = stringBuilder.toString();
+            if (timingReportTop > 0) {
+                timingReportEngineExecutionListener = new TimingReportEngineExecutionListener(timingReportTop);
+                engineExecutionListeners.add(timingReportEngineExecutionListener);
+            }
 
-            LOGGER.infoRaw(separator);
-            LOGGER.infoRaw(banner);
-            LOGGER.infoRaw(separator);
-            LOGGER.infoRaw("");
-            LOGGER.infoRaw(
-                    "TESTS : "
-                            + (testExecutionSummary.getTestsFoundCount() + testExecutionSummary.getContainersFailedCount())
-                            + ", "
-                            + "PASSED"
-                            + " : "
-                            + (testExecutionSummary.getTestsSucceededCount() - testExecutionSummary.getContainersFailedCount())
-                            + ", "
-                            + "FAILED"
-                            + " : "
-                            + (testExecutionSummary.getTestsFailedCount() + testExecutionSummary.getContainersFailedCount())
-                            + ", "
-                            + "SKIPPED"
-                            + " : "
-                            + testExecutionSummary.getTestsSkippedCount());
+            int gcReportTop =
+                    TestEngineConfiguration.getInteger(
+                            "devopology.test.engine.report.gc.top",
+                            "DEVOPOLOGY_TEST_ENGINE_REPORT_GC_TOP",
+                            0);
 
-            LOGGER.infoRaw("");
-            LOGGER.infoRaw(separator);
+            GcReportEngineExecutionListener gcReportEngineExecutionListener = null;
 
-            failed = (testExecutionSummary.getTestsFailedCount() + testExecutionSummary.getContainersFailedCount()) > 0;
+            if (gcReportTop > 0) {
+                gcReportEngineExecutionListener = new GcReportEngineExecutionListener(gcReportTop);
+                engineExecutionListeners.add(gcReportEngineExecutionListener);
+                closeables.add(gcReportEngineExecutionListener);
+            }
 
-            if (failed) {
-                LOGGER.infoRaw("FAILED");
+            int contentionReportTop =
+                    TestEngineConfiguration.getInteger(
+                            "devopology.test.engine.report.contention.top",
+                            "DEVOPOLOGY_TEST_ENGINE_REPORT_CONTENTION_TOP",
+                            0);
+
+            ContentionReportEngineExecutionListener contentionReportEngineExecutionListener = null;
+
+            if (contentionReportTop > 0) {
+                contentionReportEngineExecutionListener = new ContentionReportEngineExecutionListener(contentionReportTop);
+                engineExecutionListeners.add(contentionReportEngineExecutionListener);
+            }
+
+            String profilerDirectoryName =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.profiler.directory",
+                            "DEVOPOLOGY_TEST_ENGINE_PROFILER_DIRECTORY");
+
+            if (profilerDirectoryName != null) {
+                long profilerInterval =
+                        TestEngineConfiguration.getLong(
+                                "devopology.test.engine.profiler.interval",
+                                "DEVOPOLOGY_TEST_ENGINE_PROFILER_INTERVAL",
+                                10);
+
+                LOGGER.trace("profiler directory [%s] interval [%d] ms", profilerDirectoryName, profilerInterval);
+                SamplingProfilerEngineExecutionListener samplingProfilerEngineExecutionListener =
+                        new SamplingProfilerEngineExecutionListener(new File(profilerDirectoryName), profilerInterval);
+                engineExecutionListeners.add(samplingProfilerEngineExecutionListener);
+                closeables.add(samplingProfilerEngineExecutionListener);
+            }
+
+            String jsonReportFilename =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.report.json",
+                            "DEVOPOLOGY_TEST_ENGINE_REPORT_JSON");
+
+            if (jsonReportFilename != null) {
+                LOGGER.trace("JSON Lines report [%s]", jsonReportFilename);
+                JsonLinesReportEngineExecutionListener jsonLinesReportEngineExecutionListener =
+                        new JsonLinesReportEngineExecutionListener(new File(jsonReportFilename));
+                engineExecutionListeners.add(jsonLinesReportEngineExecutionListener);
+                closeables.add(jsonLinesReportEngineExecutionListener);
+            }
+
+            if (rerunFilename != null) {
+                LOGGER.trace("rerun file [%s]", rerunFilename);
+                RerunFileEngineExecutionListener rerunFileEngineExecutionListener =
+                        new RerunFileEngineExecutionListener(new File(rerunFilename));
+                engineExecutionListeners.add(rerunFileEngineExecutionListener);
+                closeables.add(rerunFileEngineExecutionListener);
+            }
+
+            if (testEngineRunHistory != null) {
+                LOGGER.trace("run history [%s]", historyFilename);
+                RunHistoryEngineExecutionListener runHistoryEngineExecutionListener =
+                        new RunHistoryEngineExecutionListener(new File(historyFilename), testEngineRunHistory);
+                engineExecutionListeners.add(runHistoryEngineExecutionListener);
+                closeables.add(runHistoryEngineExecutionListener);
+            }
+
+            long shutdownGracePeriod =
+                    TestEngineConfiguration.getLong(
+                            "devopology.test.engine.shutdown.grace.period",
+                            "DEVOPOLOGY_TEST_ENGINE_SHUTDOWN_GRACE_PERIOD",
+                            5000);
+
+            int forkCount =
+                    TestEngineConfiguration.getInteger(
+                            "devopology.test.engine.fork.count",
+                            "DEVOPOLOGY_TEST_ENGINE_FORK_COUNT",
+                            0);
+
+            String coordinatorAddress =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.coordinator",
+                            "DEVOPOLOGY_TEST_ENGINE_COORDINATOR");
+
+            TimingReportEngineExecutionListener finalTimingReportEngineExecutionListener = timingReportEngineExecutionListener;
+            GcReportEngineExecutionListener finalGcReportEngineExecutionListener = gcReportEngineExecutionListener;
+            ContentionReportEngineExecutionListener finalContentionReportEngineExecutionListener = contentionReportEngineExecutionListener;
+
+            // On SIGINT / SIGTERM, report finished tests and tests in flight (as aborted) after the grace period
+            Thread shutdownHook = new Thread(() -> {
+                LOGGER.info("Shutdown requested, waiting up to [%d] ms for tests in flight", shutdownGracePeriod);
+
+                testEngine.shutdown(shutdownGracePeriod);
+
+                report(
+                        summaryEngineExecutionListener,
+                        finalTimingReportEngineExecutionListener,
+                        finalGcReportEngineExecutionListener,
+                        finalContentionReportEngineExecutionListener,
+                        closeables,
+                        startTimeMilliseconds);
+            });
+
+            shutdownHook.setName("test-engine-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+            ExecutionRequest executionRequest =
+                    ExecutionRequest.create(
+                            testDescriptor,
+                            new TestEngineCompositeEngineExecutionListener(engineExecutionListeners),
+                            launcherDiscoveryRequest.getConfigurationParameters());
+
+            if (coordinatorAddress != null) {
+                int coordinatorRetryCount =
+                        TestEngineConfiguration.getInteger(
+                                "devopology.test.engine.coordinator.retry.count",
+                                "DEVOPOLOGY_TEST_ENGINE_COORDINATOR_RETRY_COUNT",
+                                1);
+
+                testEngine.executeCoordinated(
+                        executionRequest,
+                        new TestEngineCoordinator(
+                                TestEngineForkProtocol.toInetSocketAddress(coordinatorAddress, "localhost"),
+                                coordinatorRetryCount,
+                                coordinatorToken));
+            } else if (forkCount > 0) {
+                LOGGER.trace("fork count [%d]", forkCount);
+                testEngine.executeCoordinated(executionRequest, new TestEngineForkExecutor(forkCount));
             } else {
-                LOGGER.infoRaw("PASSED");
+                testEngine.execute(executionRequest);
             }
 
-            LOGGER.infoRaw(separator);
-            LOGGER.infoRaw("Total Time  : " + HumanReadableTime.toHumanReadable(endTimeMilliseconds - startTimeMilliseconds, false));
-            LOGGER.infoRaw("Finished At : " + HumanReadableTime.now());
-            LOGGER.infoRaw(separator);
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // DO NOTHING, shutdown is in progress
+            }
+
+            failed =
+                    report(
+                            summaryEngineExecutionListener,
+                            timingReportEngineExecutionListener,
+                            gcReportEngineExecutionListener,
+                            contentionReportEngineExecutionListener,
+                            closeables,
+                            startTimeMilliseconds);
         } catch (Throwable t) {
             failed = true;
             LOGGER.error("Internal Error occurred.");
             t.printStackTrace();
         } finally {
+            close(closeables);
+
             if (printStream != null) {
                 try {
                     printStream.close();
@@ -273,4 +608,137 @@ public class TestEngine implements org.junit.platform.engine.TestEngine {
             }
         }
     }
+
+    /**
+     * Method to close the reports and log the summary, only once, either when execution
+     * finishes or from the shutdown hook
+     *
+     * @param summaryEngineExecutionListener
+     * @param timingReportEngineExecutionListener may be null
+     * @param gcReportEngineExecutionListener may be null
+     * @param contentionReportEngineExecutionListener may be null
+     * @param closeables
+     * @param startTimeMilliseconds
+     * @return true if any test failed or a report is incomplete, else false
+     */
+    private static synchronized boolean report(
+            TestEngineSummaryEngineExecutionListener summaryEngineExecutionListener,
+            TimingReportEngineExecutionListener timingReportEngineExecutionListener,
+            GcReportEngineExecutionListener gcReportEngineExecutionListener,
+            ContentionReportEngineExecutionListener contentionReportEngineExecutionListener,
+            List<Closeable> closeables,
+            long startTimeMilliseconds) {
+        TestEngineExecutionResults testEngineExecutionResults = summaryEngineExecutionListener.getTestEngineExecutionResults();
+
+        // Aborted tests (fail fast or shutdown) are reported as a failure, since they didn't pass
+        boolean failed =
+                (testEngineExecutionResults.getTestsFailedCount()
+                        + testEngineExecutionResults.getContainersFailedCount()
+                        + testEngineExecutionResults.getTestsAbortedCount()) > 0;
+
+        if (reported) {
+            return failed;
+        }
+
+        reported = true;
+
+        // An incomplete report fails the execution, since its consumers would miss results
+        if (close(closeables)) {
+            failed = true;
+        }
+
+        long endTimeMilliseconds = System.currentTimeMillis();
+
+        String banner = "Devopology Test Engine " + VERSION + " Summary";
+
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("-".repeat(banner.toCharArray().length));
+
+        String separator = stringBuilder.toString();
+
+        LOGGER.infoRaw(separator);
+        LOGGER.infoRaw(banner);
+        LOGGER.infoRaw(separator);
+        LOGGER.infoRaw("");
+        LOGGER.infoRaw(
+                "TESTS : "
+                        + (summaryEngineExecutionListener.getTestsFoundCount() + testEngineExecutionResults.getContainersFailedCount())
+                        + ", "
+                        + "PASSED"
+                        + " : "
+                        + (testEngineExecutionResults.getTestsSucceededCount() - testEngineExecutionResults.getContainersFailedCount())
+                        + ", "
+                        + "FAILED"
+                        + " : "
+                        + (testEngineExecutionResults.getTestsFailedCount() + testEngineExecutionResults.getContainersFailedCount())
+                        + ", "
+                        + "SKIPPED"
+                        + " : "
+                        + testEngineExecutionResults.getTestsSkippedCount()
+                        + (testEngineExecutionResults.getTestsAbortedCount() > 0
+                            ? ", ABORTED : " + testEngineExecutionResults.getTestsAbortedCount()
+                            : ""));
+
+        LOGGER.infoRaw("");
+
+        if (timingReportEngineExecutionListener != null) {
+            LOGGER.infoRaw(separator);
+            LOGGER.infoRaw("");
+            timingReportEngineExecutionListener.report(LOGGER);
+            LOGGER.infoRaw("");
+        }
+
+        if (gcReportEngineExecutionListener != null) {
+            LOGGER.infoRaw(separator);
+            LOGGER.infoRaw("");
+            gcReportEngineExecutionListener.report(LOGGER);
+            LOGGER.infoRaw("");
+        }
+
+        if (contentionReportEngineExecutionListener != null) {
+            LOGGER.infoRaw(separator);
+            LOGGER.infoRaw("");
+            contentionReportEngineExecutionListener.report(LOGGER);
+            LOGGER.infoRaw("");
+        }
+
+        LOGGER.infoRaw(separator);
+
+        if (failed) {
+            LOGGER.infoRaw("FAILED");
+        } else {
+            LOGGER.infoRaw("PASSED");
+        }
+
+        LOGGER.infoRaw(separator);
+        LOGGER.infoRaw("Total Time  : " + HumanReadableTime.toHumanReadable(endTimeMilliseconds - startTimeMilliseconds, false));
+        LOGGER.infoRaw("Finished At : " + HumanReadableTime.now());
+        LOGGER.infoRaw(separator);
+
+        return failed;
+    }
+
+    /**
+     * Method to close a List of Closeables, removing them from the List
+     *
+     * @param closeables
+     * @return true if any Closeable failed to close (e.g. an incomplete report), else false
+     */
+    private static synchronized boolean close(List<Closeable> closeables) {
+        boolean failed = false;
+
+        for (Closeable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (Throwable t) {
+                failed = true;
+                LOGGER.error("Exception closing report [%s]", t);
+                t.printStackTrace();
+            }
+        }
+
+        closeables.clear();
+
+        return failed;
+    }
 }
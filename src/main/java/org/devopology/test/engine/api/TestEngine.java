@@ -3,6 +3,7 @@ package org.devopology.test.engine.api;
 import org.junit.platform.commons.annotation.Testable;
 
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
@@ -87,4 +88,53 @@ public @interface TestEngine {
     @interface Tag {
         String value();
     }
+
+    @Target({ ElementType.ANNOTATION_TYPE, ElementType.TYPE, ElementType.METHOD })
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Timeout {
+        long value();
+    }
+
+    @Target({ ElementType.ANNOTATION_TYPE, ElementType.TYPE })
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface ParallelMethods {
+        Mode value() default Mode.SHARED_INSTANCE;
+
+        enum Mode {
+            SHARED_INSTANCE,
+            INSTANCE_PER_METHOD
+        }
+    }
+
+    @Target({ ElementType.ANNOTATION_TYPE, ElementType.TYPE })
+    @Retention(RetentionPolicy.RUNTIME)
+    @Repeatable(ResourceLocks.class)
+    @interface ResourceLock {
+        String value();
+
+        Mode mode() default Mode.READ_WRITE;
+
+        enum Mode {
+            READ,
+            READ_WRITE
+        }
+    }
+
+    @Target({ ElementType.ANNOTATION_TYPE, ElementType.TYPE })
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface ResourceLocks {
+        ResourceLock[] value();
+    }
+
+    @Target({ ElementType.ANNOTATION_TYPE, ElementType.TYPE })
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Isolated {
+
+    }
+
+    @Target({ ElementType.ANNOTATION_TYPE, ElementType.TYPE })
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Pool {
+        String value();
+    }
 }
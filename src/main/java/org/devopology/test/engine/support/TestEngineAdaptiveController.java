@@ -0,0 +1,358 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support;
+
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.devopology.test.engine.support.util.GarbageCollectors;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Class to adapt the thread count of a thread pool to CPU, GC, and heap pressure
+ * <p>
+ * Each interval, the thread count grows while test throughput rises and the process CPU load
+ * is below a target, and shrinks when the GC time or heap occupancy exceeds a threshold. While
+ * heap occupancy exceeds the threshold, no new test classes are started
+ * <p>
+ * Heap occupancy is measured after the last collection of the tenured pool, so garbage that
+ * hasn't been collected yet isn't mistaken for pressure. GC time excludes concurrent collectors,
+ * whose collection cycles run alongside the tests
+ */
+public class TestEngineAdaptiveController implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineAdaptiveController.class);
+
+    private static final long INTERVAL_MILLISECONDS = 1000;
+
+    private static final double CPU_LOAD_TARGET = 0.9;
+
+    // Intervals to hold the thread count after growing didn't increase throughput
+    private static final int HOLD_INTERVALS = 5;
+
+    private enum Action {
+        GROW,
+        SHRINK,
+        HOLD
+    }
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+    private final TestEngineExecutionResults testEngineExecutionResults;
+    private final TestEngineResourceLockScheduler testEngineResourceLockScheduler;
+    private final int maximumThreadCount;
+    private final double heapThreshold;
+    private final double gcThreshold;
+    private final MemoryMXBean memoryMXBean;
+    private final MemoryPoolMXBean tenuredMemoryPoolMXBean;
+    private final com.sun.management.OperatingSystemMXBean operatingSystemMXBean;
+    private int minimumObservedThreadCount;
+    private int maximumObservedThreadCount;
+    private Action lastAction;
+    private double lastThroughput;
+    private long lastCompletedCount;
+    private long lastGcTimeMilliseconds;
+    private long lastNanoTime;
+    private int holdIntervals;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Constructor
+     *
+     * @param threadPoolExecutor the thread pool to adapt, starting at its current thread count
+     * @param testEngineExecutionResults used to measure test throughput
+     * @param testEngineResourceLockScheduler used to stop starting test classes under heap pressure
+     * @param maximumThreadCount
+     * @param heapThresholdPercent
+     * @param gcThresholdPercent
+     */
+    public TestEngineAdaptiveController(
+            ThreadPoolExecutor threadPoolExecutor,
+            TestEngineExecutionResults testEngineExecutionResults,
+            TestEngineResourceLockScheduler testEngineResourceLockScheduler,
+            int maximumThreadCount,
+            int heapThresholdPercent,
+            int gcThresholdPercent) {
+        this.threadPoolExecutor = threadPoolExecutor;
+        this.testEngineExecutionResults = testEngineExecutionResults;
+        this.testEngineResourceLockScheduler = testEngineResourceLockScheduler;
+        this.maximumThreadCount = Math.max(maximumThreadCount, threadPoolExecutor.getMaximumPoolSize());
+        this.heapThreshold = heapThresholdPercent / 100.0;
+        this.gcThreshold = gcThresholdPercent / 100.0;
+        this.memoryMXBean = ManagementFactory.getMemoryMXBean();
+        this.tenuredMemoryPoolMXBean = getTenuredMemoryPoolMXBean();
+        this.operatingSystemMXBean = getSunOperatingSystemMXBean();
+        this.minimumObservedThreadCount = threadPoolExecutor.getMaximumPoolSize();
+        this.maximumObservedThreadCount = threadPoolExecutor.getMaximumPoolSize();
+        this.lastAction = Action.HOLD;
+    }
+
+    /**
+     * Method to start the controller thread
+     */
+    public void start() {
+        lastCompletedCount = getCompletedCount();
+        lastGcTimeMilliseconds = getGcTimeMilliseconds();
+        lastNanoTime = System.nanoTime();
+
+        running = true;
+        thread = new Thread(this);
+        thread.setName("test-engine-adaptive");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Method to stop the controller thread
+     */
+    public void stop() {
+        running = false;
+
+        if (thread != null) {
+            thread.interrupt();
+        }
+
+        LOGGER.info(
+                "Adaptive thread count [%d], minimum [%d], maximum [%d]",
+                threadPoolExecutor.getMaximumPoolSize(),
+                minimumObservedThreadCount,
+                maximumObservedThreadCount);
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                Thread.sleep(INTERVAL_MILLISECONDS);
+                adapt();
+            } catch (InterruptedException e) {
+                break;
+            } catch (Throwable t) {
+                LOGGER.error("Exception in adaptive controller [%s]", t);
+                t.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Method to sample CPU, GC, heap, and throughput, adapting the thread count
+     */
+    private void adapt() {
+        long nanoTime = System.nanoTime();
+        long elapsedMilliseconds = Math.max(1, (nanoTime - lastNanoTime) / 1000000L);
+
+        long completedCount = getCompletedCount();
+        double throughput = (completedCount - lastCompletedCount) * 1000.0 / elapsedMilliseconds;
+
+        long gcTimeMilliseconds = getGcTimeMilliseconds();
+        double gcLoad = (double) (gcTimeMilliseconds - lastGcTimeMilliseconds) / elapsedMilliseconds;
+
+        double heapOccupancy = getHeapOccupancy();
+
+        // Negative if not available
+        double cpuLoad = operatingSystemMXBean != null ? operatingSystemMXBean.getProcessCpuLoad() : -1;
+
+        boolean heapPressure = heapOccupancy >= heapThreshold;
+        testEngineResourceLockScheduler.setAdmitting(!heapPressure);
+
+        int threadCount = threadPoolExecutor.getMaximumPoolSize();
+        Action action;
+
+        if (heapPressure || (gcLoad >= gcThreshold)) {
+            action = Action.SHRINK;
+        } else if (holdIntervals > 0) {
+            holdIntervals--;
+            action = Action.HOLD;
+        } else if ((lastAction == Action.GROW) && (throughput < lastThroughput)) {
+            // Growing didn't increase throughput, so undo it
+            holdIntervals = HOLD_INTERVALS;
+            action = Action.SHRINK;
+        } else if ((cpuLoad < CPU_LOAD_TARGET)
+                && (threadCount < maximumThreadCount)
+                && (testEngineResourceLockScheduler.getPendingCount() > 0)) {
+            action = Action.GROW;
+        } else {
+            action = Action.HOLD;
+        }
+
+        switch (action) {
+            case GROW: {
+                resize(threadCount + 1);
+                break;
+            }
+            case SHRINK: {
+                resize(threadCount - 1);
+                break;
+            }
+            default: {
+                // DO NOTHING
+                break;
+            }
+        }
+
+        LOGGER.trace(
+                "adaptive throughput [%.2f/s] cpu [%.2f] gc [%.2f] heap [%.2f] thread count [%d] action [%s]",
+                throughput,
+                cpuLoad,
+                gcLoad,
+                heapOccupancy,
+                threadPoolExecutor.getMaximumPoolSize(),
+                action);
+
+        lastAction = action;
+        lastThroughput = throughput;
+        lastCompletedCount = completedCount;
+        lastGcTimeMilliseconds = gcTimeMilliseconds;
+        lastNanoTime = nanoTime;
+    }
+
+    /**
+     * Method to resize the thread pool, between 1 and the maximum thread count
+     * <p>
+     * Shrinking doesn't interrupt executing test classes; excess threads exit once idle
+     *
+     * @param threadCount
+     */
+    private void resize(int threadCount) {
+        threadCount = Math.max(1, Math.min(maximumThreadCount, threadCount));
+
+        // The core size can't exceed the maximum size, and is synchronized with abandon replacing threads
+        synchronized (threadPoolExecutor) {
+            if (threadCount > threadPoolExecutor.getMaximumPoolSize()) {
+                threadPoolExecutor.setMaximumPoolSize(threadCount);
+                threadPoolExecutor.setCorePoolSize(threadCount);
+            } else if (threadCount < threadPoolExecutor.getMaximumPoolSize()) {
+                threadPoolExecutor.setCorePoolSize(threadCount);
+                threadPoolExecutor.setMaximumPoolSize(threadCount);
+            }
+        }
+
+        minimumObservedThreadCount = Math.min(minimumObservedThreadCount, threadCount);
+        maximumObservedThreadCount = Math.max(maximumObservedThreadCount, threadCount);
+
+        // Submit test classes for the additional threads
+        testEngineResourceLockScheduler.reschedule();
+    }
+
+    /**
+     * Method to get the number of tests completed
+     *
+     * @return
+     */
+    private long getCompletedCount() {
+        return testEngineExecutionResults.getTestsSucceededCount()
+                + testEngineExecutionResults.getTestsFailedCount()
+                + testEngineExecutionResults.getTestsAbortedCount();
+    }
+
+    /**
+     * Method to get the heap occupancy, after the last collection of the tenured pool if available
+     *
+     * @return the heap occupancy, between 0 and 1
+     */
+    private double getHeapOccupancy() {
+        MemoryUsage memoryUsage = null;
+
+        if (tenuredMemoryPoolMXBean != null) {
+            memoryUsage = tenuredMemoryPoolMXBean.getCollectionUsage();
+        }
+
+        if (memoryUsage == null) {
+            memoryUsage = memoryMXBean.getHeapMemoryUsage();
+        }
+
+        long maximum = memoryUsage.getMax() > 0 ? memoryUsage.getMax() : memoryUsage.getCommitted();
+        if (maximum <= 0) {
+            return 0;
+        }
+
+        return (double) memoryUsage.getUsed() / maximum;
+    }
+
+    /**
+     * Method to get the accumulated GC time of all garbage collectors, excluding concurrent collectors
+     *
+     * @return
+     */
+    private static long getGcTimeMilliseconds() {
+        long gcTimeMilliseconds = 0;
+
+        for (GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!GarbageCollectors.isConcurrent(garbageCollectorMXBean.getName())) {
+                gcTimeMilliseconds += Math.max(0, garbageCollectorMXBean.getCollectionTime());
+            }
+        }
+
+        return gcTimeMilliseconds;
+    }
+
+    /**
+     * Method to get the tenured (old generation) heap memory pool, or the largest heap memory pool
+     * that reports collection usage for single generation collectors (e.g. ZGC, Shenandoah)
+     *
+     * @return the MemoryPoolMXBean, or null if no heap memory pool reports collection usage
+     */
+    private static MemoryPoolMXBean getTenuredMemoryPoolMXBean() {
+        MemoryPoolMXBean largestMemoryPoolMXBean = null;
+
+        for (MemoryPoolMXBean memoryPoolMXBean : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ((memoryPoolMXBean.getType() != MemoryType.HEAP)
+                    || !memoryPoolMXBean.isValid()
+                    || (memoryPoolMXBean.getCollectionUsage() == null)) {
+                continue;
+            }
+
+            String name = memoryPoolMXBean.getName();
+            if (name.contains("Old") || name.contains("Tenured")) {
+                return memoryPoolMXBean;
+            }
+
+            if ((largestMemoryPoolMXBean == null)
+                    || (memoryPoolMXBean.getUsage().getMax() > largestMemoryPoolMXBean.getUsage().getMax())) {
+                largestMemoryPoolMXBean = memoryPoolMXBean;
+            }
+        }
+
+        return largestMemoryPoolMXBean;
+    }
+
+    /**
+     * Method to get the HotSpot OperatingSystemMXBean extension
+     *
+     * @return the com.sun.management.OperatingSystemMXBean, or null if not available
+     */
+    private static com.sun.management.OperatingSystemMXBean getSunOperatingSystemMXBean() {
+        try {
+            OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+            if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+                return (com.sun.management.OperatingSystemMXBean) operatingSystemMXBean;
+            }
+        } catch (Throwable t) {
+            // DO NOTHING
+        }
+
+        return null;
+    }
+}
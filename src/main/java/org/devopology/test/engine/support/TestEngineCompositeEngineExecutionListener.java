@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support;
+
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.ReportEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class to implement an EngineExecutionListener that notifies a List of EngineExecutionListeners
+ */
+public class TestEngineCompositeEngineExecutionListener implements EngineExecutionListener {
+
+    private final EngineExecutionListener[] engineExecutionListeners;
+
+    /**
+     * Constructor
+     *
+     * @param engineExecutionListeners
+     */
+    public TestEngineCompositeEngineExecutionListener(List<EngineExecutionListener> engineExecutionListeners) {
+        this.engineExecutionListeners = new ArrayList<>(engineExecutionListeners).toArray(new EngineExecutionListener[0]);
+    }
+
+    @Override
+    public void dynamicTestRegistered(TestDescriptor testDescriptor) {
+        for (EngineExecutionListener engineExecutionListener : engineExecutionListeners) {
+            engineExecutionListener.dynamicTestRegistered(testDescriptor);
+        }
+    }
+
+    @Override
+    public void executionSkipped(TestDescriptor testDescriptor, String reason) {
+        for (EngineExecutionListener engineExecutionListener : engineExecutionListeners) {
+            engineExecutionListener.executionSkipped(testDescriptor, reason);
+        }
+    }
+
+    @Override
+    public void executionStarted(TestDescriptor testDescriptor) {
+        for (EngineExecutionListener engineExecutionListener : engineExecutionListeners) {
+            engineExecutionListener.executionStarted(testDescriptor);
+        }
+    }
+
+    @Override
+    public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        for (EngineExecutionListener engineExecutionListener : engineExecutionListeners) {
+            engineExecutionListener.executionFinished(testDescriptor, testExecutionResult);
+        }
+    }
+
+    @Override
+    public void reportingEntryPublished(TestDescriptor testDescriptor, ReportEntry reportEntry) {
+        for (EngineExecutionListener engineExecutionListener : engineExecutionListeners) {
+            engineExecutionListener.reportingEntryPublished(testDescriptor, reportEntry);
+        }
+    }
+}
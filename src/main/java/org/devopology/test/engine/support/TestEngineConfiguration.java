@@ -34,4 +34,63 @@ public final class TestEngineConfiguration {
 
         return null;
     }
+
+    /**
+     * Method to get a configuration value as an int
+     *
+     * @param systemProperty
+     * @param environmentVariable
+     * @param defaultValue
+     * @return the value, or the default value if not configured
+     */
+    public static int getInteger(String systemProperty, String environmentVariable, int defaultValue) {
+        String value = getValue(systemProperty, environmentVariable);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new TestEngineException(String.format("Invalid %s value [%s]", systemProperty, value), e);
+        }
+    }
+
+    /**
+     * Method to get a configuration value as a long
+     *
+     * @param systemProperty
+     * @param environmentVariable
+     * @param defaultValue
+     * @return the value, or the default value if not configured
+     */
+    public static long getLong(String systemProperty, String environmentVariable, long defaultValue) {
+        String value = getValue(systemProperty, environmentVariable);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new TestEngineException(String.format("Invalid %s value [%s]", systemProperty, value), e);
+        }
+    }
+
+    /**
+     * Method to get a configuration value as a boolean
+     *
+     * @param systemProperty
+     * @param environmentVariable
+     * @param defaultValue
+     * @return the value, or the default value if not configured
+     */
+    public static boolean getBoolean(String systemProperty, String environmentVariable, boolean defaultValue) {
+        String value = getValue(systemProperty, environmentVariable);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        return Boolean.parseBoolean(value.trim());
+    }
 }
@@ -18,6 +18,10 @@ package org.devopology.test.engine.support;
 
 import org.devopology.test.engine.api.Parameter;
 import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.jfr.TestEngineClassDiscoveryEvent;
+import org.devopology.test.engine.support.jfr.TestEngineDiscoveryEvent;
+import org.devopology.test.engine.support.jfr.TestEngineEvents;
+import org.devopology.test.engine.support.jfr.TestEngineParameterSupplierEvent;
 import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
 import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
 import org.devopology.test.engine.support.logger.Logger;
@@ -35,6 +39,7 @@ import org.junit.platform.engine.discovery.MethodSelector;
 import org.junit.platform.engine.discovery.PackageSelector;
 import org.junit.platform.engine.support.descriptor.EngineDescriptor;
 
+import java.io.File;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.URI;
@@ -42,10 +47,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
-import java.util.UUID;
+import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -64,6 +71,7 @@ public class TestEngineDiscoverySelectorResolver {
     private final TestMethodPredicate excludeTestMethodPredicate;
     private final TestClassTagPredicate includeTestClassTagPredicate;
     private final TestClassTagPredicate excludeTestClassTagPredicate;
+    private final TestEngineSharding testEngineSharding;
 
     /**
      * Predicate to determine if a class is a test class (not abstract, has @TestEngine.Test methods)
@@ -149,6 +157,33 @@ public class TestEngineDiscoverySelectorResolver {
         } else {
             excludeTestClassTagPredicate = null;
         }
+
+        int shardCount =
+                TestEngineConfiguration.getInteger(
+                        "devopology.test.engine.shard.count",
+                        "DEVOPOLOGY_TEST_ENGINE_SHARD_COUNT",
+                        1);
+
+        if (shardCount > 1) {
+            int shardIndex =
+                    TestEngineConfiguration.getInteger(
+                            "devopology.test.engine.shard.index",
+                            "DEVOPOLOGY_TEST_ENGINE_SHARD_INDEX",
+                            0);
+
+            String shardTimingFilename =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.shard.timing.file",
+                            "DEVOPOLOGY_TEST_ENGINE_SHARD_TIMING_FILE");
+
+            testEngineSharding =
+                    new TestEngineSharding(
+                            shardIndex,
+                            shardCount,
+                            shardTimingFilename != null ? new File(shardTimingFilename) : null);
+        } else {
+            testEngineSharding = null;
+        }
     }
 
     /**
@@ -160,6 +195,12 @@ public class TestEngineDiscoverySelectorResolver {
     public void resolveSelectors(EngineDiscoveryRequest engineDiscoveryRequest, EngineDescriptor engineDescriptor) {
         LOGGER.trace("resolveSelectors()");
 
+        TestEngineDiscoveryEvent testEngineDiscoveryEvent = null;
+        if (TestEngineEvents.AVAILABLE && TestEngineDiscoveryEvent.isTypeEnabled()) {
+            testEngineDiscoveryEvent = new TestEngineDiscoveryEvent();
+            testEngineDiscoveryEvent.begin();
+        }
+
         // Test class to test method list mapping, sorted by test class name
         Map<Class<?>, Collection<Method>> testClassToMethodMap = new TreeMap<>(Comparator.comparing(Class::getName));
 
@@ -239,7 +280,163 @@ public class TestEngineDiscoverySelectorResolver {
             }
         }
 
+        selectShard(testClassToMethodMap);
+
         processSelectors(engineDescriptor, testClassToMethodMap);
+
+        if (testEngineDiscoveryEvent != null) {
+            testEngineDiscoveryEvent.commit(engineDescriptor.getUniqueId().toString(), engineDescriptor.getChildren().size());
+        }
+    }
+
+    /**
+     * Method to resolve test classes / methods from a test plan, adding them to the EngineDescriptor
+     * <p>
+     * Test parameters in the test plan are used, rather than invoking the @TestEngine.ParameterSupplier method.
+     * Filters were applied when the test plan was written, so only sharding is applied
+     *
+     * @param testEnginePlan
+     * @param engineDescriptor
+     */
+    public void resolvePlan(TestEnginePlan testEnginePlan, EngineDescriptor engineDescriptor) {
+        LOGGER.trace("resolvePlan()");
+
+        Map<Class<?>, Collection<Method>> testClassToMethodMap = new LinkedHashMap<>();
+        Map<Class<?>, TestEnginePlan.Entry> testClassToEntryMap = new HashMap<>();
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        for (TestEnginePlan.Entry entry : testEnginePlan.getEntries()) {
+            Class<?> testClass;
+            try {
+                testClass = Class.forName(entry.getClassName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new TestEngineException(
+                        String.format("Test plan test class [%s] not found", entry.getClassName()), e);
+            }
+
+            // Test methods in the test plan, in execution order
+            Collection<Method> methods = new ArrayList<>(TestEngineUtils.getTestMethods(testClass));
+            methods.removeIf(method -> !entry.getMethodNames().contains(method.getName()));
+
+            if (methods.size() != entry.getMethodNames().size()) {
+                LOGGER.warning("Test plan test class [%s] test methods have changed", entry.getClassName());
+            }
+
+            testClassToMethodMap.put(testClass, methods);
+            testClassToEntryMap.put(testClass, entry);
+        }
+
+        selectShard(testClassToMethodMap);
+
+        try {
+            for (Map.Entry<Class<?>, Collection<Method>> mapEntry : testClassToMethodMap.entrySet()) {
+                Class<?> testClass = mapEntry.getKey();
+
+                List<Parameter> testParameters = testClassToEntryMap.get(testClass).getTestParameters();
+                if (testParameters == null) {
+                    testParameters = getTestParameters(testClass);
+                }
+
+                validateParameterSetter(testClass);
+
+                addTestClassTestDescriptor(engineDescriptor, testClass, mapEntry.getValue(), testParameters);
+            }
+        } catch (Throwable t) {
+            throw new TestEngineException("Exception in TestEngine", t);
+        }
+    }
+
+    /**
+     * Method to resolve the failed test classes / parameters / methods of a rerun file,
+     * adding them to the EngineDescriptor
+     * <p>
+     * Only the @TestEngine.ParameterSupplier Stream elements up to the highest failed
+     * test parameter index are consumed. Filters and sharding aren't applied
+     *
+     * @param testEngineRerunFile
+     * @param engineDescriptor
+     */
+    public void resolveRerunFile(TestEngineRerunFile testEngineRerunFile, EngineDescriptor engineDescriptor) {
+        LOGGER.trace("resolveRerunFile()");
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        try {
+            for (String className : testEngineRerunFile.getClassNames()) {
+                Class<?> testClass;
+                try {
+                    testClass = Class.forName(className, false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    LOGGER.warning("Rerun test class [%s] not found", className);
+                    continue;
+                }
+
+                if (!IS_TEST_CLASS.test(testClass)
+                        || TestEngineUtils.isBaseClass(testClass)
+                        || TestEngineUtils.isDisabled(testClass)) {
+                    LOGGER.warning("Rerun test class [%s] isn't an executable test class", className);
+                    continue;
+                }
+
+                int maximumTestParameterIndex = testEngineRerunFile.getMaximumTestParameterIndex(className);
+
+                List<Parameter> testParameters =
+                        getTestParameters(
+                                testClass,
+                                maximumTestParameterIndex < 0 ? Long.MAX_VALUE : maximumTestParameterIndex + 1L);
+
+                // Warn if the @TestEngine.ParameterSupplier Stream has changed since the failures were recorded
+                for (int testParameterIndex = 0; testParameterIndex < testParameters.size(); testParameterIndex++) {
+                    String testParameterName = testEngineRerunFile.getTestParameterName(className, testParameterIndex);
+                    if ((testParameterName != null) && !testParameterName.equals(testParameters.get(testParameterIndex).name())) {
+                        LOGGER.warning(
+                                "Rerun test class [%s] test parameter [%d] was [%s], is now [%s]",
+                                className,
+                                testParameterIndex,
+                                testParameterName,
+                                testParameters.get(testParameterIndex).name());
+                    }
+                }
+
+                validateParameterSetter(testClass);
+
+                // A whole test class is selected without a selection predicate, so isn't partial
+                addTestClassTestDescriptor(
+                        engineDescriptor,
+                        testClass,
+                        TestEngineUtils.getTestMethods(testClass),
+                        testParameters,
+                        maximumTestParameterIndex < 0
+                                ? null
+                                : (testParameterIndex, testMethod) ->
+                                        testEngineRerunFile.isSelected(className, testParameterIndex, testMethod.getName()));
+            }
+        } catch (Throwable t) {
+            throw new TestEngineException("Exception in TestEngine", t);
+        }
+    }
+
+    /**
+     * Method to remove the test classes not in the shard, if sharding is configured
+     *
+     * @param testClassToMethodMap
+     */
+    private void selectShard(Map<Class<?>, Collection<Method>> testClassToMethodMap) {
+        if (testEngineSharding == null) {
+            return;
+        }
+
+        // Base classes and disabled test classes are never executed, so aren't assigned to a shard
+        List<Class<?>> testClasses = new ArrayList<>();
+        for (Class<?> clazz : testClassToMethodMap.keySet()) {
+            if (!TestEngineUtils.isBaseClass(clazz) && !TestEngineUtils.isDisabled(clazz)) {
+                testClasses.add(clazz);
+            }
+        }
+
+        Set<Class<?>> shardTestClasses = testEngineSharding.select(testClasses);
+        testClassToMethodMap.keySet().removeIf(clazz -> !shardTestClasses.contains(clazz));
     }
 
     private void resolveClasspathRoot(EngineDiscoveryRequest engineDiscoveryRequest, Map<Class<?>, Collection<Method>> testClassToMethodMap) {
@@ -252,8 +449,18 @@ public class TestEngineDiscoverySelectorResolver {
             URI uri = ((ClasspathRootSelector) discoverySelector).getClasspathRoot();
             LOGGER.trace("uri [%s]", uri);
 
+            TestEngineDiscoveryEvent testEngineDiscoveryEvent = null;
+            if (TestEngineEvents.AVAILABLE && TestEngineDiscoveryEvent.isTypeEnabled()) {
+                testEngineDiscoveryEvent = new TestEngineDiscoveryEvent();
+                testEngineDiscoveryEvent.begin();
+            }
+
             List<Class<?>> classList = ReflectionSupport.findAllClassesInClasspathRoot(uri, IS_TEST_CLASS, name -> true);
 
+            if (testEngineDiscoveryEvent != null) {
+                testEngineDiscoveryEvent.commit(uri.toString(), classList.size());
+            }
+
             for (Class<?> clazz : classList) {
                 LOGGER.trace("  class [%s]", clazz.getName());
                 testClassToMethodMap.putIfAbsent(clazz, TestEngineUtils.getTestMethods(clazz));
@@ -269,8 +476,19 @@ public class TestEngineDiscoverySelectorResolver {
 
         for (DiscoverySelector discoverySelector : discoverySelectorList) {
             String packageName = ((PackageSelector) discoverySelector).getPackageName();
+
+            TestEngineDiscoveryEvent testEngineDiscoveryEvent = null;
+            if (TestEngineEvents.AVAILABLE && TestEngineDiscoveryEvent.isTypeEnabled()) {
+                testEngineDiscoveryEvent = new TestEngineDiscoveryEvent();
+                testEngineDiscoveryEvent.begin();
+            }
+
             List<Class<?>> classList = ReflectionSupport.findAllClassesInPackage(packageName, IS_TEST_CLASS, name -> true);
 
+            if (testEngineDiscoveryEvent != null) {
+                testEngineDiscoveryEvent.commit(packageName, classList.size());
+            }
+
             for (Class<?> clazz : classList) {
                 LOGGER.trace("  test class [%s]", clazz.getName());
                 testClassToMethodMap.putIfAbsent(clazz, TestEngineUtils.getTestMethods(clazz));
@@ -319,7 +537,6 @@ public class TestEngineDiscoverySelectorResolver {
             EngineDescriptor engineDescriptor,
             Map<Class<?>, Collection<Method>> testClassToMethodMap) {
         LOGGER.trace("processSelectors()");
-        UniqueId uniqueId = engineDescriptor.getUniqueId();
 
         try {
             for (Class<?> testClass : testClassToMethodMap.keySet()) {
@@ -337,136 +554,254 @@ public class TestEngineDiscoverySelectorResolver {
 
                 LOGGER.trace("processing test class [%s]", testClass.getName());
 
-                // Get the parameter supplier methods
-                Collection<Method> parameterSupplierMethods = TestEngineUtils.getParameterSupplierMethods(testClass);
-                LOGGER.trace("test class [%s] parameter supplier method count [%d]", testClass.getName(), parameterSupplierMethods.size());
-
-                // Validate parameter supplier method count
-                if (parameterSupplierMethods.isEmpty()) {
-                    throw new TestClassConfigurationException(
-                            String.format(
-                                    "Test class [%s] must declare a @TestEngine.ParameterSupplier method",
-                                    testClass.getName()));
+                TestEngineClassDiscoveryEvent testEngineClassDiscoveryEvent = null;
+                if (TestEngineEvents.AVAILABLE && TestEngineClassDiscoveryEvent.isTypeEnabled()) {
+                    testEngineClassDiscoveryEvent = new TestEngineClassDiscoveryEvent();
+                    testEngineClassDiscoveryEvent.begin();
                 }
 
-                // Validate parameter supplier method count
-                if (parameterSupplierMethods.size() > 1) {
-                    throw new TestClassConfigurationException(
-                            String.format(
-                                    "Test class [%s] declares more than one @TestEngine.ParameterSupplier method",
-                                    testClass.getName()));
-                }
+                List<Parameter> testParameters = getTestParameters(testClass);
 
-                // Get parameters from the parameter supplier method
-                Collection<Parameter> testParameters;
+                validateParameterSetter(testClass);
 
-                try {
-                    Stream<Parameter> testParameterStream =
-                            (Stream<Parameter>) parameterSupplierMethods
-                                    .stream()
-                                    .findFirst()
-                                    .get()
-                                    .invoke(null, (Object[]) null);
-
-                    if (testParameterStream == null) {
-                        throw new TestClassConfigurationException(
-                                String.format(
-                                        "Test class [%s] @TestEngine.ParameterSupplier Stream is null",
-                                        testClass.getName()));
-                    }
+                int testCount =
+                        addTestClassTestDescriptor(
+                                engineDescriptor,
+                                testClass,
+                                testClassToMethodMap.get(testClass),
+                                testParameters);
 
-                    testParameters = testParameterStream.collect(Collectors.toList());
-                } catch (ClassCastException e) {
-                    throw new TestClassConfigurationException(
-                            String.format(
-                                    "Test class [%s] @TestEngine.ParameterSupplier method must return a Stream<Parameter>",
-                                    testClass.getName()),
-                            e);
+                if (testEngineClassDiscoveryEvent != null) {
+                    testEngineClassDiscoveryEvent.commit(testClass.getName(), testCount);
                 }
+            }
+        } catch (Throwable t) {
+            throw new TestEngineException("Exception in TestEngine", t);
+        }
+    }
+
+    /**
+     * Method to get the test parameters of a test class from its @TestEngine.ParameterSupplier method
+     *
+     * @param testClass
+     * @return
+     * @throws Throwable
+     */
+    private static List<Parameter> getTestParameters(Class<?> testClass) throws Throwable {
+        return getTestParameters(testClass, Long.MAX_VALUE);
+    }
 
-                LOGGER.trace("test class parameter count [%d]", testParameters.size());
+    /**
+     * Method to get the first test parameters of a test class from its @TestEngine.ParameterSupplier method
+     * <p>
+     * The Stream is only consumed up to the maximum count, so later test parameters aren't created
+     *
+     * @param testClass
+     * @param maximumCount
+     * @return
+     * @throws Throwable
+     */
+    private static List<Parameter> getTestParameters(Class<?> testClass, long maximumCount) throws Throwable {
+        // Get the parameter supplier methods
+        Collection<Method> parameterSupplierMethods = TestEngineUtils.getParameterSupplierMethods(testClass);
+        LOGGER.trace("test class [%s] parameter supplier method count [%d]", testClass.getName(), parameterSupplierMethods.size());
+
+        // Validate parameter supplier method count
+        if (parameterSupplierMethods.isEmpty()) {
+            throw new TestClassConfigurationException(
+                    String.format(
+                            "Test class [%s] must declare a @TestEngine.ParameterSupplier method",
+                            testClass.getName()));
+        }
 
-                // Validate we have
-                if (testParameters.isEmpty()) {
-                    throw new TestClassConfigurationException(
-                            String.format(
-                                    "Test class [%s] @TestEngine.ParameterSupplier Stream is empty",
-                                    testClass.getName()));
-                }
+        // Validate parameter supplier method count
+        if (parameterSupplierMethods.size() > 1) {
+            throw new TestClassConfigurationException(
+                    String.format(
+                            "Test class [%s] declares more than one @TestEngine.ParameterSupplier method",
+                            testClass.getName()));
+        }
 
-                Collection<Method> parameterSetterMethods = TestEngineUtils.getParameterSetterMethods(testClass);
-                LOGGER.trace("test class [%s] parameter setter method count [%d]", testClass.getName(), parameterSetterMethods.size());
+        // Get parameters from the parameter supplier method
+        List<Parameter> testParameters;
 
-                if (parameterSetterMethods.isEmpty()) {
-                    throw new TestClassConfigurationException(
-                            String.format(
-                                    "Test class [%s] must declare a @TestEngine.ParameterSetter method",
-                                    testClass.getName()));
-                }
+        TestEngineParameterSupplierEvent testEngineParameterSupplierEvent = null;
+        if (TestEngineEvents.AVAILABLE && TestEngineParameterSupplierEvent.isTypeEnabled()) {
+            testEngineParameterSupplierEvent = new TestEngineParameterSupplierEvent();
+            testEngineParameterSupplierEvent.begin();
+        }
 
-                if (parameterSetterMethods.size() > 1) {
-                    throw new TestClassConfigurationException(
-                            String.format(
-                                    "Test class [%s] declares more than one @TestEngine.ParameterSetter method",
-                                    testClass.getName()));
-                }
+        try {
+            Stream<Parameter> testParameterStream =
+                    (Stream<Parameter>) parameterSupplierMethods
+                            .stream()
+                            .findFirst()
+                            .get()
+                            .invoke(null, (Object[]) null);
+
+            if (testParameterStream == null) {
+                throw new TestClassConfigurationException(
+                        String.format(
+                                "Test class [%s] @TestEngine.ParameterSupplier Stream is null",
+                                testClass.getName()));
+            }
 
-                // Build the test descriptor tree if we have test parameters
-                // i.e. Tests with an empty set of parameters will be ignored
-
-                TestEngineClassTestDescriptor testClassTestDescriptor =
-                        new TestEngineClassTestDescriptor(
-                                uniqueId.append("/", testClass.getName()),
-                                testClass.getName(),
-                                testClass);
-
-                List<Parameter> testParameterList = new ArrayList<>(testParameters);
-                for (Parameter testParameter : testParameterList) {
-                    // Build the test descriptor for each test class / test parameter
-                    String testParameterName = testParameter.name();
-                    String testParameterUniqueName = testParameter + "/" + UUID.randomUUID();
-
-                    TestEngineParameterTestDescriptor testEngineParameterTestDescriptor =
-                            new TestEngineParameterTestDescriptor(
-                                    uniqueId.append("/", testClass.getName() + "/" + testParameterUniqueName),
-                                    testParameterName,
-                                    testClass,
-                                    testParameter);
-
-                    for (Method testMethod : testClassToMethodMap.get(testClass)) {
-                        if (TestEngineUtils.isDisabled(testMethod)) {
-                            LOGGER.trace(
-                                    "test class [%s] test method [%s] is disabled",
-                                    testClass.getName(),
-                                    testMethod.getName());
-                            continue;
-                        }
-
-                        // Build the test descriptor for each test class / test parameter / test method
-                        String testMethodUniqueName = testParameterName + "/" + UUID.randomUUID();
-
-                        TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor =
-                                new TestEngineTestMethodTestDescriptor(
-                                        uniqueId.append("/", testClass.getName() + "/" + testParameterUniqueName + "/" + testMethodUniqueName),
-                                        testMethod.getName(),
-                                        testClass,
-                                        testParameter,
-                                        testMethod);
-
-                        testEngineParameterTestDescriptor.addChild(testEngineTestMethodTestDescriptor);
-                    }
+            testParameters = testParameterStream.limit(maximumCount).collect(Collectors.toList());
+        } catch (ClassCastException e) {
+            throw new TestClassConfigurationException(
+                    String.format(
+                            "Test class [%s] @TestEngine.ParameterSupplier method must return a Stream<Parameter>",
+                            testClass.getName()),
+                    e);
+        }
 
-                    if (testEngineParameterTestDescriptor.getChildren().size() > 0) {
-                        testClassTestDescriptor.addChild(testEngineParameterTestDescriptor);
-                    }
+        if (testEngineParameterSupplierEvent != null) {
+            testEngineParameterSupplierEvent.commit(testClass.getName(), testParameters.size());
+        }
+
+        LOGGER.trace("test class parameter count [%d]", testParameters.size());
+
+        // Validate we have
+        if (testParameters.isEmpty()) {
+            throw new TestClassConfigurationException(
+                    String.format(
+                            "Test class [%s] @TestEngine.ParameterSupplier Stream is empty",
+                            testClass.getName()));
+        }
+
+        return testParameters;
+    }
+
+    /**
+     * Method to validate the @TestEngine.ParameterSetter method of a test class
+     *
+     * @param testClass
+     */
+    private static void validateParameterSetter(Class<?> testClass) {
+        Collection<Method> parameterSetterMethods = TestEngineUtils.getParameterSetterMethods(testClass);
+        LOGGER.trace("test class [%s] parameter setter method count [%d]", testClass.getName(), parameterSetterMethods.size());
+
+        if (parameterSetterMethods.isEmpty()) {
+            throw new TestClassConfigurationException(
+                    String.format(
+                            "Test class [%s] must declare a @TestEngine.ParameterSetter method",
+                            testClass.getName()));
+        }
+
+        if (parameterSetterMethods.size() > 1) {
+            throw new TestClassConfigurationException(
+                    String.format(
+                            "Test class [%s] declares more than one @TestEngine.ParameterSetter method",
+                            testClass.getName()));
+        }
+    }
+
+    /**
+     * Method to build the test descriptor tree of a test class, adding it to the EngineDescriptor
+     * <p>
+     * Unique ids are derived from the test class name, test parameter index, and test method name,
+     * so are stable between discoveries
+     *
+     * @param engineDescriptor
+     * @param testClass
+     * @param testMethods
+     * @param testParameters
+     * @return the number of tests added
+     */
+    private static int addTestClassTestDescriptor(
+            EngineDescriptor engineDescriptor,
+            Class<?> testClass,
+            Collection<Method> testMethods,
+            List<Parameter> testParameters) {
+        return addTestClassTestDescriptor(engineDescriptor, testClass, testMethods, testParameters, null);
+    }
+
+    /**
+     * Method to build the test descriptor tree of a test class, adding it to the EngineDescriptor,
+     * only including the test parameter index / test method combinations that are selected
+     * <p>
+     * The test class is partial if a selection predicate is used, or some of its test methods
+     * aren't included (e.g. a test method filter)
+     *
+     * @param engineDescriptor
+     * @param testClass
+     * @param testMethods
+     * @param testParameters
+     * @param selectionPredicate the test parameter index / test method predicate, or null to select all
+     * @return the number of tests added
+     */
+    private static int addTestClassTestDescriptor(
+            EngineDescriptor engineDescriptor,
+            Class<?> testClass,
+            Collection<Method> testMethods,
+            List<Parameter> testParameters,
+            BiPredicate<Integer, Method> selectionPredicate) {
+        UniqueId uniqueId = engineDescriptor.getUniqueId();
+
+        // Build the test descriptor tree if we have test parameters
+        // i.e. Tests with an empty set of parameters will be ignored
+
+        TestEngineClassTestDescriptor testClassTestDescriptor =
+                new TestEngineClassTestDescriptor(
+                        uniqueId.append("/", testClass.getName()),
+                        testClass.getName(),
+                        testClass);
+
+        testClassTestDescriptor.setPartial(
+                (selectionPredicate != null) || !testMethods.containsAll(TestEngineUtils.getTestMethods(testClass)));
+
+        int testCount = 0;
+
+        for (int testParameterIndex = 0; testParameterIndex < testParameters.size(); testParameterIndex++) {
+            Parameter testParameter = testParameters.get(testParameterIndex);
+
+            // Build the test descriptor for each test class / test parameter
+            String testParameterName = testParameter.name();
+            String testParameterUniqueName = testClass.getName() + "/" + testParameterIndex;
+
+            TestEngineParameterTestDescriptor testEngineParameterTestDescriptor =
+                    new TestEngineParameterTestDescriptor(
+                            uniqueId.append("/", testParameterUniqueName),
+                            testParameterName,
+                            testClass,
+                            testParameter,
+                            testParameterIndex);
+
+            for (Method testMethod : testMethods) {
+                if (TestEngineUtils.isDisabled(testMethod)) {
+                    LOGGER.trace(
+                            "test class [%s] test method [%s] is disabled",
+                            testClass.getName(),
+                            testMethod.getName());
+                    continue;
                 }
 
-                if (testClassTestDescriptor.getChildren().size() > 0) {
-                    engineDescriptor.addChild(testClassTestDescriptor);
+                if ((selectionPredicate != null) && !selectionPredicate.test(testParameterIndex, testMethod)) {
+                    continue;
                 }
+
+                // Build the test descriptor for each test class / test parameter / test method
+                TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor =
+                        new TestEngineTestMethodTestDescriptor(
+                                uniqueId.append("/", testParameterUniqueName + "/" + testMethod.getName()),
+                                testMethod.getName(),
+                                testClass,
+                                testParameter,
+                                testMethod);
+
+                testEngineParameterTestDescriptor.addChild(testEngineTestMethodTestDescriptor);
+                testCount++;
             }
-        } catch (Throwable t) {
-            throw new TestEngineException("Exception in TestEngine", t);
+
+            if (testEngineParameterTestDescriptor.getChildren().size() > 0) {
+                testClassTestDescriptor.addChild(testEngineParameterTestDescriptor);
+            }
+        }
+
+        if (testClassTestDescriptor.getChildren().size() > 0) {
+            engineDescriptor.addChild(testClassTestDescriptor);
         }
+
+        return testCount;
     }
 }
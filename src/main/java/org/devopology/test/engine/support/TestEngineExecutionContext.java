@@ -16,29 +16,85 @@
 
 package org.devopology.test.engine.support;
 
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.jfr.TestEngineEvents;
+import org.devopology.test.engine.support.jfr.TestEnginePhaseEvent;
+import org.devopology.test.engine.support.util.ThreadResources;
 import org.junit.platform.engine.EngineExecutionListener;
-import org.junit.platform.engine.TestExecutionResult;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Class to implement a execution context
  */
 public class TestEngineExecutionContext {
 
+    private final TestEngineExecutionContext parent;
     private final EngineExecutionListener engineExecutionListener;
-    private final List<TestExecutionResult> testExecutionResultList;
+    private final TestEngineExecutionResults testEngineExecutionResults;
+    private final AtomicBoolean completed;
+    private final Set<Thread> threads;
+    private CountDownLatch countDownLatch;
+    private ThreadPoolExecutor threadPoolExecutor;
+    private volatile boolean abandoned;
+    private volatile boolean cancelled;
+    private Set<Throwable> failureThrowables;
     private Object testInstance;
+    private TestEngineTimeoutScheduler.ScheduledTimeout classScheduledTimeout;
+    private TestEngineTimeoutScheduler.ScheduledTimeout parameterScheduledTimeout;
+    private TestEnginePhaseTimings testEnginePhaseTimings;
+    private TestEnginePhase testEnginePhase;
+    private TestEngineAbstractTestDescriptor phaseTestDescriptor;
+    private TestEnginePhaseEvent testEnginePhaseEvent;
+    private long phaseStartNanoTime;
+    private boolean threadResourceAccounting;
+    private long phaseStartCpuNanoTime;
+    private long phaseStartAllocatedBytes;
 
     /**
      * Constructor
      *
      * @param engineExecutionListener
-     * @param testExecutionResultList
+     * @param testEngineExecutionResults
      */
-    public TestEngineExecutionContext(EngineExecutionListener engineExecutionListener, List<TestExecutionResult> testExecutionResultList) {
+    public TestEngineExecutionContext(EngineExecutionListener engineExecutionListener, TestEngineExecutionResults testEngineExecutionResults) {
+        this.parent = null;
         this.engineExecutionListener = engineExecutionListener;
-        this.testExecutionResultList = testExecutionResultList;
+        this.testEngineExecutionResults = testEngineExecutionResults;
+        this.completed = new AtomicBoolean();
+        this.threads = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Constructor for a child context, used to execute test methods of a test parameter
+     * in parallel, sharing the test instance, timeouts, and state of the parent
+     *
+     * @param parent
+     */
+    public TestEngineExecutionContext(TestEngineExecutionContext parent) {
+        this.parent = parent;
+        this.engineExecutionListener = parent.engineExecutionListener;
+        this.testEngineExecutionResults = parent.testEngineExecutionResults;
+        this.completed = new AtomicBoolean();
+        this.threads = null;
+        this.testInstance = parent.testInstance;
+        this.testEnginePhaseTimings = parent.testEnginePhaseTimings;
+        this.threadResourceAccounting = parent.threadResourceAccounting;
+    }
+
+    /**
+     * Method to get the root context of the test class
+     *
+     * @return the root context, which is this context if it isn't a child context
+     */
+    public TestEngineExecutionContext getRoot() {
+        return parent != null ? parent.getRoot() : this;
     }
 
     /**
@@ -51,12 +107,12 @@ public class TestEngineExecutionContext {
     }
 
     /**
-     * Method to get the ThrowableCollector
+     * Method to get the TestEngineExecutionResults
      *
      * @return
      */
-    public List<TestExecutionResult> getTestExecutionResultList() {
-        return testExecutionResultList;
+    public TestEngineExecutionResults getTestEngineExecutionResults() {
+        return testEngineExecutionResults;
     }
 
     /**
@@ -76,4 +132,267 @@ public class TestEngineExecutionContext {
     public Object getTestInstance() {
         return testInstance;
     }
+
+    /**
+     * Method to set the ScheduledTimeout of the test class
+     *
+     * @param classScheduledTimeout may be null
+     */
+    public void setClassScheduledTimeout(TestEngineTimeoutScheduler.ScheduledTimeout classScheduledTimeout) {
+        this.classScheduledTimeout = classScheduledTimeout;
+    }
+
+    /**
+     * Method to set the ScheduledTimeout of the test parameter
+     *
+     * @param parameterScheduledTimeout may be null
+     */
+    public void setParameterScheduledTimeout(TestEngineTimeoutScheduler.ScheduledTimeout parameterScheduledTimeout) {
+        this.parameterScheduledTimeout = parameterScheduledTimeout;
+    }
+
+    /**
+     * Method to return whether the test class, or test parameter, has timed out
+     *
+     * @return
+     */
+    public boolean isTimedOut() {
+        return TestEngineTimeoutScheduler.isExpired(classScheduledTimeout)
+                || TestEngineTimeoutScheduler.isExpired(parameterScheduledTimeout)
+                || ((parent != null) && parent.isTimedOut());
+    }
+
+    /**
+     * Method to add a thread executing test methods of the test class in parallel, which is
+     * interrupted when the test class or test parameter times out, or the test class is abandoned
+     *
+     * @param thread
+     */
+    public void addThread(Thread thread) {
+        TestEngineExecutionContext root = getRoot();
+        root.threads.add(thread);
+
+        if (root.classScheduledTimeout != null) {
+            root.classScheduledTimeout.addThread(thread);
+        }
+
+        if (root.parameterScheduledTimeout != null) {
+            root.parameterScheduledTimeout.addThread(thread);
+        }
+    }
+
+    /**
+     * Method to remove a thread added to the test class
+     *
+     * @param thread
+     */
+    public void removeThread(Thread thread) {
+        TestEngineExecutionContext root = getRoot();
+
+        if (root.classScheduledTimeout != null) {
+            root.classScheduledTimeout.removeThread(thread);
+        }
+
+        if (root.parameterScheduledTimeout != null) {
+            root.parameterScheduledTimeout.removeThread(thread);
+        }
+
+        root.threads.remove(thread);
+    }
+
+    /**
+     * Method to interrupt the threads added to the test class
+     *
+     * @return the number of threads interrupted
+     */
+    public int interruptThreads() {
+        int count = 0;
+
+        for (Thread thread : getRoot().threads) {
+            thread.interrupt();
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Method to set the CountDownLatch counted down when the test class completes
+     *
+     * @param countDownLatch
+     */
+    public void setCountDownLatch(CountDownLatch countDownLatch) {
+        this.countDownLatch = countDownLatch;
+    }
+
+    /**
+     * Method to get the CountDownLatch counted down when the test class completes
+     *
+     * @return the CountDownLatch, or null if not set
+     */
+    public CountDownLatch getCountDownLatch() {
+        return countDownLatch;
+    }
+
+    /**
+     * Method to set the thread pool executing the test class
+     *
+     * @param threadPoolExecutor
+     */
+    public void setThreadPoolExecutor(ThreadPoolExecutor threadPoolExecutor) {
+        this.threadPoolExecutor = threadPoolExecutor;
+    }
+
+    /**
+     * Method to get the thread pool executing the test class
+     *
+     * @return the thread pool, or null if not executed in a thread pool
+     */
+    public ThreadPoolExecutor getThreadPoolExecutor() {
+        return threadPoolExecutor;
+    }
+
+    /**
+     * Method to mark the test class as completed, either by finishing or being abandoned
+     *
+     * @return true if this call completed the test class, false if it was already completed
+     */
+    public boolean complete() {
+        return completed.compareAndSet(false, true);
+    }
+
+    /**
+     * Method to mark the test class as abandoned, after which no further results are reported for it
+     */
+    public void abandon() {
+        abandoned = true;
+    }
+
+    /**
+     * Method to return whether the test class was abandoned
+     *
+     * @return
+     */
+    public boolean isAbandoned() {
+        return abandoned || ((parent != null) && parent.isAbandoned());
+    }
+
+    /**
+     * Method to mark the test class as cancelled, after which failures are reported as aborted
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Method to return whether the test class was cancelled
+     *
+     * @return
+     */
+    public boolean isCancelled() {
+        return cancelled || ((parent != null) && parent.isCancelled());
+    }
+
+    /**
+     * Method to add the Throwable of a failure, which is propagated to
+     * the parent TestDescriptors as the same instance
+     *
+     * @param throwable
+     * @return true if the Throwable wasn't previously added, else false
+     */
+    public boolean addFailureThrowable(Throwable throwable) {
+        if (parent != null) {
+            return parent.addFailureThrowable(throwable);
+        }
+
+        synchronized (this) {
+            if (failureThrowables == null) {
+                failureThrowables = Collections.newSetFromMap(new IdentityHashMap<>());
+            }
+
+            return failureThrowables.add(throwable);
+        }
+    }
+
+    /**
+     * Method to set the TestEnginePhaseTimings that phase times are added to
+     *
+     * @param testEnginePhaseTimings
+     */
+    public void setTestEnginePhaseTimings(TestEnginePhaseTimings testEnginePhaseTimings) {
+        this.testEnginePhaseTimings = testEnginePhaseTimings;
+    }
+
+    /**
+     * Method to enable measuring CPU time and allocated bytes of each TestEnginePhase
+     *
+     * @param threadResourceAccounting
+     */
+    public void setThreadResourceAccounting(boolean threadResourceAccounting) {
+        this.threadResourceAccounting = threadResourceAccounting;
+    }
+
+    /**
+     * Method to mark the start of a TestEnginePhase, finishing the current TestEnginePhase
+     *
+     * @param testEnginePhase
+     * @param testEngineAbstractTestDescriptor the TestDescriptor being executed
+     */
+    public void phaseStarted(TestEnginePhase testEnginePhase, TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor) {
+        long nanoTime = System.nanoTime();
+
+        if (this.testEnginePhase != null) {
+            phaseFinished(nanoTime);
+        }
+
+        this.testEnginePhase = testEnginePhase;
+        this.phaseTestDescriptor = testEngineAbstractTestDescriptor;
+        this.phaseStartNanoTime = nanoTime;
+
+        if (threadResourceAccounting) {
+            phaseStartCpuNanoTime = ThreadResources.getCpuNanoTime();
+            phaseStartAllocatedBytes = ThreadResources.getAllocatedBytes();
+        }
+
+        if (TestEngineEvents.AVAILABLE && TestEnginePhaseEvent.isTypeEnabled()) {
+            testEnginePhaseEvent = new TestEnginePhaseEvent();
+            testEnginePhaseEvent.begin();
+        }
+    }
+
+    /**
+     * Method to mark the end of the current TestEnginePhase, if there is one
+     */
+    public void phaseFinished() {
+        if (testEnginePhase != null) {
+            phaseFinished(System.nanoTime());
+        }
+    }
+
+    /**
+     * Method to finish the current TestEnginePhase
+     *
+     * @param nanoTime
+     */
+    private void phaseFinished(long nanoTime) {
+        if (testEnginePhaseTimings != null) {
+            if (threadResourceAccounting) {
+                testEnginePhaseTimings.add(
+                        testEnginePhase,
+                        nanoTime - phaseStartNanoTime,
+                        ThreadResources.getCpuNanoTime() - phaseStartCpuNanoTime,
+                        ThreadResources.getAllocatedBytes() - phaseStartAllocatedBytes);
+            } else {
+                testEnginePhaseTimings.add(testEnginePhase, nanoTime - phaseStartNanoTime);
+            }
+        }
+
+        if (testEnginePhaseEvent != null) {
+            testEnginePhaseEvent.commit(testEnginePhase, phaseTestDescriptor);
+            testEnginePhaseEvent = null;
+        }
+
+        testEnginePhase = null;
+        phaseTestDescriptor = null;
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support;
+
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class to aggregate test execution results
+ * <p>
+ * Counts are kept in striped counters, so threads never contend on a shared
+ * lock, and only failure details are retained
+ */
+public class TestEngineExecutionResults {
+
+    private final LongAdder testsSucceededCount;
+    private final LongAdder testsFailedCount;
+    private final LongAdder testsAbortedCount;
+    private final LongAdder testsSkippedCount;
+    private final LongAdder containersSucceededCount;
+    private final LongAdder containersFailedCount;
+    private final LongAdder containersAbortedCount;
+    private final Queue<Failure> failures;
+
+    /**
+     * Constructor
+     */
+    public TestEngineExecutionResults() {
+        this.testsSucceededCount = new LongAdder();
+        this.testsFailedCount = new LongAdder();
+        this.testsAbortedCount = new LongAdder();
+        this.testsSkippedCount = new LongAdder();
+        this.containersSucceededCount = new LongAdder();
+        this.containersFailedCount = new LongAdder();
+        this.containersAbortedCount = new LongAdder();
+        this.failures = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Method to add the TestExecutionResult of a finished TestDescriptor
+     *
+     * @param testDescriptor
+     * @param testExecutionResult
+     */
+    public void add(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        boolean isTest = testDescriptor.isTest();
+
+        switch (testExecutionResult.getStatus()) {
+            case SUCCESSFUL: {
+                (isTest ? testsSucceededCount : containersSucceededCount).increment();
+                break;
+            }
+            case ABORTED: {
+                (isTest ? testsAbortedCount : containersAbortedCount).increment();
+                break;
+            }
+            case FAILED: {
+                (isTest ? testsFailedCount : containersFailedCount).increment();
+                failures.add(new Failure(testDescriptor, testExecutionResult.getThrowable().orElse(null)));
+                break;
+            }
+            default: {
+                // DO NOTHING
+                break;
+            }
+        }
+    }
+
+    /**
+     * Method to add a skipped TestDescriptor, including all descendant tests
+     *
+     * @param testDescriptor
+     */
+    public void addSkipped(TestDescriptor testDescriptor) {
+        if (testDescriptor.isTest()) {
+            testsSkippedCount.increment();
+        }
+
+        for (TestDescriptor child : testDescriptor.getChildren()) {
+            addSkipped(child);
+        }
+    }
+
+    public long getTestsSucceededCount() {
+        return testsSucceededCount.sum();
+    }
+
+    public long getTestsFailedCount() {
+        return testsFailedCount.sum();
+    }
+
+    public long getTestsAbortedCount() {
+        return testsAbortedCount.sum();
+    }
+
+    public long getTestsSkippedCount() {
+        return testsSkippedCount.sum();
+    }
+
+    public long getContainersSucceededCount() {
+        return containersSucceededCount.sum();
+    }
+
+    public long getContainersFailedCount() {
+        return containersFailedCount.sum();
+    }
+
+    public long getContainersAbortedCount() {
+        return containersAbortedCount.sum();
+    }
+
+    /**
+     * Method to get the failures, in the order they were added
+     *
+     * @return
+     */
+    public Collection<Failure> getFailures() {
+        return Collections.unmodifiableCollection(failures);
+    }
+
+    /**
+     * Class to implement a failure
+     */
+    public static class Failure {
+
+        private final TestDescriptor testDescriptor;
+        private final Throwable throwable;
+
+        /**
+         * Constructor
+         *
+         * @param testDescriptor
+         * @param throwable
+         */
+        public Failure(TestDescriptor testDescriptor, Throwable throwable) {
+            this.testDescriptor = testDescriptor;
+            this.throwable = throwable;
+        }
+
+        public TestDescriptor getTestDescriptor() {
+            return testDescriptor;
+        }
+
+        public Throwable getThrowable() {
+            return throwable;
+        }
+    }
+}
@@ -16,30 +16,44 @@
 
 package org.devopology.test.engine.support;
 
+import org.devopology.test.engine.api.TestEngine;
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
 import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
 import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
 import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
+import org.devopology.test.engine.support.jmx.TestEngineMXBeanImpl;
 import org.devopology.test.engine.support.logger.Logger;
 import org.devopology.test.engine.support.logger.LoggerFactory;
 import org.devopology.test.engine.support.util.Switch;
+import org.devopology.test.engine.support.util.ThreadResources;
 import org.junit.platform.engine.EngineExecutionListener;
 import org.junit.platform.engine.ExecutionRequest;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.support.descriptor.EngineDescriptor;
 
+import javax.management.ObjectName;
+import java.io.File;
 import java.io.PrintStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Method to execute an ExecutionRequest
@@ -48,10 +62,110 @@ public class TestEngineExecutor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineExecutor.class);
 
-    private final ExecutorService executorService;
+    private final TestEngineExecutorPools testEngineExecutorPools;
+    private final ThreadPoolExecutor methodExecutorService;
+    private final TestEngineResourceLockScheduler testEngineResourceLockScheduler;
+    private final boolean adaptive;
+    private final int adaptiveMaximumThreadCount;
+    private final int adaptiveHeapThresholdPercent;
+    private final int adaptiveGcThresholdPercent;
+    private final TestEngineWorkerTracker testEngineWorkerTracker;
+    private final boolean threadResourceAccounting;
+    private final Map<Thread, TestEngineExecutionContext> testEngineExecutionContexts;
+    private final long watchdogThresholdMilliseconds;
+    private final TestEngineWatchdog.Policy watchdogPolicy;
+    private final File watchdogDirectory;
+    private final TestEngineTimeoutScheduler testEngineTimeoutScheduler;
+    private final long defaultTimeoutMilliseconds;
+    private final int failFastCount;
+    private final AtomicInteger failureCount;
+    private volatile boolean failFast;
+    private volatile boolean shutdown;
+    private final CountDownLatch executedCountDownLatch;
 
-    public TestEngineExecutor(int threadCount) {
-        this.executorService = Executors.newFixedThreadPool(threadCount, new NamedThreadFactory());
+    /**
+     * Constructor
+     *
+     * @param threadCount
+     * @param threadResourceAccounting whether to measure the CPU time and allocated bytes of each test
+     */
+    public TestEngineExecutor(int threadCount, boolean threadResourceAccounting) {
+        this.testEngineExecutorPools = new TestEngineExecutorPools(threadCount);
+
+        // Threads are only created when test methods are executed in parallel
+        this.methodExecutorService = TestEngineExecutorPools.newThreadPoolExecutor(threadCount, "test-engine-method-%02d");
+
+        this.testEngineResourceLockScheduler = new TestEngineResourceLockScheduler();
+        this.testEngineWorkerTracker = new TestEngineWorkerTracker();
+        this.threadResourceAccounting = threadResourceAccounting;
+        this.testEngineExecutionContexts = new ConcurrentHashMap<>();
+
+        if (threadResourceAccounting) {
+            ThreadResources.enable();
+        }
+
+        this.watchdogThresholdMilliseconds =
+                Math.max(0, TestEngineConfiguration.getLong(
+                        "devopology.test.engine.watchdog.threshold",
+                        "DEVOPOLOGY_TEST_ENGINE_WATCHDOG_THRESHOLD",
+                        0L));
+
+        String watchdogPolicy =
+                TestEngineConfiguration.getValue(
+                        "devopology.test.engine.watchdog.policy",
+                        "DEVOPOLOGY_TEST_ENGINE_WATCHDOG_POLICY");
+
+        this.watchdogPolicy = watchdogPolicy != null ? TestEngineWatchdog.Policy.of(watchdogPolicy) : TestEngineWatchdog.Policy.INTERRUPT;
+
+        String watchdogDirectory =
+                TestEngineConfiguration.getValue(
+                        "devopology.test.engine.watchdog.directory",
+                        "DEVOPOLOGY_TEST_ENGINE_WATCHDOG_DIRECTORY");
+
+        this.watchdogDirectory = watchdogDirectory != null ? new File(watchdogDirectory.trim()) : null;
+
+        this.testEngineTimeoutScheduler = new TestEngineTimeoutScheduler();
+
+        this.defaultTimeoutMilliseconds =
+                Math.max(0, TestEngineConfiguration.getLong(
+                        "devopology.test.engine.timeout",
+                        "DEVOPOLOGY_TEST_ENGINE_TIMEOUT",
+                        0L));
+
+        this.failFastCount =
+                Math.max(0, TestEngineConfiguration.getInteger(
+                        "devopology.test.engine.fail.fast",
+                        "DEVOPOLOGY_TEST_ENGINE_FAIL_FAST",
+                        0));
+
+        this.adaptive =
+                TestEngineConfiguration.getBoolean(
+                        "devopology.test.engine.adaptive",
+                        "DEVOPOLOGY_TEST_ENGINE_ADAPTIVE",
+                        false);
+
+        String adaptiveMaximumThreadCount =
+                TestEngineConfiguration.getValue(
+                        "devopology.test.engine.adaptive.max.thread.count",
+                        "DEVOPOLOGY_TEST_ENGINE_ADAPTIVE_MAX_THREAD_COUNT");
+
+        this.adaptiveMaximumThreadCount =
+                TestEngineExecutorPools.parseThreadCount(adaptiveMaximumThreadCount != null ? adaptiveMaximumThreadCount : "4x");
+
+        this.adaptiveHeapThresholdPercent =
+                Math.max(1, Math.min(100, TestEngineConfiguration.getInteger(
+                        "devopology.test.engine.adaptive.heap.threshold",
+                        "DEVOPOLOGY_TEST_ENGINE_ADAPTIVE_HEAP_THRESHOLD",
+                        85)));
+
+        this.adaptiveGcThresholdPercent =
+                Math.max(1, Math.min(100, TestEngineConfiguration.getInteger(
+                        "devopology.test.engine.adaptive.gc.threshold",
+                        "DEVOPOLOGY_TEST_ENGINE_ADAPTIVE_GC_THRESHOLD",
+                        10)));
+
+        this.failureCount = new AtomicInteger();
+        this.executedCountDownLatch = new CountDownLatch(1);
     }
 
     /**
@@ -66,14 +180,126 @@ public class TestEngineExecutor {
 
         TestDescriptor rootTestDescriptor = executionRequest.getRootTestDescriptor();
 
+        TestEngineExecutionResults testEngineExecutionResults = new TestEngineExecutionResults();
+
+        long testsFoundCount = countTests(rootTestDescriptor);
+
+        ObjectName objectName =
+                TestEngineMXBeanImpl.register(
+                        new TestEngineMXBeanImpl(
+                                testsFoundCount,
+                                testEngineExecutionResults,
+                                testEngineWorkerTracker,
+                                testEngineExecutorPools.getThreadPoolExecutors()));
+
+        TestEngineWatchdog testEngineWatchdog = null;
+        if (watchdogThresholdMilliseconds > 0) {
+            testEngineWatchdog =
+                    new TestEngineWatchdog(
+                            testEngineWorkerTracker,
+                            watchdogThresholdMilliseconds,
+                            watchdogPolicy,
+                            watchdogDirectory,
+                            this::abandon);
+
+            testEngineWatchdog.start();
+        }
+
+        // Only test classes executed in the thread pool (more than one test class) are adapted
+        TestEngineAdaptiveController testEngineAdaptiveController = null;
+        if (adaptive && (rootTestDescriptor.getChildren().size() > 1)) {
+            testEngineAdaptiveController =
+                    new TestEngineAdaptiveController(
+                            testEngineExecutorPools.getDefault(),
+                            testEngineExecutionResults,
+                            testEngineResourceLockScheduler,
+                            adaptiveMaximumThreadCount,
+                            adaptiveHeapThresholdPercent,
+                            adaptiveGcThresholdPercent);
+
+            testEngineAdaptiveController.start();
+        }
+
+        try {
+            execute(engineExecutionListener, rootTestDescriptor, testEngineExecutionResults);
+        } finally {
+            if (testEngineAdaptiveController != null) {
+                testEngineAdaptiveController.stop();
+            }
+
+            if (testEngineWatchdog != null) {
+                testEngineWatchdog.stop();
+            }
+
+            testEngineTimeoutScheduler.shutdown();
+
+            // Release the threads, since a forked JVM executes many ExecutionRequests
+            testEngineExecutorPools.shutdown();
+            methodExecutorService.shutdown();
+
+            TestEngineMXBeanImpl.unregister(objectName);
+
+            executedCountDownLatch.countDown();
+        }
+    }
+
+    /**
+     * Method to shutdown execution, skipping tests not yet started, and waiting for tests in flight
+     * to finish for a grace period, after which they are reported as aborted
+     *
+     * @param gracePeriodMilliseconds
+     */
+    public void shutdown(long gracePeriodMilliseconds) {
+        shutdown = true;
+
+        try {
+            if (executedCountDownLatch.await(gracePeriodMilliseconds, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            // DO NOTHING
+        }
+
+        for (TestEngineWorkerTracker.Worker worker : testEngineWorkerTracker.getWorkers()) {
+            TestEngineClassTestDescriptor testEngineClassTestDescriptor = worker.getTestEngineClassTestDescriptor();
+            TestEngineExecutionContext testEngineExecutionContext = testEngineExecutionContexts.get(worker.getThread());
+
+            TestExecutionResult testExecutionResult =
+                    TestExecutionResult.aborted(
+                            new TestEngineException(
+                                    String.format(
+                                            "Test aborted by shutdown after a grace period of [%d] ms",
+                                            gracePeriodMilliseconds)));
+
+            if (abort(worker, testExecutionResult, "Shutdown")) {
+                LOGGER.info(
+                        "Test class [%s] aborted on thread [%s]",
+                        testEngineClassTestDescriptor.getTestClass().getName(),
+                        worker.getThread().getName());
+
+                worker.getThread().interrupt();
+                testEngineExecutionContext.interruptThreads();
+            }
+        }
+    }
+
+    /**
+     * Method to execute the root TestDescriptor
+     *
+     * @param engineExecutionListener
+     * @param rootTestDescriptor
+     * @param testEngineExecutionResults
+     */
+    private void execute(
+            EngineExecutionListener engineExecutionListener,
+            TestDescriptor rootTestDescriptor,
+            TestEngineExecutionResults testEngineExecutionResults) {
         // Special case if only a single class it selected from IntelliJ
         if (rootTestDescriptor.getChildren().size() == 1) {
             CountDownLatch countDownLatch = new CountDownLatch(1);
 
-            List<TestExecutionResult> testExecutionResultList = Collections.synchronizedList(new ArrayList<>());
-
             TestEngineExecutionContext testEngineExecutionContext =
-                    new TestEngineExecutionContext(engineExecutionListener, testExecutionResultList);
+                    createTestEngineExecutionContext(engineExecutionListener, testEngineExecutionResults);
 
             TestDescriptor testDescriptor = rootTestDescriptor.getChildren().stream().findFirst().get();
 
@@ -81,38 +307,78 @@ public class TestEngineExecutor {
                 logTestHierarchy(testDescriptor, 0);
             }
 
-            execute((TestEngineClassTestDescriptor) testDescriptor, testEngineExecutionContext, countDownLatch);
+            testEngineExecutionContexts.put(Thread.currentThread(), testEngineExecutionContext);
+
+            try {
+                execute((TestEngineClassTestDescriptor) testDescriptor, testEngineExecutionContext, countDownLatch);
+            } finally {
+                testEngineExecutionContexts.remove(Thread.currentThread(), testEngineExecutionContext);
+            }
 
             return;
         }
 
         engineExecutionListener.executionStarted(rootTestDescriptor);
 
-        List<TestExecutionResult> testExecutionResultList = Collections.synchronizedList(new ArrayList<>());
-
         if (LOGGER.isTraceEnabled()) {
             logTestHierarchy(rootTestDescriptor, 0);
         }
 
         TestEngineExecutionContext testEngineExecutionContext =
-                new TestEngineExecutionContext(engineExecutionListener, testExecutionResultList);
+                createTestEngineExecutionContext(engineExecutionListener, testEngineExecutionResults);
 
         if (rootTestDescriptor instanceof EngineDescriptor) {
             CountDownLatch countDownLatch = new CountDownLatch(rootTestDescriptor.getChildren().size());
 
             if (countDownLatch.getCount() > 1) {
-                // More than one test class, run each test class in a thread
+                List<TestEngineClassTestDescriptor> testEngineClassTestDescriptors = new ArrayList<>();
                 for (TestDescriptor testDescriptor : rootTestDescriptor.getChildren()) {
-                    executorService.submit(() -> {
-                        try {
-                            TestEngineExecutionContext testEngineExecutionContext1 =
-                                    new TestEngineExecutionContext(engineExecutionListener, testExecutionResultList);
+                    testEngineClassTestDescriptors.add((TestEngineClassTestDescriptor) testDescriptor);
+                }
+
+                // Test classes are only scheduled if resource locks are declared, or the thread count
+                // is adaptive, so test classes are otherwise queued up front
+                boolean scheduled = adaptive || TestEngineResourceLockScheduler.isRequired(testEngineClassTestDescriptors);
+
+                // More than one test class, run each test class in a thread of its thread pool
+                for (TestEngineClassTestDescriptor testEngineClassTestDescriptor : testEngineClassTestDescriptors) {
+                    ThreadPoolExecutor threadPoolExecutor =
+                            testEngineExecutorPools.getThreadPoolExecutor(testEngineClassTestDescriptor.getTestClass());
+
+                    Runnable runnable = () -> {
+                        TestEngineExecutionContext testEngineExecutionContext1 =
+                                createTestEngineExecutionContext(engineExecutionListener, testEngineExecutionResults);
+
+                        // Only test classes executed in the thread pool can be abandoned
+                        testEngineExecutionContext1.setCountDownLatch(countDownLatch);
+                        testEngineExecutionContext1.setThreadPoolExecutor(threadPoolExecutor);
+                        testEngineExecutionContexts.put(Thread.currentThread(), testEngineExecutionContext1);
 
-                            execute((TestEngineClassTestDescriptor) testDescriptor, testEngineExecutionContext1, countDownLatch);
+                        try {
+                            // Test classes queued when fail fast or shutdown is triggered are skipped
+                            String skipReason = getSkipReason(testEngineExecutionContext1);
+                            if (skipReason != null) {
+                                executionSkipped(testEngineClassTestDescriptor, skipReason, testEngineExecutionContext1);
+                                if (testEngineExecutionContext1.complete()) {
+                                    completed(testEngineClassTestDescriptor, countDownLatch);
+                                }
+                            } else {
+                                execute(testEngineClassTestDescriptor, testEngineExecutionContext1, countDownLatch);
+                            }
                         } finally {
+                            testEngineExecutionContexts.remove(Thread.currentThread(), testEngineExecutionContext1);
+
+                            // Resource locks are held until the test class returns, even if it was abandoned
+                            testEngineResourceLockScheduler.release(testEngineClassTestDescriptor);
                             flush();
                         }
-                    });
+                    };
+
+                    if (scheduled) {
+                        testEngineResourceLockScheduler.submit(testEngineClassTestDescriptor, threadPoolExecutor, runnable);
+                    } else {
+                        threadPoolExecutor.submit(runnable);
+                    }
                 }
 
                 try {
@@ -122,7 +388,14 @@ public class TestEngineExecutor {
                 }
             } else {
                 // Only one test class, run in the main thread
-                execute((TestEngineClassTestDescriptor) rootTestDescriptor.getChildren().stream().findFirst().get(), testEngineExecutionContext, countDownLatch);
+                testEngineExecutionContexts.put(Thread.currentThread(), testEngineExecutionContext);
+
+                try {
+                    execute((TestEngineClassTestDescriptor) rootTestDescriptor.getChildren().stream().findFirst().get(), testEngineExecutionContext, countDownLatch);
+                } finally {
+                    testEngineExecutionContexts.remove(Thread.currentThread(), testEngineExecutionContext);
+                }
+
                 flush();
             }
         }
@@ -136,39 +409,59 @@ public class TestEngineExecutor {
      *
      * @param testEngineClassTestDescriptor
      * @param testEngineExecutionContext
+     * @return the TestExecutionResult
      */
-    private void execute(
+    private TestExecutionResult execute(
             TestEngineClassTestDescriptor testEngineClassTestDescriptor,
             TestEngineExecutionContext testEngineExecutionContext,
             CountDownLatch countDownLatch) {
         LOGGER.trace("execute(TestEngineClassTestDescriptor, TestEngineExecutionContext)");
 
-        testEngineExecutionContext.getEngineExecutionListener().executionStarted(testEngineClassTestDescriptor);
+        executionStarted(testEngineClassTestDescriptor, testEngineExecutionContext);
+
+        // Only the first failure is kept, since it's what is reported for the test class
+        TestExecutionResult testExecutionResult = null;
+
+        TestEngineTimeoutScheduler.ScheduledTimeout classScheduledTimeout =
+                testEngineTimeoutScheduler.schedule(
+                        "Test class",
+                        TestEngineUtils.getTimeout(testEngineClassTestDescriptor.getTestClass()));
+
+        testEngineExecutionContext.setClassScheduledTimeout(classScheduledTimeout);
 
-        List<TestExecutionResult> testExecutionResultList = testEngineClassTestDescriptor.getTestExecutionResultList();
-        testExecutionResultList.clear();
+        testEngineExecutionContext.setTestEnginePhaseTimings(testEngineClassTestDescriptor.getTestEnginePhaseTimings());
 
         try {
             Class<?> testClass = testEngineClassTestDescriptor.getTestClass();
 
             LOGGER.trace("executing @TestEngine.BeforeClass methods...");
-            for (Method beforeClass : TestEngineUtils.getBeforeClassMethods(testClass)) {
+            Collection<Method> beforeClassMethods = TestEngineUtils.getBeforeClassMethods(testClass);
+            if (!beforeClassMethods.isEmpty()) {
+                testEngineExecutionContext.phaseStarted(TestEnginePhase.BEFORE_CLASS, testEngineClassTestDescriptor);
+            }
+            for (Method beforeClass : beforeClassMethods) {
                 LOGGER.trace("@TestEngine.BeforeClass method [%s]", beforeClass.getName());
                 beforeClass.invoke(null, (Object[]) null);
                 flush();
             }
 
+            testEngineExecutionContext.phaseStarted(TestEnginePhase.CONSTRUCTOR, testEngineClassTestDescriptor);
             Constructor<?> testClassConstructor = testClass.getDeclaredConstructor((Class<?>[]) null);
             Object testInstance = testClassConstructor.newInstance((Object[]) null);
             testEngineExecutionContext.setTestInstance(testInstance);
+            testEngineExecutionContext.phaseFinished();
 
             // Execute each TestParameterTestDescriptor
             Set<? extends TestDescriptor> children = testEngineClassTestDescriptor.getChildren();
             for (TestDescriptor testDescriptor : children) {
                 if (testDescriptor instanceof TestEngineParameterTestDescriptor) {
                     TestEngineParameterTestDescriptor testEngineParameterTestDescriptor = (TestEngineParameterTestDescriptor) testDescriptor;
-                    execute(testEngineParameterTestDescriptor, testEngineExecutionContext);
-                    testExecutionResultList.addAll(testEngineParameterTestDescriptor.getTestExecutionResultList());
+                    String skipReason = getSkipReason(testEngineExecutionContext);
+                    if (skipReason != null) {
+                        executionSkipped(testEngineParameterTestDescriptor, skipReason, testEngineExecutionContext);
+                    } else {
+                        testExecutionResult = firstFailure(testExecutionResult, execute(testEngineParameterTestDescriptor, testEngineExecutionContext));
+                    }
                 }
             }
 
@@ -176,7 +469,11 @@ public class TestEngineExecutor {
             testEngineExecutionContext.setTestInstance(null);
 
             LOGGER.trace("executing @TestEngine.AfterClass methods...");
-            for (Method afterClassMethod : TestEngineUtils.getAfterClassMethods(testClass)) {
+            Collection<Method> afterClassMethods = TestEngineUtils.getAfterClassMethods(testClass);
+            if (!afterClassMethods.isEmpty()) {
+                testEngineExecutionContext.phaseStarted(TestEnginePhase.AFTER_CLASS, testEngineClassTestDescriptor);
+            }
+            for (Method afterClassMethod : afterClassMethods) {
                 LOGGER.trace("@TestEngine.AfterClass method [%s]", afterClassMethod.getName());
                 afterClassMethod.invoke(null, (Object[]) null);
                 flush();
@@ -184,24 +481,29 @@ public class TestEngineExecutor {
         } catch (Throwable t) {
             t = resolve(t);
             printStackTrace(t, System.err);
-            testExecutionResultList.add(TestExecutionResult.failed(t));
+            testExecutionResult = firstFailure(testExecutionResult, TestExecutionResult.failed(t));
         } finally {
+            testEngineExecutionContext.phaseFinished();
             flush();
 
-            testEngineExecutionContext.getTestExecutionResultList().addAll(testExecutionResultList);
+            testEngineExecutionContext.setClassScheduledTimeout(null);
+            testExecutionResult = timeout(classScheduledTimeout, testExecutionResult);
 
-            if (testExecutionResultList.isEmpty()) {
-                testEngineExecutionContext.getEngineExecutionListener().executionFinished(
-                        testEngineClassTestDescriptor, TestExecutionResult.successful());
-            } else {
-                testEngineExecutionContext.getEngineExecutionListener().executionFinished(
-                        testEngineClassTestDescriptor,
-                        testExecutionResultList.get(0));
+            testExecutionResult = executionFinished(testEngineClassTestDescriptor, testExecutionResult, testEngineExecutionContext);
+
+            // Clear a fail fast interrupt so the thread can be reused
+            if (testEngineExecutionContext.isCancelled()) {
+                Thread.interrupted();
             }
         }
 
-        countDownLatch.countDown();
+        if (testEngineExecutionContext.complete()) {
+            completed(testEngineClassTestDescriptor, countDownLatch);
+        }
+
         flush();
+
+        return testExecutionResult;
     }
 
     /**
@@ -209,28 +511,43 @@ public class TestEngineExecutor {
      *
      * @param testEngineParameterTestDescriptor
      * @param testEngineExecutionContext
+     * @return the TestExecutionResult
      */
-    private void execute(
+    private TestExecutionResult execute(
             TestEngineParameterTestDescriptor testEngineParameterTestDescriptor,
             TestEngineExecutionContext testEngineExecutionContext) {
         LOGGER.trace("execute(TestEngineParameterTestDescriptor, TestEngineParameterTestDescriptor)");
 
-        testEngineExecutionContext.getEngineExecutionListener().executionStarted(testEngineParameterTestDescriptor);
+        executionStarted(testEngineParameterTestDescriptor, testEngineExecutionContext);
 
-        List<TestExecutionResult> testExecutionResultList = testEngineParameterTestDescriptor.getTestExecutionResultList();
-        testExecutionResultList.clear();
+        TestExecutionResult testExecutionResult = null;
 
         Class<?> testClass = testEngineParameterTestDescriptor.getTestClass();
         Object testInstance = testEngineExecutionContext.getTestInstance();
         Object testParameter = testEngineParameterTestDescriptor.getTestParameter();
+        TestEngineTimeoutScheduler.ScheduledTimeout parameterScheduledTimeout = null;
 
         try {
             LOGGER.trace("executing @TestEngine.ParameterSetter method...");
+            testEngineExecutionContext.phaseStarted(TestEnginePhase.PARAMETER_SETTER, testEngineParameterTestDescriptor);
             Method testParameterSetterMethod = TestEngineUtils.getParameterSetterMethods(testClass).stream().findFirst().get();
+
+            // A timeout on the @TestEngine.ParameterSetter method applies to each test parameter
+            parameterScheduledTimeout =
+                    testEngineTimeoutScheduler.schedule(
+                            "Test parameter",
+                            TestEngineUtils.getTimeout(testParameterSetterMethod));
+
+            testEngineExecutionContext.setParameterScheduledTimeout(parameterScheduledTimeout);
+
             testParameterSetterMethod.invoke(testInstance, testParameter);
 
             LOGGER.trace("executing @TestEngine.BeforeAll methods...");
-            for (Method beforeAllMethod : TestEngineUtils.getBeforeAllMethods(testClass)) {
+            Collection<Method> beforeAllMethods = TestEngineUtils.getBeforeAllMethods(testClass);
+            if (!beforeAllMethods.isEmpty()) {
+                testEngineExecutionContext.phaseStarted(TestEnginePhase.BEFORE_ALL, testEngineParameterTestDescriptor);
+            }
+            for (Method beforeAllMethod : beforeAllMethods) {
                 LOGGER.trace("@TestEngine.BeforeAll method [%s]", beforeAllMethod.getName());
                 beforeAllMethod.invoke(testInstance, (Object[]) null);
                 flush();
@@ -238,32 +555,45 @@ public class TestEngineExecutor {
         } catch (Throwable t) {
             t = resolve(t);
             printStackTrace(t, System.err);
-            testExecutionResultList.add(TestExecutionResult.failed(t));
+            testExecutionResult = TestExecutionResult.failed(t);
         } finally {
+            testEngineExecutionContext.phaseFinished();
             flush();
         }
 
-        if (testExecutionResultList.isEmpty()) {
+        TestEngine.ParallelMethods.Mode parallelMethodsMode = TestEngineUtils.getParallelMethodsMode(testClass);
+
+        if ((testExecutionResult == null) && (parallelMethodsMode != null) && (testEngineParameterTestDescriptor.getChildren().size() > 1)) {
+            testExecutionResult = executeParallel(testEngineParameterTestDescriptor, parallelMethodsMode, testEngineExecutionContext);
+        } else if (testExecutionResult == null) {
             Set<? extends TestDescriptor> children = testEngineParameterTestDescriptor.getChildren();
             for (TestDescriptor testDescriptor : children) {
                 if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
                     TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testDescriptor;
-                    execute(testEngineTestMethodTestDescriptor, testEngineExecutionContext);
-                    testExecutionResultList.addAll(testEngineTestMethodTestDescriptor.getTestExecutionResultList());
+                    String skipReason = getSkipReason(testEngineExecutionContext);
+                    if (skipReason != null) {
+                        executionSkipped(testEngineTestMethodTestDescriptor, skipReason, testEngineExecutionContext);
+                    } else {
+                        testExecutionResult = firstFailure(testExecutionResult, execute(testEngineTestMethodTestDescriptor, testEngineExecutionContext));
+                    }
                 }
             }
         } else {
             Set<? extends TestDescriptor> children = testEngineParameterTestDescriptor.getChildren();
             for (TestDescriptor testDescriptor : children) {
                 if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
-                    testEngineExecutionContext.getEngineExecutionListener().executionSkipped(testDescriptor, "@TestEngine.BeforeAll method exception");
+                    executionSkipped((TestEngineTestMethodTestDescriptor) testDescriptor, "@TestEngine.BeforeAll method exception", testEngineExecutionContext);
                 }
             }
         }
 
         try {
             LOGGER.trace("executing @TestEngine.AfterAll methods...");
-            for (Method afterAllMethod : TestEngineUtils.getAfterAllMethods(testClass)) {
+            Collection<Method> afterAllMethods = TestEngineUtils.getAfterAllMethods(testClass);
+            if (!afterAllMethods.isEmpty()) {
+                testEngineExecutionContext.phaseStarted(TestEnginePhase.AFTER_ALL, testEngineParameterTestDescriptor);
+            }
+            for (Method afterAllMethod : afterAllMethods) {
                 LOGGER.trace("@TestEngine.AfterAll method [%s]", afterAllMethod.getName());
                 afterAllMethod.invoke(testInstance, (Object[]) null);
                 flush();
@@ -271,21 +601,206 @@ public class TestEngineExecutor {
         } catch (Throwable t) {
             t = resolve(t);
             printStackTrace(t, System.err);
-            testExecutionResultList.add(TestExecutionResult.failed(t));
+            testExecutionResult = firstFailure(testExecutionResult, TestExecutionResult.failed(t));
         } finally {
+            testEngineExecutionContext.phaseFinished();
             flush();
         }
 
-        if (testExecutionResultList.isEmpty()) {
-            testEngineExecutionContext.getEngineExecutionListener().executionFinished(
-                    testEngineParameterTestDescriptor, TestExecutionResult.successful());
-        } else {
-            testEngineExecutionContext.getEngineExecutionListener().executionFinished(
-                    testEngineParameterTestDescriptor, testExecutionResultList.get(0));
-        }
+        testEngineExecutionContext.setParameterScheduledTimeout(null);
+        testExecutionResult = timeout(parameterScheduledTimeout, testExecutionResult);
 
-        testEngineExecutionContext.getTestExecutionResultList().addAll(testExecutionResultList);
+        testExecutionResult = executionFinished(testEngineParameterTestDescriptor, testExecutionResult, testEngineExecutionContext);
         flush();
+
+        return testExecutionResult;
+    }
+
+    /**
+     * Method to execute the TestEngineTestMethodTestDescriptors of a TestEngineParameterTestDescriptor in parallel
+     * <p>
+     * The current thread, and up to thread count - 1 threads from the method thread pool, take test methods
+     * from a shared queue, so the current thread always makes progress, and the method returns once all
+     * test methods have finished, keeping @TestEngine.BeforeAll / @TestEngine.AfterAll methods as barriers
+     *
+     * @param testEngineParameterTestDescriptor
+     * @param parallelMethodsMode
+     * @param testEngineExecutionContext
+     * @return the first failed TestExecutionResult, or null if none failed
+     */
+    private TestExecutionResult executeParallel(
+            TestEngineParameterTestDescriptor testEngineParameterTestDescriptor,
+            TestEngine.ParallelMethods.Mode parallelMethodsMode,
+            TestEngineExecutionContext testEngineExecutionContext) {
+        LOGGER.trace("executeParallel(TestEngineParameterTestDescriptor, Mode, TestEngineExecutionContext)");
+
+        Queue<TestEngineTestMethodTestDescriptor> queue = new ConcurrentLinkedQueue<>();
+        for (TestDescriptor testDescriptor : testEngineParameterTestDescriptor.getChildren()) {
+            if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+                queue.add((TestEngineTestMethodTestDescriptor) testDescriptor);
+            }
+        }
+
+        Queue<TestExecutionResult> failedTestExecutionResults = new ConcurrentLinkedQueue<>();
+
+        int helperCount = Math.min(queue.size(), methodExecutorService.getMaximumPoolSize()) - 1;
+        List<Future<?>> futures = new ArrayList<>(helperCount);
+        List<AtomicBoolean> claims = new ArrayList<>(helperCount);
+
+        for (int i = 0; i < helperCount; i++) {
+            // Claimed by the helper when it starts, or by the current thread once the queue is empty
+            AtomicBoolean claim = new AtomicBoolean();
+            claims.add(claim);
+
+            futures.add(methodExecutorService.submit(() -> {
+                if (!claim.compareAndSet(false, true)) {
+                    return;
+                }
+
+                Thread thread = Thread.currentThread();
+                TestEngineExecutionContext childTestEngineExecutionContext = new TestEngineExecutionContext(testEngineExecutionContext);
+
+                // Registered so fail fast can cancel the test methods executing on the thread
+                testEngineExecutionContexts.put(thread, childTestEngineExecutionContext);
+
+                // Added so timeouts and abandoning the test class interrupt the thread
+                childTestEngineExecutionContext.addThread(thread);
+
+                try {
+                    execute(queue, testEngineParameterTestDescriptor, parallelMethodsMode, failedTestExecutionResults, childTestEngineExecutionContext);
+                } finally {
+                    childTestEngineExecutionContext.removeThread(thread);
+                    testEngineExecutionContexts.remove(thread, childTestEngineExecutionContext);
+                    testEngineWorkerTracker.executionIdle();
+
+                    // Clear an interrupt so the thread can be reused
+                    Thread.interrupted();
+                    flush();
+                }
+            }));
+        }
+
+        execute(
+                queue,
+                testEngineParameterTestDescriptor,
+                parallelMethodsMode,
+                failedTestExecutionResults,
+                new TestEngineExecutionContext(testEngineExecutionContext));
+
+        // The queue is empty, so helpers that haven't started (i.e. queued behind test methods
+        // of other test classes in the method thread pool) have nothing to execute, and aren't waited for
+        for (int i = 0; i < helperCount; i++) {
+            if (claims.get(i).compareAndSet(false, true)) {
+                futures.get(i).cancel(false);
+            }
+        }
+
+        // Wait for all started helpers to finish, even if interrupted, since @TestEngine.AfterAll methods are a barrier
+        testEngineWorkerTracker.setWaiting(true);
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (CancellationException e) {
+                    break;
+                } catch (ExecutionException e) {
+                    LOGGER.error("Exception executing test methods in parallel [%s]", e.getCause());
+                    e.getCause().printStackTrace();
+                    break;
+                }
+            }
+        }
+
+        testEngineWorkerTracker.setWaiting(false);
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        return failedTestExecutionResults.peek();
+    }
+
+    /**
+     * Method to execute TestEngineTestMethodTestDescriptors taken from a shared queue until it's empty
+     *
+     * @param queue
+     * @param testEngineParameterTestDescriptor
+     * @param parallelMethodsMode
+     * @param failedTestExecutionResults
+     * @param testEngineExecutionContext a child context used only by the current thread
+     */
+    private void execute(
+            Queue<TestEngineTestMethodTestDescriptor> queue,
+            TestEngineParameterTestDescriptor testEngineParameterTestDescriptor,
+            TestEngine.ParallelMethods.Mode parallelMethodsMode,
+            Queue<TestExecutionResult> failedTestExecutionResults,
+            TestEngineExecutionContext testEngineExecutionContext) {
+        TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor;
+
+        while ((testEngineTestMethodTestDescriptor = queue.poll()) != null) {
+            String skipReason = getSkipReason(testEngineExecutionContext);
+            if (skipReason != null) {
+                executionSkipped(testEngineTestMethodTestDescriptor, skipReason, testEngineExecutionContext);
+                continue;
+            }
+
+            TestExecutionResult testExecutionResult;
+
+            if (parallelMethodsMode == TestEngine.ParallelMethods.Mode.INSTANCE_PER_METHOD) {
+                testExecutionResult = createTestInstance(testEngineParameterTestDescriptor, testEngineTestMethodTestDescriptor, testEngineExecutionContext);
+                if (testExecutionResult != null) {
+                    // The test method is reported as failed, since its test instance couldn't be created
+                    executionStarted(testEngineTestMethodTestDescriptor, testEngineExecutionContext);
+                    executionFinished(testEngineTestMethodTestDescriptor, testExecutionResult, testEngineExecutionContext);
+                    failedTestExecutionResults.add(testExecutionResult);
+                    continue;
+                }
+            }
+
+            testExecutionResult = execute(testEngineTestMethodTestDescriptor, testEngineExecutionContext);
+            if (testExecutionResult.getStatus() != TestExecutionResult.Status.SUCCESSFUL) {
+                failedTestExecutionResults.add(testExecutionResult);
+            }
+        }
+    }
+
+    /**
+     * Method to create a test instance for a single test method, setting the test parameter
+     *
+     * @param testEngineParameterTestDescriptor
+     * @param testEngineTestMethodTestDescriptor
+     * @param testEngineExecutionContext
+     * @return a failed TestExecutionResult, or null if the test instance was created
+     */
+    private static TestExecutionResult createTestInstance(
+            TestEngineParameterTestDescriptor testEngineParameterTestDescriptor,
+            TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor,
+            TestEngineExecutionContext testEngineExecutionContext) {
+        Class<?> testClass = testEngineParameterTestDescriptor.getTestClass();
+
+        try {
+            testEngineExecutionContext.phaseStarted(TestEnginePhase.CONSTRUCTOR, testEngineTestMethodTestDescriptor);
+            Constructor<?> testClassConstructor = testClass.getDeclaredConstructor((Class<?>[]) null);
+            Object testInstance = testClassConstructor.newInstance((Object[]) null);
+            testEngineExecutionContext.setTestInstance(testInstance);
+
+            testEngineExecutionContext.phaseStarted(TestEnginePhase.PARAMETER_SETTER, testEngineTestMethodTestDescriptor);
+            Method testParameterSetterMethod = TestEngineUtils.getParameterSetterMethods(testClass).stream().findFirst().get();
+            testParameterSetterMethod.invoke(testInstance, testEngineParameterTestDescriptor.getTestParameter());
+
+            return null;
+        } catch (Throwable t) {
+            t = resolve(t);
+            printStackTrace(t, System.err);
+            return TestExecutionResult.failed(t);
+        } finally {
+            testEngineExecutionContext.phaseFinished();
+            flush();
+        }
     }
 
     /**
@@ -293,22 +808,35 @@ public class TestEngineExecutor {
      *
      * @param testEngineTestMethodTestDescriptor
      * @param testEngineExecutionContext
+     * @return the TestExecutionResult
      */
-    private void execute(
+    private TestExecutionResult execute(
             TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor,
             TestEngineExecutionContext testEngineExecutionContext) {
         LOGGER.trace("execute(TestEngineTestMethodTestDescriptor, TestEngineExecutionContext)");
-        testEngineExecutionContext.getEngineExecutionListener().executionStarted(testEngineTestMethodTestDescriptor);
+        executionStarted(testEngineTestMethodTestDescriptor, testEngineExecutionContext);
 
-        List<TestExecutionResult> testExecutionResultList = testEngineTestMethodTestDescriptor.getTestExecutionResultList();
-        testExecutionResultList.clear();
+        TestExecutionResult testExecutionResult = null;
 
         Class<?> testClass = testEngineTestMethodTestDescriptor.getTestClass();
         Object testInstance = testEngineExecutionContext.getTestInstance();
+        Method testMethod = testEngineTestMethodTestDescriptor.getTestMethod();
+
+        long timeoutMilliseconds = TestEngineUtils.getTimeout(testMethod);
+        if (timeoutMilliseconds <= 0) {
+            timeoutMilliseconds = defaultTimeoutMilliseconds;
+        }
+
+        TestEngineTimeoutScheduler.ScheduledTimeout methodScheduledTimeout =
+                testEngineTimeoutScheduler.schedule("Test method", timeoutMilliseconds);
 
         try {
             LOGGER.trace("executing @TestEngine.BeforeEach methods...");
-            for (Method beforeEachMethod : TestEngineUtils.getBeforeEachMethods(testClass)) {
+            Collection<Method> beforeEachMethods = TestEngineUtils.getBeforeEachMethods(testClass);
+            if (!beforeEachMethods.isEmpty()) {
+                testEngineExecutionContext.phaseStarted(TestEnginePhase.BEFORE_EACH, testEngineTestMethodTestDescriptor);
+            }
+            for (Method beforeEachMethod : beforeEachMethods) {
                 LOGGER.trace("@TestEngine.BeforeEach method [%s]", beforeEachMethod.getName());
                 beforeEachMethod.invoke(testInstance, (Object[]) null);
                 flush();
@@ -316,28 +844,37 @@ public class TestEngineExecutor {
         } catch (Throwable t) {
             t = resolve(t);
             printStackTrace(t, System.err);
-            testExecutionResultList.add(TestExecutionResult.failed(t));
+            testExecutionResult = TestExecutionResult.failed(t);
         } finally {
+            testEngineExecutionContext.phaseFinished();
             flush();
         }
 
         try {
-            LOGGER.trace("executing @TestEngine.Test methods");
-            Method testMethod = testEngineTestMethodTestDescriptor.getTestMethod();
-            LOGGER.trace("@TestEngine.Test method [%s]", testMethod.getName());
-            testMethod.invoke(testInstance, (Object[]) null);
-            flush();
+            // Cooperatively cancel the test method if timed out during @TestEngine.BeforeEach methods
+            if (!TestEngineTimeoutScheduler.isExpired(methodScheduledTimeout) && !testEngineExecutionContext.isTimedOut()) {
+                LOGGER.trace("executing @TestEngine.Test methods");
+                LOGGER.trace("@TestEngine.Test method [%s]", testMethod.getName());
+                testEngineExecutionContext.phaseStarted(TestEnginePhase.TEST, testEngineTestMethodTestDescriptor);
+                testMethod.invoke(testInstance, (Object[]) null);
+                flush();
+            }
         } catch (Throwable t) {
             t = resolve(t);
             printStackTrace(t, System.err);
-            testExecutionResultList.add(TestExecutionResult.failed(t));
+            testExecutionResult = firstFailure(testExecutionResult, TestExecutionResult.failed(t));
         } finally {
+            testEngineExecutionContext.phaseFinished();
             flush();
         }
 
         try {
             LOGGER.trace("executing @TestEngine.AfterEach methods...");
-            for (Method afterEachMethod : TestEngineUtils.getAfterEachMethods(testClass)) {
+            Collection<Method> afterEachMethods = TestEngineUtils.getAfterEachMethods(testClass);
+            if (!afterEachMethods.isEmpty()) {
+                testEngineExecutionContext.phaseStarted(TestEnginePhase.AFTER_EACH, testEngineTestMethodTestDescriptor);
+            }
+            for (Method afterEachMethod : afterEachMethods) {
                 LOGGER.trace("@TestEngine.AfterEach method [%s]", afterEachMethod.getName());
                 afterEachMethod.invoke(testInstance, (Object[]) null);
                 flush();
@@ -345,21 +882,390 @@ public class TestEngineExecutor {
         } catch (Throwable t) {
             t = resolve(t);
             printStackTrace(t, System.err);
-            testExecutionResultList.add(TestExecutionResult.failed(t));
+            testExecutionResult = firstFailure(testExecutionResult, TestExecutionResult.failed(t));
         } finally {
+            testEngineExecutionContext.phaseFinished();
             flush();
         }
 
-        if (testExecutionResultList.isEmpty()) {
-            testEngineExecutionContext.getEngineExecutionListener().executionFinished(
-                    testEngineTestMethodTestDescriptor, TestExecutionResult.successful());
-        } else {
-            testEngineExecutionContext.getEngineExecutionListener().executionFinished(
-                    testEngineTestMethodTestDescriptor, testExecutionResultList.get(0));
-        }
+        testExecutionResult = timeout(methodScheduledTimeout, testExecutionResult);
 
-        testEngineExecutionContext.getTestExecutionResultList().addAll(testExecutionResultList);
+        testExecutionResult = executionFinished(testEngineTestMethodTestDescriptor, testExecutionResult, testEngineExecutionContext);
         flush();
+
+        return testExecutionResult;
+    }
+
+    /**
+     * Method to create a TestEngineExecutionContext
+     *
+     * @param engineExecutionListener
+     * @param testEngineExecutionResults
+     * @return the TestEngineExecutionContext
+     */
+    private TestEngineExecutionContext createTestEngineExecutionContext(
+            EngineExecutionListener engineExecutionListener,
+            TestEngineExecutionResults testEngineExecutionResults) {
+        TestEngineExecutionContext testEngineExecutionContext =
+                new TestEngineExecutionContext(engineExecutionListener, testEngineExecutionResults);
+
+        testEngineExecutionContext.setThreadResourceAccounting(threadResourceAccounting);
+
+        return testEngineExecutionContext;
+    }
+
+    /**
+     * Method to notify the EngineExecutionListener that a TestDescriptor has started
+     *
+     * @param testDescriptor
+     * @param testEngineExecutionContext
+     */
+    private void executionStarted(
+            TestEngineAbstractTestDescriptor testDescriptor,
+            TestEngineExecutionContext testEngineExecutionContext) {
+        // Synchronized with abandon(), so a TestDescriptor is only reported once
+        synchronized (testEngineExecutionContext.getRoot()) {
+            testDescriptor.setStartNanoTime(System.nanoTime());
+            testEngineWorkerTracker.executionStarted(testDescriptor);
+
+            if (threadResourceAccounting) {
+                testDescriptor.setStartThreadResources(ThreadResources.getCpuNanoTime(), ThreadResources.getAllocatedBytes());
+            }
+
+            if (!testEngineExecutionContext.isAbandoned()) {
+                testEngineExecutionContext.getEngineExecutionListener().executionStarted(testDescriptor);
+            }
+        }
+    }
+
+    /**
+     * Method to notify the EngineExecutionListener that a TestDescriptor has finished,
+     * adding the TestExecutionResult to the TestEngineExecutionResults
+     *
+     * @param testDescriptor
+     * @param testExecutionResult the first failure, or null if successful
+     * @param testEngineExecutionContext
+     * @return the TestExecutionResult
+     */
+    private TestExecutionResult executionFinished(
+            TestEngineAbstractTestDescriptor testDescriptor,
+            TestExecutionResult testExecutionResult,
+            TestEngineExecutionContext testEngineExecutionContext) {
+        boolean failFastFailure = false;
+
+        if (testExecutionResult == null) {
+            testExecutionResult = TestExecutionResult.successful();
+        } else if (testExecutionResult.getStatus() == TestExecutionResult.Status.FAILED) {
+            if (testEngineExecutionContext.isCancelled()) {
+                // Failures caused by a fail fast interrupt are reported as aborted
+                testExecutionResult = TestExecutionResult.aborted(testExecutionResult.getThrowable().orElse(null));
+            } else if (failFastCount > 0) {
+                // A failure is propagated to the parent TestDescriptors, but only counted once
+                failFastFailure =
+                        testEngineExecutionContext.addFailureThrowable(testExecutionResult.getThrowable().orElse(null))
+                                && (failureCount.incrementAndGet() == failFastCount);
+            }
+        }
+
+        // Synchronized with abandon(), so a TestDescriptor is only reported once
+        synchronized (testEngineExecutionContext.getRoot()) {
+            testDescriptor.setFinishNanoTime(System.nanoTime());
+            testEngineWorkerTracker.executionFinished(testDescriptor);
+
+            if (threadResourceAccounting) {
+                testDescriptor.setFinishThreadResources(ThreadResources.getCpuNanoTime(), ThreadResources.getAllocatedBytes());
+            }
+
+            if (!testEngineExecutionContext.isAbandoned()) {
+                testEngineExecutionContext.getEngineExecutionListener().executionFinished(testDescriptor, testExecutionResult);
+                testEngineExecutionContext.getTestEngineExecutionResults().add(testDescriptor, testExecutionResult);
+            }
+        }
+
+        if (failFastFailure) {
+            failFast();
+        }
+
+        return testExecutionResult;
+    }
+
+    /**
+     * Method to trigger fail fast, skipping tests not yet started and cancelling
+     * test classes executing on other threads
+     */
+    private void failFast() {
+        LOGGER.info("Fail fast after [%d] failure(s), cancelling remaining tests", failFastCount);
+
+        failFast = true;
+
+        for (Map.Entry<Thread, TestEngineExecutionContext> entry : testEngineExecutionContexts.entrySet()) {
+            Thread thread = entry.getKey();
+            if (thread != Thread.currentThread()) {
+                entry.getValue().cancel();
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Method to get the reason to skip a TestDescriptor that hasn't started
+     *
+     * @param testEngineExecutionContext
+     * @return the reason, or null if the TestDescriptor should be executed
+     */
+    private String getSkipReason(TestEngineExecutionContext testEngineExecutionContext) {
+        if (testEngineExecutionContext.isTimedOut()) {
+            return "Timed out";
+        }
+
+        if (failFast) {
+            return "Fail fast";
+        }
+
+        if (shutdown) {
+            return "Shutdown";
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to notify the EngineExecutionListener that a TestDescriptor was skipped,
+     * adding it to the TestEngineExecutionResults
+     * <p>
+     * The finish time is set, without a start time, to mark the TestDescriptor as reported
+     *
+     * @param testDescriptor
+     * @param reason
+     * @param testEngineExecutionContext
+     */
+    private void executionSkipped(
+            TestEngineAbstractTestDescriptor testDescriptor,
+            String reason,
+            TestEngineExecutionContext testEngineExecutionContext) {
+        synchronized (testEngineExecutionContext.getRoot()) {
+            testDescriptor.setFinishNanoTime(System.nanoTime());
+
+            if (!testEngineExecutionContext.isAbandoned()) {
+                testEngineExecutionContext.getEngineExecutionListener().executionSkipped(testDescriptor, reason);
+                testEngineExecutionContext.getTestEngineExecutionResults().addSkipped(testDescriptor);
+            }
+        }
+    }
+
+    /**
+     * Method to abandon the test class executing on a Worker's thread in the thread pool, reporting
+     * its unfinished TestDescriptors as failed and replacing the thread in the thread pool
+     *
+     * @param worker
+     * @return true if the test class was abandoned, false if it can't be abandoned
+     */
+    private boolean abandon(TestEngineWorkerTracker.Worker worker) {
+        TestEngineExecutionContext testEngineExecutionContext = testEngineExecutionContexts.get(worker.getThread());
+
+        // A test method executing in parallel abandons the test class, which is tracked by the thread executing it
+        if ((testEngineExecutionContext != null) && (testEngineExecutionContext.getRoot() != testEngineExecutionContext)) {
+            worker = getWorker(testEngineExecutionContext.getRoot());
+            if (worker == null) {
+                return false;
+            }
+
+            testEngineExecutionContext = testEngineExecutionContext.getRoot();
+        }
+
+        TestEngineClassTestDescriptor testEngineClassTestDescriptor = worker.getTestEngineClassTestDescriptor();
+
+        // Only test classes executed in the thread pool have a CountDownLatch
+        if ((testEngineExecutionContext == null) || (testEngineExecutionContext.getCountDownLatch() == null)) {
+            return false;
+        }
+
+        String message =
+                String.format(
+                        "Test abandoned after making no progress for [%d] ms",
+                        watchdogThresholdMilliseconds);
+
+        if (!abort(worker, TestExecutionResult.failed(new TestEngineException(message)), "Test class abandoned")) {
+            return false;
+        }
+
+        // Replace the abandoned thread, increasing the maximum first since it can't be less than the core size
+        ThreadPoolExecutor threadPoolExecutor = testEngineExecutionContext.getThreadPoolExecutor();
+        synchronized (threadPoolExecutor) {
+            threadPoolExecutor.setMaximumPoolSize(threadPoolExecutor.getMaximumPoolSize() + 1);
+            threadPoolExecutor.setCorePoolSize(threadPoolExecutor.getCorePoolSize() + 1);
+        }
+
+        // The replacement thread can execute pending test classes whose resource locks don't
+        // conflict with those still held by the abandoned test class
+        testEngineResourceLockScheduler.reschedule();
+
+        // Replace the threads executing test methods in parallel, which are also abandoned
+        int threadCount = testEngineExecutionContext.interruptThreads();
+        if (threadCount > 0) {
+            synchronized (methodExecutorService) {
+                methodExecutorService.setMaximumPoolSize(methodExecutorService.getMaximumPoolSize() + threadCount);
+                methodExecutorService.setCorePoolSize(methodExecutorService.getCorePoolSize() + threadCount);
+            }
+        }
+
+        LOGGER.error(
+                "Test class [%s] abandoned on thread [%s]",
+                testEngineClassTestDescriptor.getTestClass().getName(),
+                worker.getThread().getName());
+
+        if (testEngineResourceLockScheduler.isHeld(testEngineClassTestDescriptor)) {
+            LOGGER.warning(
+                    "Test class [%s] holds resource locks until its thread returns",
+                    testEngineClassTestDescriptor.getTestClass().getName());
+        }
+
+        return true;
+    }
+
+    /**
+     * Method to get the Worker of the thread executing a test class
+     *
+     * @param testEngineExecutionContext the root context of the test class
+     * @return the Worker, or null if the test class isn't executing
+     */
+    private TestEngineWorkerTracker.Worker getWorker(TestEngineExecutionContext testEngineExecutionContext) {
+        for (Map.Entry<Thread, TestEngineExecutionContext> entry : testEngineExecutionContexts.entrySet()) {
+            if (entry.getValue() == testEngineExecutionContext) {
+                return testEngineWorkerTracker.getWorker(entry.getKey());
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to abort the test class executing on a Worker's thread, reporting its unfinished
+     * TestDescriptors without waiting for them
+     * <p>
+     * The thread continues running, but nothing further is reported for the test class
+     *
+     * @param worker
+     * @param testExecutionResult the TestExecutionResult of TestDescriptors that have started
+     * @param skipReason the reason TestDescriptors that haven't started are skipped
+     * @return true if the test class was aborted, false if it already completed
+     */
+    private boolean abort(
+            TestEngineWorkerTracker.Worker worker,
+            TestExecutionResult testExecutionResult,
+            String skipReason) {
+        TestEngineExecutionContext testEngineExecutionContext = testEngineExecutionContexts.get(worker.getThread());
+        TestEngineClassTestDescriptor testEngineClassTestDescriptor = worker.getTestEngineClassTestDescriptor();
+
+        if ((testEngineExecutionContext == null) || (testEngineClassTestDescriptor == null)) {
+            return false;
+        }
+
+        synchronized (testEngineExecutionContext) {
+            if (!testEngineExecutionContext.complete()) {
+                return false;
+            }
+
+            abort(testEngineClassTestDescriptor, testExecutionResult, skipReason, testEngineExecutionContext);
+
+            testEngineExecutionContext.abandon();
+        }
+
+        testEngineExecutionContexts.remove(worker.getThread(), testEngineExecutionContext);
+
+        if (testEngineExecutionContext.getCountDownLatch() != null) {
+            completed(testEngineClassTestDescriptor, testEngineExecutionContext.getCountDownLatch());
+        }
+
+        return true;
+    }
+
+    /**
+     * Method to signal a test class has completed, either by finishing or being aborted
+     * <p>
+     * Resource locks aren't released, since an aborted test class may still be executing
+     *
+     * @param testEngineClassTestDescriptor
+     * @param countDownLatch
+     */
+    private void completed(TestEngineClassTestDescriptor testEngineClassTestDescriptor, CountDownLatch countDownLatch) {
+        LOGGER.trace("test class [%s] completed", testEngineClassTestDescriptor.getTestClass().getName());
+        countDownLatch.countDown();
+    }
+
+    /**
+     * Method to report an aborted TestDescriptor, and its descendants, that haven't finished
+     *
+     * @param testDescriptor
+     * @param testExecutionResult
+     * @param skipReason
+     * @param testEngineExecutionContext
+     */
+    private static void abort(
+            TestEngineAbstractTestDescriptor testDescriptor,
+            TestExecutionResult testExecutionResult,
+            String skipReason,
+            TestEngineExecutionContext testEngineExecutionContext) {
+        EngineExecutionListener engineExecutionListener = testEngineExecutionContext.getEngineExecutionListener();
+        TestEngineExecutionResults testEngineExecutionResults = testEngineExecutionContext.getTestEngineExecutionResults();
+
+        if (testDescriptor.getFinishNanoTime() != 0) {
+            return;
+        }
+
+        if (testDescriptor.getStartNanoTime() == 0) {
+            engineExecutionListener.executionSkipped(testDescriptor, skipReason);
+            testEngineExecutionResults.addSkipped(testDescriptor);
+            return;
+        }
+
+        for (TestDescriptor child : testDescriptor.getChildren()) {
+            abort((TestEngineAbstractTestDescriptor) child, testExecutionResult, skipReason, testEngineExecutionContext);
+        }
+
+        testDescriptor.setFinishNanoTime(System.nanoTime());
+
+        engineExecutionListener.executionFinished(testDescriptor, testExecutionResult);
+        testEngineExecutionResults.add(testDescriptor, testExecutionResult);
+    }
+
+    /**
+     * Method to finish a ScheduledTimeout, reporting a timeout failure if it expired
+     *
+     * @param scheduledTimeout may be null
+     * @param testExecutionResult the current first failure, may be null
+     * @return the timeout failure if the ScheduledTimeout expired, else the TestExecutionResult
+     */
+    private static TestExecutionResult timeout(
+            TestEngineTimeoutScheduler.ScheduledTimeout scheduledTimeout,
+            TestExecutionResult testExecutionResult) {
+        if ((scheduledTimeout != null) && scheduledTimeout.finish()) {
+            return TestExecutionResult.failed(scheduledTimeout.toTestEngineException());
+        }
+
+        return testExecutionResult;
+    }
+
+    /**
+     * Method to get the first failed TestExecutionResult
+     *
+     * @param testExecutionResult the current first failure, may be null
+     * @param candidateTestExecutionResult
+     * @return the first failed TestExecutionResult, or null if neither failed
+     */
+    private static TestExecutionResult firstFailure(
+            TestExecutionResult testExecutionResult,
+            TestExecutionResult candidateTestExecutionResult) {
+        if (testExecutionResult != null) {
+            return testExecutionResult;
+        }
+
+        if ((candidateTestExecutionResult != null)
+                && (candidateTestExecutionResult.getStatus() != TestExecutionResult.Status.SUCCESSFUL)) {
+            return candidateTestExecutionResult;
+        }
+
+        return null;
     }
 
     /**
@@ -418,6 +1324,23 @@ public class TestEngineExecutor {
         }
     }
 
+    /**
+     * Method to count the tests of a TestDescriptor and its descendants, walking
+     * the children rather than copying all descendants into a Set
+     *
+     * @param testDescriptor
+     * @return
+     */
+    private static long countTests(TestDescriptor testDescriptor) {
+        long count = testDescriptor.isTest() ? 1 : 0;
+
+        for (TestDescriptor childTestDescriptor : testDescriptor.getChildren()) {
+            count += countTests(childTestDescriptor);
+        }
+
+        return count;
+    }
+
     public static void printStackTrace(Throwable t, PrintStream printStream) {
         printStream.println(t.getClass().getName() + ": " + t.getMessage());
 
@@ -441,23 +1364,4 @@ public class TestEngineExecutor {
         System.err.flush();
         System.out.flush();
     }
-
-    private static class NamedThreadFactory implements ThreadFactory {
-
-        private int threadId = 1;
-
-        @Override
-        public Thread newThread(Runnable r) {
-            String threadName;
-            synchronized (this) {
-                threadName = String.format("test-engine-%02d", this.threadId);
-                this.threadId++;
-            }
-
-            Thread thread = new Thread(r);
-            thread.setName(threadName);
-            thread.setDaemon(true);
-            return thread;
-        }
-    }
 }
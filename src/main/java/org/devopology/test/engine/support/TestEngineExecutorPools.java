@@ -0,0 +1,248 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support;
+
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.devopology.test.engine.support.predicate.TestClassTagPredicate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Class to implement the named thread pools test classes are executed in
+ * <p>
+ * Test classes are executed in the default thread pool, unless assigned to a named thread pool
+ * using {@code @TestEngine.Pool} or a named thread pool tag regex
+ */
+public class TestEngineExecutorPools {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineExecutorPools.class);
+
+    /**
+     * The name of the default thread pool
+     */
+    public static final String DEFAULT = "default";
+
+    private static final Pattern POOL_NAME_PATTERN = Pattern.compile("[a-zA-Z0-9_]+");
+
+    private final Map<String, ThreadPoolExecutor> threadPoolExecutors;
+    private final Map<String, TestClassTagPredicate> testClassTagPredicates;
+
+    /**
+     * Constructor
+     *
+     * @param threadCount the thread count of the default thread pool, and named thread pools without a thread count
+     */
+    public TestEngineExecutorPools(int threadCount) {
+        this.threadPoolExecutors = new LinkedHashMap<>();
+        this.testClassTagPredicates = new LinkedHashMap<>();
+
+        threadPoolExecutors.put(DEFAULT, newThreadPoolExecutor(threadCount, "test-engine-%02d"));
+
+        String poolNames =
+                TestEngineConfiguration.getValue(
+                        "devopology.test.engine.pools",
+                        "DEVOPOLOGY_TEST_ENGINE_POOLS");
+
+        if (poolNames == null) {
+            return;
+        }
+
+        for (String poolName : poolNames.split(",")) {
+            poolName = poolName.trim();
+            if (poolName.isEmpty()) {
+                continue;
+            }
+
+            if (!POOL_NAME_PATTERN.matcher(poolName).matches()
+                    || DEFAULT.equals(poolName)
+                    || threadPoolExecutors.containsKey(poolName)) {
+                throw new TestEngineException(String.format("Invalid pool name [%s]", poolName));
+            }
+
+            String environmentVariablePrefix = "DEVOPOLOGY_TEST_ENGINE_POOL_" + poolName.toUpperCase(Locale.ENGLISH);
+
+            String threadCountValue =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.pool." + poolName + ".thread.count",
+                            environmentVariablePrefix + "_THREAD_COUNT");
+
+            int poolThreadCount = threadCountValue != null ? parseThreadCount(threadCountValue) : threadCount;
+
+            threadPoolExecutors.put(poolName, newThreadPoolExecutor(poolThreadCount, "test-engine-" + poolName + "-%02d"));
+
+            String tagRegex =
+                    TestEngineConfiguration.getValue(
+                            "devopology.test.engine.pool." + poolName + ".tag",
+                            environmentVariablePrefix + "_TAG");
+
+            if (tagRegex != null) {
+                testClassTagPredicates.put(poolName, TestClassTagPredicate.of(tagRegex.trim()));
+            }
+
+            LOGGER.trace("pool [%s] thread count [%d] tag [%s]", poolName, poolThreadCount, tagRegex);
+        }
+    }
+
+    /**
+     * Method to get the default thread pool
+     *
+     * @return
+     */
+    public ThreadPoolExecutor getDefault() {
+        return threadPoolExecutors.get(DEFAULT);
+    }
+
+    /**
+     * Method to get all thread pools, including the default thread pool
+     *
+     * @return
+     */
+    public Collection<ThreadPoolExecutor> getThreadPoolExecutors() {
+        return Collections.unmodifiableCollection(threadPoolExecutors.values());
+    }
+
+    /**
+     * Method to shutdown all thread pools, allowing tasks in flight to finish
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor threadPoolExecutor : threadPoolExecutors.values()) {
+            threadPoolExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Method to get the thread pool a test class is executed in
+     * <p>
+     * {@code @TestEngine.Pool} takes precedence, then named thread pool tag regexes in the order
+     * the named thread pools are configured
+     * <p>
+     * Not thread-safe, since TestClassTagPredicate reuses a Matcher
+     *
+     * @param testClass
+     * @return
+     */
+    public ThreadPoolExecutor getThreadPoolExecutor(Class<?> testClass) {
+        String poolName = TestEngineUtils.getPool(testClass);
+        if (poolName != null) {
+            ThreadPoolExecutor threadPoolExecutor = threadPoolExecutors.get(poolName);
+            if (threadPoolExecutor != null) {
+                return threadPoolExecutor;
+            }
+
+            LOGGER.warning(
+                    "Test class [%s] pool [%s] isn't configured, using the default pool",
+                    testClass.getName(),
+                    poolName);
+
+            return getDefault();
+        }
+
+        for (Map.Entry<String, TestClassTagPredicate> entry : testClassTagPredicates.entrySet()) {
+            if (entry.getValue().test(testClass)) {
+                return threadPoolExecutors.get(entry.getKey());
+            }
+        }
+
+        return getDefault();
+    }
+
+    /**
+     * Method to parse a thread count, either an integer or a multiple of the number of
+     * available processors (e.g. "8x")
+     *
+     * @param value
+     * @return
+     */
+    public static int parseThreadCount(String value) {
+        String trimmedValue = value.trim();
+        int threadCount;
+
+        try {
+            if (trimmedValue.endsWith("x")) {
+                double multiple = Double.parseDouble(trimmedValue.substring(0, trimmedValue.length() - 1));
+                threadCount = (int) Math.round(multiple * Runtime.getRuntime().availableProcessors());
+            } else {
+                threadCount = Integer.parseInt(trimmedValue);
+            }
+        } catch (NumberFormatException e) {
+            throw new TestEngineException(String.format("Invalid thread count [%s]", value), e);
+        }
+
+        if (threadCount < 1) {
+            throw new TestEngineException(String.format("Invalid thread count [%s]", value));
+        }
+
+        return threadCount;
+    }
+
+    /**
+     * Method to create a fixed size thread pool of daemon threads
+     *
+     * @param threadCount
+     * @param threadNameFormat the thread name format, with the thread id as an argument
+     * @return
+     */
+    static ThreadPoolExecutor newThreadPoolExecutor(int threadCount, String threadNameFormat) {
+        return new ThreadPoolExecutor(
+                threadCount,
+                threadCount,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamedThreadFactory(threadNameFormat));
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+
+        private final String threadNameFormat;
+        private int threadId = 1;
+
+        /**
+         * Constructor
+         *
+         * @param threadNameFormat the thread name format, with the thread id as an argument
+         */
+        NamedThreadFactory(String threadNameFormat) {
+            this.threadNameFormat = threadNameFormat;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            String threadName;
+            synchronized (this) {
+                threadName = String.format(threadNameFormat, this.threadId);
+                this.threadId++;
+            }
+
+            Thread thread = new Thread(r);
+            thread.setName(threadName);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
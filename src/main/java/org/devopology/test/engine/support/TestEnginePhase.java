@@ -0,0 +1,48 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support;
+
+/**
+ * Enum of test class lifecycle phases
+ */
+public enum TestEnginePhase {
+
+    BEFORE_CLASS("@TestEngine.BeforeClass"),
+    CONSTRUCTOR("constructor"),
+    PARAMETER_SETTER("@TestEngine.ParameterSetter"),
+    BEFORE_ALL("@TestEngine.BeforeAll"),
+    BEFORE_EACH("@TestEngine.BeforeEach"),
+    TEST("@TestEngine.Test"),
+    AFTER_EACH("@TestEngine.AfterEach"),
+    AFTER_ALL("@TestEngine.AfterAll"),
+    AFTER_CLASS("@TestEngine.AfterClass");
+
+    private final String displayName;
+
+    TestEnginePhase(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Method to get the display name
+     *
+     * @return
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
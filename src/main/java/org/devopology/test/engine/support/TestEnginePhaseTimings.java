@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Class to accumulate the time spent in each TestEnginePhase
+ */
+public class TestEnginePhaseTimings {
+
+    private static final TestEnginePhase[] PHASES = TestEnginePhase.values();
+
+    private final AtomicLongArray nanoTimes;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray cpuNanoTimes;
+    private final AtomicLongArray allocatedBytes;
+
+    /**
+     * Constructor
+     */
+    public TestEnginePhaseTimings() {
+        this.nanoTimes = new AtomicLongArray(PHASES.length);
+        this.counts = new AtomicLongArray(PHASES.length);
+        this.cpuNanoTimes = new AtomicLongArray(PHASES.length);
+        this.allocatedBytes = new AtomicLongArray(PHASES.length);
+    }
+
+    /**
+     * Method to add the time of a single execution of a TestEnginePhase
+     *
+     * @param testEnginePhase
+     * @param nanoTime
+     */
+    public void add(TestEnginePhase testEnginePhase, long nanoTime) {
+        int ordinal = testEnginePhase.ordinal();
+        nanoTimes.addAndGet(ordinal, nanoTime);
+        counts.incrementAndGet(ordinal);
+    }
+
+    /**
+     * Method to add the time, CPU time, and allocated bytes of a single execution of a TestEnginePhase
+     *
+     * @param testEnginePhase
+     * @param nanoTime
+     * @param cpuNanoTime the CPU time, or -1 if not measured
+     * @param allocatedBytes the allocated bytes, or -1 if not measured
+     */
+    public void add(TestEnginePhase testEnginePhase, long nanoTime, long cpuNanoTime, long allocatedBytes) {
+        add(testEnginePhase, nanoTime);
+
+        int ordinal = testEnginePhase.ordinal();
+
+        if (cpuNanoTime > 0) {
+            this.cpuNanoTimes.addAndGet(ordinal, cpuNanoTime);
+        }
+
+        if (allocatedBytes > 0) {
+            this.allocatedBytes.addAndGet(ordinal, allocatedBytes);
+        }
+    }
+
+    /**
+     * Method to add all times of another TestEnginePhaseTimings
+     *
+     * @param testEnginePhaseTimings
+     */
+    public void add(TestEnginePhaseTimings testEnginePhaseTimings) {
+        for (int i = 0; i < PHASES.length; i++) {
+            nanoTimes.addAndGet(i, testEnginePhaseTimings.nanoTimes.get(i));
+            counts.addAndGet(i, testEnginePhaseTimings.counts.get(i));
+            cpuNanoTimes.addAndGet(i, testEnginePhaseTimings.cpuNanoTimes.get(i));
+            allocatedBytes.addAndGet(i, testEnginePhaseTimings.allocatedBytes.get(i));
+        }
+    }
+
+    /**
+     * Method to get the total time of a TestEnginePhase
+     *
+     * @param testEnginePhase
+     * @return
+     */
+    public long getNanoTime(TestEnginePhase testEnginePhase) {
+        return nanoTimes.get(testEnginePhase.ordinal());
+    }
+
+    /**
+     * Method to get the number of executions of a TestEnginePhase
+     *
+     * @param testEnginePhase
+     * @return
+     */
+    public long getCount(TestEnginePhase testEnginePhase) {
+        return counts.get(testEnginePhase.ordinal());
+    }
+
+    /**
+     * Method to get the total CPU time of a TestEnginePhase
+     *
+     * @param testEnginePhase
+     * @return the CPU time, or 0 if not measured
+     */
+    public long getCpuNanoTime(TestEnginePhase testEnginePhase) {
+        return cpuNanoTimes.get(testEnginePhase.ordinal());
+    }
+
+    /**
+     * Method to get the total heap bytes allocated by a TestEnginePhase
+     *
+     * @param testEnginePhase
+     * @return the allocated bytes, or 0 if not measured
+     */
+    public long getAllocatedBytes(TestEnginePhase testEnginePhase) {
+        return allocatedBytes.get(testEnginePhase.ordinal());
+    }
+
+    /**
+     * Method to get the total time of all TestEnginePhases
+     *
+     * @return
+     */
+    public long getTotalNanoTime() {
+        long totalNanoTime = 0;
+        for (int i = 0; i < PHASES.length; i++) {
+            totalNanoTime += nanoTimes.get(i);
+        }
+
+        return totalNanoTime;
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.support.api.ParameterImpl;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.devopology.test.engine.support.util.ObjectInputFilters;
+import org.junit.platform.engine.TestDescriptor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Class to implement a test plan, the discovered test classes, test methods, and test parameters,
+ * that can be written to a file and read back to execute tests without discovery
+ * <p>
+ * Test parameters are only included when all test parameters of a test class are serializable,
+ * otherwise the @TestEngine.ParameterSupplier method is invoked when the test plan is read
+ * <p>
+ * When read, test parameter values are limited to JDK classes, test engine API classes, and classes
+ * in the test class package (or subpackages.) If a value can't be deserialized, the @TestEngine.ParameterSupplier method is invoked
+ * <p>
+ * The test methods of a test class are taken from its first test parameter, since discovery adds the same
+ * test methods to every test parameter. A test class whose test parameters have different test methods
+ * (e.g. a test class narrowed by a rerun file) can't be written
+ */
+public class TestEnginePlan {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEnginePlan.class);
+
+    private static final int MAGIC = 0x44544550;
+    private static final int VERSION = 1;
+    private static final int MAXIMUM_LENGTH = 16 * 1024 * 1024;
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Constructor
+     *
+     * @param entries
+     */
+    private TestEnginePlan(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Method to get the test plan entries, in test class execution order
+     *
+     * @return
+     */
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Method to get the test plan entry of a test class
+     *
+     * @param className
+     * @return the entry, or null if the test class isn't in the test plan
+     */
+    public Entry getEntry(String className) {
+        return entries.get(className);
+    }
+
+    /**
+     * Method to get a test plan containing only a test class
+     *
+     * @param className
+     * @return the test plan, or null if the test class isn't in the test plan
+     */
+    public TestEnginePlan select(String className) {
+        Entry entry = entries.get(className);
+        if (entry == null) {
+            return null;
+        }
+
+        return new TestEnginePlan(Collections.singletonMap(className, entry));
+    }
+
+    /**
+     * Method to write the test plan of discovered TestDescriptors to a file
+     *
+     * @param file
+     * @param rootTestDescriptor
+     * @return the number of test classes written
+     */
+    public static int write(File file, TestDescriptor rootTestDescriptor) {
+        int count = 0;
+
+        try (DataOutputStream dataOutputStream =
+                     new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))))) {
+            dataOutputStream.writeInt(MAGIC);
+            dataOutputStream.writeInt(VERSION);
+            dataOutputStream.writeInt(rootTestDescriptor.getChildren().size());
+
+            for (TestDescriptor testDescriptor : rootTestDescriptor.getChildren()) {
+                TestEngineClassTestDescriptor testEngineClassTestDescriptor = (TestEngineClassTestDescriptor) testDescriptor;
+                String className = testEngineClassTestDescriptor.getTestClass().getName();
+
+                List<Parameter> testParameters = new ArrayList<>();
+                List<String> methodNames = null;
+
+                for (TestDescriptor child : testEngineClassTestDescriptor.getChildren()) {
+                    TestEngineParameterTestDescriptor testEngineParameterTestDescriptor = (TestEngineParameterTestDescriptor) child;
+                    testParameters.add(testEngineParameterTestDescriptor.getTestParameter());
+
+                    List<String> parameterMethodNames = new ArrayList<>();
+                    for (TestDescriptor testMethodTestDescriptor : testEngineParameterTestDescriptor.getChildren()) {
+                        parameterMethodNames.add(((TestEngineTestMethodTestDescriptor) testMethodTestDescriptor).getTestMethod().getName());
+                    }
+
+                    // The test plan records the test methods of the first test parameter for all test parameters
+                    if (methodNames == null) {
+                        methodNames = parameterMethodNames;
+                    } else if (!methodNames.equals(parameterMethodNames)) {
+                        throw new TestEngineException(
+                                String.format(
+                                        "Test class [%s] test parameters have different test methods, can't write test plan [%s]",
+                                        className,
+                                        file));
+                    }
+                }
+
+                if (methodNames == null) {
+                    methodNames = Collections.emptyList();
+                }
+
+                writeString(dataOutputStream, className);
+
+                dataOutputStream.writeInt(methodNames.size());
+                for (String methodName : methodNames) {
+                    writeString(dataOutputStream, methodName);
+                }
+
+                List<byte[]> serializedValues = serialize(testParameters);
+                if (serializedValues == null) {
+                    LOGGER.trace("test class [%s] test parameters aren't serializable", className);
+                    dataOutputStream.writeBoolean(false);
+                } else {
+                    dataOutputStream.writeBoolean(true);
+                    dataOutputStream.writeInt(testParameters.size());
+                    for (int i = 0; i < testParameters.size(); i++) {
+                        writeString(dataOutputStream, testParameters.get(i).name());
+                        dataOutputStream.writeInt(serializedValues.get(i).length);
+                        dataOutputStream.write(serializedValues.get(i));
+                    }
+                }
+
+                count++;
+            }
+        } catch (IOException e) {
+            throw new TestEngineException(String.format("Exception writing test plan [%s]", file), e);
+        }
+
+        return count;
+    }
+
+    /**
+     * Method to read a test plan from a file
+     *
+     * @param file
+     * @return
+     */
+    public static TestEnginePlan read(File file) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+
+        try (DataInputStream dataInputStream =
+                     new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            if ((dataInputStream.readInt() != MAGIC) || (dataInputStream.readInt() != VERSION)) {
+                throw new TestEngineException(String.format("Invalid test plan [%s]", file));
+            }
+
+            int classCount = checkLength(dataInputStream.readInt());
+            for (int i = 0; i < classCount; i++) {
+                String className = readString(dataInputStream);
+
+                int methodCount = checkLength(dataInputStream.readInt());
+                List<String> methodNames = new ArrayList<>(methodCount);
+                for (int j = 0; j < methodCount; j++) {
+                    methodNames.add(readString(dataInputStream));
+                }
+
+                List<Parameter> testParameters = null;
+                if (dataInputStream.readBoolean()) {
+                    ObjectInputFilter objectInputFilter = createObjectInputFilter(className);
+                    int parameterCount = checkLength(dataInputStream.readInt());
+                    testParameters = new ArrayList<>(parameterCount);
+                    for (int j = 0; j < parameterCount; j++) {
+                        String name = readString(dataInputStream);
+                        byte[] bytes = new byte[checkLength(dataInputStream.readInt())];
+                        dataInputStream.readFully(bytes);
+
+                        // Continue reading the remaining test parameters, to stay aligned with the next test class
+                        if (testParameters != null) {
+                            try {
+                                testParameters.add(new ParameterImpl(name, deserialize(bytes, objectInputFilter)));
+                            } catch (InvalidClassException | ClassNotFoundException e) {
+                                LOGGER.warning(
+                                        "test class [%s] test parameter [%s] can't be read, invoking @TestEngine.ParameterSupplier method (%s)",
+                                        className,
+                                        name,
+                                        e.getMessage());
+                                testParameters = null;
+                            }
+                        }
+                    }
+                }
+
+                entries.put(className, new Entry(className, methodNames, testParameters));
+            }
+        } catch (IOException e) {
+            throw new TestEngineException(String.format("Exception reading test plan [%s]", file), e);
+        }
+
+        return new TestEnginePlan(entries);
+    }
+
+    /**
+     * Method to serialize the values of test parameters
+     *
+     * @param testParameters
+     * @return the serialized values, or null if any test parameter can't be serialized
+     */
+    private static List<byte[]> serialize(List<Parameter> testParameters) {
+        List<byte[]> serializedValues = new ArrayList<>(testParameters.size());
+
+        for (Parameter testParameter : testParameters) {
+            // Custom Parameter implementations can't be recreated
+            if (testParameter.getClass() != ParameterImpl.class) {
+                return null;
+            }
+
+            Object value = testParameter.value();
+            if ((value != null) && !(value instanceof Serializable)) {
+                return null;
+            }
+
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+                objectOutputStream.writeObject(value);
+            } catch (IOException e) {
+                return null;
+            }
+
+            serializedValues.add(byteArrayOutputStream.toByteArray());
+        }
+
+        return serializedValues;
+    }
+
+    /**
+     * Method to create the ObjectInputFilter for the test parameter values of a test class,
+     * allowing JDK classes, test engine API classes, and classes in the test class package (or subpackages)
+     *
+     * @param className
+     * @return
+     */
+    private static ObjectInputFilter createObjectInputFilter(String className) {
+        int index = className.lastIndexOf('.');
+        String packagePrefix = index == -1 ? "" : className.substring(0, index + 1);
+
+        return ObjectInputFilters.of(clazz ->
+                clazz.getName().startsWith("java.")
+                        || clazz.getName().startsWith(Parameter.class.getPackageName() + ".")
+                        || clazz.getName().startsWith(packagePrefix));
+    }
+
+    /**
+     * Method to deserialize a test parameter value
+     *
+     * @param bytes
+     * @param objectInputFilter
+     * @return
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    private static Object deserialize(byte[] bytes, ObjectInputFilter objectInputFilter) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            objectInputStream.setObjectInputFilter(objectInputFilter);
+            return objectInputStream.readObject();
+        }
+    }
+
+    /**
+     * Method to write a String, without the 64K limit of DataOutputStream.writeUTF()
+     *
+     * @param dataOutputStream
+     * @param string
+     * @throws IOException
+     */
+    private static void writeString(DataOutputStream dataOutputStream, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        dataOutputStream.writeInt(bytes.length);
+        dataOutputStream.write(bytes);
+    }
+
+    /**
+     * Method to read a String
+     *
+     * @param dataInputStream
+     * @return
+     * @throws IOException
+     */
+    private static String readString(DataInputStream dataInputStream) throws IOException {
+        byte[] bytes = new byte[checkLength(dataInputStream.readInt())];
+        dataInputStream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Method to check a length or count read from a test plan
+     *
+     * @param length
+     * @return the length
+     * @throws IOException
+     */
+    private static int checkLength(int length) throws IOException {
+        if ((length < 0) || (length > MAXIMUM_LENGTH)) {
+            throw new IOException(String.format("Invalid length [%d]", length));
+        }
+
+        return length;
+    }
+
+    /**
+     * Class to implement a test plan entry, a test class with its test methods and test parameters
+     */
+    public static class Entry {
+
+        private final String className;
+        private final List<String> methodNames;
+        private final List<Parameter> testParameters;
+
+        /**
+         * Constructor
+         *
+         * @param className
+         * @param methodNames
+         * @param testParameters
+         */
+        Entry(String className, List<String> methodNames, List<Parameter> testParameters) {
+            this.className = className;
+            this.methodNames = methodNames;
+            this.testParameters = testParameters;
+        }
+
+        /**
+         * Method to get the test class name
+         *
+         * @return
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Method to get the test method names, executed for every test parameter
+         *
+         * @return
+         */
+        public List<String> getMethodNames() {
+            return methodNames;
+        }
+
+        /**
+         * Method to get the test parameters
+         *
+         * @return the test parameters, or null if the @TestEngine.ParameterSupplier method must be invoked
+         */
+        public List<Parameter> getTestParameters() {
+            return testParameters;
+        }
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Class to implement a rerun file, the test classes, test parameters, and test methods that failed,
+ * that can be written to a file and read back to only execute the failed tests
+ * <p>
+ * Each line is a tab separated test class name, test parameter index, test parameter name, and test method name.
+ * A line without a test method selects all test methods of the test parameter, and a line with only
+ * a test class name selects the whole test class (i.e. a @TestEngine.BeforeClass method failed)
+ */
+public class TestEngineRerunFile {
+
+    private static final String HEADER = "# Devopology Test Engine rerun file";
+
+    private final Map<String, ClassEntry> classEntries;
+
+    /**
+     * Constructor
+     */
+    public TestEngineRerunFile() {
+        this(new LinkedHashMap<>());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param classEntries
+     */
+    private TestEngineRerunFile(Map<String, ClassEntry> classEntries) {
+        this.classEntries = classEntries;
+    }
+
+    /**
+     * Method to return whether the rerun file doesn't contain any failed tests
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return classEntries.isEmpty();
+    }
+
+    /**
+     * Method to get the failed test class names, in the order they failed
+     *
+     * @return
+     */
+    public Collection<String> getClassNames() {
+        return Collections.unmodifiableCollection(classEntries.keySet());
+    }
+
+    /**
+     * Method to get a rerun file containing only a test class
+     *
+     * @param className
+     * @return the rerun file, or null if the test class isn't in the rerun file
+     */
+    public TestEngineRerunFile select(String className) {
+        ClassEntry classEntry = classEntries.get(className);
+        if (classEntry == null) {
+            return null;
+        }
+
+        return new TestEngineRerunFile(Collections.singletonMap(className, classEntry));
+    }
+
+    /**
+     * Method to get the highest failed test parameter index of a test class
+     *
+     * @param className
+     * @return the test parameter index, or -1 if all test parameters are selected
+     */
+    public int getMaximumTestParameterIndex(String className) {
+        ClassEntry classEntry = classEntries.get(className);
+        if ((classEntry == null) || classEntry.isAll()) {
+            return -1;
+        }
+
+        return classEntry.getParameterEntries().lastKey();
+    }
+
+    /**
+     * Method to get the recorded name of a failed test parameter
+     *
+     * @param className
+     * @param testParameterIndex
+     * @return the test parameter name, or null if the test parameter isn't in the rerun file
+     */
+    public String getTestParameterName(String className, int testParameterIndex) {
+        ClassEntry classEntry = classEntries.get(className);
+        if ((classEntry == null) || classEntry.isAll()) {
+            return null;
+        }
+
+        ParameterEntry parameterEntry = classEntry.getParameterEntries().get(testParameterIndex);
+        return parameterEntry != null ? parameterEntry.getName() : null;
+    }
+
+    /**
+     * Method to return whether a test class / test parameter index / test method is selected
+     *
+     * @param className
+     * @param testParameterIndex
+     * @param methodName
+     * @return
+     */
+    public boolean isSelected(String className, int testParameterIndex, String methodName) {
+        ClassEntry classEntry = classEntries.get(className);
+        if (classEntry == null) {
+            return false;
+        }
+
+        if (classEntry.isAll()) {
+            return true;
+        }
+
+        ParameterEntry parameterEntry = classEntry.getParameterEntries().get(testParameterIndex);
+        if (parameterEntry == null) {
+            return false;
+        }
+
+        return parameterEntry.isAll() || parameterEntry.getMethodNames().contains(methodName);
+    }
+
+    /**
+     * Method to return whether a test class, or a test parameter of a test class, has any failures
+     *
+     * @param className
+     * @param testParameterIndex the test parameter index, or -1 for any test parameter
+     * @return
+     */
+    public boolean contains(String className, int testParameterIndex) {
+        ClassEntry classEntry = classEntries.get(className);
+        if (classEntry == null) {
+            return false;
+        }
+
+        if ((testParameterIndex < 0) || classEntry.isAll()) {
+            return true;
+        }
+
+        return classEntry.getParameterEntries().containsKey(testParameterIndex);
+    }
+
+    /**
+     * Method to add a failed test class, test parameter, or test method
+     *
+     * @param className
+     * @param testParameterIndex the test parameter index, or -1 for the whole test class
+     * @param testParameterName
+     * @param methodName the test method name, or null for the whole test parameter
+     */
+    public void add(String className, int testParameterIndex, String testParameterName, String methodName) {
+        ClassEntry classEntry = classEntries.computeIfAbsent(className, k -> new ClassEntry());
+
+        if (testParameterIndex < 0) {
+            classEntry.setAll();
+            return;
+        }
+
+        if (classEntry.isAll()) {
+            return;
+        }
+
+        ParameterEntry parameterEntry =
+                classEntry.getParameterEntries().computeIfAbsent(
+                        testParameterIndex,
+                        k -> new ParameterEntry(sanitize(testParameterName)));
+
+        if (methodName == null) {
+            parameterEntry.setAll();
+        } else if (!parameterEntry.isAll()) {
+            parameterEntry.getMethodNames().add(methodName);
+        }
+    }
+
+    /**
+     * Method to write the rerun file
+     *
+     * @param file
+     */
+    public void write(File file) {
+        File parentFile = file.getAbsoluteFile().getParentFile();
+        if (parentFile != null) {
+            parentFile.mkdirs();
+        }
+
+        try (Writer writer =
+                     new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.write(HEADER);
+            writer.write('\n');
+
+            for (Map.Entry<String, ClassEntry> classMapEntry : classEntries.entrySet()) {
+                String className = classMapEntry.getKey();
+                ClassEntry classEntry = classMapEntry.getValue();
+
+                if (classEntry.isAll()) {
+                    writer.write(className);
+                    writer.write('\n');
+                    continue;
+                }
+
+                for (Map.Entry<Integer, ParameterEntry> parameterMapEntry : classEntry.getParameterEntries().entrySet()) {
+                    ParameterEntry parameterEntry = parameterMapEntry.getValue();
+                    String prefix = className + "\t" + parameterMapEntry.getKey() + "\t" + parameterEntry.getName();
+
+                    if (parameterEntry.isAll()) {
+                        writer.write(prefix);
+                        writer.write('\n');
+                        continue;
+                    }
+
+                    for (String methodName : parameterEntry.getMethodNames()) {
+                        writer.write(prefix);
+                        writer.write('\t');
+                        writer.write(methodName);
+                        writer.write('\n');
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new TestEngineException(String.format("Exception writing rerun file [%s]", file), e);
+        }
+    }
+
+    /**
+     * Method to read a rerun file
+     *
+     * @param file
+     * @return
+     */
+    public static TestEngineRerunFile read(File file) {
+        TestEngineRerunFile testEngineRerunFile = new TestEngineRerunFile();
+
+        try (BufferedReader bufferedReader =
+                     new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] tokens = line.split("\t", -1);
+
+                try {
+                    switch (tokens.length) {
+                        case 1: {
+                            testEngineRerunFile.add(tokens[0], -1, null, null);
+                            break;
+                        }
+                        case 3: {
+                            testEngineRerunFile.add(tokens[0], toTestParameterIndex(tokens[1]), tokens[2], null);
+                            break;
+                        }
+                        case 4: {
+                            testEngineRerunFile.add(tokens[0], toTestParameterIndex(tokens[1]), tokens[2], tokens[3]);
+                            break;
+                        }
+                        default: {
+                            throw new IllegalArgumentException();
+                        }
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new TestEngineException(
+                            String.format("Invalid rerun file [%s] line [%d]", file, lineNumber), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new TestEngineException(String.format("Exception reading rerun file [%s]", file), e);
+        }
+
+        return testEngineRerunFile;
+    }
+
+    /**
+     * Method to convert a test parameter index token
+     *
+     * @param token
+     * @return
+     */
+    private static int toTestParameterIndex(String token) {
+        int testParameterIndex = Integer.parseInt(token);
+        if (testParameterIndex < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        return testParameterIndex;
+    }
+
+    /**
+     * Method to replace the characters of a test parameter name that would break the line format
+     *
+     * @param value
+     * @return
+     */
+    private static String sanitize(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        return value.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+    }
+
+    /**
+     * Class to implement the failures of a test class
+     */
+    private static class ClassEntry {
+
+        private final TreeMap<Integer, ParameterEntry> parameterEntries;
+        private boolean all;
+
+        /**
+         * Constructor
+         */
+        ClassEntry() {
+            this.parameterEntries = new TreeMap<>();
+        }
+
+        boolean isAll() {
+            return all;
+        }
+
+        void setAll() {
+            all = true;
+            parameterEntries.clear();
+        }
+
+        TreeMap<Integer, ParameterEntry> getParameterEntries() {
+            return parameterEntries;
+        }
+    }
+
+    /**
+     * Class to implement the failures of a test parameter
+     */
+    private static class ParameterEntry {
+
+        private final String name;
+        private final Set<String> methodNames;
+        private boolean all;
+
+        /**
+         * Constructor
+         *
+         * @param name
+         */
+        ParameterEntry(String name) {
+            this.name = name;
+            this.methodNames = new LinkedHashSet<>();
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isAll() {
+            return all;
+        }
+
+        void setAll() {
+            all = true;
+            methodNames.clear();
+        }
+
+        Set<String> getMethodNames() {
+            return methodNames;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support;
+
+import org.devopology.test.engine.api.TestEngine;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Class to schedule test classes in the thread pool, respecting declared resource locks
+ * <p>
+ * A test class whose resource locks conflict with those held by executing test classes is
+ * deferred, and compatible test classes are executed in the meantime, so worker threads
+ * never block waiting for a resource lock. Test classes are only submitted when a worker
+ * thread of their thread pool is available, so resource locks are never held by a test class
+ * waiting in the queue
+ * <p>
+ * Test classes are dispatched in order, and a deferred test class reserves its resource locks,
+ * so a later compatible test class can't start ahead of it. A deferred isolated test class
+ * stops any later test class starting, so isolated and READ_WRITE test classes can't be
+ * starved by a stream of compatible test classes
+ * <p>
+ * Also used to stop starting test classes, other than when no test class is executing, while
+ * the adaptive controller detects heap pressure
+ */
+public class TestEngineResourceLockScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineResourceLockScheduler.class);
+
+    private final List<Pending> pending;
+    private final Map<ThreadPoolExecutor, Integer> pendingCounts;
+    private final Map<TestEngineClassTestDescriptor, Pending> held;
+    private final Map<ThreadPoolExecutor, Integer> heldCounts;
+    private final Map<String, Integer> readLockCounts;
+    private final Set<String> writeLocks;
+    private boolean isolated;
+    private boolean admitting;
+
+    /**
+     * Constructor
+     */
+    public TestEngineResourceLockScheduler() {
+        this.pending = new LinkedList<>();
+        this.pendingCounts = new HashMap<>();
+        this.held = new HashMap<>();
+        this.heldCounts = new HashMap<>();
+        this.readLockCounts = new HashMap<>();
+        this.writeLocks = new HashSet<>();
+        this.admitting = true;
+    }
+
+    /**
+     * Method to return whether any test class declares a resource lock or is isolated
+     *
+     * @param testDescriptors
+     * @return
+     */
+    public static boolean isRequired(Collection<TestEngineClassTestDescriptor> testDescriptors) {
+        for (TestEngineClassTestDescriptor testEngineClassTestDescriptor : testDescriptors) {
+            Class<?> testClass = testEngineClassTestDescriptor.getTestClass();
+            if (TestEngineUtils.isIsolated(testClass) || TestEngineUtils.getResourceLocks(testClass).length > 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to submit a test class, which is executed once its resource locks are acquired
+     *
+     * @param testEngineClassTestDescriptor
+     * @param threadPoolExecutor the thread pool to execute the test class in
+     * @param runnable the Runnable that executes the test class
+     */
+    public synchronized void submit(
+            TestEngineClassTestDescriptor testEngineClassTestDescriptor,
+            ThreadPoolExecutor threadPoolExecutor,
+            Runnable runnable) {
+        pending.add(
+                new Pending(
+                        testEngineClassTestDescriptor,
+                        threadPoolExecutor,
+                        runnable,
+                        new ResourceLocks(testEngineClassTestDescriptor.getTestClass())));
+        pendingCounts.merge(threadPoolExecutor, 1, Integer::sum);
+        dispatch();
+    }
+
+    /**
+     * Method to release the resource locks held by a test class, when its Runnable returns
+     * <p>
+     * An abandoned test class holds its resource locks until its thread actually returns
+     *
+     * @param testEngineClassTestDescriptor
+     */
+    public synchronized void release(TestEngineClassTestDescriptor testEngineClassTestDescriptor) {
+        Pending released = held.remove(testEngineClassTestDescriptor);
+        if (released == null) {
+            return;
+        }
+
+        heldCounts.computeIfPresent(released.threadPoolExecutor, (key, count) -> count > 1 ? count - 1 : null);
+
+        ResourceLocks resourceLocks = released.resourceLocks;
+
+        if (resourceLocks.isolated) {
+            isolated = false;
+        }
+
+        for (Map.Entry<String, TestEngine.ResourceLock.Mode> entry : resourceLocks.modes.entrySet()) {
+            String name = entry.getKey();
+            switch (entry.getValue()) {
+                case READ: {
+                    readLockCounts.computeIfPresent(name, (key, count) -> count > 1 ? count - 1 : null);
+                    break;
+                }
+                case READ_WRITE: {
+                    writeLocks.remove(name);
+                    break;
+                }
+                default: {
+                    // DO NOTHING
+                    break;
+                }
+            }
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Method to return whether a test class holds resource locks
+     *
+     * @param testEngineClassTestDescriptor
+     * @return
+     */
+    public synchronized boolean isHeld(TestEngineClassTestDescriptor testEngineClassTestDescriptor) {
+        Pending holder = held.get(testEngineClassTestDescriptor);
+        return (holder != null) && (holder.resourceLocks.isolated || !holder.resourceLocks.modes.isEmpty());
+    }
+
+    /**
+     * Method to set whether test classes are started
+     *
+     * @param admitting
+     */
+    public synchronized void setAdmitting(boolean admitting) {
+        boolean resumed = admitting && !this.admitting;
+        this.admitting = admitting;
+
+        if (resumed) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Method to submit pending test classes, after thread pools have grown
+     */
+    public synchronized void reschedule() {
+        dispatch();
+    }
+
+    /**
+     * Method to get the number of test classes waiting to be submitted
+     *
+     * @return
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Method to submit pending test classes, in order, whose resource locks can be acquired
+     * while a worker thread of their thread pool is available
+     * <p>
+     * Stops once no thread pool with pending test classes has an available worker thread,
+     * since no later test class can start until a test class finishes or a thread pool grows,
+     * both of which dispatch again, so a dispatch doesn't scan every pending test class
+     */
+    private void dispatch() {
+        // Resource locks reserved by deferred test classes, which later test classes can't acquire
+        Map<String, TestEngine.ResourceLock.Mode> reserved = new HashMap<>();
+
+        int availableCount = 0;
+        for (ThreadPoolExecutor threadPoolExecutor : pendingCounts.keySet()) {
+            if (isAvailable(threadPoolExecutor)) {
+                availableCount++;
+            }
+        }
+
+        Iterator<Pending> iterator = pending.iterator();
+        while ((availableCount > 0) && iterator.hasNext()) {
+            // Always start a test class when none is executing, so execution can't stall
+            if (!admitting && !held.isEmpty()) {
+                break;
+            }
+
+            Pending next = iterator.next();
+            ThreadPoolExecutor threadPoolExecutor = next.threadPoolExecutor;
+            if (isAvailable(threadPoolExecutor) && !isReserved(next, reserved) && acquire(next)) {
+                iterator.remove();
+                heldCounts.merge(threadPoolExecutor, 1, Integer::sum);
+                Integer pendingCount = pendingCounts.computeIfPresent(threadPoolExecutor, (key, count) -> count > 1 ? count - 1 : null);
+                if ((pendingCount == null) || !isAvailable(threadPoolExecutor)) {
+                    availableCount--;
+                }
+                threadPoolExecutor.submit(next.runnable);
+                continue;
+            }
+
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace(
+                        "test class [%s] deferred",
+                        next.testEngineClassTestDescriptor.getTestClass().getName());
+            }
+
+            // A deferred isolated test class is a barrier, no later test class is started
+            if (next.resourceLocks.isolated) {
+                break;
+            }
+
+            for (Map.Entry<String, TestEngine.ResourceLock.Mode> entry : next.resourceLocks.modes.entrySet()) {
+                reserved.merge(entry.getKey(), entry.getValue(), (mode1, mode2) ->
+                        (mode1 == TestEngine.ResourceLock.Mode.READ_WRITE) ? mode1 : mode2);
+            }
+        }
+    }
+
+    /**
+     * Method to return whether a thread pool has a worker thread available for a test class
+     *
+     * @param threadPoolExecutor
+     * @return
+     */
+    private boolean isAvailable(ThreadPoolExecutor threadPoolExecutor) {
+        return heldCounts.getOrDefault(threadPoolExecutor, 0) < threadPoolExecutor.getMaximumPoolSize();
+    }
+
+    /**
+     * Method to return whether a pending test class conflicts with resource locks reserved
+     * by earlier deferred test classes
+     *
+     * @param candidate
+     * @param reserved
+     * @return
+     */
+    private static boolean isReserved(Pending candidate, Map<String, TestEngine.ResourceLock.Mode> reserved) {
+        for (Map.Entry<String, TestEngine.ResourceLock.Mode> entry : candidate.resourceLocks.modes.entrySet()) {
+            TestEngine.ResourceLock.Mode mode = reserved.get(entry.getKey());
+            if ((mode == TestEngine.ResourceLock.Mode.READ_WRITE)
+                    || ((mode != null) && (entry.getValue() == TestEngine.ResourceLock.Mode.READ_WRITE))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to acquire the resource locks for a pending test class
+     *
+     * @param candidate
+     * @return true if the resource locks were acquired, false if they conflict with held resource locks
+     */
+    private boolean acquire(Pending candidate) {
+        ResourceLocks resourceLocks = candidate.resourceLocks;
+
+        if (isolated || (resourceLocks.isolated && !held.isEmpty())) {
+            return false;
+        }
+
+        for (Map.Entry<String, TestEngine.ResourceLock.Mode> entry : resourceLocks.modes.entrySet()) {
+            String name = entry.getKey();
+            if (writeLocks.contains(name)) {
+                return false;
+            }
+
+            if ((entry.getValue() == TestEngine.ResourceLock.Mode.READ_WRITE) && readLockCounts.containsKey(name)) {
+                return false;
+            }
+        }
+
+        for (Map.Entry<String, TestEngine.ResourceLock.Mode> entry : resourceLocks.modes.entrySet()) {
+            String name = entry.getKey();
+            if (entry.getValue() == TestEngine.ResourceLock.Mode.READ_WRITE) {
+                writeLocks.add(name);
+            } else {
+                readLockCounts.merge(name, 1, Integer::sum);
+            }
+        }
+
+        isolated = resourceLocks.isolated;
+        held.put(candidate.testEngineClassTestDescriptor, candidate);
+
+        return true;
+    }
+
+    /**
+     * Class to implement the resource locks declared by a test class
+     */
+    private static class ResourceLocks {
+
+        private final Map<String, TestEngine.ResourceLock.Mode> modes;
+        private final boolean isolated;
+
+        /**
+         * Constructor
+         *
+         * @param testClass
+         */
+        public ResourceLocks(Class<?> testClass) {
+            this.modes = new HashMap<>();
+            this.isolated = TestEngineUtils.isIsolated(testClass);
+
+            // A resource lock declared more than once is acquired using the most restrictive mode
+            for (TestEngine.ResourceLock resourceLock : TestEngineUtils.getResourceLocks(testClass)) {
+                modes.merge(resourceLock.value(), resourceLock.mode(), (mode1, mode2) ->
+                        (mode1 == TestEngine.ResourceLock.Mode.READ_WRITE) ? mode1 : mode2);
+            }
+        }
+    }
+
+    /**
+     * Class to implement a test class waiting to be submitted
+     */
+    private static class Pending {
+
+        private final TestEngineClassTestDescriptor testEngineClassTestDescriptor;
+        private final ThreadPoolExecutor threadPoolExecutor;
+        private final Runnable runnable;
+        private final ResourceLocks resourceLocks;
+
+        /**
+         * Constructor
+         *
+         * @param testEngineClassTestDescriptor
+         * @param threadPoolExecutor
+         * @param runnable
+         * @param resourceLocks
+         */
+        public Pending(
+                TestEngineClassTestDescriptor testEngineClassTestDescriptor,
+                ThreadPoolExecutor threadPoolExecutor,
+                Runnable runnable,
+                ResourceLocks resourceLocks) {
+            this.testEngineClassTestDescriptor = testEngineClassTestDescriptor;
+            this.threadPoolExecutor = threadPoolExecutor;
+            this.runnable = runnable;
+            this.resourceLocks = resourceLocks;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support;
+
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.junit.platform.engine.TestDescriptor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Class to implement a local run history of test class results, used to estimate
+ * the probability of each test class failing, so likely failures can be executed first
+ * <p>
+ * The probability combines a recent failure (decaying by half for each later passing execution),
+ * a change to the test class bytecode since its last execution, and how often the
+ * test class result has flipped between passing and failing (flakiness)
+ */
+public class TestEngineRunHistory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineRunHistory.class);
+
+    private static final String HEADER = "# Devopology Test Engine run history";
+
+    private static final double CHANGED_PROBABILITY = 0.75;
+
+    private final Map<String, Entry> entries;
+    private final Map<Class<?>, String> checksums;
+
+    /**
+     * Constructor
+     *
+     * @param entries
+     */
+    private TestEngineRunHistory(Map<String, Entry> entries) {
+        this.entries = entries;
+        this.checksums = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Method to get the estimated probability of a test class failing
+     *
+     * @param testClass
+     * @return the probability, 0 if the test class has never failed, isn't flaky, and hasn't changed
+     */
+    public synchronized double getFailureProbability(Class<?> testClass) {
+        Entry entry = entries.get(testClass.getName());
+        String checksum = getChecksum(testClass);
+
+        // A test class without history is new, so treated as changed
+        double changedProbability =
+                (entry == null) || ((checksum != null) && !checksum.equals(entry.checksum))
+                        ? CHANGED_PROBABILITY
+                        : 0;
+
+        if (entry == null) {
+            return changedProbability;
+        }
+
+        double recentFailureProbability =
+                entry.runsSinceFailure >= 0
+                        ? Math.pow(0.5, entry.runsSinceFailure)
+                        : 0;
+
+        double flakyProbability =
+                entry.runs > 1
+                        ? (double) entry.flips / (entry.runs - 1)
+                        : 0;
+
+        return 1 - ((1 - changedProbability) * (1 - recentFailureProbability) * (1 - flakyProbability));
+    }
+
+    /**
+     * Method to get the duration of the last execution of a test class
+     *
+     * @param testClass
+     * @return the duration in milliseconds, or -1 if the test class has no history
+     */
+    public synchronized long getDurationMilliseconds(Class<?> testClass) {
+        Entry entry = entries.get(testClass.getName());
+        return entry != null ? entry.durationMilliseconds : -1;
+    }
+
+    /**
+     * Method to record the result of a test class execution
+     *
+     * @param testClass
+     * @param failed
+     * @param durationMilliseconds
+     */
+    public synchronized void record(Class<?> testClass, boolean failed, long durationMilliseconds) {
+        Entry entry = entries.computeIfAbsent(testClass.getName(), k -> new Entry());
+
+        if ((entry.runs > 0) && (entry.failed != failed)) {
+            entry.flips++;
+        }
+
+        entry.runs++;
+
+        if (failed) {
+            entry.failures++;
+            entry.runsSinceFailure = 0;
+        } else if (entry.runsSinceFailure >= 0) {
+            entry.runsSinceFailure++;
+        }
+
+        entry.failed = failed;
+        entry.durationMilliseconds = durationMilliseconds;
+        entry.checksum = getChecksum(testClass);
+    }
+
+    /**
+     * Method to reorder the test classes of a root TestDescriptor, most likely to fail first
+     * <p>
+     * Test classes are queued to the thread pools (or forked JVMs / workers) in the order
+     * of the root TestDescriptor children, so likely failures start first on every thread.
+     * Test classes with the same probability are ordered shortest first, and test classes
+     * with a probability of 0 keep their order
+     *
+     * @param rootTestDescriptor
+     * @return the number of test classes with a probability greater than 0
+     */
+    public int prioritize(TestDescriptor rootTestDescriptor) {
+        Map<TestDescriptor, Double> probabilities = new HashMap<>();
+        Map<TestDescriptor, Long> durations = new HashMap<>();
+
+        int count = 0;
+
+        List<TestDescriptor> testDescriptors = new ArrayList<>(rootTestDescriptor.getChildren());
+        for (TestDescriptor testDescriptor : testDescriptors) {
+            Class<?> testClass = ((TestEngineClassTestDescriptor) testDescriptor).getTestClass();
+            double probability = getFailureProbability(testClass);
+
+            LOGGER.trace("test class [%s] failure probability [%f]", testClass.getName(), probability);
+
+            probabilities.put(testDescriptor, probability);
+            durations.put(testDescriptor, getDurationMilliseconds(testClass));
+
+            if (probability > 0) {
+                count++;
+            }
+        }
+
+        // List.sort() is stable, so test classes that compare equal keep their order
+        testDescriptors.sort((o1, o2) -> {
+            double probability1 = probabilities.get(o1);
+            double probability2 = probabilities.get(o2);
+
+            if (probability1 != probability2) {
+                return Double.compare(probability2, probability1);
+            }
+
+            if (probability1 > 0) {
+                return Long.compare(durations.get(o1), durations.get(o2));
+            }
+
+            return 0;
+        });
+
+        for (TestDescriptor testDescriptor : testDescriptors) {
+            rootTestDescriptor.removeChild(testDescriptor);
+        }
+
+        for (TestDescriptor testDescriptor : testDescriptors) {
+            rootTestDescriptor.addChild(testDescriptor);
+        }
+
+        return count;
+    }
+
+    /**
+     * Method to write the run history, replacing the file atomically where supported
+     *
+     * @param file
+     */
+    public synchronized void write(File file) {
+        File absoluteFile = file.getAbsoluteFile();
+        File parentFile = absoluteFile.getParentFile();
+        if (parentFile != null) {
+            parentFile.mkdirs();
+        }
+
+        File temporaryFile = new File(parentFile, absoluteFile.getName() + ".tmp");
+
+        try {
+            try (Writer writer =
+                         new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporaryFile), StandardCharsets.UTF_8))) {
+                writer.write(HEADER);
+                writer.write('\n');
+
+                for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+                    Entry entry = mapEntry.getValue();
+                    writer.write(
+                            String.join(
+                                    "\t",
+                                    mapEntry.getKey(),
+                                    String.valueOf(entry.runs),
+                                    String.valueOf(entry.failures),
+                                    String.valueOf(entry.flips),
+                                    String.valueOf(entry.runsSinceFailure),
+                                    String.valueOf(entry.failed),
+                                    String.valueOf(entry.durationMilliseconds),
+                                    entry.checksum != null ? entry.checksum : "-"));
+                    writer.write('\n');
+                }
+            }
+
+            try {
+                Files.move(
+                        temporaryFile.toPath(),
+                        absoluteFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile.toPath(), absoluteFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new TestEngineException(String.format("Exception writing run history [%s]", file), e);
+        }
+    }
+
+    /**
+     * Method to read a run history, ignoring invalid lines
+     *
+     * @param file
+     * @return the run history, which is empty if the file doesn't exist
+     */
+    public static TestEngineRunHistory read(File file) {
+        Map<String, Entry> entries = new TreeMap<>();
+
+        if (!file.isFile()) {
+            return new TestEngineRunHistory(entries);
+        }
+
+        try (BufferedReader bufferedReader =
+                     new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] tokens = line.split("\t", -1);
+
+                try {
+                    if (tokens.length != 8) {
+                        throw new IllegalArgumentException();
+                    }
+
+                    Entry entry = new Entry();
+                    entry.runs = Integer.parseInt(tokens[1]);
+                    entry.failures = Integer.parseInt(tokens[2]);
+                    entry.flips = Integer.parseInt(tokens[3]);
+                    entry.runsSinceFailure = Integer.parseInt(tokens[4]);
+                    entry.failed = Boolean.parseBoolean(tokens[5]);
+                    entry.durationMilliseconds = Long.parseLong(tokens[6]);
+                    entry.checksum = "-".equals(tokens[7]) ? null : tokens[7];
+
+                    entries.put(tokens[0], entry);
+                } catch (IllegalArgumentException e) {
+                    LOGGER.warning("Invalid run history [%s] line [%d] ignored", file, lineNumber);
+                }
+            }
+        } catch (IOException e) {
+            throw new TestEngineException(String.format("Exception reading run history [%s]", file), e);
+        }
+
+        return new TestEngineRunHistory(entries);
+    }
+
+    /**
+     * Method to get the checksum of a test class bytecode
+     *
+     * @param testClass
+     * @return the checksum, or null if the bytecode isn't available
+     */
+    private String getChecksum(Class<?> testClass) {
+        return checksums.computeIfAbsent(testClass, TestEngineRunHistory::computeChecksum);
+    }
+
+    /**
+     * Method to compute the CRC32 checksum of a test class bytecode
+     *
+     * @param testClass
+     * @return the checksum, or null if the bytecode isn't available
+     */
+    private static String computeChecksum(Class<?> testClass) {
+        String resourceName = testClass.getName().replace('.', '/') + ".class";
+
+        ClassLoader classLoader = testClass.getClassLoader();
+        if (classLoader == null) {
+            classLoader = ClassLoader.getSystemClassLoader();
+        }
+
+        try (InputStream inputStream = classLoader.getResourceAsStream(resourceName)) {
+            if (inputStream == null) {
+                return null;
+            }
+
+            CRC32 crc32 = new CRC32();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                crc32.update(buffer, 0, count);
+            }
+
+            return Long.toHexString(crc32.getValue());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Class to implement the run history of a test class
+     */
+    private static class Entry {
+
+        private int runs;
+        private int failures;
+        private int flips;
+        private int runsSinceFailure = -1;
+        private boolean failed;
+        private long durationMilliseconds;
+        private String checksum;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support;
+
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Class to select the test classes of a shard, so a test suite can be split across machines
+ * <p>
+ * Every test class is assigned to exactly one shard, so the union of all shards is the full test suite,
+ * provided every shard discovers the same test classes (and uses the same timing file)
+ */
+public class TestEngineSharding {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineSharding.class);
+
+    private static final Pattern TYPE_PATTERN = Pattern.compile("\"type\":\"class\"");
+    private static final Pattern CLASS_PATTERN = Pattern.compile("\"class\":\"([^\"]*)\"");
+    private static final Pattern DURATION_PATTERN = Pattern.compile("\"durationMillis\":([0-9.]+)");
+
+    private final int shardIndex;
+    private final int shardCount;
+    private final File timingFile;
+
+    /**
+     * Constructor
+     *
+     * @param shardIndex 0 based
+     * @param shardCount
+     * @param timingFile a JSON Lines report of a previous execution, may be null
+     */
+    public TestEngineSharding(int shardIndex, int shardCount, File timingFile) {
+        if (shardCount < 1) {
+            throw new TestEngineException(String.format("Invalid shard count [%d]", shardCount));
+        }
+
+        if ((shardIndex < 0) || (shardIndex >= shardCount)) {
+            throw new TestEngineException(
+                    String.format("Invalid shard index [%d], must be 0 to [%d]", shardIndex, shardCount - 1));
+        }
+
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+        this.timingFile = timingFile;
+    }
+
+    /**
+     * Method to select the test classes of the shard
+     * <p>
+     * Test classes are bin-packed by historical duration when the timing file exists,
+     * otherwise assigned using a stable hash of the test class name
+     *
+     * @param testClasses
+     * @return the test classes of the shard
+     */
+    public Set<Class<?>> select(Collection<Class<?>> testClasses) {
+        Map<String, Long> durations = null;
+
+        if (timingFile != null) {
+            if (timingFile.isFile()) {
+                durations = readDurations(timingFile);
+            } else {
+                LOGGER.warning("Shard timing file [%s] doesn't exist, using test class name hashing", timingFile);
+            }
+        }
+
+        Set<Class<?>> selected =
+                durations != null ? binPack(testClasses, durations) : hash(testClasses);
+
+        LOGGER.info(
+                "Shard [%d] of [%d], [%d] of [%d] test classes",
+                shardIndex,
+                shardCount,
+                selected.size(),
+                testClasses.size());
+
+        return selected;
+    }
+
+    /**
+     * Method to select test classes using a stable hash of the test class name
+     *
+     * @param testClasses
+     * @return
+     */
+    private Set<Class<?>> hash(Collection<Class<?>> testClasses) {
+        Set<Class<?>> selected = new HashSet<>();
+
+        for (Class<?> testClass : testClasses) {
+            if (Math.floorMod(mix(testClass.getName().hashCode()), shardCount) == shardIndex) {
+                selected.add(testClass);
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * Method to select test classes by bin-packing them by historical duration
+     * <p>
+     * Test classes are assigned longest first to the shard with the least total duration,
+     * and test classes without a historical duration are assumed to take the average duration
+     *
+     * @param testClasses
+     * @param durations
+     * @return
+     */
+    private Set<Class<?>> binPack(Collection<Class<?>> testClasses, Map<String, Long> durations) {
+        long total = 0;
+        int count = 0;
+
+        for (Class<?> testClass : testClasses) {
+            Long duration = durations.get(testClass.getName());
+            if (duration != null) {
+                total += duration;
+                count++;
+            }
+        }
+
+        long averageDuration = count > 0 ? Math.max(1, total / count) : 1;
+
+        List<Class<?>> sortedTestClasses = new ArrayList<>(testClasses);
+        Map<Class<?>, Long> estimatedDurations = new HashMap<>();
+        for (Class<?> testClass : sortedTestClasses) {
+            estimatedDurations.put(testClass, durations.getOrDefault(testClass.getName(), averageDuration));
+        }
+
+        sortedTestClasses.sort(
+                Comparator.<Class<?>, Long>comparing(estimatedDurations::get)
+                        .reversed()
+                        .thenComparing(Class::getName));
+
+        long[] shardDurations = new long[shardCount];
+        Set<Class<?>> selected = new HashSet<>();
+
+        for (Class<?> testClass : sortedTestClasses) {
+            int shard = 0;
+            for (int i = 1; i < shardCount; i++) {
+                if (shardDurations[i] < shardDurations[shard]) {
+                    shard = i;
+                }
+            }
+
+            shardDurations[shard] += estimatedDurations.get(testClass);
+
+            if (shard == shardIndex) {
+                selected.add(testClass);
+            }
+        }
+
+        LOGGER.trace("shard [%d] estimated duration [%d] ms", shardIndex, shardDurations[shardIndex] / 1000);
+
+        return selected;
+    }
+
+    /**
+     * Method to read the test class durations, in microseconds, from a JSON Lines report
+     * <p>
+     * If a test class occurs more than once, the last duration is used
+     *
+     * @param file
+     * @return
+     */
+    private static Map<String, Long> readDurations(File file) {
+        Map<String, Long> durations = new HashMap<>();
+
+        try (BufferedReader bufferedReader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                if (!TYPE_PATTERN.matcher(line).find()) {
+                    continue;
+                }
+
+                Matcher classMatcher = CLASS_PATTERN.matcher(line);
+                Matcher durationMatcher = DURATION_PATTERN.matcher(line);
+
+                if (classMatcher.find() && durationMatcher.find()) {
+                    long duration =
+                            new BigDecimal(durationMatcher.group(1)).movePointRight(3).longValue();
+
+                    durations.put(classMatcher.group(1), duration);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new TestEngineException(String.format("Exception reading shard timing file [%s]", file), e);
+        }
+
+        LOGGER.trace("shard timing file [%s] test class count [%d]", file, durations.size());
+
+        return durations;
+    }
+
+    /**
+     * Method to mix the bits of a hash code, so similar test class names spread across shards
+     *
+     * @param hashCode
+     * @return
+     */
+    private static int mix(int hashCode) {
+        int h = hashCode;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
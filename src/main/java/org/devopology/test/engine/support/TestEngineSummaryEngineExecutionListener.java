@@ -17,26 +17,25 @@
 package org.devopology.test.engine.support;
 
 import org.devopology.test.engine.TestEngine;
-import org.devopology.test.engine.api.Parameter;
-import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
 import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
 import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
 import org.devopology.test.engine.support.logger.Logger;
 import org.devopology.test.engine.support.logger.LoggerFactory;
-import org.devopology.test.engine.support.util.Switch;
 import org.junit.platform.engine.EngineExecutionListener;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.reporting.ReportEntry;
-import org.junit.platform.engine.support.descriptor.EngineDescriptor;
 import org.junit.platform.launcher.TestIdentifier;
 import org.junit.platform.launcher.TestPlan;
-import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
-import org.junit.platform.launcher.listeners.TestExecutionSummary;
 
-import java.lang.reflect.Method;
 import java.util.Optional;
 
+/**
+ * Class to implement an EngineExecutionListener that logs test progress and collects summary counts
+ * <p>
+ * Events are dispatched directly on the TestDescriptor type, using summary strings
+ * cached on the TestDescriptors, so no TestIdentifier is created per event
+ */
 public class TestEngineSummaryEngineExecutionListener implements EngineExecutionListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TestEngine.class);
@@ -46,14 +45,13 @@ public class TestEngineSummaryEngineExecutionListener implements EngineExecution
     private static final String FAIL = "FAIL";
     private static final String PASS = "PASS";
 
-    private final TestPlan testPlan;
-    private final SummaryGeneratingListener summaryGeneratingListener;
+    private final long testsFoundCount;
+    private final TestEngineExecutionResults testEngineExecutionResults;
     private boolean detailedOutput = true;
 
     public TestEngineSummaryEngineExecutionListener(TestPlan testPlan) {
-        this.testPlan = testPlan;
-        this.summaryGeneratingListener = new SummaryGeneratingListener();
-        this.summaryGeneratingListener.testPlanExecutionStarted(testPlan);
+        this.testsFoundCount = testPlan.countTestIdentifiers(TestIdentifier::isTest);
+        this.testEngineExecutionResults = new TestEngineExecutionResults();
 
         Optional<String> optionalDetailOutput =testPlan.getConfigurationParameters().get("devopology.test.engine.output");
         optionalDetailOutput.ifPresent(s -> detailedOutput = "detailed".equalsIgnoreCase(s));
@@ -61,135 +59,97 @@ public class TestEngineSummaryEngineExecutionListener implements EngineExecution
 
     @Override
     public void dynamicTestRegistered(TestDescriptor testDescriptor) {
-        summaryGeneratingListener.dynamicTestRegistered(TestIdentifier.from(testDescriptor));
+        // DO NOTHING
     }
 
     @Override
     public void executionSkipped(TestDescriptor testDescriptor, String reason) {
-        summaryGeneratingListener.executionSkipped(TestIdentifier.from(testDescriptor), reason);
+        testEngineExecutionResults.addSkipped(testDescriptor);
     }
 
     @Override
     public void executionStarted(TestDescriptor testDescriptor) {
-        summaryGeneratingListener.executionStarted(TestIdentifier.from(testDescriptor));
-
-        final StringBuilder stringBuilder = new StringBuilder();
-
-        Switch.switchType(
-                testDescriptor,
-                Switch.switchCase(EngineDescriptor.class, consumer -> {}),
-                Switch.switchCase(TestEngineClassTestDescriptor.class, consumer -> {}),
-                Switch.switchCase(TestEngineParameterTestDescriptor.class, consumer -> {
-                    TestEngineParameterTestDescriptor testEngineParameterTestDescriptor = (TestEngineParameterTestDescriptor) testDescriptor;
-                    Class<?> testClass = testEngineParameterTestDescriptor.getTestClass();
-                    Parameter parameter = testEngineParameterTestDescriptor.getTestParameter();
-                    String parameterDisplayName = parameter.name();
-                    stringBuilder
-                            .append("[")
-                            .append(parameterDisplayName)
-                            .append("] - ")
-                            .append(TEST)
-                            .append(" ")
-                            .append(testClass.getName());
-                }),
-                Switch.switchCase(TestEngineTestMethodTestDescriptor.class, consumer -> {
-                    TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testDescriptor;
-                    Class<?> testClass = testEngineTestMethodTestDescriptor.getTestClass();
-                    Method testMethod = testEngineTestMethodTestDescriptor.getTestMethod();
-                    Parameter parameter = testEngineTestMethodTestDescriptor.getTestParameter();
-                    String parameterDisplayName = parameter.name();
-                    stringBuilder
-                            .append("[")
-                            .append(parameterDisplayName)
-                            .append("] - ")
-                            .append(TEST)
-                            .append(" ")
-                            .append(testClass.getName())
-                            .append(" ")
-                            .append(testMethod.getName())
-                            .append("()");
-                })
-        );
-
-        if (detailedOutput && (stringBuilder.length() > 0)) {
-            LOGGER.infoRaw(stringBuilder.toString());
+        if (detailedOutput) {
+            String message = toMessage(testDescriptor, TEST);
+            if (message != null) {
+                LOGGER.infoRaw(message);
+            }
         }
     }
 
     @Override
     public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
-        summaryGeneratingListener.executionFinished(TestIdentifier.from(testDescriptor), testExecutionResult);
-
-        final StringBuilder stringBuilder = new StringBuilder();
-
-        Switch.switchType(
-                testDescriptor,
-                Switch.switchCase(EngineDescriptor.class, consumer -> {}),
-                Switch.switchCase(TestEngineClassTestDescriptor.class, consumer -> {}),
-                Switch.switchCase(TestEngineParameterTestDescriptor.class, consumer -> {
-                    TestEngineParameterTestDescriptor testengineParameterTestDescriptor = (TestEngineParameterTestDescriptor) testDescriptor;
-                    Class<?> testClass = testengineParameterTestDescriptor.getTestClass();
-                    Parameter parameter = testengineParameterTestDescriptor.getTestParameter();
-                    String parameterDisplayName = parameter.name();
-                    stringBuilder
-                            .append("[")
-                            .append(parameterDisplayName)
-                            .append("] - ")
-                            .append("%s ")
-                            .append(testClass.getName());
-                }),
-                Switch.switchCase(TestEngineTestMethodTestDescriptor.class, consumer -> {
-                    TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testDescriptor;
-                    Class<?> testClass = testEngineTestMethodTestDescriptor.getTestClass();
-                    Method testMethod = testEngineTestMethodTestDescriptor.getTestMethod();
-                    Parameter parameter = testEngineTestMethodTestDescriptor.getTestParameter();
-                    String parameterDisplayName = parameter.name();
-                    stringBuilder
-                            .append("[")
-                            .append(parameterDisplayName)
-                            .append("] - ")
-                            .append("%s ")
-                            .append(testClass.getName())
-                            .append(" ")
-                            .append(testMethod.getName())
-                            .append("()");
-                }));
-
-        if (stringBuilder.length() > 0) {
-            TestExecutionResult.Status status = testExecutionResult.getStatus();
-            String string = null;
-            switch (status) {
+        testEngineExecutionResults.add(testDescriptor, testExecutionResult);
+
+        if (detailedOutput) {
+            String status;
+            switch (testExecutionResult.getStatus()) {
                 case ABORTED: {
-                    string = String.format(stringBuilder.toString(), ABORT);
+                    status = ABORT;
                     break;
                 }
                 case FAILED: {
-                    string = String.format(stringBuilder.toString(), FAIL);
+                    status = FAIL;
                     break;
                 }
                 case SUCCESSFUL: {
-                    string = String.format(stringBuilder.toString(), PASS);
+                    status = PASS;
                     break;
                 }
                 default: {
-                    // DO NOTHING
+                    status = null;
                     break;
                 }
             }
 
-            if (detailedOutput && (string != null)) {
-                LOGGER.infoRaw(string);
+            if (status != null) {
+                String message = toMessage(testDescriptor, status);
+                if (message != null) {
+                    LOGGER.infoRaw(message);
+                }
             }
         }
     }
 
     @Override
     public void reportingEntryPublished(TestDescriptor testDescriptor, ReportEntry entry) {
-        summaryGeneratingListener.reportingEntryPublished(TestIdentifier.from(testDescriptor), entry);
+        // DO NOTHING
+    }
+
+    /**
+     * Method to get the number of tests found
+     *
+     * @return
+     */
+    public long getTestsFoundCount() {
+        return testsFoundCount;
+    }
+
+    /**
+     * Method to get the TestEngineExecutionResults
+     *
+     * @return
+     */
+    public TestEngineExecutionResults getTestEngineExecutionResults() {
+        return testEngineExecutionResults;
     }
 
-    public TestExecutionSummary getSummary() {
-        summaryGeneratingListener.testPlanExecutionFinished(testPlan);
-        return summaryGeneratingListener.getSummary();
+    /**
+     * Method to create the output message for a TestDescriptor
+     *
+     * @param testDescriptor
+     * @param status
+     * @return the message, or null if the TestDescriptor isn't logged
+     */
+    private static String toMessage(TestDescriptor testDescriptor, String status) {
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testDescriptor;
+            return testEngineTestMethodTestDescriptor.getSummaryPrefix() + status + testEngineTestMethodTestDescriptor.getSummarySuffix();
+        } else if (testDescriptor instanceof TestEngineParameterTestDescriptor) {
+            TestEngineParameterTestDescriptor testEngineParameterTestDescriptor = (TestEngineParameterTestDescriptor) testDescriptor;
+            return testEngineParameterTestDescriptor.getSummaryPrefix() + status + testEngineParameterTestDescriptor.getSummarySuffix();
+        }
+
+        return null;
     }
 }
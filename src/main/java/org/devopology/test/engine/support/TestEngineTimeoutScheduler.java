@@ -0,0 +1,195 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class to enforce timeouts using a single scheduler thread
+ * <p>
+ * An expired timeout interrupts the thread it was scheduled for, and any threads added to it
+ * (i.e. threads executing test methods in parallel), so execution is cancelled cooperatively,
+ * without executing each test in another thread
+ */
+public class TestEngineTimeoutScheduler {
+
+    private final ScheduledThreadPoolExecutor scheduledThreadPoolExecutor;
+
+    /**
+     * Constructor
+     */
+    public TestEngineTimeoutScheduler() {
+        // The scheduler thread is only started when the first timeout is scheduled
+        this.scheduledThreadPoolExecutor =
+                new ScheduledThreadPoolExecutor(1, runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setName("test-engine-timeout");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Method to schedule a timeout for the current thread
+     *
+     * @param name the name of the timed out scope, used in the failure message
+     * @param timeoutMilliseconds
+     * @return the ScheduledTimeout, or null if timeoutMilliseconds is not greater than 0
+     */
+    public ScheduledTimeout schedule(String name, long timeoutMilliseconds) {
+        if (timeoutMilliseconds <= 0) {
+            return null;
+        }
+
+        ScheduledTimeout scheduledTimeout = new ScheduledTimeout(name, timeoutMilliseconds, Thread.currentThread());
+        scheduledTimeout.scheduledFuture =
+                scheduledThreadPoolExecutor.schedule(scheduledTimeout::expire, timeoutMilliseconds, TimeUnit.MILLISECONDS);
+
+        return scheduledTimeout;
+    }
+
+    /**
+     * Method to shutdown the scheduler thread
+     */
+    public void shutdown() {
+        scheduledThreadPoolExecutor.shutdownNow();
+    }
+
+    /**
+     * Method to return whether a ScheduledTimeout has expired
+     *
+     * @param scheduledTimeout may be null
+     * @return
+     */
+    public static boolean isExpired(ScheduledTimeout scheduledTimeout) {
+        return (scheduledTimeout != null) && scheduledTimeout.isExpired();
+    }
+
+    /**
+     * Class to implement a scheduled timeout
+     */
+    public static class ScheduledTimeout {
+
+        private final String name;
+        private final long timeoutMilliseconds;
+        private final Thread thread;
+        private final Set<Thread> threads;
+        private ScheduledFuture<?> scheduledFuture;
+        private volatile boolean expired;
+        private boolean finished;
+
+        /**
+         * Constructor
+         *
+         * @param name
+         * @param timeoutMilliseconds
+         * @param thread
+         */
+        private ScheduledTimeout(String name, long timeoutMilliseconds, Thread thread) {
+            this.name = name;
+            this.timeoutMilliseconds = timeoutMilliseconds;
+            this.thread = thread;
+            this.threads = new HashSet<>();
+        }
+
+        /**
+         * Method to add a thread executing part of the timed scope, which is interrupted when the timeout expires
+         * <p>
+         * If the timeout has already expired, the thread is interrupted immediately
+         *
+         * @param thread
+         */
+        public synchronized void addThread(Thread thread) {
+            if (finished) {
+                return;
+            }
+
+            threads.add(thread);
+
+            if (expired) {
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Method to remove a thread added to the timed scope, after which it isn't interrupted
+         *
+         * @param thread
+         */
+        public synchronized void removeThread(Thread thread) {
+            threads.remove(thread);
+        }
+
+        /**
+         * Method to expire the timeout, interrupting the threads if the timed scope hasn't finished
+         */
+        private synchronized void expire() {
+            if (!finished) {
+                expired = true;
+                thread.interrupt();
+
+                for (Thread addedThread : threads) {
+                    addedThread.interrupt();
+                }
+            }
+        }
+
+        /**
+         * Method to return whether the timeout has expired
+         *
+         * @return
+         */
+        public boolean isExpired() {
+            return expired;
+        }
+
+        /**
+         * Method to finish the timed scope, cancelling the timeout
+         * <p>
+         * If the timeout expired, the interrupt is cleared so the thread can be reused
+         *
+         * @return true if the timeout expired, else false
+         */
+        public synchronized boolean finish() {
+            finished = true;
+            threads.clear();
+            scheduledFuture.cancel(false);
+
+            if (expired) {
+                Thread.interrupted();
+            }
+
+            return expired;
+        }
+
+        /**
+         * Method to create the exception reported for the timed out scope
+         *
+         * @return
+         */
+        public TestEngineException toTestEngineException() {
+            return new TestEngineException(String.format("%s timed out after [%d] ms", name, timeoutMilliseconds));
+        }
+    }
+}
@@ -535,6 +535,70 @@ public final class TestEngineUtils {
         return method.isAnnotationPresent(TestEngine.Disabled.class);
     }
 
+    /**
+     * Method to get a test class method parallelism mode
+     *
+     * @param clazz
+     * @return the mode, or null if test methods are executed sequentially
+     */
+    public static TestEngine.ParallelMethods.Mode getParallelMethodsMode(Class<?> clazz) {
+        TestEngine.ParallelMethods parallelMethods = clazz.getAnnotation(TestEngine.ParallelMethods.class);
+        return parallelMethods != null ? parallelMethods.value() : null;
+    }
+
+    /**
+     * Method to get a test class resource locks
+     *
+     * @param clazz
+     * @return the resource locks, or an empty array if no resource locks are declared
+     */
+    public static TestEngine.ResourceLock[] getResourceLocks(Class<?> clazz) {
+        return clazz.getAnnotationsByType(TestEngine.ResourceLock.class);
+    }
+
+    /**
+     * Method to get whether a test class is isolated
+     *
+     * @param clazz
+     * @return
+     */
+    public static boolean isIsolated(Class<?> clazz) {
+        return clazz.isAnnotationPresent(TestEngine.Isolated.class);
+    }
+
+    /**
+     * Method to get a test class thread pool name
+     *
+     * @param clazz
+     * @return the thread pool name, or null if no thread pool is declared
+     */
+    public static String getPool(Class<?> clazz) {
+        TestEngine.Pool pool = clazz.getAnnotation(TestEngine.Pool.class);
+        return pool != null ? pool.value().trim() : null;
+    }
+
+    /**
+     * Method to get a test class timeout
+     *
+     * @param clazz
+     * @return the timeout in milliseconds, or 0 if no timeout is declared
+     */
+    public static long getTimeout(Class<?> clazz) {
+        TestEngine.Timeout timeout = clazz.getAnnotation(TestEngine.Timeout.class);
+        return timeout != null ? timeout.value() : 0;
+    }
+
+    /**
+     * Method to get a Method timeout
+     *
+     * @param method
+     * @return the timeout in milliseconds, or 0 if no timeout is declared
+     */
+    public static long getTimeout(Method method) {
+        TestEngine.Timeout timeout = method.getAnnotation(TestEngine.Timeout.class);
+        return timeout != null ? timeout.value() : 0;
+    }
+
     /**
      * Method to create a TestPlan from a TestDescriptor
      *
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support;
+
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Class to detect worker threads that have made no progress (started or finished a test)
+ * within a threshold, writing a thread dump with deadlock detection and applying a Policy
+ */
+public class TestEngineWatchdog implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineWatchdog.class);
+
+    private static final DateTimeFormatter FILENAME_DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneId.systemDefault());
+
+    /**
+     * Enum to implement the action taken for a hung test
+     */
+    public enum Policy {
+
+        /**
+         * Only write a thread dump
+         */
+        DUMP,
+
+        /**
+         * Write a thread dump and interrupt the worker thread
+         */
+        INTERRUPT,
+
+        /**
+         * Write a thread dump and interrupt the worker thread, then, if the test makes no progress
+         * within a further threshold, report the test class as failed without waiting for it,
+         * replacing the worker thread
+         */
+        ABANDON;
+
+        /**
+         * Method to get a Policy by name, ignoring case
+         *
+         * @param name
+         * @return
+         */
+        public static Policy of(String name) {
+            try {
+                return Policy.valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                throw new TestEngineException(String.format("Invalid watchdog policy [%s]", name), e);
+            }
+        }
+    }
+
+    private final TestEngineWorkerTracker testEngineWorkerTracker;
+    private final long thresholdNanoTime;
+    private final long intervalMilliseconds;
+    private final Policy policy;
+    private final File directory;
+    private final Predicate<TestEngineWorkerTracker.Worker> abandonPredicate;
+    private final Map<Thread, Long> handledProgressNanoTimes;
+    private final Map<Thread, Long> abandonedProgressNanoTimes;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Constructor
+     *
+     * @param testEngineWorkerTracker
+     * @param thresholdMilliseconds the time without progress after which a test is considered hung
+     * @param policy
+     * @param directory the directory to write thread dumps to, or null to write to System.err
+     * @param abandonPredicate abandons the test class of a Worker, returning false if it can't be abandoned
+     */
+    public TestEngineWatchdog(
+            TestEngineWorkerTracker testEngineWorkerTracker,
+            long thresholdMilliseconds,
+            Policy policy,
+            File directory,
+            Predicate<TestEngineWorkerTracker.Worker> abandonPredicate) {
+        this.testEngineWorkerTracker = testEngineWorkerTracker;
+        this.thresholdNanoTime = thresholdMilliseconds * 1000000L;
+        this.intervalMilliseconds = Math.max(10, Math.min(1000, thresholdMilliseconds / 4));
+        this.policy = policy;
+        this.directory = directory;
+        this.abandonPredicate = abandonPredicate;
+        this.handledProgressNanoTimes = new HashMap<>();
+        this.abandonedProgressNanoTimes = new HashMap<>();
+    }
+
+    /**
+     * Method to start the watchdog thread
+     */
+    public void start() {
+        running = true;
+        thread = new Thread(this);
+        thread.setName("test-engine-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Method to stop the watchdog thread
+     */
+    public void stop() {
+        running = false;
+
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                Thread.sleep(intervalMilliseconds);
+                check();
+            } catch (InterruptedException e) {
+                break;
+            } catch (Throwable t) {
+                LOGGER.error("Exception in watchdog [%s]", t);
+                t.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Method to check each worker thread for a hung test
+     */
+    private void check() {
+        long nanoTime = System.nanoTime();
+        boolean dumped = false;
+
+        for (TestEngineWorkerTracker.Worker worker : testEngineWorkerTracker.getWorkers()) {
+            TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor = worker.getTestEngineAbstractTestDescriptor();
+            long progressNanoTime = worker.getProgressNanoTime();
+
+            if ((testEngineAbstractTestDescriptor == null)
+                    || worker.isWaiting()
+                    || ((nanoTime - progressNanoTime) < thresholdNanoTime)) {
+                continue;
+            }
+
+            // Only handle a hang once, other than escalating an interrupted hang to abandon it
+            Long handledProgressNanoTime = handledProgressNanoTimes.get(worker.getThread());
+            if ((handledProgressNanoTime != null) && (handledProgressNanoTime == progressNanoTime)) {
+                if ((policy == Policy.ABANDON)
+                        && ((nanoTime - progressNanoTime) >= (thresholdNanoTime * 2))
+                        && !handledProgressNanoTime.equals(abandonedProgressNanoTimes.put(worker.getThread(), progressNanoTime))) {
+                    if (!abandonPredicate.test(worker)) {
+                        LOGGER.error("Thread [%s] test class can't be abandoned", worker.getThread().getName());
+                    }
+                }
+
+                continue;
+            }
+
+            handledProgressNanoTimes.put(worker.getThread(), progressNanoTime);
+
+            LOGGER.error(
+                    "Thread [%s] test [%s] has made no progress for [%d] ms, policy [%s]",
+                    worker.getThread().getName(),
+                    testEngineAbstractTestDescriptor.getUniqueId(),
+                    (nanoTime - progressNanoTime) / 1000000L,
+                    policy);
+
+            if (!dumped) {
+                dumpThreads();
+                dumped = true;
+            }
+
+            if (policy != Policy.DUMP) {
+                worker.getThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Method to write a thread dump, including deadlocked threads
+     */
+    private void dumpThreads() {
+        if (directory == null) {
+            PrintWriter printWriter = new PrintWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8));
+            dumpThreads(printWriter);
+            printWriter.flush();
+            return;
+        }
+
+        directory.mkdirs();
+        File file = new File(directory, "thread-dump-" + FILENAME_DATE_TIME_FORMATTER.format(Instant.now()) + ".txt");
+
+        try (PrintWriter printWriter = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            dumpThreads(printWriter);
+
+            // PrintWriter doesn't throw IOExceptions
+            if (printWriter.checkError()) {
+                throw new IOException("Error writing thread dump");
+            }
+        } catch (IOException e) {
+            LOGGER.error("Exception writing thread dump [%s] [%s]", file.getAbsolutePath(), e);
+            e.printStackTrace();
+            return;
+        }
+
+        LOGGER.error("Thread dump written to [%s]", file.getAbsolutePath());
+    }
+
+    /**
+     * Method to write a thread dump, including deadlocked threads
+     *
+     * @param printWriter
+     */
+    private static void dumpThreads(PrintWriter printWriter) {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        printWriter.println("Thread dump " + Instant.now());
+        printWriter.println();
+
+        long[] deadlockedThreadIds = threadMXBean.findDeadlockedThreads();
+        if (deadlockedThreadIds != null) {
+            printWriter.println("Deadlocked threads");
+            for (ThreadInfo threadInfo : threadMXBean.getThreadInfo(deadlockedThreadIds, true, true)) {
+                if (threadInfo != null) {
+                    dumpThread(threadInfo, printWriter);
+                }
+            }
+            printWriter.println("All threads");
+            printWriter.println();
+        }
+
+        ThreadInfo[] threadInfos =
+                threadMXBean.dumpAllThreads(
+                        threadMXBean.isObjectMonitorUsageSupported(),
+                        threadMXBean.isSynchronizerUsageSupported());
+
+        for (ThreadInfo threadInfo : threadInfos) {
+            dumpThread(threadInfo, printWriter);
+        }
+    }
+
+    /**
+     * Method to write a thread, with its full stack and lock information
+     *
+     * @param threadInfo
+     * @param printWriter
+     */
+    private static void dumpThread(ThreadInfo threadInfo, PrintWriter printWriter) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder
+                .append('"')
+                .append(threadInfo.getThreadName())
+                .append("\" id=")
+                .append(threadInfo.getThreadId())
+                .append(' ')
+                .append(threadInfo.getThreadState());
+
+        if (threadInfo.getLockName() != null) {
+            stringBuilder.append(" on ").append(threadInfo.getLockName());
+        }
+
+        if (threadInfo.getLockOwnerName() != null) {
+            stringBuilder
+                    .append(" owned by \"")
+                    .append(threadInfo.getLockOwnerName())
+                    .append("\" id=")
+                    .append(threadInfo.getLockOwnerId());
+        }
+
+        printWriter.println(stringBuilder);
+
+        StackTraceElement[] stackTraceElements = threadInfo.getStackTrace();
+        MonitorInfo[] monitorInfos = threadInfo.getLockedMonitors();
+
+        for (int i = 0; i < stackTraceElements.length; i++) {
+            printWriter.println("    at " + stackTraceElements[i]);
+
+            for (MonitorInfo monitorInfo : monitorInfos) {
+                if (monitorInfo.getLockedStackDepth() == i) {
+                    printWriter.println("    - locked " + monitorInfo);
+                }
+            }
+        }
+
+        LockInfo[] lockInfos = threadInfo.getLockedSynchronizers();
+        if (lockInfos.length > 0) {
+            printWriter.println("    Locked synchronizers");
+            for (LockInfo lockInfo : lockInfos) {
+                printWriter.println("    - " + lockInfo);
+            }
+        }
+
+        printWriter.println();
+    }
+}
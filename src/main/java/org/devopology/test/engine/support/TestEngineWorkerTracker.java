@@ -0,0 +1,225 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support;
+
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.junit.platform.engine.TestDescriptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class to track the test class and TestDescriptor in flight on each worker thread
+ * <p>
+ * Each thread updates only its own Worker, using volatile writes, so tracking
+ * doesn't contend between threads and can be read at any time by monitoring threads
+ */
+public class TestEngineWorkerTracker {
+
+    private final Map<Thread, Worker> workers;
+
+    /**
+     * Constructor
+     */
+    public TestEngineWorkerTracker() {
+        this.workers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Method to record that the current thread started executing a TestDescriptor
+     *
+     * @param testEngineAbstractTestDescriptor
+     */
+    public void executionStarted(TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor) {
+        Thread thread = Thread.currentThread();
+        Worker worker = workers.get(thread);
+        if (worker == null) {
+            worker = workers.computeIfAbsent(thread, Worker::new);
+        }
+
+        if (testEngineAbstractTestDescriptor instanceof TestEngineClassTestDescriptor) {
+            worker.testEngineClassTestDescriptor = (TestEngineClassTestDescriptor) testEngineAbstractTestDescriptor;
+        }
+
+        worker.testEngineAbstractTestDescriptor = testEngineAbstractTestDescriptor;
+        worker.progressNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Method to record that the current thread finished executing a TestDescriptor
+     *
+     * @param testEngineAbstractTestDescriptor
+     */
+    public void executionFinished(TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor) {
+        Worker worker = workers.get(Thread.currentThread());
+        if (worker == null) {
+            return;
+        }
+
+        TestDescriptor parent = testEngineAbstractTestDescriptor.getParent().orElse(null);
+        if (parent instanceof TestEngineAbstractTestDescriptor) {
+            worker.testEngineAbstractTestDescriptor = (TestEngineAbstractTestDescriptor) parent;
+        } else {
+            worker.testEngineAbstractTestDescriptor = null;
+        }
+
+        if (testEngineAbstractTestDescriptor instanceof TestEngineClassTestDescriptor) {
+            worker.testEngineClassTestDescriptor = null;
+        }
+
+        worker.progressNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Method to record that the current thread has finished executing TestDescriptors
+     * of a TestDescriptor executing on another thread
+     */
+    public void executionIdle() {
+        Worker worker = workers.get(Thread.currentThread());
+        if (worker == null) {
+            return;
+        }
+
+        worker.testEngineAbstractTestDescriptor = null;
+        worker.testEngineClassTestDescriptor = null;
+        worker.progressNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Method to record whether the current thread is waiting for other threads
+     * to execute TestDescriptors of its current TestDescriptor
+     *
+     * @param waiting
+     */
+    public void setWaiting(boolean waiting) {
+        Worker worker = workers.get(Thread.currentThread());
+        if (worker == null) {
+            return;
+        }
+
+        worker.waiting = waiting;
+        worker.progressNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Method to get the Workers, in no particular order
+     *
+     * @return
+     */
+    public Collection<Worker> getWorkers() {
+        return Collections.unmodifiableCollection(workers.values());
+    }
+
+    /**
+     * Method to get the Worker for a thread
+     *
+     * @param thread
+     * @return the Worker, or null if the thread hasn't executed a test
+     */
+    public Worker getWorker(Thread thread) {
+        return workers.get(thread);
+    }
+
+    /**
+     * Method to get the TestDescriptors in flight, longest running first
+     *
+     * @return
+     */
+    public List<TestEngineAbstractTestDescriptor> getInFlightTestDescriptors() {
+        List<TestEngineAbstractTestDescriptor> testEngineAbstractTestDescriptors = new ArrayList<>();
+
+        for (Worker worker : workers.values()) {
+            TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor = worker.getTestEngineAbstractTestDescriptor();
+            if (testEngineAbstractTestDescriptor != null) {
+                testEngineAbstractTestDescriptors.add(testEngineAbstractTestDescriptor);
+            }
+        }
+
+        testEngineAbstractTestDescriptors.sort(Comparator.comparingLong(TestEngineAbstractTestDescriptor::getStartNanoTime));
+
+        return testEngineAbstractTestDescriptors;
+    }
+
+    /**
+     * Class to implement a worker thread's in flight state
+     */
+    public static class Worker {
+
+        private final Thread thread;
+        private volatile TestEngineClassTestDescriptor testEngineClassTestDescriptor;
+        private volatile TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor;
+        private volatile long progressNanoTime;
+        private volatile boolean waiting;
+
+        /**
+         * Constructor
+         *
+         * @param thread
+         */
+        private Worker(Thread thread) {
+            this.thread = thread;
+        }
+
+        public Thread getThread() {
+            return thread;
+        }
+
+        /**
+         * Method to get the test class in flight
+         *
+         * @return the TestEngineClassTestDescriptor, or null if the worker is idle
+         */
+        public TestEngineClassTestDescriptor getTestEngineClassTestDescriptor() {
+            return testEngineClassTestDescriptor;
+        }
+
+        /**
+         * Method to get the most specific TestDescriptor in flight
+         *
+         * @return the TestEngineAbstractTestDescriptor, or null if the worker is idle
+         */
+        public TestEngineAbstractTestDescriptor getTestEngineAbstractTestDescriptor() {
+            return testEngineAbstractTestDescriptor;
+        }
+
+        /**
+         * Method to get the System.nanoTime() the worker last started or finished a TestDescriptor
+         *
+         * @return
+         */
+        public long getProgressNanoTime() {
+            return progressNanoTime;
+        }
+
+        /**
+         * Method to return whether the worker is waiting for other threads
+         * to execute TestDescriptors of its current TestDescriptor
+         *
+         * @return
+         */
+        public boolean isWaiting() {
+            return waiting;
+        }
+    }
+}
@@ -16,23 +16,123 @@
 
 package org.devopology.test.engine.support.descriptor;
 
-import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public abstract class TestEngineAbstractTestDescriptor extends AbstractTestDescriptor {
 
-    private final List<TestExecutionResult> testExecutionResultList;
+    private long startNanoTime;
+    private long finishNanoTime;
+    private long startCpuNanoTime = -1;
+    private long finishCpuNanoTime = -1;
+    private long startAllocatedBytes = -1;
+    private long finishAllocatedBytes = -1;
 
     protected TestEngineAbstractTestDescriptor(UniqueId uniqueId, String displayName) {
         super(uniqueId, displayName);
-        this.testExecutionResultList = new ArrayList<>();
     }
 
-    public List<TestExecutionResult> getTestExecutionResultList() {
-        return testExecutionResultList;
+    /**
+     * Method to get the test class
+     *
+     * @return
+     */
+    public abstract Class<?> getTestClass();
+
+    /**
+     * Method to set the System.nanoTime() when execution started
+     *
+     * @param startNanoTime
+     */
+    public void setStartNanoTime(long startNanoTime) {
+        this.startNanoTime = startNanoTime;
+    }
+
+    /**
+     * Method to get the System.nanoTime() when execution started
+     *
+     * @return the System.nanoTime(), or 0 if the test hasn't started
+     */
+    public long getStartNanoTime() {
+        return startNanoTime;
+    }
+
+    /**
+     * Method to set the System.nanoTime() when execution finished
+     *
+     * @param finishNanoTime
+     */
+    public void setFinishNanoTime(long finishNanoTime) {
+        this.finishNanoTime = finishNanoTime;
+    }
+
+    /**
+     * Method to get the System.nanoTime() when execution finished
+     *
+     * @return the System.nanoTime(), or 0 if the test hasn't finished
+     */
+    public long getFinishNanoTime() {
+        return finishNanoTime;
+    }
+
+    /**
+     * Method to get the execution duration in nanoseconds
+     *
+     * @return the execution duration, or 0 if the test wasn't executed
+     */
+    public long getDurationNanoTime() {
+        if ((startNanoTime == 0) || (finishNanoTime == 0)) {
+            return 0;
+        }
+
+        return finishNanoTime - startNanoTime;
+    }
+
+    /**
+     * Method to set the thread CPU time and allocated bytes when execution started
+     *
+     * @param startCpuNanoTime
+     * @param startAllocatedBytes
+     */
+    public void setStartThreadResources(long startCpuNanoTime, long startAllocatedBytes) {
+        this.startCpuNanoTime = startCpuNanoTime;
+        this.startAllocatedBytes = startAllocatedBytes;
+    }
+
+    /**
+     * Method to set the thread CPU time and allocated bytes when execution finished
+     *
+     * @param finishCpuNanoTime
+     * @param finishAllocatedBytes
+     */
+    public void setFinishThreadResources(long finishCpuNanoTime, long finishAllocatedBytes) {
+        this.finishCpuNanoTime = finishCpuNanoTime;
+        this.finishAllocatedBytes = finishAllocatedBytes;
+    }
+
+    /**
+     * Method to get the execution CPU time in nanoseconds
+     *
+     * @return the execution CPU time, or -1 if not measured
+     */
+    public long getCpuNanoTime() {
+        if ((startCpuNanoTime < 0) || (finishCpuNanoTime < 0)) {
+            return -1;
+        }
+
+        return finishCpuNanoTime - startCpuNanoTime;
+    }
+
+    /**
+     * Method to get the heap bytes allocated during execution
+     *
+     * @return the allocated bytes, or -1 if not measured
+     */
+    public long getAllocatedBytes() {
+        if ((startAllocatedBytes < 0) || (finishAllocatedBytes < 0)) {
+            return -1;
+        }
+
+        return finishAllocatedBytes - startAllocatedBytes;
     }
 }
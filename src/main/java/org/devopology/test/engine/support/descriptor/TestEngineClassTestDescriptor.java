@@ -16,15 +16,19 @@
 
 package org.devopology.test.engine.support.descriptor;
 
+import org.devopology.test.engine.support.TestEnginePhaseTimings;
 import org.junit.platform.engine.UniqueId;
 
 public class TestEngineClassTestDescriptor extends TestEngineAbstractTestDescriptor {
 
     private final Class<?> testClass;
+    private final TestEnginePhaseTimings testEnginePhaseTimings;
+    private boolean partial;
 
     public TestEngineClassTestDescriptor(UniqueId uniqueId, String displayName, Class<?> testClass) {
         super(uniqueId, displayName);
         this.testClass = testClass;
+        this.testEnginePhaseTimings = new TestEnginePhaseTimings();
     }
 
     @Override
@@ -32,7 +36,36 @@ public class TestEngineClassTestDescriptor extends TestEngineAbstractTestDescrip
         return Type.CONTAINER;
     }
 
+    @Override
     public Class<?> getTestClass() {
         return testClass;
     }
+
+    /**
+     * Method to get the time spent in each lifecycle phase of the test class
+     *
+     * @return
+     */
+    public TestEnginePhaseTimings getTestEnginePhaseTimings() {
+        return testEnginePhaseTimings;
+    }
+
+    /**
+     * Method to set whether only some of the test methods or test parameters of the test class are executed
+     *
+     * @param partial
+     */
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    /**
+     * Method to return whether only some of the test methods or test parameters of the test class
+     * are executed (e.g. selected by a rerun file or test method filter)
+     *
+     * @return
+     */
+    public boolean isPartial() {
+        return partial;
+    }
 }
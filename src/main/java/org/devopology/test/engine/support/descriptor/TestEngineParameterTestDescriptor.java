@@ -23,11 +23,20 @@ public class TestEngineParameterTestDescriptor extends TestEngineAbstractTestDes
 
     private final Class<?> testClass;
     private final Parameter testParameter;
+    private final int testParameterIndex;
+    private String summaryPrefix;
+    private String summarySuffix;
 
-    public TestEngineParameterTestDescriptor(UniqueId uniqueId, String displayName, Class<?> testClass, Parameter testParameter) {
+    public TestEngineParameterTestDescriptor(
+            UniqueId uniqueId,
+            String displayName,
+            Class<?> testClass,
+            Parameter testParameter,
+            int testParameterIndex) {
         super(uniqueId, testParameter.name());
         this.testClass = testClass;
         this.testParameter = testParameter;
+        this.testParameterIndex = testParameterIndex;
     }
 
     @Override
@@ -35,6 +44,7 @@ public class TestEngineParameterTestDescriptor extends TestEngineAbstractTestDes
         return Type.TEST;
     }
 
+    @Override
     public Class<?> getTestClass() {
         return testClass;
     }
@@ -42,4 +52,39 @@ public class TestEngineParameterTestDescriptor extends TestEngineAbstractTestDes
     public Parameter getTestParameter() {
         return testParameter;
     }
+
+    /**
+     * Method to get the index of the test parameter in the @TestEngine.ParameterSupplier Stream
+     *
+     * @return
+     */
+    public int getTestParameterIndex() {
+        return testParameterIndex;
+    }
+
+    /**
+     * Method to get the summary output prefix "[<parameter name>] - ", built on first use
+     *
+     * @return
+     */
+    public String getSummaryPrefix() {
+        if (summaryPrefix == null) {
+            summaryPrefix = "[" + testParameter.name() + "] - ";
+        }
+
+        return summaryPrefix;
+    }
+
+    /**
+     * Method to get the summary output suffix " <test class name>", built on first use
+     *
+     * @return
+     */
+    public String getSummarySuffix() {
+        if (summarySuffix == null) {
+            summarySuffix = " " + testClass.getName();
+        }
+
+        return summarySuffix;
+    }
 }
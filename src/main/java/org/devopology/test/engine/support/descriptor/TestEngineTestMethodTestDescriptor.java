@@ -17,6 +17,7 @@
 package org.devopology.test.engine.support.descriptor;
 
 import org.devopology.test.engine.api.Parameter;
+import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.UniqueId;
 
 import java.lang.reflect.Method;
@@ -26,6 +27,8 @@ public class TestEngineTestMethodTestDescriptor extends TestEngineAbstractTestDe
     private final Class<?> testClass;
     private final Parameter testParameter;
     private final Method testMethod;
+    private String summaryPrefix;
+    private String summarySuffix;
 
     public TestEngineTestMethodTestDescriptor(
             UniqueId uniqueId,
@@ -44,6 +47,7 @@ public class TestEngineTestMethodTestDescriptor extends TestEngineAbstractTestDe
         return Type.TEST;
     }
 
+    @Override
     public Class<?> getTestClass() {
         return testClass;
     }
@@ -55,4 +59,35 @@ public class TestEngineTestMethodTestDescriptor extends TestEngineAbstractTestDe
     public Method getTestMethod() {
         return testMethod;
     }
+
+    /**
+     * Method to get the summary output prefix "[<parameter name>] - ", shared with the parent, resolved on first use
+     *
+     * @return
+     */
+    public String getSummaryPrefix() {
+        if (summaryPrefix == null) {
+            TestDescriptor parent = getParent().orElse(null);
+            if (parent instanceof TestEngineParameterTestDescriptor) {
+                summaryPrefix = ((TestEngineParameterTestDescriptor) parent).getSummaryPrefix();
+            } else {
+                summaryPrefix = "[" + testParameter.name() + "] - ";
+            }
+        }
+
+        return summaryPrefix;
+    }
+
+    /**
+     * Method to get the summary output suffix " <test class name> <test method name>()", built on first use
+     *
+     * @return
+     */
+    public String getSummarySuffix() {
+        if (summarySuffix == null) {
+            summarySuffix = " " + testClass.getName() + " " + testMethod.getName() + "()";
+        }
+
+        return summarySuffix;
+    }
 }
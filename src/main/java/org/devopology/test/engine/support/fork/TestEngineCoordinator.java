@@ -0,0 +1,695 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.fork;
+
+import org.devopology.test.engine.support.TestEngineException;
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.ExecutionRequest;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class to execute an ExecutionRequest using workers connected over TCP
+ * <p>
+ * Each worker repeatedly takes the next test class, executes it, and streams the execution
+ * events back. The coordinator reports the events to its EngineExecutionListener, so the summary
+ * and reports include all workers. Workers can connect at any time while test classes remain
+ * <p>
+ * A worker is lost when its connection closes, or no message (including heartbeats) is received
+ * within the heartbeat timeout. When a test class in flight on a lost worker is executed again,
+ * only its tests that haven't finished are sent, and they are reported as the other worker
+ * finishes them. Tests in flight are only reported as failed when the last attempt is lost
+ * <p>
+ * A worker must send the coordinator's token, if configured, when connecting
+ */
+public class TestEngineCoordinator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineCoordinator.class);
+
+    private final InetSocketAddress inetSocketAddress;
+    private final int retryCount;
+    private final String token;
+    private final String threadNameFormat;
+    private final BlockingDeque<Unit> units;
+    private final AtomicInteger remainingCount;
+    private final AtomicInteger workerIdSequence;
+    private final Set<Socket> sockets;
+    private final CountDownLatch executedCountDownLatch;
+    private volatile boolean shutdown;
+
+    /**
+     * Constructor
+     *
+     * @param inetSocketAddress the address to listen on, port 0 to use any free port
+     * @param retryCount the number of times a test class in flight on a lost worker is executed again
+     * @param token the token workers must send when connecting, or null if any worker is accepted
+     */
+    public TestEngineCoordinator(InetSocketAddress inetSocketAddress, int retryCount, String token) {
+        this(inetSocketAddress, retryCount, token, "test-engine-worker-%02d");
+    }
+
+    /**
+     * Constructor
+     *
+     * @param inetSocketAddress the address to listen on, port 0 to use any free port
+     * @param retryCount the number of times a test class in flight on a lost worker is executed again
+     * @param token the token workers must send when connecting, or null if any worker is accepted
+     * @param threadNameFormat the name format of the thread for each worker, with the worker id as an argument
+     */
+    protected TestEngineCoordinator(InetSocketAddress inetSocketAddress, int retryCount, String token, String threadNameFormat) {
+        if (retryCount < 0) {
+            throw new TestEngineException(String.format("Invalid retry count [%d]", retryCount));
+        }
+
+        this.inetSocketAddress = inetSocketAddress;
+        this.retryCount = retryCount;
+        this.token = token != null ? token : "";
+        this.threadNameFormat = threadNameFormat;
+        this.units = new LinkedBlockingDeque<>();
+        this.remainingCount = new AtomicInteger();
+        this.workerIdSequence = new AtomicInteger();
+        this.sockets = ConcurrentHashMap.newKeySet();
+        this.executedCountDownLatch = new CountDownLatch(1);
+    }
+
+    /**
+     * Method to execute the ExecutionRequest
+     *
+     * @param executionRequest
+     */
+    public void execute(ExecutionRequest executionRequest) {
+        LOGGER.trace("execute(ExecutionRequest)");
+
+        EngineExecutionListener engineExecutionListener = executionRequest.getEngineExecutionListener();
+        TestDescriptor rootTestDescriptor = executionRequest.getRootTestDescriptor();
+
+        for (TestDescriptor testDescriptor : rootTestDescriptor.getChildren()) {
+            units.add(new Unit((TestEngineClassTestDescriptor) testDescriptor));
+        }
+
+        remainingCount.set(units.size());
+
+        engineExecutionListener.executionStarted(rootTestDescriptor);
+
+        List<Thread> threads = new ArrayList<>();
+
+        try (ServerSocket serverSocket = new ServerSocket()) {
+            serverSocket.bind(inetSocketAddress, 50);
+            serverSocket.setSoTimeout(1000);
+
+            listening(serverSocket.getLocalPort(), units.size());
+
+            InetAddress inetAddress = serverSocket.getInetAddress();
+            if (token.isEmpty() && !inetAddress.isLoopbackAddress()) {
+                LOGGER.warning("Coordinator accepting workers from other machines without a token");
+            }
+
+            // Accept workers until all test classes are finished
+            while ((remainingCount.get() > 0) && !shutdown && isAccepting()) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketTimeoutException e) {
+                    continue;
+                }
+
+                Worker worker;
+                try {
+                    socket.setTcpNoDelay(true);
+                    socket.setKeepAlive(true);
+                    worker = new Worker(socket, engineExecutionListener);
+                } catch (IOException e) {
+                    LOGGER.warning("Exception connecting worker from [%s] [%s]", socket.getRemoteSocketAddress(), e.getMessage());
+                    socket.close();
+                    continue;
+                }
+
+                if (worker.workerId < 1) {
+                    socket.close();
+                    continue;
+                }
+
+                LOGGER.trace("worker [%d] connected from [%s]", worker.workerId, socket.getRemoteSocketAddress());
+
+                sockets.add(socket);
+
+                Thread thread = new Thread(worker);
+                thread.setName(String.format(threadNameFormat, worker.workerId));
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+        } catch (IOException e) {
+            throw new TestEngineException("Exception executing workers", e);
+        } finally {
+            try {
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // Test classes not taken by a worker are skipped
+            String skipReason = shutdown ? "Shutdown" : "No worker available";
+            Unit unit;
+            while ((unit = units.poll()) != null) {
+                unit.testEngineClassTestDescriptor.setFinishNanoTime(System.nanoTime());
+                engineExecutionListener.executionSkipped(unit.testEngineClassTestDescriptor, skipReason);
+                remainingCount.decrementAndGet();
+            }
+
+            engineExecutionListener.executionFinished(rootTestDescriptor, TestExecutionResult.successful());
+
+            finished();
+
+            executedCountDownLatch.countDown();
+        }
+    }
+
+    /**
+     * Method to shutdown execution, skipping test classes not yet started, and waiting for test classes
+     * in flight to finish for a grace period, after which the workers are disconnected and test
+     * classes in flight are reported as aborted
+     *
+     * @param gracePeriodMilliseconds
+     */
+    public void shutdown(long gracePeriodMilliseconds) {
+        shutdown = true;
+
+        try {
+            if (executedCountDownLatch.await(gracePeriodMilliseconds, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+
+            disconnect();
+
+            // Wait for test classes in flight to be reported as aborted
+            executedCountDownLatch.await(gracePeriodMilliseconds, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            // DO NOTHING
+        }
+    }
+
+    /**
+     * Method to return whether shutdown has been requested
+     *
+     * @return
+     */
+    protected boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Method called when the coordinator is listening, before accepting workers
+     *
+     * @param port
+     * @param testClassCount
+     * @throws IOException
+     */
+    protected void listening(int port, int testClassCount) throws IOException {
+        LOGGER.info(
+                "Coordinator listening on [%s:%d], waiting for workers to execute [%d] test classes",
+                inetSocketAddress.getHostString(),
+                port,
+                testClassCount);
+    }
+
+    /**
+     * Method to return whether to keep accepting workers
+     *
+     * @return
+     */
+    protected boolean isAccepting() {
+        return true;
+    }
+
+    /**
+     * Method to register a connected worker
+     *
+     * @param workerId the worker id sent by the worker
+     * @return the worker id to use, or -1 to reject the worker
+     */
+    protected int register(int workerId) {
+        return workerIdSequence.incrementAndGet();
+    }
+
+    /**
+     * Method to get the TestExecutionResult of a test class in flight on a lost worker, when it isn't retried
+     *
+     * @param workerId
+     * @return
+     */
+    protected TestExecutionResult lost(int workerId) {
+        String message = String.format("Worker [%d] disconnected", workerId);
+        LOGGER.error(message);
+
+        TestEngineException testEngineException = new TestEngineException(message);
+        return shutdown ? TestExecutionResult.aborted(testEngineException) : TestExecutionResult.failed(testEngineException);
+    }
+
+    /**
+     * Method to disconnect all workers
+     */
+    protected void disconnect() {
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // DO NOTHING
+            }
+        }
+    }
+
+    /**
+     * Method called when execution has finished, before execute() returns
+     */
+    protected void finished() {
+        // DO NOTHING
+    }
+
+    /**
+     * Class to implement a test class to execute
+     */
+    private static class Unit {
+
+        private final TestEngineClassTestDescriptor testEngineClassTestDescriptor;
+        private int attemptCount;
+
+        /**
+         * Constructor
+         *
+         * @param testEngineClassTestDescriptor
+         */
+        Unit(TestEngineClassTestDescriptor testEngineClassTestDescriptor) {
+            this.testEngineClassTestDescriptor = testEngineClassTestDescriptor;
+        }
+    }
+
+    /**
+     * Class to implement an execution event received from a worker
+     */
+    private static class Event {
+
+        private final byte type;
+        private final TestEngineAbstractTestDescriptor testDescriptor;
+        private final long nanoTime;
+        private TestExecutionResult.Status status;
+        private long durationNanoTime;
+        private long cpuNanoTime;
+        private long allocatedBytes;
+        private Throwable throwable;
+        private String reason;
+
+        /**
+         * Constructor
+         *
+         * @param type
+         * @param testDescriptor
+         */
+        Event(byte type, TestEngineAbstractTestDescriptor testDescriptor) {
+            this.type = type;
+            this.testDescriptor = testDescriptor;
+            this.nanoTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Class to implement the connection to a worker
+     */
+    private class Worker implements Runnable {
+
+        private final Socket socket;
+        private final DataInputStream dataInputStream;
+        private final DataOutputStream dataOutputStream;
+        private final EngineExecutionListener engineExecutionListener;
+        private final Map<String, TestEngineAbstractTestDescriptor> testDescriptors;
+        private final int workerId;
+        private String mismatchMessage;
+
+        /**
+         * Constructor
+         *
+         * @param socket
+         * @param engineExecutionListener
+         * @throws IOException
+         */
+        Worker(Socket socket, EngineExecutionListener engineExecutionListener) throws IOException {
+            this.socket = socket;
+            this.dataInputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.dataOutputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.engineExecutionListener = engineExecutionListener;
+            this.testDescriptors = new HashMap<>();
+
+            socket.setSoTimeout(10000);
+            if (dataInputStream.readByte() != TestEngineForkProtocol.HELLO) {
+                throw new IOException("Invalid handshake");
+            }
+
+            int requestedWorkerId = dataInputStream.readInt();
+
+            if (!MessageDigest.isEqual(
+                    token.getBytes(StandardCharsets.UTF_8),
+                    TestEngineForkProtocol.readString(dataInputStream).getBytes(StandardCharsets.UTF_8))) {
+                throw new IOException("Invalid token");
+            }
+
+            this.workerId = register(requestedWorkerId);
+
+            // Workers send heartbeats, so a worker that stops responding is lost rather than waited for forever
+            socket.setSoTimeout(TestEngineForkProtocol.HEARTBEAT_TIMEOUT_MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            Unit unit = null;
+
+            try {
+                while ((unit = take()) != null) {
+                    dataOutputStream.writeByte(TestEngineForkProtocol.CLASS);
+                    TestEngineForkProtocol.writeString(dataOutputStream, unit.testEngineClassTestDescriptor.getTestClass().getName());
+                    TestEngineForkProtocol.writeSelection(dataOutputStream, unit.testEngineClassTestDescriptor);
+                    dataOutputStream.flush();
+
+                    execute(unit.testEngineClassTestDescriptor);
+
+                    unit = null;
+                    testDescriptors.clear();
+                    mismatchMessage = null;
+                    remainingCount.decrementAndGet();
+                }
+
+                dataOutputStream.writeByte(TestEngineForkProtocol.EXIT);
+                dataOutputStream.flush();
+            } catch (IOException e) {
+                if (unit != null) {
+                    if (!shutdown && (unit.attemptCount < retryCount)) {
+                        unit.attemptCount++;
+
+                        String message =
+                                String.format(
+                                        "Worker [%d] disconnected [%s], retrying test class [%s]",
+                                        workerId,
+                                        e.getMessage(),
+                                        unit.testEngineClassTestDescriptor.getTestClass().getName());
+
+                        LOGGER.warning(message);
+
+                        // Tests in flight remain unfinished, and are reported when executed again
+                        units.addFirst(unit);
+                    } else {
+                        TestExecutionResult testExecutionResult = lost(workerId);
+                        abort(unit.testEngineClassTestDescriptor, testExecutionResult, "Worker disconnected");
+                        remainingCount.decrementAndGet();
+                    }
+                }
+            } finally {
+                sockets.remove(socket);
+
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // DO NOTHING
+                }
+            }
+        }
+
+        /**
+         * Method to take the next test class, waiting while test classes in flight on other workers may be retried
+         *
+         * @return the next test class, or null if there are no more test classes
+         */
+        private Unit take() {
+            try {
+                while (!shutdown && (remainingCount.get() > 0)) {
+                    Unit unit = units.poll(100, TimeUnit.MILLISECONDS);
+                    if (unit != null) {
+                        return unit;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // DO NOTHING
+            }
+
+            return null;
+        }
+
+        /**
+         * Method to receive the execution events of a test class until the worker finishes it
+         *
+         * @param testEngineClassTestDescriptor
+         * @throws IOException
+         */
+        private void execute(TestEngineClassTestDescriptor testEngineClassTestDescriptor) throws IOException {
+            while (true) {
+                byte message = dataInputStream.readByte();
+                switch (message) {
+                    case TestEngineForkProtocol.STARTED: {
+                        report(new Event(message, resolve(testEngineClassTestDescriptor)));
+                        break;
+                    }
+                    case TestEngineForkProtocol.FINISHED: {
+                        Event event = new Event(message, resolve(testEngineClassTestDescriptor));
+                        event.status = TestEngineForkProtocol.readStatus(dataInputStream);
+                        event.durationNanoTime = dataInputStream.readLong();
+                        event.cpuNanoTime = dataInputStream.readLong();
+                        event.allocatedBytes = dataInputStream.readLong();
+                        event.throwable = TestEngineForkProtocol.readThrowable(dataInputStream);
+                        report(event);
+                        break;
+                    }
+                    case TestEngineForkProtocol.SKIPPED: {
+                        Event event = new Event(message, resolve(testEngineClassTestDescriptor));
+                        event.reason = TestEngineForkProtocol.readString(dataInputStream);
+                        report(event);
+                        break;
+                    }
+                    case TestEngineForkProtocol.HEARTBEAT: {
+                        break;
+                    }
+                    case TestEngineForkProtocol.CLASS_FINISHED: {
+                        // Executing the test class again would report against the wrong TestDescriptors
+                        if (mismatchMessage != null) {
+                            LOGGER.error(mismatchMessage);
+                            abort(
+                                    testEngineClassTestDescriptor,
+                                    TestExecutionResult.failed(new TestEngineException(mismatchMessage)),
+                                    "Test class doesn't match the coordinator");
+                        }
+
+                        // A test class the worker didn't discover is skipped
+                        if (testEngineClassTestDescriptor.getFinishNanoTime() == 0) {
+                            abort(
+                                    testEngineClassTestDescriptor,
+                                    TestExecutionResult.failed(new TestEngineException("Test class not finished by worker")),
+                                    "Test class not discovered by worker");
+                        }
+
+                        return;
+                    }
+                    default: {
+                        throw new IOException(String.format("Invalid message [%d] from worker [%d]", message, workerId));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Method to report an execution event
+         *
+         * @param event
+         */
+        private void report(Event event) {
+            TestEngineAbstractTestDescriptor testDescriptor = event.testDescriptor;
+
+            // A TestDescriptor that doesn't match the coordinator's
+            if (testDescriptor == null) {
+                return;
+            }
+
+            switch (event.type) {
+                case TestEngineForkProtocol.STARTED: {
+                    if (testDescriptor.getStartNanoTime() == 0) {
+                        testDescriptor.setStartNanoTime(event.nanoTime);
+                        engineExecutionListener.executionStarted(testDescriptor);
+                    }
+
+                    break;
+                }
+                case TestEngineForkProtocol.FINISHED: {
+                    if (testDescriptor.getFinishNanoTime() == 0) {
+                        // Use the duration, CPU time, and allocated bytes measured by the worker
+                        testDescriptor.setFinishNanoTime(testDescriptor.getStartNanoTime() + event.durationNanoTime);
+
+                        if (event.cpuNanoTime >= 0) {
+                            testDescriptor.setStartThreadResources(0, 0);
+                            testDescriptor.setFinishThreadResources(event.cpuNanoTime, event.allocatedBytes);
+                        }
+
+                        engineExecutionListener.executionFinished(
+                                testDescriptor,
+                                toTestExecutionResult(event.status, event.throwable));
+                    }
+
+                    break;
+                }
+                case TestEngineForkProtocol.SKIPPED: {
+                    if (testDescriptor.getFinishNanoTime() == 0) {
+                        testDescriptor.setFinishNanoTime(event.nanoTime);
+                        engineExecutionListener.executionSkipped(testDescriptor, event.reason);
+                    }
+
+                    break;
+                }
+                default: {
+                    // DO NOTHING
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Method to read a TestDescriptor id and display name, resolving the TestDescriptor in a test class
+         * <p>
+         * The first TestDescriptor that doesn't match the coordinator's is recorded, and the test class
+         * is reported as failed when the worker finishes it, ignoring the rest of its execution events
+         *
+         * @param testEngineClassTestDescriptor
+         * @return the TestDescriptor, or null if it doesn't match the coordinator's
+         * @throws IOException
+         */
+        private TestEngineAbstractTestDescriptor resolve(TestEngineClassTestDescriptor testEngineClassTestDescriptor) throws IOException {
+            String id = TestEngineForkProtocol.readString(dataInputStream);
+            String displayName = TestEngineForkProtocol.readString(dataInputStream);
+
+            // Once a TestDescriptor doesn't match, the rest of the test class is ignored
+            if (mismatchMessage != null) {
+                return null;
+            }
+
+            if (testDescriptors.isEmpty()) {
+                put(testEngineClassTestDescriptor);
+            }
+
+            TestEngineAbstractTestDescriptor testDescriptor = testDescriptors.get(id);
+            if ((testDescriptor == null) || !testDescriptor.getDisplayName().equals(displayName)) {
+                mismatchMessage =
+                        String.format(
+                                "Test class [%s] test [%s] [%s] from worker [%d] doesn't match the coordinator",
+                                testEngineClassTestDescriptor.getTestClass().getName(),
+                                id,
+                                displayName,
+                                workerId);
+
+                return null;
+            }
+
+            return testDescriptor;
+        }
+
+        /**
+         * Method to index a TestDescriptor, and its descendants, by id
+         *
+         * @param testDescriptor
+         */
+        private void put(TestDescriptor testDescriptor) {
+            testDescriptors.put(TestEngineForkProtocol.toId(testDescriptor), (TestEngineAbstractTestDescriptor) testDescriptor);
+
+            for (TestDescriptor child : testDescriptor.getChildren()) {
+                put(child);
+            }
+        }
+
+        /**
+         * Method to report a TestDescriptor, and its descendants, that haven't finished
+         *
+         * @param testDescriptor
+         * @param testExecutionResult the TestExecutionResult of TestDescriptors that have started
+         * @param skipReason the reason TestDescriptors that haven't started are skipped
+         */
+        private void abort(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult, String skipReason) {
+            TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor = (TestEngineAbstractTestDescriptor) testDescriptor;
+
+            if (testEngineAbstractTestDescriptor.getFinishNanoTime() != 0) {
+                return;
+            }
+
+            if (testEngineAbstractTestDescriptor.getStartNanoTime() == 0) {
+                testEngineAbstractTestDescriptor.setFinishNanoTime(System.nanoTime());
+                engineExecutionListener.executionSkipped(testDescriptor, skipReason);
+                return;
+            }
+
+            for (TestDescriptor child : testDescriptor.getChildren()) {
+                abort(child, testExecutionResult, skipReason);
+            }
+
+            testEngineAbstractTestDescriptor.setFinishNanoTime(System.nanoTime());
+            engineExecutionListener.executionFinished(testDescriptor, testExecutionResult);
+        }
+    }
+
+    /**
+     * Method to create a TestExecutionResult
+     *
+     * @param status
+     * @param throwable may be null
+     * @return
+     */
+    private static TestExecutionResult toTestExecutionResult(TestExecutionResult.Status status, Throwable throwable) {
+        switch (status) {
+            case ABORTED: {
+                return TestExecutionResult.aborted(throwable);
+            }
+            case FAILED: {
+                return TestExecutionResult.failed(throwable);
+            }
+            default: {
+                return TestExecutionResult.successful();
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.fork;
+
+import org.devopology.test.engine.support.TestEngineConfiguration;
+import org.devopology.test.engine.support.TestEngineException;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class to execute an ExecutionRequest in forked JVMs
+ * <p>
+ * Each forked JVM connects to the parent JVM using a loopback socket, then repeatedly takes the next
+ * test class, executes it, and streams the execution events back. The parent JVM reports the events
+ * to its EngineExecutionListener, so the summary and reports include all forked JVMs
+ */
+public class TestEngineForkExecutor extends TestEngineCoordinator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineForkExecutor.class);
+
+    private static final String SYSTEM_PROPERTY_PREFIX = "devopology.";
+    private static final String FORK_SYSTEM_PROPERTY_PREFIX = "devopology.test.engine.fork.";
+    private static final String SHARD_SYSTEM_PROPERTY_PREFIX = "devopology.test.engine.shard.";
+    private static final String SHARD_ENVIRONMENT_VARIABLE_PREFIX = "DEVOPOLOGY_TEST_ENGINE_SHARD_";
+    private static final String TOKEN_SYSTEM_PROPERTY = "devopology.test.engine.coordinator.token";
+    private static final String TOKEN_ENVIRONMENT_VARIABLE = "DEVOPOLOGY_TEST_ENGINE_COORDINATOR_TOKEN";
+
+    // Forked JVMs terminated by SIGINT / SIGTERM
+    private static final int SIGINT_EXIT_CODE = 130;
+    private static final int SIGTERM_EXIT_CODE = 143;
+
+    private final int forkCount;
+    private final String token;
+    private final List<Process> processes;
+    private boolean[] connected;
+
+    /**
+     * Constructor
+     *
+     * @param forkCount
+     */
+    public TestEngineForkExecutor(int forkCount) {
+        this(forkCount, newToken());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param forkCount
+     * @param token the token forked JVMs send when connecting
+     */
+    private TestEngineForkExecutor(int forkCount, String token) {
+        super(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0, token, "test-engine-fork-%02d");
+
+        this.forkCount = forkCount;
+        this.token = token;
+        this.processes = new ArrayList<>();
+    }
+
+    @Override
+    protected void listening(int port, int testClassCount) throws IOException {
+        int workerCount = Math.min(forkCount, testClassCount);
+
+        synchronized (processes) {
+            connected = new boolean[workerCount + 1];
+
+            for (int workerId = 1; workerId <= workerCount; workerId++) {
+                processes.add(start(workerId, port));
+            }
+        }
+    }
+
+    @Override
+    protected boolean isAccepting() {
+        // Accept forked JVMs until all connected, or the rest exited before connecting
+        synchronized (processes) {
+            for (int i = 0; i < processes.size(); i++) {
+                if (!connected[i + 1] && processes.get(i).isAlive()) {
+                    return true;
+                }
+            }
+
+            for (int workerId = 1; workerId < connected.length; workerId++) {
+                if (!connected[workerId]) {
+                    LOGGER.error("Forked JVM [%d] exited before connecting", workerId);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    protected int register(int workerId) {
+        synchronized (processes) {
+            if ((workerId < 1) || (workerId >= connected.length) || connected[workerId]) {
+                return -1;
+            }
+
+            connected[workerId] = true;
+            return workerId;
+        }
+    }
+
+    @Override
+    protected TestExecutionResult lost(int workerId) {
+        int exitCode = getExitCode(workerId);
+
+        String message = String.format("Forked JVM [%d] exited with code [%d]", workerId, exitCode);
+        LOGGER.error(message);
+
+        TestEngineException testEngineException = new TestEngineException(message);
+
+        return isShutdown() || (exitCode == SIGINT_EXIT_CODE) || (exitCode == SIGTERM_EXIT_CODE)
+                ? TestExecutionResult.aborted(testEngineException)
+                : TestExecutionResult.failed(testEngineException);
+    }
+
+    @Override
+    protected void disconnect() {
+        synchronized (processes) {
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    @Override
+    protected void finished() {
+        // Wait for the forked JVMs to exit, destroying any that don't
+        synchronized (processes) {
+            for (Process process : processes) {
+                try {
+                    if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                        process.destroyForcibly();
+                    }
+                } catch (InterruptedException e) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to start a forked JVM
+     *
+     * @param workerId
+     * @param port
+     * @return
+     * @throws IOException
+     */
+    private Process start(int workerId, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(getJvmOptions(workerId));
+
+        // Forward the test engine configuration, except sharding, since the standalone JVM already selected
+        // the shard, and the token, which is passed in the environment so it isn't visible in the command line
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(SYSTEM_PROPERTY_PREFIX)
+                    && !key.startsWith(FORK_SYSTEM_PROPERTY_PREFIX)
+                    && !key.startsWith(SHARD_SYSTEM_PROPERTY_PREFIX)
+                    && !key.equals(TOKEN_SYSTEM_PROPERTY)) {
+                command.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+
+        command.add("-D" + FORK_SYSTEM_PROPERTY_PREFIX + "worker=" + workerId);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(TestEngineForkWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add(String.valueOf(workerId));
+
+        LOGGER.trace("forked JVM [%d] command %s", workerId, command);
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command).inheritIO();
+        processBuilder.environment().keySet().removeIf(key -> key.startsWith(SHARD_ENVIRONMENT_VARIABLE_PREFIX));
+        processBuilder.environment().put(TOKEN_ENVIRONMENT_VARIABLE, token);
+
+        return processBuilder.start();
+    }
+
+    /**
+     * Method to create a random token
+     *
+     * @return
+     */
+    private static String newToken() {
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+
+        StringBuilder stringBuilder = new StringBuilder();
+        for (byte b : bytes) {
+            stringBuilder.append(String.format("%02x", b));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Method to get the JVM options of a forked JVM, the JVM options of all forked JVMs
+     * followed by the JVM options of the specific forked JVM
+     *
+     * @param workerId
+     * @return
+     */
+    private static List<String> getJvmOptions(int workerId) {
+        List<String> jvmOptions = new ArrayList<>();
+
+        String[] values = {
+                TestEngineConfiguration.getValue(
+                        "devopology.test.engine.fork.jvm.options",
+                        "DEVOPOLOGY_TEST_ENGINE_FORK_JVM_OPTIONS"),
+                TestEngineConfiguration.getValue(
+                        "devopology.test.engine.fork." + workerId + ".jvm.options",
+                        "DEVOPOLOGY_TEST_ENGINE_FORK_" + workerId + "_JVM_OPTIONS")
+        };
+
+        for (String value : values) {
+            if (value != null) {
+                for (String jvmOption : value.trim().split("\\s+")) {
+                    if (!jvmOption.isEmpty()) {
+                        jvmOptions.add(jvmOption);
+                    }
+                }
+            }
+        }
+
+        return jvmOptions;
+    }
+
+    /**
+     * Method to get the exit code of a forked JVM, waiting briefly for it to exit
+     *
+     * @param workerId
+     * @return the exit code, or -1 if the forked JVM hasn't exited
+     */
+    private int getExitCode(int workerId) {
+        Process process;
+        synchronized (processes) {
+            process = processes.get(workerId - 1);
+        }
+
+        try {
+            if (process.waitFor(1, TimeUnit.SECONDS)) {
+                return process.exitValue();
+            }
+        } catch (InterruptedException e) {
+            // DO NOTHING
+        }
+
+        return -1;
+    }
+}
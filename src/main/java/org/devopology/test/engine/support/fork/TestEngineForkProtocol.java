@@ -0,0 +1,373 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.fork;
+
+import org.devopology.test.engine.support.TestEngineException;
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
+import org.devopology.test.engine.support.util.ObjectInputFilters;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class to implement the protocol between the parent JVM (or coordinator) and forked JVMs (or workers)
+ * <p>
+ * The parent JVM sends test class names to execute, and a forked JVM streams the execution
+ * events of each test class back. TestDescriptors are identified by the last segment of their
+ * unique id (the test class name, test parameter index, and test method name), which doesn't
+ * depend on the root unique id, along with their display name, so a test class discovered
+ * differently by the forked JVM is detected rather than reported against the wrong TestDescriptors
+ * <p>
+ * The parent JVM sends the ids of the test methods it selected (e.g. using a rerun file, test plan,
+ * or test method filter) with each test class, and the forked JVM only executes those test methods
+ * <p>
+ * Data is validated as it's read, since a coordinator accepts connections from other machines,
+ * and a forked JVM sends the coordinator's token when connecting, and heartbeats while connected
+ */
+public final class TestEngineForkProtocol {
+
+    /**
+     * Parent JVM command to execute a test class, with the ids of its selected test methods
+     */
+    public static final byte CLASS = 1;
+
+    /**
+     * Parent JVM command to exit
+     */
+    public static final byte EXIT = 2;
+
+    /**
+     * Forked JVM connected message, with the worker id and the token
+     */
+    public static final byte HELLO = 10;
+
+    /**
+     * Forked JVM TestDescriptor started message
+     */
+    public static final byte STARTED = 11;
+
+    /**
+     * Forked JVM TestDescriptor finished message
+     */
+    public static final byte FINISHED = 12;
+
+    /**
+     * Forked JVM TestDescriptor skipped message
+     */
+    public static final byte SKIPPED = 13;
+
+    /**
+     * Forked JVM test class finished message, requesting the next test class
+     */
+    public static final byte CLASS_FINISHED = 14;
+
+    /**
+     * Forked JVM heartbeat message, sent periodically so a lost forked JVM is detected
+     */
+    public static final byte HEARTBEAT = 15;
+
+    /**
+     * Interval between heartbeat messages
+     */
+    public static final long HEARTBEAT_INTERVAL_MILLISECONDS = 5000;
+
+    /**
+     * Time without any message after which a forked JVM is lost
+     */
+    public static final int HEARTBEAT_TIMEOUT_MILLISECONDS = 30000;
+
+    private static final int MAXIMUM_LENGTH = 16 * 1024 * 1024;
+
+    // Java serialization is limited to Throwables, and the JDK / opentest4j classes they reference
+    private static final ObjectInputFilter OBJECT_INPUT_FILTER = ObjectInputFilters.of(clazz ->
+            Throwable.class.isAssignableFrom(clazz)
+                    || clazz.getName().startsWith("java.")
+                    || clazz.getName().startsWith("org.opentest4j."));
+
+    private TestEngineForkProtocol() {
+        // DO NOTHING
+    }
+
+    /**
+     * Method to parse a {@code [<host>:]<port>} address
+     *
+     * @param value
+     * @param defaultHost the host if the value is only a port
+     * @return
+     */
+    public static InetSocketAddress toInetSocketAddress(String value, String defaultHost) {
+        String host = defaultHost;
+        String port = value.trim();
+
+        int index = port.lastIndexOf(':');
+        if (index >= 0) {
+            host = port.substring(0, index);
+            port = port.substring(index + 1);
+
+            // IPv6 address (e.g. [::1]:9000)
+            if (host.startsWith("[") && host.endsWith("]")) {
+                host = host.substring(1, host.length() - 1);
+            }
+        }
+
+        try {
+            return new InetSocketAddress(host, Integer.parseInt(port));
+        } catch (IllegalArgumentException e) {
+            throw new TestEngineException(String.format("Invalid address [%s]", value), e);
+        }
+    }
+
+    /**
+     * Method to get the id of a TestDescriptor, the last segment of its unique id
+     *
+     * @param testDescriptor
+     * @return the id, or null if the TestDescriptor isn't part of a test class
+     */
+    public static String toId(TestDescriptor testDescriptor) {
+        if ((testDescriptor instanceof TestEngineClassTestDescriptor)
+                || (testDescriptor instanceof TestEngineParameterTestDescriptor)
+                || (testDescriptor instanceof TestEngineTestMethodTestDescriptor)) {
+            return testDescriptor.getUniqueId().getLastSegment().getValue();
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to write the ids of the test methods of a test class that haven't finished
+     * <p>
+     * A test parameter that hasn't finished, but whose test methods have all finished,
+     * is selected by its own id, so it's executed again without test methods
+     *
+     * @param dataOutputStream
+     * @param testEngineClassTestDescriptor
+     * @throws IOException
+     */
+    public static void writeSelection(
+            DataOutputStream dataOutputStream,
+            TestEngineClassTestDescriptor testEngineClassTestDescriptor) throws IOException {
+        List<String> ids = new ArrayList<>();
+        for (TestDescriptor testEngineParameterTestDescriptor : testEngineClassTestDescriptor.getChildren()) {
+            if (isFinished(testEngineParameterTestDescriptor)) {
+                continue;
+            }
+
+            int count = ids.size();
+
+            for (TestDescriptor testEngineTestMethodTestDescriptor : testEngineParameterTestDescriptor.getChildren()) {
+                if (!isFinished(testEngineTestMethodTestDescriptor)) {
+                    ids.add(toId(testEngineTestMethodTestDescriptor));
+                }
+            }
+
+            if (ids.size() == count) {
+                ids.add(toId(testEngineParameterTestDescriptor));
+            }
+        }
+
+        dataOutputStream.writeInt(ids.size());
+        for (String id : ids) {
+            writeString(dataOutputStream, id);
+        }
+    }
+
+    /**
+     * Method to return whether a TestDescriptor has finished
+     *
+     * @param testDescriptor
+     * @return
+     */
+    private static boolean isFinished(TestDescriptor testDescriptor) {
+        return ((TestEngineAbstractTestDescriptor) testDescriptor).getFinishNanoTime() != 0;
+    }
+
+    /**
+     * Method to read the ids of the selected test methods of a test class
+     *
+     * @param dataInputStream
+     * @return
+     * @throws IOException
+     */
+    public static Set<String> readSelection(DataInputStream dataInputStream) throws IOException {
+        int count = checkLength(dataInputStream.readInt());
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(readString(dataInputStream));
+        }
+
+        return ids;
+    }
+
+    /**
+     * Method to write a TestDescriptor id and display name
+     *
+     * @param dataOutputStream
+     * @param id
+     * @param displayName
+     * @throws IOException
+     */
+    public static void writeId(DataOutputStream dataOutputStream, String id, String displayName) throws IOException {
+        writeString(dataOutputStream, id);
+        writeString(dataOutputStream, displayName);
+    }
+
+    /**
+     * Method to write a String, without the 64K limit of DataOutputStream.writeUTF()
+     *
+     * @param dataOutputStream
+     * @param string
+     * @throws IOException
+     */
+    public static void writeString(DataOutputStream dataOutputStream, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        dataOutputStream.writeInt(bytes.length);
+        dataOutputStream.write(bytes);
+    }
+
+    /**
+     * Method to read a String
+     *
+     * @param dataInputStream
+     * @return
+     * @throws IOException
+     */
+    public static String readString(DataInputStream dataInputStream) throws IOException {
+        byte[] bytes = new byte[checkLength(dataInputStream.readInt())];
+        dataInputStream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Method to write a Throwable using Java serialization
+     * <p>
+     * A Throwable that can't be serialized is replaced by a TestEngineException with
+     * the same message and stack trace
+     *
+     * @param dataOutputStream
+     * @param throwable may be null
+     * @throws IOException
+     */
+    public static void writeThrowable(DataOutputStream dataOutputStream, Throwable throwable) throws IOException {
+        if (throwable == null) {
+            dataOutputStream.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes;
+
+        try {
+            bytes = serialize(throwable);
+        } catch (IOException e) {
+            TestEngineException testEngineException = new TestEngineException(throwable.toString());
+            testEngineException.setStackTrace(throwable.getStackTrace());
+            bytes = serialize(testEngineException);
+        }
+
+        dataOutputStream.writeInt(bytes.length);
+        dataOutputStream.write(bytes);
+    }
+
+    /**
+     * Method to read a Throwable
+     *
+     * @param dataInputStream
+     * @return the Throwable, or null if none was written
+     * @throws IOException
+     */
+    public static Throwable readThrowable(DataInputStream dataInputStream) throws IOException {
+        int length = dataInputStream.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[checkLength(length)];
+        dataInputStream.readFully(bytes);
+
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            objectInputStream.setObjectInputFilter(OBJECT_INPUT_FILTER);
+            return (Throwable) objectInputStream.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            return new TestEngineException("Exception can't be deserialized from worker", e);
+        }
+    }
+
+    /**
+     * Method to read a test execution status
+     *
+     * @param dataInputStream
+     * @return
+     * @throws IOException
+     */
+    public static TestExecutionResult.Status readStatus(DataInputStream dataInputStream) throws IOException {
+        int ordinal = dataInputStream.readByte();
+        TestExecutionResult.Status[] statuses = TestExecutionResult.Status.values();
+        if ((ordinal < 0) || (ordinal >= statuses.length)) {
+            throw new IOException(String.format("Invalid status [%d]", ordinal));
+        }
+
+        return statuses[ordinal];
+    }
+
+    /**
+     * Method to check a length read from a stream
+     *
+     * @param length
+     * @return the length
+     * @throws IOException
+     */
+    private static int checkLength(int length) throws IOException {
+        if ((length < 0) || (length > MAXIMUM_LENGTH)) {
+            throw new IOException(String.format("Invalid length [%d]", length));
+        }
+
+        return length;
+    }
+
+    /**
+     * Method to serialize an Object
+     *
+     * @param object
+     * @return
+     * @throws IOException
+     */
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(object);
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+}
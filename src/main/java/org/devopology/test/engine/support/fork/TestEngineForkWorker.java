@@ -0,0 +1,379 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.fork;
+
+import org.devopology.test.engine.TestEngine;
+import org.devopology.test.engine.support.TestEngineConfiguration;
+import org.devopology.test.engine.support.TestEngineConfigurationParameters;
+import org.devopology.test.engine.support.TestEngineException;
+import org.devopology.test.engine.support.TestEnginePlan;
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.ExecutionRequest;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Set;
+
+/**
+ * Class to implement a forked JVM (or worker), executing test classes sent by the parent JVM
+ * (or coordinator) and streaming the execution events back
+ */
+public class TestEngineForkWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineForkWorker.class);
+
+    private final DataInputStream dataInputStream;
+    private final DataOutputStream dataOutputStream;
+    private final TestEnginePlan testEnginePlan;
+
+    /**
+     * Constructor
+     *
+     * @param socket
+     * @throws IOException
+     */
+    private TestEngineForkWorker(Socket socket) throws IOException {
+        this.dataInputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.dataOutputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        String planImportFilename =
+                TestEngineConfiguration.getValue(
+                        "devopology.test.engine.plan.import",
+                        "DEVOPOLOGY_TEST_ENGINE_PLAN_IMPORT");
+
+        this.testEnginePlan = planImportFilename != null ? TestEnginePlan.read(new File(planImportFilename)) : null;
+    }
+
+    /**
+     * Method to execute test classes until the parent JVM sends an exit command
+     *
+     * @param workerId
+     * @param token the coordinator's token, or null if none
+     * @throws IOException
+     */
+    private void run(int workerId, String token) throws IOException {
+        synchronized (dataOutputStream) {
+            dataOutputStream.writeByte(TestEngineForkProtocol.HELLO);
+            dataOutputStream.writeInt(workerId);
+            TestEngineForkProtocol.writeString(dataOutputStream, token != null ? token : "");
+            dataOutputStream.flush();
+        }
+
+        Thread heartbeatThread = new Thread(this::heartbeat);
+        heartbeatThread.setName("test-engine-heartbeat");
+        heartbeatThread.setDaemon(true);
+        heartbeatThread.start();
+
+        while (dataInputStream.readByte() == TestEngineForkProtocol.CLASS) {
+            String className = TestEngineForkProtocol.readString(dataInputStream);
+            Set<String> ids = TestEngineForkProtocol.readSelection(dataInputStream);
+            LOGGER.trace("forked JVM [%d] test class [%s] test method count [%d]", workerId, className, ids.size());
+
+            execute(className, ids);
+
+            synchronized (dataOutputStream) {
+                dataOutputStream.writeByte(TestEngineForkProtocol.CLASS_FINISHED);
+                dataOutputStream.flush();
+            }
+        }
+    }
+
+    /**
+     * Method to send heartbeat messages until the connection closes
+     */
+    private void heartbeat() {
+        try {
+            while (true) {
+                Thread.sleep(TestEngineForkProtocol.HEARTBEAT_INTERVAL_MILLISECONDS);
+
+                synchronized (dataOutputStream) {
+                    dataOutputStream.writeByte(TestEngineForkProtocol.HEARTBEAT);
+                    dataOutputStream.flush();
+                }
+            }
+        } catch (InterruptedException | IOException e) {
+            // DO NOTHING
+        }
+    }
+
+    /**
+     * Method to execute a test class, reporting the test class as failed if it can't be executed
+     *
+     * @param className
+     * @param ids the ids of the test methods selected by the parent JVM
+     * @throws IOException
+     */
+    private void execute(String className, Set<String> ids) throws IOException {
+        try {
+            discoverAndExecute(className, ids, new ForkEngineExecutionListener());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (Throwable t) {
+            LOGGER.error("Exception executing test class [%s]", className);
+            t.printStackTrace();
+
+            synchronized (dataOutputStream) {
+                dataOutputStream.writeByte(TestEngineForkProtocol.STARTED);
+                TestEngineForkProtocol.writeId(dataOutputStream, className, className);
+                dataOutputStream.writeByte(TestEngineForkProtocol.FINISHED);
+                TestEngineForkProtocol.writeId(dataOutputStream, className, className);
+                dataOutputStream.writeByte(TestExecutionResult.Status.FAILED.ordinal());
+                dataOutputStream.writeLong(0);
+                dataOutputStream.writeLong(-1);
+                dataOutputStream.writeLong(-1);
+                TestEngineForkProtocol.writeThrowable(dataOutputStream, t);
+                dataOutputStream.flush();
+            }
+        }
+    }
+
+    /**
+     * Method to discover and execute a test class, using the test plan if the test class is in it,
+     * only executing the test methods selected by the parent JVM
+     *
+     * @param className
+     * @param ids the ids of the test methods selected by the parent JVM
+     * @param engineExecutionListener
+     */
+    private void discoverAndExecute(String className, Set<String> ids, EngineExecutionListener engineExecutionListener) {
+        TestEngineConfigurationParameters configurationParameters = new TestEngineConfigurationParameters();
+
+        LauncherDiscoveryRequest launcherDiscoveryRequest =
+                LauncherDiscoveryRequestBuilder.request()
+                        .selectors(DiscoverySelectors.selectClass(className))
+                        .configurationParameters(configurationParameters.getConfigurationMap())
+                        .build();
+
+        TestEngine testEngine = new TestEngine();
+
+        TestEnginePlan classTestEnginePlan = testEnginePlan != null ? testEnginePlan.select(className) : null;
+
+        TestDescriptor testDescriptor;
+
+        if (classTestEnginePlan != null) {
+            testDescriptor = testEngine.discover(classTestEnginePlan, UniqueId.root("/", "/"));
+        } else {
+            testDescriptor = testEngine.discover(launcherDiscoveryRequest, UniqueId.root("/", "/"));
+        }
+
+        select(testDescriptor, ids);
+
+        testEngine.execute(
+                ExecutionRequest.create(
+                        testDescriptor,
+                        engineExecutionListener,
+                        launcherDiscoveryRequest.getConfigurationParameters()));
+    }
+
+    /**
+     * Method to remove the test methods not selected by the parent JVM (e.g. using a rerun file,
+     * or when a test class is executed again after a worker is lost), and test parameters without
+     * selected test methods that aren't selected themselves, from a discovered test class
+     *
+     * @param rootTestDescriptor
+     * @param ids the ids of the selected test methods and test parameters
+     */
+    private static void select(TestDescriptor rootTestDescriptor, Set<String> ids) {
+        int selectedCount = 0;
+
+        for (TestDescriptor testEngineClassTestDescriptor : new ArrayList<>(rootTestDescriptor.getChildren())) {
+            for (TestDescriptor testEngineParameterTestDescriptor : new ArrayList<>(testEngineClassTestDescriptor.getChildren())) {
+                for (TestDescriptor testEngineTestMethodTestDescriptor : new ArrayList<>(testEngineParameterTestDescriptor.getChildren())) {
+                    if (ids.contains(TestEngineForkProtocol.toId(testEngineTestMethodTestDescriptor))) {
+                        selectedCount++;
+                    } else {
+                        testEngineTestMethodTestDescriptor.removeFromHierarchy();
+                    }
+                }
+
+                if (ids.contains(TestEngineForkProtocol.toId(testEngineParameterTestDescriptor))) {
+                    selectedCount++;
+                } else if (testEngineParameterTestDescriptor.getChildren().isEmpty()) {
+                    testEngineParameterTestDescriptor.removeFromHierarchy();
+                }
+            }
+        }
+
+        // The parent JVM's tests must all be executed, or results would be missing
+        if (selectedCount != ids.size()) {
+            throw new TestEngineException(
+                    String.format(
+                            "[%d] of [%d] selected tests not discovered, test class doesn't match the parent JVM",
+                            ids.size() - selectedCount,
+                            ids.size()));
+        }
+    }
+
+    /**
+     * Method to connect to a coordinator (or parent JVM) and execute test classes until it sends an exit command
+     *
+     * @param inetSocketAddress
+     * @param workerId the worker id, or 0 to have the coordinator assign one
+     * @param token the coordinator's token, or null if none
+     * @param connectTimeoutMilliseconds how long to retry connecting while the coordinator isn't listening
+     * @return the exit code
+     */
+    public static int run(InetSocketAddress inetSocketAddress, int workerId, String token, long connectTimeoutMilliseconds) {
+        long connectDeadlineMilliseconds = System.currentTimeMillis() + connectTimeoutMilliseconds;
+
+        try {
+            Socket socket = null;
+            while (socket == null) {
+                try {
+                    socket = new Socket(inetSocketAddress.getAddress(), inetSocketAddress.getPort());
+                } catch (ConnectException e) {
+                    if (System.currentTimeMillis() >= connectDeadlineMilliseconds) {
+                        throw e;
+                    }
+
+                    Thread.sleep(1000);
+                }
+            }
+
+            try (Socket connectedSocket = socket) {
+                connectedSocket.setTcpNoDelay(true);
+                connectedSocket.setKeepAlive(true);
+                new TestEngineForkWorker(connectedSocket).run(workerId, token);
+            }
+
+            return 0;
+        } catch (Throwable t) {
+            LOGGER.error("Exception in worker connected to [%s]", inetSocketAddress);
+            t.printStackTrace();
+            return 1;
+        }
+    }
+
+    /**
+     * Method to run a forked JVM
+     *
+     * @param args the parent JVM port and the worker id
+     */
+    public static void main(String[] args) {
+        int exitCode =
+                run(
+                        new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0])),
+                        Integer.parseInt(args[1]),
+                        TestEngineConfiguration.getValue(
+                                "devopology.test.engine.coordinator.token",
+                                "DEVOPOLOGY_TEST_ENGINE_COORDINATOR_TOKEN"),
+                        0);
+
+        System.out.flush();
+        System.err.flush();
+        System.exit(exitCode);
+    }
+
+    /**
+     * Class to implement an EngineExecutionListener that streams execution events to the parent JVM
+     */
+    private class ForkEngineExecutionListener implements EngineExecutionListener {
+
+        @Override
+        public void dynamicTestRegistered(TestDescriptor testDescriptor) {
+            // DO NOTHING
+        }
+
+        @Override
+        public void executionSkipped(TestDescriptor testDescriptor, String reason) {
+            String id = TestEngineForkProtocol.toId(testDescriptor);
+            if (id == null) {
+                return;
+            }
+
+            synchronized (dataOutputStream) {
+                try {
+                    dataOutputStream.writeByte(TestEngineForkProtocol.SKIPPED);
+                    TestEngineForkProtocol.writeId(dataOutputStream, id, testDescriptor.getDisplayName());
+                    TestEngineForkProtocol.writeString(dataOutputStream, reason != null ? reason : "");
+                    dataOutputStream.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void executionStarted(TestDescriptor testDescriptor) {
+            String id = TestEngineForkProtocol.toId(testDescriptor);
+            if (id == null) {
+                return;
+            }
+
+            synchronized (dataOutputStream) {
+                try {
+                    dataOutputStream.writeByte(TestEngineForkProtocol.STARTED);
+                    TestEngineForkProtocol.writeId(dataOutputStream, id, testDescriptor.getDisplayName());
+                    dataOutputStream.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+            String id = TestEngineForkProtocol.toId(testDescriptor);
+            if (id == null) {
+                return;
+            }
+
+            TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor = (TestEngineAbstractTestDescriptor) testDescriptor;
+
+            synchronized (dataOutputStream) {
+                try {
+                    dataOutputStream.writeByte(TestEngineForkProtocol.FINISHED);
+                    TestEngineForkProtocol.writeId(dataOutputStream, id, testDescriptor.getDisplayName());
+                    dataOutputStream.writeByte(testExecutionResult.getStatus().ordinal());
+                    dataOutputStream.writeLong(testEngineAbstractTestDescriptor.getDurationNanoTime());
+                    dataOutputStream.writeLong(testEngineAbstractTestDescriptor.getCpuNanoTime());
+                    dataOutputStream.writeLong(testEngineAbstractTestDescriptor.getAllocatedBytes());
+                    TestEngineForkProtocol.writeThrowable(dataOutputStream, testExecutionResult.getThrowable().orElse(null));
+                    dataOutputStream.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void reportingEntryPublished(TestDescriptor testDescriptor, ReportEntry entry) {
+            // DO NOTHING
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Class to implement a Java Flight Recorder event for building the test descriptors of a test class
+ */
+@Name("org.devopology.test.engine.ClassDiscovery")
+@Label("Test Engine Class Discovery")
+@Category("Devopology Test Engine")
+@StackTrace(false)
+@Description("Building the test descriptors of a test class")
+public class TestEngineClassDiscoveryEvent extends jdk.jfr.Event {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(TestEngineClassDiscoveryEvent.class);
+
+    @Label("Class")
+    String className;
+
+    @Label("Test Count")
+    int testCount;
+
+    /**
+     * Method to return whether the event is enabled in any recording, so an event
+     * is only created when it can be committed
+     *
+     * @return
+     */
+    public static boolean isTypeEnabled() {
+        return EVENT_TYPE.isEnabled();
+    }
+
+    /**
+     * Method to end the event, committing it if it's enabled and passes the threshold
+     *
+     * @param className
+     * @param testCount
+     */
+    public void commit(String className, int testCount) {
+        end();
+
+        if (shouldCommit()) {
+            this.className = className;
+            this.testCount = testCount;
+            commit();
+        }
+    }
+}
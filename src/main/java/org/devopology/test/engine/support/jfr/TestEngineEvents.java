@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.jfr;
+
+/**
+ * Class to check whether Java Flight Recorder events can be emitted
+ * <p>
+ * The jdk.jfr module may be absent from custom (jlink) runtimes,
+ * in which case no events are created
+ */
+public final class TestEngineEvents {
+
+    /**
+     * Flag indicating whether the jdk.jfr module is available
+     */
+    public static final boolean AVAILABLE = isJfrAvailable();
+
+    /**
+     * Constructor
+     */
+    private TestEngineEvents() {
+        // DO NOTHING
+    }
+
+    /**
+     * Method to determine whether the jdk.jfr module is available
+     *
+     * @return
+     */
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, TestEngineEvents.class.getClassLoader());
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+}
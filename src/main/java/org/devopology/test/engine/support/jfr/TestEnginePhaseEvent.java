@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.devopology.test.engine.support.TestEnginePhase;
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.report.ReportUtils;
+
+/**
+ * Class to implement a Java Flight Recorder event for a lifecycle phase
+ */
+@Name("org.devopology.test.engine.Phase")
+@Label("Test Engine Phase")
+@Category("Devopology Test Engine")
+@StackTrace(false)
+@Description("Execution of a test class lifecycle phase")
+public class TestEnginePhaseEvent extends jdk.jfr.Event {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(TestEnginePhaseEvent.class);
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Class")
+    String className;
+
+    @Label("Parameter")
+    String parameterName;
+
+    @Label("Method")
+    String methodName;
+
+    /**
+     * Method to return whether the event is enabled in any recording, so an event
+     * is only created when it can be committed
+     *
+     * @return
+     */
+    public static boolean isTypeEnabled() {
+        return EVENT_TYPE.isEnabled();
+    }
+
+    /**
+     * Method to end the event, committing it if it's enabled and passes the threshold
+     *
+     * @param testEnginePhase
+     * @param testEngineAbstractTestDescriptor
+     */
+    public void commit(TestEnginePhase testEnginePhase, TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor) {
+        end();
+
+        if (shouldCommit()) {
+            phase = testEnginePhase.getDisplayName();
+            className = testEngineAbstractTestDescriptor.getTestClass().getName();
+            parameterName = ReportUtils.getParameterName(testEngineAbstractTestDescriptor);
+            methodName = ReportUtils.getMethodName(testEngineAbstractTestDescriptor);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.jmx;
+
+import java.util.Map;
+
+/**
+ * Interface to expose live TestEngine progress and worker pool state
+ */
+public interface TestEngineMXBean {
+
+    /**
+     * Method to get the number of tests found
+     *
+     * @return
+     */
+    long getTestsFoundCount();
+
+    /**
+     * Method to get the number of tests completed (passed, failed, or aborted)
+     *
+     * @return
+     */
+    long getTestsCompletedCount();
+
+    /**
+     * Method to get the number of tests failed
+     *
+     * @return
+     */
+    long getTestsFailedCount();
+
+    /**
+     * Method to get the number of tests skipped
+     *
+     * @return
+     */
+    long getTestsSkippedCount();
+
+    /**
+     * Method to get the number of test methods in flight
+     *
+     * @return
+     */
+    int getTestsInFlightCount();
+
+    /**
+     * Method to get the test class in flight on each worker thread
+     *
+     * @return a Map of thread name to test class name
+     */
+    Map<String, String> getWorkerTestClasses();
+
+    /**
+     * Method to get the number of test classes waiting for a worker thread
+     *
+     * @return
+     */
+    int getQueueDepth();
+
+    /**
+     * Method to get the number of worker threads
+     *
+     * @return
+     */
+    int getWorkerCount();
+
+    /**
+     * Method to get the number of worker threads executing a test class
+     *
+     * @return
+     */
+    int getActiveWorkerCount();
+
+    /**
+     * Method to get the number of idle worker threads
+     *
+     * @return
+     */
+    int getIdleWorkerCount();
+
+    /**
+     * Method to describe the longest running tests in flight
+     *
+     * @param count the maximum number of tests
+     * @return
+     */
+    String[] dumpSlowestInFlightTests(int count);
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.jmx;
+
+import org.devopology.test.engine.support.TestEngineExecutionResults;
+import org.devopology.test.engine.support.TestEngineWorkerTracker;
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.devopology.test.engine.support.report.ReportUtils;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Class to implement TestEngineMXBean
+ * <p>
+ * All attributes are read from state the executor already maintains, so
+ * the MBean adds no cost to test execution
+ */
+public class TestEngineMXBeanImpl implements TestEngineMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestEngineMXBeanImpl.class);
+
+    /**
+     * The ObjectName the MBean is registered as
+     */
+    public static final String OBJECT_NAME = "org.devopology.test.engine:type=TestEngine";
+
+    private final long testsFoundCount;
+    private final TestEngineExecutionResults testEngineExecutionResults;
+    private final TestEngineWorkerTracker testEngineWorkerTracker;
+    private final Collection<ThreadPoolExecutor> threadPoolExecutors;
+
+    /**
+     * Constructor
+     *
+     * @param testsFoundCount
+     * @param testEngineExecutionResults
+     * @param testEngineWorkerTracker
+     * @param threadPoolExecutors
+     */
+    public TestEngineMXBeanImpl(
+            long testsFoundCount,
+            TestEngineExecutionResults testEngineExecutionResults,
+            TestEngineWorkerTracker testEngineWorkerTracker,
+            Collection<ThreadPoolExecutor> threadPoolExecutors) {
+        this.testsFoundCount = testsFoundCount;
+        this.testEngineExecutionResults = testEngineExecutionResults;
+        this.testEngineWorkerTracker = testEngineWorkerTracker;
+        this.threadPoolExecutors = threadPoolExecutors;
+    }
+
+    @Override
+    public long getTestsFoundCount() {
+        return testsFoundCount;
+    }
+
+    @Override
+    public long getTestsCompletedCount() {
+        return testEngineExecutionResults.getTestsSucceededCount()
+                + testEngineExecutionResults.getTestsFailedCount()
+                + testEngineExecutionResults.getTestsAbortedCount();
+    }
+
+    @Override
+    public long getTestsFailedCount() {
+        return testEngineExecutionResults.getTestsFailedCount();
+    }
+
+    @Override
+    public long getTestsSkippedCount() {
+        return testEngineExecutionResults.getTestsSkippedCount();
+    }
+
+    @Override
+    public int getTestsInFlightCount() {
+        int count = 0;
+
+        for (TestEngineWorkerTracker.Worker worker : testEngineWorkerTracker.getWorkers()) {
+            if (worker.getTestEngineAbstractTestDescriptor() instanceof TestEngineTestMethodTestDescriptor) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public Map<String, String> getWorkerTestClasses() {
+        Map<String, String> workerTestClasses = new TreeMap<>();
+
+        for (TestEngineWorkerTracker.Worker worker : testEngineWorkerTracker.getWorkers()) {
+            TestEngineClassTestDescriptor testEngineClassTestDescriptor = worker.getTestEngineClassTestDescriptor();
+            workerTestClasses.put(
+                    worker.getThread().getName(),
+                    testEngineClassTestDescriptor != null ? testEngineClassTestDescriptor.getTestClass().getName() : "");
+        }
+
+        return workerTestClasses;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        int queueDepth = 0;
+
+        for (ThreadPoolExecutor threadPoolExecutor : threadPoolExecutors) {
+            queueDepth += threadPoolExecutor.getQueue().size();
+        }
+
+        return queueDepth;
+    }
+
+    @Override
+    public int getWorkerCount() {
+        int workerCount = 0;
+
+        for (ThreadPoolExecutor threadPoolExecutor : threadPoolExecutors) {
+            workerCount += threadPoolExecutor.getPoolSize();
+        }
+
+        return workerCount;
+    }
+
+    @Override
+    public int getActiveWorkerCount() {
+        int activeWorkerCount = 0;
+
+        for (ThreadPoolExecutor threadPoolExecutor : threadPoolExecutors) {
+            activeWorkerCount += threadPoolExecutor.getActiveCount();
+        }
+
+        return activeWorkerCount;
+    }
+
+    @Override
+    public int getIdleWorkerCount() {
+        int idleWorkerCount = 0;
+
+        for (ThreadPoolExecutor threadPoolExecutor : threadPoolExecutors) {
+            idleWorkerCount += Math.max(0, threadPoolExecutor.getPoolSize() - threadPoolExecutor.getActiveCount());
+        }
+
+        return idleWorkerCount;
+    }
+
+    @Override
+    public String[] dumpSlowestInFlightTests(int count) {
+        long nanoTime = System.nanoTime();
+        List<InFlightTest> inFlightTests = new ArrayList<>();
+
+        for (TestEngineWorkerTracker.Worker worker : testEngineWorkerTracker.getWorkers()) {
+            TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor = worker.getTestEngineAbstractTestDescriptor();
+            if (testEngineAbstractTestDescriptor != null) {
+                inFlightTests.add(
+                        new InFlightTest(
+                                worker.getThread().getName(),
+                                testEngineAbstractTestDescriptor,
+                                nanoTime - testEngineAbstractTestDescriptor.getStartNanoTime()));
+            }
+        }
+
+        inFlightTests.sort((o1, o2) -> Long.compare(o2.elapsedNanoTime, o1.elapsedNanoTime));
+
+        int size = Math.max(0, Math.min(count, inFlightTests.size()));
+        String[] lines = new String[size];
+        for (int i = 0; i < size; i++) {
+            InFlightTest inFlightTest = inFlightTests.get(i);
+            lines[i] =
+                    ReportUtils.toDecimal(inFlightTest.elapsedNanoTime / 1000)
+                            + " ms  "
+                            + inFlightTest.threadName
+                            + "  "
+                            + describe(inFlightTest.testEngineAbstractTestDescriptor);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Method to register a TestEngineMXBean with the platform MBeanServer
+     *
+     * @param testEngineMXBean
+     * @return the ObjectName, or null if the MBean couldn't be registered
+     */
+    public static ObjectName register(TestEngineMXBean testEngineMXBean) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+
+            // A previous execution in the same JVM may not have unregistered
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+
+            mBeanServer.registerMBean(testEngineMXBean, objectName);
+
+            return objectName;
+        } catch (Throwable t) {
+            LOGGER.warning("Exception registering MBean [%s] [%s]", OBJECT_NAME, t.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Method to unregister an MBean from the platform MBeanServer
+     *
+     * @param objectName the ObjectName, may be null
+     */
+    public static void unregister(ObjectName objectName) {
+        if (objectName == null) {
+            return;
+        }
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Throwable t) {
+            LOGGER.warning("Exception unregistering MBean [%s] [%s]", objectName, t.getMessage());
+        }
+    }
+
+    /**
+     * Method to describe a TestEngineAbstractTestDescriptor
+     *
+     * @param testEngineAbstractTestDescriptor
+     * @return
+     */
+    private static String describe(TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor) {
+        if (testEngineAbstractTestDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testEngineAbstractTestDescriptor;
+            return testEngineTestMethodTestDescriptor.getSummaryPrefix() + testEngineTestMethodTestDescriptor.getSummarySuffix().trim();
+        } else if (testEngineAbstractTestDescriptor instanceof TestEngineParameterTestDescriptor) {
+            TestEngineParameterTestDescriptor testEngineParameterTestDescriptor = (TestEngineParameterTestDescriptor) testEngineAbstractTestDescriptor;
+            return testEngineParameterTestDescriptor.getSummaryPrefix() + testEngineParameterTestDescriptor.getSummarySuffix().trim();
+        }
+
+        return testEngineAbstractTestDescriptor.getTestClass().getName();
+    }
+
+    /**
+     * Class to implement an in flight test snapshot
+     */
+    private static class InFlightTest {
+
+        private final String threadName;
+        private final TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor;
+        private final long elapsedNanoTime;
+
+        private InFlightTest(String threadName, TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor, long elapsedNanoTime) {
+            this.threadName = threadName;
+            this.testEngineAbstractTestDescriptor = testEngineAbstractTestDescriptor;
+            this.elapsedNanoTime = elapsedNanoTime;
+        }
+    }
+}
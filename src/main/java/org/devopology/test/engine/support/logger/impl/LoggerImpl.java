@@ -19,8 +19,9 @@ package org.devopology.test.engine.support.logger.impl;
 import org.devopology.test.engine.support.logger.Logger;
 
 import java.io.PrintStream;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -32,8 +33,8 @@ import java.util.Objects;
 @SuppressWarnings("PMD.GodClass")
 public class LoggerImpl implements Logger {
 
-    private static final SimpleDateFormat SIMPLE_DATE_FORMAT =
-            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.getDefault());
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS", Locale.getDefault()).withZone(ZoneId.systemDefault());
 
     private static final int OFF = 0;
     private static final int ERROR = 100;
@@ -300,15 +301,15 @@ public class LoggerImpl implements Logger {
      * @return
      */
     private static String createMessage(String level, String className, String message) {
-        synchronized (SIMPLE_DATE_FORMAT) {
-            return java.lang.String.format(
-                    "%s [%s] %-5s %s - %s",
-                    SIMPLE_DATE_FORMAT.format(new Date()),
-                    Thread.currentThread().getName(),
-                    level,
-                    className,
-                    message);
-        }
+        return DATE_TIME_FORMATTER.format(Instant.now())
+                + " ["
+                + Thread.currentThread().getName()
+                + "] "
+                + pad(level)
+                + " "
+                + className
+                + " - "
+                + message;
     }
 
     /**
@@ -319,13 +320,26 @@ public class LoggerImpl implements Logger {
      * @return
      */
     private static String createMessageRaw(String level, String message) {
-        synchronized (SIMPLE_DATE_FORMAT) {
-            return java.lang.String.format(
-                    "%s [%s] %-5s %s",
-                    SIMPLE_DATE_FORMAT.format(new Date()),
-                    Thread.currentThread().getName(),
-                    level,
-                    message);
+        return DATE_TIME_FORMATTER.format(Instant.now())
+                + " ["
+                + Thread.currentThread().getName()
+                + "] "
+                + pad(level)
+                + " "
+                + message;
+    }
+
+    /**
+     * Method to left justify a log level to 5 characters
+     *
+     * @param level
+     * @return
+     */
+    private static String pad(String level) {
+        if (level.length() >= 5) {
+            return level;
         }
+
+        return level + " ".repeat(5 - level.length());
     }
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.report;
+
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.util.TopN;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class to implement an EngineExecutionListener that records, per test method, the time
+ * the worker thread spent on CPU, blocked entering monitors, and waiting
+ * <p>
+ * Tests that spend their time waiting, or off CPU (e.g. I/O), are safe to oversubscribe,
+ * while tests that spend their time blocked contend on shared locks
+ */
+public class ContentionReportEngineExecutionListener implements EngineExecutionListener {
+
+    private static final String ROW_FORMAT = "  %12s %12s %12s %10s %12s %10s %12s  %s";
+
+    private final ThreadMXBean threadMXBean;
+    private final boolean cpuTimeSupported;
+    private final Map<TestDescriptor, Snapshot> snapshots;
+    private final Map<TestEngineClassTestDescriptor, Statistics> classStatistics;
+    private final TopN<Statistics> mostBlockedMethods;
+    private final TopN<Statistics> mostWaitingMethods;
+    private final int top;
+
+    /**
+     * Constructor
+     *
+     * @param top the number of test classes and methods to report
+     */
+    public ContentionReportEngineExecutionListener(int top) {
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+
+        if (threadMXBean.isThreadContentionMonitoringSupported()) {
+            threadMXBean.setThreadContentionMonitoringEnabled(true);
+        }
+
+        boolean cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+        if (cpuTimeSupported && !threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+
+        this.cpuTimeSupported = cpuTimeSupported;
+        this.snapshots = new ConcurrentHashMap<>();
+        this.classStatistics = new ConcurrentHashMap<>();
+        this.mostBlockedMethods = new TopN<>(top);
+        this.mostWaitingMethods = new TopN<>(top);
+        this.top = top;
+    }
+
+    @Override
+    public void executionStarted(TestDescriptor testDescriptor) {
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            snapshots.put(testDescriptor, snapshot());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        if (!(testDescriptor instanceof TestEngineTestMethodTestDescriptor)) {
+            return;
+        }
+
+        Snapshot start = snapshots.remove(testDescriptor);
+        if (start == null) {
+            return;
+        }
+
+        Snapshot finish = snapshot();
+
+        TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testDescriptor;
+
+        Statistics statistics =
+                new Statistics(
+                        testEngineTestMethodTestDescriptor.getSummaryPrefix()
+                                + testEngineTestMethodTestDescriptor.getTestClass().getName()
+                                + " "
+                                + testEngineTestMethodTestDescriptor.getTestMethod().getName()
+                                + "()");
+
+        statistics.add(start, finish);
+
+        if (statistics.blockedMillis.sum() > 0) {
+            mostBlockedMethods.add(statistics, statistics.blockedMillis.sum());
+        }
+
+        if (statistics.waitedMillis.sum() > 0) {
+            mostWaitingMethods.add(statistics, statistics.waitedMillis.sum());
+        }
+
+        TestEngineClassTestDescriptor testEngineClassTestDescriptor = ReportUtils.getClassTestDescriptor(testDescriptor);
+        if (testEngineClassTestDescriptor != null) {
+            classStatistics
+                    .computeIfAbsent(testEngineClassTestDescriptor, k -> new Statistics(k.getTestClass().getName()))
+                    .add(start, finish);
+        }
+    }
+
+    /**
+     * Method to log the contention report
+     *
+     * @param logger
+     */
+    public void report(Logger logger) {
+        TopN<Statistics> mostOffCpuClasses = new TopN<>(top);
+        for (Statistics statistics : classStatistics.values()) {
+            mostOffCpuClasses.add(statistics, statistics.wallNanoTime.sum() - statistics.cpuNanoTime.sum());
+        }
+
+        logger.infoRaw("Contention by class (test methods, most time off CPU first)");
+        report(logger, mostOffCpuClasses.getEntries());
+
+        List<TopN.Entry<Statistics>> blockedEntries = mostBlockedMethods.getEntries();
+        if (!blockedEntries.isEmpty()) {
+            logger.infoRaw("");
+            logger.infoRaw("Most blocked methods");
+            report(logger, blockedEntries);
+        }
+
+        List<TopN.Entry<Statistics>> waitingEntries = mostWaitingMethods.getEntries();
+        if (!waitingEntries.isEmpty()) {
+            logger.infoRaw("");
+            logger.infoRaw("Most waiting methods");
+            report(logger, waitingEntries);
+        }
+    }
+
+    /**
+     * Method to log Statistics entries
+     *
+     * @param logger
+     * @param entries
+     */
+    private void report(Logger logger, List<TopN.Entry<Statistics>> entries) {
+        logger.infoRaw(String.format(ROW_FORMAT, "WALL (ms)", "CPU (ms)", "BLOCKED (ms)", "BLOCKED", "WAITED (ms)", "WAITED", "OTHER (ms)", "NAME"));
+
+        for (TopN.Entry<Statistics> entry : entries) {
+            Statistics statistics = entry.getItem();
+            long wallMillis = statistics.wallNanoTime.sum() / 1000000;
+            long blockedMillis = statistics.blockedMillis.sum();
+            long waitedMillis = statistics.waitedMillis.sum();
+            String cpuMillis = "";
+            String otherMillis = "";
+
+            if (cpuTimeSupported) {
+                long cpu = statistics.cpuNanoTime.sum() / 1000000;
+                cpuMillis = String.valueOf(cpu);
+                otherMillis = String.valueOf(Math.max(0, wallMillis - cpu - blockedMillis - waitedMillis));
+            }
+
+            logger.infoRaw(
+                    String.format(
+                            ROW_FORMAT,
+                            wallMillis,
+                            cpuMillis,
+                            blockedMillis,
+                            statistics.blockedCount.sum(),
+                            waitedMillis,
+                            statistics.waitedCount.sum(),
+                            otherMillis,
+                            statistics.name));
+        }
+    }
+
+    /**
+     * Method to take a Snapshot of the current thread
+     *
+     * @return
+     */
+    private Snapshot snapshot() {
+        ThreadInfo threadInfo = threadMXBean.getThreadInfo(Thread.currentThread().getId());
+
+        return new Snapshot(
+                System.nanoTime(),
+                cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0,
+                threadInfo.getBlockedCount(),
+                Math.max(0, threadInfo.getBlockedTime()),
+                threadInfo.getWaitedCount(),
+                Math.max(0, threadInfo.getWaitedTime()));
+    }
+
+    /**
+     * Class to implement a snapshot of a thread's time and contention counters
+     */
+    private static class Snapshot {
+
+        private final long nanoTime;
+        private final long cpuNanoTime;
+        private final long blockedCount;
+        private final long blockedMillis;
+        private final long waitedCount;
+        private final long waitedMillis;
+
+        private Snapshot(long nanoTime, long cpuNanoTime, long blockedCount, long blockedMillis, long waitedCount, long waitedMillis) {
+            this.nanoTime = nanoTime;
+            this.cpuNanoTime = cpuNanoTime;
+            this.blockedCount = blockedCount;
+            this.blockedMillis = blockedMillis;
+            this.waitedCount = waitedCount;
+            this.waitedMillis = waitedMillis;
+        }
+    }
+
+    /**
+     * Class to accumulate time and contention statistics
+     */
+    private static class Statistics {
+
+        private final String name;
+        private final LongAdder wallNanoTime;
+        private final LongAdder cpuNanoTime;
+        private final LongAdder blockedCount;
+        private final LongAdder blockedMillis;
+        private final LongAdder waitedCount;
+        private final LongAdder waitedMillis;
+
+        private Statistics(String name) {
+            this.name = name;
+            this.wallNanoTime = new LongAdder();
+            this.cpuNanoTime = new LongAdder();
+            this.blockedCount = new LongAdder();
+            this.blockedMillis = new LongAdder();
+            this.waitedCount = new LongAdder();
+            this.waitedMillis = new LongAdder();
+        }
+
+        private void add(Snapshot start, Snapshot finish) {
+            wallNanoTime.add(finish.nanoTime - start.nanoTime);
+            cpuNanoTime.add(finish.cpuNanoTime - start.cpuNanoTime);
+            blockedCount.add(finish.blockedCount - start.blockedCount);
+            blockedMillis.add(finish.blockedMillis - start.blockedMillis);
+            waitedCount.add(finish.waitedCount - start.waitedCount);
+            waitedMillis.add(finish.waitedMillis - start.waitedMillis);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.report;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.devopology.test.engine.support.util.GarbageCollectors;
+import org.devopology.test.engine.support.util.ThreadResources;
+import org.devopology.test.engine.support.util.TopN;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.Closeable;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class to implement an EngineExecutionListener that attributes garbage collection pauses
+ * to the test classes in flight when each pause occurred
+ * <p>
+ * A test class is in flight for a pause if it started before the pause ended, and finished
+ * after the pause started, using the pause start and end times reported by the collector,
+ * since notifications are delivered after the pause. Every in flight test class is charged
+ * the full pause as stalled time. The pause is also attributed across the in flight test
+ * classes in proportion to the bytes their worker threads allocated since the previous pause,
+ * which points at the classes causing the pauses. Concurrent collection cycles are ignored
+ */
+public class GcReportEngineExecutionListener implements EngineExecutionListener, NotificationListener, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GcReportEngineExecutionListener.class);
+
+    private static final String ROW_FORMAT = "  %15s %14s %8s %16s %19s  %s";
+
+    private static final RuntimeMXBean RUNTIME_MX_BEAN = ManagementFactory.getRuntimeMXBean();
+
+    private final int top;
+    private final Map<Thread, AtomicLong> allocatedBytesBaselines;
+    private final Map<TestEngineClassTestDescriptor, ClassGcStatistics> classGcStatistics;
+    private final List<NotificationEmitter> notificationEmitters;
+    private final LongAdder pauseCount;
+    private final LongAdder pauseMillis;
+    private final LongAdder inFlightPauseCount;
+
+    /**
+     * Constructor
+     *
+     * @param top the number of test classes to report
+     */
+    public GcReportEngineExecutionListener(int top) {
+        this.top = top;
+        this.allocatedBytesBaselines = new ConcurrentHashMap<>();
+        this.classGcStatistics = new ConcurrentHashMap<>();
+        this.notificationEmitters = new ArrayList<>();
+        this.pauseCount = new LongAdder();
+        this.pauseMillis = new LongAdder();
+        this.inFlightPauseCount = new LongAdder();
+
+        ThreadResources.enable();
+
+        for (GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (garbageCollectorMXBean instanceof NotificationEmitter) {
+                NotificationEmitter notificationEmitter = (NotificationEmitter) garbageCollectorMXBean;
+                notificationEmitter.addNotificationListener(this, null, null);
+                notificationEmitters.add(notificationEmitter);
+            }
+        }
+    }
+
+    @Override
+    public void executionStarted(TestDescriptor testDescriptor) {
+        if (testDescriptor instanceof TestEngineClassTestDescriptor) {
+            Thread thread = Thread.currentThread();
+            allocatedBytesBaselines
+                    .computeIfAbsent(thread, t -> new AtomicLong())
+                    .set(ThreadResources.getAllocatedBytes(thread));
+
+            ClassGcStatistics statistics = getClassGcStatistics((TestEngineClassTestDescriptor) testDescriptor);
+            statistics.thread = thread;
+            statistics.startMillis = RUNTIME_MX_BEAN.getUptime();
+        }
+    }
+
+    @Override
+    public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        if (testDescriptor instanceof TestEngineClassTestDescriptor) {
+            ClassGcStatistics statistics = getClassGcStatistics((TestEngineClassTestDescriptor) testDescriptor);
+
+            // Charge the bytes allocated since the last pause, which also weight a pause
+            // that ended before the test class finished but is notified afterwards
+            AtomicLong allocatedBytesBaseline = allocatedBytesBaselines.get(Thread.currentThread());
+            if (allocatedBytesBaseline != null) {
+                long allocatedBytes = ThreadResources.getAllocatedBytes(Thread.currentThread());
+                long allocatedBytesSinceBaseline = Math.max(0, allocatedBytes - allocatedBytesBaseline.getAndSet(allocatedBytes));
+                statistics.allocatedBytes.add(allocatedBytesSinceBaseline);
+                statistics.unpausedAllocatedBytes.addAndGet(allocatedBytesSinceBaseline);
+            }
+
+            statistics.thread = null;
+            statistics.finishMillis = RUNTIME_MX_BEAN.getUptime();
+        }
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+
+        GarbageCollectionNotificationInfo garbageCollectionNotificationInfo =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+        // Concurrent collection cycles don't pause application threads
+        if (GarbageCollectors.isConcurrent(garbageCollectionNotificationInfo.getGcName())) {
+            return;
+        }
+
+        GcInfo gcInfo = garbageCollectionNotificationInfo.getGcInfo();
+        long duration = gcInfo.getDuration();
+
+        pauseCount.increment();
+        pauseMillis.add(duration);
+
+        List<ClassGcStatistics> inFlightClassGcStatistics = new ArrayList<>();
+        List<Long> allocatedBytesList = new ArrayList<>();
+        long totalAllocatedBytes = 0;
+
+        for (ClassGcStatistics statistics : classGcStatistics.values()) {
+            // Start and finish times are read before the thread, which is cleared first when finishing
+            long startMillis = statistics.startMillis;
+            long finishMillis = statistics.finishMillis;
+            Thread thread = statistics.thread;
+
+            if ((startMillis < 0) || (startMillis > gcInfo.getEndTime()) || (finishMillis < gcInfo.getStartTime())) {
+                continue;
+            }
+
+            long allocatedBytesSinceBaseline;
+
+            AtomicLong allocatedBytesBaseline = (thread != null) ? allocatedBytesBaselines.get(thread) : null;
+            if (allocatedBytesBaseline != null) {
+                long allocatedBytes = ThreadResources.getAllocatedBytes(thread);
+                allocatedBytesSinceBaseline = Math.max(0, allocatedBytes - allocatedBytesBaseline.getAndSet(allocatedBytes));
+                statistics.allocatedBytes.add(allocatedBytesSinceBaseline);
+            } else {
+                // Finished, the bytes allocated since the last pause were charged when finishing
+                allocatedBytesSinceBaseline = statistics.unpausedAllocatedBytes.getAndSet(0);
+            }
+
+            inFlightClassGcStatistics.add(statistics);
+            allocatedBytesList.add(allocatedBytesSinceBaseline);
+            totalAllocatedBytes += allocatedBytesSinceBaseline;
+        }
+
+        if (inFlightClassGcStatistics.isEmpty()) {
+            return;
+        }
+
+        inFlightPauseCount.increment();
+
+        for (int i = 0; i < inFlightClassGcStatistics.size(); i++) {
+            long allocatedBytes = allocatedBytesList.get(i);
+
+            ClassGcStatistics statistics = inFlightClassGcStatistics.get(i);
+            statistics.pauseCount.increment();
+            statistics.stalledMillis.add(duration);
+
+            if (totalAllocatedBytes > 0) {
+                // Attributed in microseconds to keep the precision of small shares
+                statistics.attributedMicros.add((duration * 1000 * allocatedBytes) / totalAllocatedBytes);
+            } else {
+                statistics.attributedMicros.add((duration * 1000) / inFlightClassGcStatistics.size());
+            }
+        }
+    }
+
+    /**
+     * Method to log the GC report
+     *
+     * @param logger
+     */
+    public void report(Logger logger) {
+        logger.infoRaw(
+                "GC pauses : "
+                        + pauseCount.sum()
+                        + ", total "
+                        + pauseMillis.sum()
+                        + " ms, "
+                        + inFlightPauseCount.sum()
+                        + " while tests were in flight");
+
+        TopN<ClassGcStatistics> topN = new TopN<>(top);
+        for (ClassGcStatistics statistics : classGcStatistics.values()) {
+            if (statistics.pauseCount.sum() > 0) {
+                topN.add(statistics, statistics.attributedMicros.sum());
+            }
+        }
+
+        List<TopN.Entry<ClassGcStatistics>> entries = topN.getEntries();
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        logger.infoRaw("");
+        logger.infoRaw("GC time by class");
+        logger.infoRaw(String.format(ROW_FORMAT, "ATTRIBUTED (ms)", "STALLED (ms)", "PAUSES", "ALLOCATED (MB)", "ALLOCATION (MB/s)", "CLASS"));
+        for (TopN.Entry<ClassGcStatistics> entry : entries) {
+            ClassGcStatistics statistics = entry.getItem();
+            long allocatedBytes = statistics.allocatedBytes.sum();
+            long durationNanoTime = statistics.testEngineClassTestDescriptor.getDurationNanoTime();
+
+            String allocationRate = "";
+            if (durationNanoTime > 0) {
+                // (bytes / MB) / (nanoseconds / 1e9), in thousandths
+                allocationRate = ReportUtils.toDecimal((long) ((allocatedBytes * 1e12) / (1024.0d * 1024.0d * durationNanoTime)));
+            }
+
+            logger.infoRaw(
+                    String.format(
+                            ROW_FORMAT,
+                            ReportUtils.toDecimal(statistics.attributedMicros.sum()),
+                            statistics.stalledMillis.sum(),
+                            statistics.pauseCount.sum(),
+                            ReportUtils.toDecimal((allocatedBytes * 1000) / (1024 * 1024)),
+                            allocationRate,
+                            statistics.testEngineClassTestDescriptor.getTestClass().getName()));
+        }
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter notificationEmitter : notificationEmitters) {
+            try {
+                notificationEmitter.removeNotificationListener(this);
+            } catch (Throwable t) {
+                LOGGER.trace("Exception removing GC notification listener [%s]", t.getMessage());
+            }
+        }
+
+        notificationEmitters.clear();
+    }
+
+    /**
+     * Method to get the ClassGcStatistics for a test class
+     *
+     * @param testEngineClassTestDescriptor
+     * @return
+     */
+    private ClassGcStatistics getClassGcStatistics(TestEngineClassTestDescriptor testEngineClassTestDescriptor) {
+        return classGcStatistics.computeIfAbsent(testEngineClassTestDescriptor, ClassGcStatistics::new);
+    }
+
+    /**
+     * Class to accumulate a test class's GC statistics
+     */
+    private static class ClassGcStatistics {
+
+        private final TestEngineClassTestDescriptor testEngineClassTestDescriptor;
+        private final LongAdder pauseCount;
+        private final LongAdder stalledMillis;
+        private final LongAdder attributedMicros;
+        private final LongAdder allocatedBytes;
+        private final AtomicLong unpausedAllocatedBytes;
+        private volatile Thread thread;
+        private volatile long startMillis;
+        private volatile long finishMillis;
+
+        private ClassGcStatistics(TestEngineClassTestDescriptor testEngineClassTestDescriptor) {
+            this.testEngineClassTestDescriptor = testEngineClassTestDescriptor;
+            this.pauseCount = new LongAdder();
+            this.stalledMillis = new LongAdder();
+            this.attributedMicros = new LongAdder();
+            this.allocatedBytes = new LongAdder();
+            this.unpausedAllocatedBytes = new AtomicLong();
+            this.startMillis = -1;
+            this.finishMillis = Long.MAX_VALUE;
+        }
+    }
+}
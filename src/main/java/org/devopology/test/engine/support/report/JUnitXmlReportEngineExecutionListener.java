@@ -0,0 +1,406 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.report;
+
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class to implement an EngineExecutionListener that streams a Surefire compatible JUnit XML report
+ * <p>
+ * Test cases are buffered per test class while the class is executing, then the
+ * class's &lt;testsuite&gt; element is appended to the report when the class finishes,
+ * so memory usage depends on the number of executing test classes, not the number of tests
+ */
+public class JUnitXmlReportEngineExecutionListener implements EngineExecutionListener, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JUnitXmlReportEngineExecutionListener.class);
+
+    private final File file;
+    private final Writer writer;
+    private final String hostname;
+    private final Map<TestEngineClassTestDescriptor, TestSuite> testSuiteMap;
+    private boolean closed;
+    private boolean failed;
+
+    /**
+     * Constructor
+     *
+     * @param file
+     * @throws IOException
+     */
+    public JUnitXmlReportEngineExecutionListener(File file) throws IOException {
+        File parentFile = file.getAbsoluteFile().getParentFile();
+        if (parentFile != null) {
+            parentFile.mkdirs();
+        }
+
+        this.file = file;
+        this.writer =
+                new BufferedWriter(
+                        new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8),
+                        65536);
+
+        this.hostname = getHostname();
+        this.testSuiteMap = new ConcurrentHashMap<>();
+
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuites>\n");
+    }
+
+    @Override
+    public void executionStarted(TestDescriptor testDescriptor) {
+        if (testDescriptor instanceof TestEngineClassTestDescriptor) {
+            getTestSuite((TestEngineClassTestDescriptor) testDescriptor);
+        } else if (testDescriptor instanceof TestEngineParameterTestDescriptor) {
+            TestSuite testSuite = getTestSuite(ReportUtils.getClassTestDescriptor(testDescriptor));
+            testSuite.firstMethodThrowable = null;
+        }
+    }
+
+    @Override
+    public void executionSkipped(TestDescriptor testDescriptor, String reason) {
+        TestEngineClassTestDescriptor testEngineClassTestDescriptor = ReportUtils.getClassTestDescriptor(testDescriptor);
+        if (testEngineClassTestDescriptor == null) {
+            return;
+        }
+
+        TestSuite testSuite = getTestSuite(testEngineClassTestDescriptor);
+        addSkipped(testSuite, testDescriptor, reason);
+
+        if (testDescriptor == testEngineClassTestDescriptor) {
+            write(testEngineClassTestDescriptor);
+        }
+    }
+
+    @Override
+    public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testDescriptor;
+            TestSuite testSuite = getTestSuite(ReportUtils.getClassTestDescriptor(testDescriptor));
+            Throwable throwable = testExecutionResult.getThrowable().orElse(null);
+
+            if ((throwable != null) && (testSuite.firstMethodThrowable == null)) {
+                testSuite.firstMethodThrowable = throwable;
+            }
+
+            addTestCase(
+                    testSuite,
+                    testEngineTestMethodTestDescriptor.getTestMethod().getName()
+                            + "[" + testEngineTestMethodTestDescriptor.getTestParameter().name() + "]",
+                    testEngineTestMethodTestDescriptor.getDurationNanoTime(),
+                    testExecutionResult);
+        } else if (testDescriptor instanceof TestEngineParameterTestDescriptor) {
+            TestEngineParameterTestDescriptor testEngineParameterTestDescriptor = (TestEngineParameterTestDescriptor) testDescriptor;
+            TestSuite testSuite = getTestSuite(ReportUtils.getClassTestDescriptor(testDescriptor));
+            Throwable throwable = testExecutionResult.getThrowable().orElse(null);
+
+            if (throwable != null) {
+                if (testSuite.firstParameterThrowable == null) {
+                    testSuite.firstParameterThrowable = throwable;
+                }
+
+                // Only report failures that didn't originate from a test method
+                // (@TestEngine.ParameterSetter, @TestEngine.BeforeAll, @TestEngine.AfterAll)
+                if (throwable != testSuite.firstMethodThrowable) {
+                    addTestCase(
+                            testSuite,
+                            "[" + testEngineParameterTestDescriptor.getTestParameter().name() + "]",
+                            testEngineParameterTestDescriptor.getDurationNanoTime(),
+                            testExecutionResult);
+                }
+            }
+        } else if (testDescriptor instanceof TestEngineClassTestDescriptor) {
+            TestEngineClassTestDescriptor testEngineClassTestDescriptor = (TestEngineClassTestDescriptor) testDescriptor;
+            TestSuite testSuite = getTestSuite(testEngineClassTestDescriptor);
+            Throwable throwable = testExecutionResult.getThrowable().orElse(null);
+
+            // Only report failures that didn't originate from a parameter
+            // (@TestEngine.BeforeClass, @TestEngine.AfterClass)
+            if ((throwable != null) && (throwable != testSuite.firstParameterThrowable)) {
+                addTestCase(
+                        testSuite,
+                        testEngineClassTestDescriptor.getTestClass().getName(),
+                        0,
+                        testExecutionResult);
+            }
+
+            testSuite.durationNanoTime = testEngineClassTestDescriptor.getDurationNanoTime();
+            write(testEngineClassTestDescriptor);
+        }
+    }
+
+    /**
+     * Method to write all test classes that haven't finished and close the report
+     *
+     * @throws IOException if a test class couldn't be written, so the report is incomplete
+     */
+    @Override
+    public void close() throws IOException {
+        List<TestEngineClassTestDescriptor> testEngineClassTestDescriptors = new ArrayList<>(testSuiteMap.keySet());
+        for (TestEngineClassTestDescriptor testEngineClassTestDescriptor : testEngineClassTestDescriptors) {
+            write(testEngineClassTestDescriptor);
+        }
+
+        synchronized (writer) {
+            if (!closed) {
+                closed = true;
+
+                try {
+                    if (!failed) {
+                        writer.write("</testsuites>\n");
+                    }
+                } finally {
+                    try {
+                        writer.close();
+                    } catch (IOException e) {
+                        // Flushing the buffered test classes fails again after a failed write
+                        if (!failed) {
+                            throw e;
+                        }
+                    }
+                }
+
+                if (failed) {
+                    throw new IOException("JUnit XML report [" + file.getAbsolutePath() + "] is incomplete");
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to get the TestSuite for a test class, creating it if required
+     *
+     * @param testEngineClassTestDescriptor
+     * @return
+     */
+    private TestSuite getTestSuite(TestEngineClassTestDescriptor testEngineClassTestDescriptor) {
+        return testSuiteMap.computeIfAbsent(testEngineClassTestDescriptor, k -> new TestSuite(k.getTestClass().getName()));
+    }
+
+    /**
+     * Method to add skipped test cases for a TestDescriptor and its descendants
+     *
+     * @param testSuite
+     * @param testDescriptor
+     * @param reason
+     */
+    private static void addSkipped(TestSuite testSuite, TestDescriptor testDescriptor, String reason) {
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testDescriptor;
+
+            testSuite.tests++;
+            testSuite.skipped++;
+            testSuite.body
+                    .append("    <testcase name=\"")
+                    .append(ReportUtils.escapeXml(
+                            testEngineTestMethodTestDescriptor.getTestMethod().getName()
+                                    + "[" + testEngineTestMethodTestDescriptor.getTestParameter().name() + "]"))
+                    .append("\" classname=\"")
+                    .append(testSuite.escapedName)
+                    .append("\" time=\"0.000\">\n      <skipped message=\"")
+                    .append(ReportUtils.escapeXml(reason))
+                    .append("\"/>\n    </testcase>\n");
+        }
+
+        for (TestDescriptor child : testDescriptor.getChildren()) {
+            addSkipped(testSuite, child, reason);
+        }
+    }
+
+    /**
+     * Method to add a test case
+     *
+     * @param testSuite
+     * @param name
+     * @param durationNanoTime
+     * @param testExecutionResult
+     */
+    private static void addTestCase(
+            TestSuite testSuite,
+            String name,
+            long durationNanoTime,
+            TestExecutionResult testExecutionResult) {
+        StringBuilder body = testSuite.body;
+
+        testSuite.tests++;
+
+        body.append("    <testcase name=\"")
+                .append(ReportUtils.escapeXml(name))
+                .append("\" classname=\"")
+                .append(testSuite.escapedName)
+                .append("\" time=\"")
+                .append(ReportUtils.toDecimal(durationNanoTime / 1000000))
+                .append('"');
+
+        Throwable throwable = testExecutionResult.getThrowable().orElse(null);
+
+        switch (testExecutionResult.getStatus()) {
+            case FAILED: {
+                String element;
+                if (throwable instanceof AssertionError) {
+                    testSuite.failures++;
+                    element = "failure";
+                } else {
+                    testSuite.errors++;
+                    element = "error";
+                }
+
+                body.append(">\n      <").append(element);
+
+                if (throwable != null) {
+                    body.append(" message=\"")
+                            .append(ReportUtils.escapeXml(throwable.getMessage()))
+                            .append("\" type=\"")
+                            .append(throwable.getClass().getName())
+                            .append("\">")
+                            .append(ReportUtils.escapeXml(ReportUtils.getStackTrace(throwable)));
+                } else {
+                    body.append('>');
+                }
+
+                body.append("</").append(element).append(">\n    </testcase>\n");
+                break;
+            }
+            case ABORTED: {
+                testSuite.skipped++;
+                body.append(">\n      <skipped message=\"")
+                        .append(ReportUtils.escapeXml(throwable != null ? throwable.getMessage() : "aborted"))
+                        .append("\"/>\n    </testcase>\n");
+                break;
+            }
+            default: {
+                body.append("/>\n");
+                break;
+            }
+        }
+    }
+
+    /**
+     * Method to write a test class's &lt;testsuite&gt; element, removing the TestSuite
+     *
+     * @param testEngineClassTestDescriptor
+     */
+    private void write(TestEngineClassTestDescriptor testEngineClassTestDescriptor) {
+        TestSuite testSuite = testSuiteMap.remove(testEngineClassTestDescriptor);
+        if (testSuite == null) {
+            return;
+        }
+
+        StringBuilder stringBuilder = new StringBuilder(testSuite.body.length() + 256);
+        stringBuilder
+                .append("  <testsuite name=\"")
+                .append(testSuite.escapedName)
+                .append("\" tests=\"")
+                .append(testSuite.tests)
+                .append("\" failures=\"")
+                .append(testSuite.failures)
+                .append("\" errors=\"")
+                .append(testSuite.errors)
+                .append("\" skipped=\"")
+                .append(testSuite.skipped)
+                .append("\" time=\"")
+                .append(ReportUtils.toDecimal(testSuite.durationNanoTime / 1000000))
+                .append("\" timestamp=\"")
+                .append(testSuite.timestamp)
+                .append("\" hostname=\"")
+                .append(ReportUtils.escapeXml(hostname))
+                .append("\">\n")
+                .append(testSuite.body)
+                .append("  </testsuite>\n");
+
+        synchronized (writer) {
+            if (closed || failed) {
+                return;
+            }
+
+            try {
+                writer.write(stringBuilder.toString());
+            } catch (IOException e) {
+                // Later test classes aren't written, so the report is incomplete rather than missing a test class
+                failed = true;
+                LOGGER.error("Exception writing JUnit XML report [%s]", e);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Method to get the hostname
+     *
+     * @return
+     */
+    private static String getHostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "localhost";
+        }
+    }
+
+    /**
+     * Class to buffer a test class's test cases
+     * <p>
+     * A test class is executed by a single thread, so no synchronization is required
+     */
+    private static class TestSuite {
+
+        private final String escapedName;
+        private final String timestamp;
+        private final StringBuilder body;
+        private long tests;
+        private long failures;
+        private long errors;
+        private long skipped;
+        private long durationNanoTime;
+        private Throwable firstMethodThrowable;
+        private Throwable firstParameterThrowable;
+
+        /**
+         * Constructor
+         *
+         * @param name
+         */
+        private TestSuite(String name) {
+            this.escapedName = ReportUtils.escapeXml(name);
+            this.timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            this.body = new StringBuilder(1024);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.report;
+
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class to implement an EngineExecutionListener that streams a JSON Lines report,
+ * writing one JSON object per finished class, parameter, or method
+ * <p>
+ * Each line is written as soon as the test finishes, so memory usage doesn't depend on the number of tests
+ */
+public class JsonLinesReportEngineExecutionListener implements EngineExecutionListener, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonLinesReportEngineExecutionListener.class);
+
+    private final File file;
+    private final Writer writer;
+    private boolean closed;
+    private boolean failed;
+
+    /**
+     * Constructor
+     *
+     * @param file
+     * @throws IOException
+     */
+    public JsonLinesReportEngineExecutionListener(File file) throws IOException {
+        File parentFile = file.getAbsoluteFile().getParentFile();
+        if (parentFile != null) {
+            parentFile.mkdirs();
+        }
+
+        this.file = file;
+        this.writer =
+                new BufferedWriter(
+                        new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8),
+                        65536);
+    }
+
+    @Override
+    public void executionSkipped(TestDescriptor testDescriptor, String reason) {
+        write(testDescriptor, "SKIPPED", reason);
+    }
+
+    @Override
+    public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        write(
+                testDescriptor,
+                testExecutionResult.getStatus().name(),
+                testExecutionResult.getThrowable().map(Throwable::toString).orElse(null));
+    }
+
+    /**
+     * Method to write a JSON line for a TestDescriptor
+     *
+     * @param testDescriptor
+     * @param status
+     * @param message
+     */
+    private void write(TestDescriptor testDescriptor, String status, String message) {
+        String type = ReportUtils.getType(testDescriptor);
+        if (type == null) {
+            return;
+        }
+
+        TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor = (TestEngineAbstractTestDescriptor) testDescriptor;
+        String parameterName = ReportUtils.getParameterName(testDescriptor);
+        String methodName = ReportUtils.getMethodName(testDescriptor);
+
+        StringBuilder stringBuilder = new StringBuilder(256);
+        stringBuilder
+                .append("{\"type\":\"")
+                .append(type)
+                .append("\",\"class\":\"")
+                .append(ReportUtils.escapeJson(testEngineAbstractTestDescriptor.getTestClass().getName()))
+                .append('"');
+
+        if (parameterName != null) {
+            stringBuilder.append(",\"parameter\":\"").append(ReportUtils.escapeJson(parameterName)).append('"');
+        }
+
+        if (methodName != null) {
+            stringBuilder.append(",\"method\":\"").append(ReportUtils.escapeJson(methodName)).append('"');
+        }
+
+        stringBuilder
+                .append(",\"status\":\"")
+                .append(status)
+                .append("\",\"durationMillis\":")
+                .append(ReportUtils.toDecimal(testEngineAbstractTestDescriptor.getDurationNanoTime() / 1000));
+
+        long cpuNanoTime = testEngineAbstractTestDescriptor.getCpuNanoTime();
+        if (cpuNanoTime >= 0) {
+            stringBuilder.append(",\"cpuMillis\":").append(ReportUtils.toDecimal(cpuNanoTime / 1000));
+        }
+
+        long allocatedBytes = testEngineAbstractTestDescriptor.getAllocatedBytes();
+        if (allocatedBytes >= 0) {
+            stringBuilder.append(",\"allocatedBytes\":").append(allocatedBytes);
+        }
+
+        if (message != null) {
+            stringBuilder.append(",\"message\":\"").append(ReportUtils.escapeJson(message)).append('"');
+        }
+
+        stringBuilder.append("}\n");
+
+        String line = stringBuilder.toString();
+
+        synchronized (writer) {
+            if (closed || failed) {
+                return;
+            }
+
+            try {
+                writer.write(line);
+            } catch (IOException e) {
+                // Later lines aren't written, so the report is incomplete rather than missing a line
+                failed = true;
+                LOGGER.error("Exception writing JSON report [%s]", e);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Method to close the report
+     *
+     * @throws IOException if a line couldn't be written, so the report is incomplete
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            if (!closed) {
+                closed = true;
+
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    // Flushing the buffered lines fails again after a failed write
+                    if (!failed) {
+                        throw e;
+                    }
+                }
+
+                if (failed) {
+                    throw new IOException("JSON report [" + file.getAbsolutePath() + "] is incomplete");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.report;
+
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
+import org.junit.platform.engine.TestDescriptor;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Class to implement methods shared by the report writers
+ */
+public final class ReportUtils {
+
+    /**
+     * Constructor
+     */
+    private ReportUtils() {
+        // DO NOTHING
+    }
+
+    /**
+     * Method to get the TestEngineClassTestDescriptor of a TestDescriptor
+     *
+     * @param testDescriptor
+     * @return the TestEngineClassTestDescriptor, or null if the TestDescriptor isn't part of a test class
+     */
+    public static TestEngineClassTestDescriptor getClassTestDescriptor(TestDescriptor testDescriptor) {
+        TestDescriptor current = testDescriptor;
+        while (current != null) {
+            if (current instanceof TestEngineClassTestDescriptor) {
+                return (TestEngineClassTestDescriptor) current;
+            }
+            current = current.getParent().orElse(null);
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to get the type name of a TestDescriptor
+     *
+     * @param testDescriptor
+     * @return "class", "parameter", "method", or null for any other TestDescriptor
+     */
+    public static String getType(TestDescriptor testDescriptor) {
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            return "method";
+        } else if (testDescriptor instanceof TestEngineParameterTestDescriptor) {
+            return "parameter";
+        } else if (testDescriptor instanceof TestEngineClassTestDescriptor) {
+            return "class";
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to get the parameter name of a TestDescriptor
+     *
+     * @param testDescriptor
+     * @return the parameter name, or null if the TestDescriptor doesn't have a parameter
+     */
+    public static String getParameterName(TestDescriptor testDescriptor) {
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            return ((TestEngineTestMethodTestDescriptor) testDescriptor).getTestParameter().name();
+        } else if (testDescriptor instanceof TestEngineParameterTestDescriptor) {
+            return ((TestEngineParameterTestDescriptor) testDescriptor).getTestParameter().name();
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to get the test method name of a TestDescriptor
+     *
+     * @param testDescriptor
+     * @return the test method name, or null if the TestDescriptor doesn't have a test method
+     */
+    public static String getMethodName(TestDescriptor testDescriptor) {
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            return ((TestEngineTestMethodTestDescriptor) testDescriptor).getTestMethod().getName();
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to format a value expressed in thousandths as a decimal with 3 digits,
+     * i.e. 1234 -> "1.234", without using String.format()
+     *
+     * @param thousandths
+     * @return
+     */
+    public static String toDecimal(long thousandths) {
+        long value = Math.abs(thousandths);
+        long fraction = value % 1000;
+
+        StringBuilder stringBuilder = new StringBuilder(16);
+        if (thousandths < 0) {
+            stringBuilder.append('-');
+        }
+
+        stringBuilder.append(value / 1000).append('.');
+
+        if (fraction < 100) {
+            stringBuilder.append('0');
+        }
+
+        if (fraction < 10) {
+            stringBuilder.append('0');
+        }
+
+        return stringBuilder.append(fraction).toString();
+    }
+
+    /**
+     * Method to get the stack trace of a Throwable as a String
+     *
+     * @param throwable
+     * @return
+     */
+    public static String getStackTrace(Throwable throwable) {
+        StringWriter stringWriter = new StringWriter();
+        try (PrintWriter printWriter = new PrintWriter(stringWriter)) {
+            throwable.printStackTrace(printWriter);
+        }
+
+        return stringWriter.toString();
+    }
+
+    /**
+     * Method to escape a String for use in XML text or attribute values,
+     * removing characters that are not allowed in XML 1.0
+     *
+     * @param string
+     * @return
+     */
+    public static String escapeXml(String string) {
+        if (string == null) {
+            return "";
+        }
+
+        StringBuilder stringBuilder = null;
+
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            String replacement;
+
+            switch (c) {
+                case '&': {
+                    replacement = "&amp;";
+                    break;
+                }
+                case '<': {
+                    replacement = "&lt;";
+                    break;
+                }
+                case '>': {
+                    replacement = "&gt;";
+                    break;
+                }
+                case '"': {
+                    replacement = "&quot;";
+                    break;
+                }
+                case '\'': {
+                    replacement = "&apos;";
+                    break;
+                }
+                default: {
+                    if ((c < 0x20) && (c != '\t') && (c != '\n') && (c != '\r')) {
+                        replacement = "";
+                    } else {
+                        replacement = null;
+                    }
+                    break;
+                }
+            }
+
+            if (replacement != null) {
+                if (stringBuilder == null) {
+                    stringBuilder = new StringBuilder(string.length() + 16);
+                    stringBuilder.append(string, 0, i);
+                }
+                stringBuilder.append(replacement);
+            } else if (stringBuilder != null) {
+                stringBuilder.append(c);
+            }
+        }
+
+        return stringBuilder != null ? stringBuilder.toString() : string;
+    }
+
+    /**
+     * Method to escape a String for use as a JSON string value
+     *
+     * @param string
+     * @return
+     */
+    public static String escapeJson(String string) {
+        StringBuilder stringBuilder = new StringBuilder(string.length() + 16);
+
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+
+            switch (c) {
+                case '"': {
+                    stringBuilder.append("\\\"");
+                    break;
+                }
+                case '\\': {
+                    stringBuilder.append("\\\\");
+                    break;
+                }
+                case '\n': {
+                    stringBuilder.append("\\n");
+                    break;
+                }
+                case '\r': {
+                    stringBuilder.append("\\r");
+                    break;
+                }
+                case '\t': {
+                    stringBuilder.append("\\t");
+                    break;
+                }
+                default: {
+                    if (c < 0x20) {
+                        stringBuilder.append("\\u00");
+                        stringBuilder.append(Character.forDigit(c >> 4, 16));
+                        stringBuilder.append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        stringBuilder.append(c);
+                    }
+                    break;
+                }
+            }
+        }
+
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.report;
+
+import org.devopology.test.engine.support.TestEngineRerunFile;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Class to implement an EngineExecutionListener that records failed, aborted, and skipped
+ * test classes, test parameters, and test methods, writing a rerun file when closed
+ * <p>
+ * Containers report the first failure of their children, so a failed test parameter or test class
+ * is only recorded when none of its children were, i.e. a @TestEngine.BeforeAll or
+ * @TestEngine.BeforeClass method failed. Skipped test methods (fail fast or shutdown) didn't pass,
+ * so are recorded, and if closed before execution finishes (shutdown), test methods that haven't
+ * finished are also recorded. The rerun file is written when execution has started, so a run
+ * without failures leaves an empty rerun file, and a run that fails before execution keeps
+ * the previous rerun file
+ */
+public class RerunFileEngineExecutionListener implements EngineExecutionListener, Closeable {
+
+    private final File file;
+    private final TestEngineRerunFile testEngineRerunFile;
+    private final Set<TestDescriptor> finishedTestDescriptors;
+    private volatile TestDescriptor rootTestDescriptor;
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param file
+     */
+    public RerunFileEngineExecutionListener(File file) {
+        this.file = file;
+        this.testEngineRerunFile = new TestEngineRerunFile();
+        this.finishedTestDescriptors = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    @Override
+    public void executionStarted(TestDescriptor testDescriptor) {
+        setRootTestDescriptor(testDescriptor);
+    }
+
+    @Override
+    public void executionSkipped(TestDescriptor testDescriptor, String reason) {
+        setRootTestDescriptor(testDescriptor);
+        finishedTestDescriptors.add(testDescriptor);
+        addTestMethods(testDescriptor);
+    }
+
+    @Override
+    public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        finishedTestDescriptors.add(testDescriptor);
+
+        if (testExecutionResult.getStatus() != TestExecutionResult.Status.SUCCESSFUL) {
+            add(testDescriptor);
+        }
+    }
+
+    /**
+     * Method to record the root TestDescriptor when the first TestDescriptor is executed, since
+     * the root TestDescriptor isn't reported when executing a single test class
+     *
+     * @param testDescriptor
+     */
+    private void setRootTestDescriptor(TestDescriptor testDescriptor) {
+        if (rootTestDescriptor == null) {
+            TestDescriptor root = testDescriptor;
+            while (root.getParent().isPresent()) {
+                root = root.getParent().get();
+            }
+
+            rootTestDescriptor = root;
+        }
+    }
+
+    /**
+     * Method to add a test class, test parameter, or test method that didn't pass
+     *
+     * @param testDescriptor
+     */
+    private void add(TestDescriptor testDescriptor) {
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testDescriptor;
+            TestEngineParameterTestDescriptor testEngineParameterTestDescriptor =
+                    (TestEngineParameterTestDescriptor) testDescriptor.getParent().get();
+
+            add(
+                    testEngineTestMethodTestDescriptor.getTestClass().getName(),
+                    testEngineParameterTestDescriptor.getTestParameterIndex(),
+                    testEngineParameterTestDescriptor.getTestParameter().name(),
+                    testEngineTestMethodTestDescriptor.getTestMethod().getName(),
+                    false);
+        } else if (testDescriptor instanceof TestEngineParameterTestDescriptor) {
+            TestEngineParameterTestDescriptor testEngineParameterTestDescriptor = (TestEngineParameterTestDescriptor) testDescriptor;
+
+            add(
+                    testEngineParameterTestDescriptor.getTestClass().getName(),
+                    testEngineParameterTestDescriptor.getTestParameterIndex(),
+                    testEngineParameterTestDescriptor.getTestParameter().name(),
+                    null,
+                    true);
+        } else if (testDescriptor instanceof TestEngineClassTestDescriptor) {
+            add(((TestEngineClassTestDescriptor) testDescriptor).getTestClass().getName(), -1, null, null, true);
+        }
+    }
+
+    /**
+     * Method to add a failure
+     *
+     * @param className
+     * @param testParameterIndex
+     * @param testParameterName
+     * @param methodName
+     * @param container
+     */
+    private synchronized void add(
+            String className,
+            int testParameterIndex,
+            String testParameterName,
+            String methodName,
+            boolean container) {
+        if (closed) {
+            return;
+        }
+
+        if (container && testEngineRerunFile.contains(className, testParameterIndex)) {
+            return;
+        }
+
+        testEngineRerunFile.add(className, testParameterIndex, testParameterName, methodName);
+    }
+
+    /**
+     * Method to add the test methods of a TestDescriptor, rather than the whole test class or
+     * test parameter, so a test class narrowed by a rerun file stays narrowed
+     *
+     * @param testDescriptor
+     */
+    private void addTestMethods(TestDescriptor testDescriptor) {
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            add(testDescriptor);
+            return;
+        }
+
+        for (TestDescriptor child : testDescriptor.getChildren()) {
+            addTestMethods(child);
+        }
+    }
+
+    /**
+     * Method to add the test methods that haven't finished or been skipped
+     *
+     * @param testDescriptor
+     */
+    private void addUnfinished(TestDescriptor testDescriptor) {
+        if (finishedTestDescriptors.contains(testDescriptor)) {
+            return;
+        }
+
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            add(testDescriptor);
+            return;
+        }
+
+        for (TestDescriptor child : testDescriptor.getChildren()) {
+            addUnfinished(child);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            // Execution didn't start (e.g. an exception during discovery)
+            if (rootTestDescriptor == null) {
+                closed = true;
+                return;
+            }
+
+            // Closed before execution finished (shutdown)
+            addUnfinished(rootTestDescriptor);
+
+            closed = true;
+            testEngineRerunFile.write(file);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.report;
+
+import org.devopology.test.engine.support.TestEngineRunHistory;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class to implement an EngineExecutionListener that records test class results
+ * in a run history, writing the run history when closed
+ * <p>
+ * A test class result is based on the results of its test methods, test parameters, and itself,
+ * since a fail fast reports test classes (and tests finishing after it) as aborted, even if
+ * a test method failed. A test class fails if any of them failed, and passes if all of them passed.
+ * Otherwise (i.e. aborted or skipped by fail fast or shutdown) the result isn't known, so isn't recorded
+ * <p>
+ * Partial test classes (e.g. selected by a rerun file or test method filter) aren't recorded,
+ * since their result and duration don't represent the whole test class
+ */
+public class RunHistoryEngineExecutionListener implements EngineExecutionListener, Closeable {
+
+    private final File file;
+    private final TestEngineRunHistory testEngineRunHistory;
+    private final Map<TestEngineClassTestDescriptor, ClassResult> classResults;
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param file
+     * @param testEngineRunHistory
+     */
+    public RunHistoryEngineExecutionListener(File file, TestEngineRunHistory testEngineRunHistory) {
+        this.file = file;
+        this.testEngineRunHistory = testEngineRunHistory;
+        this.classResults = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void executionSkipped(TestDescriptor testDescriptor, String reason) {
+        // A skipped test class doesn't finish, so isn't recorded
+        if (testDescriptor instanceof TestEngineClassTestDescriptor) {
+            classResults.remove(testDescriptor);
+            return;
+        }
+
+        ClassResult classResult = getClassResult(testDescriptor);
+        if (classResult != null) {
+            classResult.incomplete = true;
+        }
+    }
+
+    @Override
+    public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        ClassResult classResult = getClassResult(testDescriptor);
+        if (classResult == null) {
+            return;
+        }
+
+        switch (testExecutionResult.getStatus()) {
+            case FAILED: {
+                classResult.failed = true;
+                break;
+            }
+            case ABORTED: {
+                classResult.incomplete = true;
+                break;
+            }
+            default: {
+                // DO NOTHING
+                break;
+            }
+        }
+
+        if (!(testDescriptor instanceof TestEngineClassTestDescriptor)) {
+            return;
+        }
+
+        TestEngineClassTestDescriptor testEngineClassTestDescriptor = (TestEngineClassTestDescriptor) testDescriptor;
+        classResults.remove(testEngineClassTestDescriptor);
+
+        if (testEngineClassTestDescriptor.isPartial() || (!classResult.failed && classResult.incomplete)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (!closed) {
+                testEngineRunHistory.record(
+                        testEngineClassTestDescriptor.getTestClass(),
+                        classResult.failed,
+                        testEngineClassTestDescriptor.getDurationNanoTime() / 1000000);
+            }
+        }
+    }
+
+    /**
+     * Method to get the result of the test class of a TestDescriptor
+     *
+     * @param testDescriptor
+     * @return the result, or null if the TestDescriptor isn't part of a test class
+     */
+    private ClassResult getClassResult(TestDescriptor testDescriptor) {
+        TestDescriptor classTestDescriptor = testDescriptor;
+        while (!(classTestDescriptor instanceof TestEngineClassTestDescriptor)) {
+            if (classTestDescriptor.getParent().isEmpty()) {
+                return null;
+            }
+
+            classTestDescriptor = classTestDescriptor.getParent().get();
+        }
+
+        return classResults.computeIfAbsent((TestEngineClassTestDescriptor) classTestDescriptor, k -> new ClassResult());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            testEngineRunHistory.write(file);
+        }
+    }
+
+    /**
+     * Class to implement the result of a test class, from the results of its test methods,
+     * test parameters, and itself
+     */
+    private static class ClassResult {
+
+        private volatile boolean failed;
+        private volatile boolean incomplete;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.report;
+
+import org.devopology.test.engine.support.TestEngineWorkerTracker;
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.logger.LoggerFactory;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class to implement an EngineExecutionListener that periodically samples the stacks
+ * of worker threads, writing a collapsed stack file per test class for flame graph tools
+ * <p>
+ * Only threads executing a test class are sampled, and engine frames are removed, so each
+ * sample is rooted at the test method or lifecycle phase being executed, or at "engine"
+ * <p>
+ * A test class's file is written when it finishes, so memory usage is bounded by the test classes in flight
+ */
+public class SamplingProfilerEngineExecutionListener implements EngineExecutionListener, Runnable, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SamplingProfilerEngineExecutionListener.class);
+
+    private static final String ENGINE_PACKAGE_PREFIX = "org.devopology.test.engine.support.";
+    private static final String ENGINE_CLASS_NAME = "org.devopology.test.engine.TestEngine";
+
+    private final File directory;
+    private final long intervalMilliseconds;
+    private final ThreadMXBean threadMXBean;
+    private final TestEngineWorkerTracker testEngineWorkerTracker;
+    private final Map<TestEngineClassTestDescriptor, Map<String, LongAdder>> classSamples;
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile boolean failed;
+
+    /**
+     * Constructor
+     *
+     * @param directory the directory to write collapsed stack files to
+     * @param intervalMilliseconds the sampling interval
+     */
+    public SamplingProfilerEngineExecutionListener(File directory, long intervalMilliseconds) {
+        this.directory = directory;
+        this.intervalMilliseconds = Math.max(1, intervalMilliseconds);
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+        this.testEngineWorkerTracker = new TestEngineWorkerTracker();
+        this.classSamples = new ConcurrentHashMap<>();
+
+        directory.mkdirs();
+
+        this.running = true;
+        this.thread = new Thread(this);
+        this.thread.setName("test-engine-profiler");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void executionStarted(TestDescriptor testDescriptor) {
+        if (testDescriptor instanceof TestEngineAbstractTestDescriptor) {
+            testEngineWorkerTracker.executionStarted((TestEngineAbstractTestDescriptor) testDescriptor);
+        }
+    }
+
+    @Override
+    public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        if (testDescriptor instanceof TestEngineAbstractTestDescriptor) {
+            testEngineWorkerTracker.executionFinished((TestEngineAbstractTestDescriptor) testDescriptor);
+
+            if (testDescriptor instanceof TestEngineClassTestDescriptor) {
+                TestEngineClassTestDescriptor testEngineClassTestDescriptor = (TestEngineClassTestDescriptor) testDescriptor;
+                write(testEngineClassTestDescriptor, classSamples.remove(testEngineClassTestDescriptor));
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                Thread.sleep(intervalMilliseconds);
+                sample();
+            } catch (InterruptedException e) {
+                break;
+            } catch (Throwable t) {
+                LOGGER.error("Exception sampling threads [%s]", t);
+                t.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Method to sample the stack of each worker thread executing a test class
+     */
+    private void sample() {
+        List<TestEngineWorkerTracker.Worker> workers = new ArrayList<>();
+        for (TestEngineWorkerTracker.Worker worker : testEngineWorkerTracker.getWorkers()) {
+            if (worker.getTestEngineClassTestDescriptor() != null) {
+                workers.add(worker);
+            }
+        }
+
+        if (workers.isEmpty()) {
+            return;
+        }
+
+        long[] threadIds = new long[workers.size()];
+        for (int i = 0; i < threadIds.length; i++) {
+            threadIds[i] = workers.get(i).getThread().getId();
+        }
+
+        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadIds, Integer.MAX_VALUE);
+
+        for (int i = 0; i < threadInfos.length; i++) {
+            TestEngineWorkerTracker.Worker worker = workers.get(i);
+            TestEngineClassTestDescriptor testEngineClassTestDescriptor = worker.getTestEngineClassTestDescriptor();
+            TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor = worker.getTestEngineAbstractTestDescriptor();
+
+            if ((threadInfos[i] == null) || (testEngineClassTestDescriptor == null) || (testEngineAbstractTestDescriptor == null)) {
+                continue;
+            }
+
+            String collapsedStack = toCollapsedStack(testEngineAbstractTestDescriptor, threadInfos[i].getStackTrace());
+
+            classSamples
+                    .computeIfAbsent(testEngineClassTestDescriptor, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(collapsedStack, k -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    /**
+     * Method to convert a stack trace to a collapsed stack, rooted at the TestDescriptor being executed
+     *
+     * @param testEngineAbstractTestDescriptor
+     * @param stackTraceElements
+     * @return
+     */
+    private static String toCollapsedStack(
+            TestEngineAbstractTestDescriptor testEngineAbstractTestDescriptor,
+            StackTraceElement[] stackTraceElements) {
+        // Find the engine frame, closest to the top of the stack, that reflectively invokes test code
+        int start = -1;
+        for (int i = 1; i < stackTraceElements.length; i++) {
+            if (isEngineFrame(stackTraceElements[i]) && isReflectionFrame(stackTraceElements[i - 1])) {
+                start = i - 1;
+                break;
+            }
+        }
+
+        StringBuilder stringBuilder = new StringBuilder(256);
+
+        if (start >= 0) {
+            // Skip the reflection frames between the engine and test code
+            while ((start >= 0) && isReflectionFrame(stackTraceElements[start])) {
+                start--;
+            }
+
+            String methodName = ReportUtils.getMethodName(testEngineAbstractTestDescriptor);
+            if (methodName != null) {
+                stringBuilder.append(methodName).append("()");
+            } else {
+                stringBuilder.append('<').append(ReportUtils.getType(testEngineAbstractTestDescriptor)).append('>');
+            }
+        } else {
+            // Not executing test code, so the sample is engine overhead
+            start = stackTraceElements.length - 1;
+            stringBuilder.append("<engine>");
+        }
+
+        for (int i = start; i >= 0; i--) {
+            StackTraceElement stackTraceElement = stackTraceElements[i];
+            stringBuilder
+                    .append(';')
+                    .append(stackTraceElement.getClassName())
+                    .append('.')
+                    .append(stackTraceElement.getMethodName());
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Method to determine if a stack frame belongs to the engine
+     *
+     * @param stackTraceElement
+     * @return
+     */
+    private static boolean isEngineFrame(StackTraceElement stackTraceElement) {
+        String className = stackTraceElement.getClassName();
+        return className.startsWith(ENGINE_PACKAGE_PREFIX) || className.equals(ENGINE_CLASS_NAME);
+    }
+
+    /**
+     * Method to determine if a stack frame belongs to reflective method / constructor invocation
+     *
+     * @param stackTraceElement
+     * @return
+     */
+    private static boolean isReflectionFrame(StackTraceElement stackTraceElement) {
+        String className = stackTraceElement.getClassName();
+        return className.startsWith("jdk.internal.reflect.")
+                || className.equals("java.lang.reflect.Method")
+                || className.equals("java.lang.reflect.Constructor");
+    }
+
+    /**
+     * Method to append a test class's samples to its collapsed stack file
+     *
+     * @param testEngineClassTestDescriptor
+     * @param samples the samples, may be null
+     */
+    private void write(TestEngineClassTestDescriptor testEngineClassTestDescriptor, Map<String, LongAdder> samples) {
+        if ((samples == null) || samples.isEmpty()) {
+            return;
+        }
+
+        File file = new File(directory, testEngineClassTestDescriptor.getTestClass().getName() + ".collapsed");
+
+        try (Writer writer =
+                     new BufferedWriter(
+                             new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, LongAdder> entry : samples.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(String.valueOf(entry.getValue().sum()));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            failed = true;
+            LOGGER.error("Exception writing collapsed stack file [%s] [%s]", file.getAbsolutePath(), e);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Method to stop sampling and write the samples of test classes that haven't finished
+     *
+     * @throws IOException if a collapsed stack file couldn't be written, so the collapsed stacks are incomplete
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        thread.interrupt();
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (TestEngineClassTestDescriptor testEngineClassTestDescriptor : new ArrayList<>(classSamples.keySet())) {
+            write(testEngineClassTestDescriptor, classSamples.remove(testEngineClassTestDescriptor));
+        }
+
+        if (failed) {
+            throw new IOException("Sampling profiler collapsed stack files in [" + directory.getAbsolutePath() + "] are incomplete");
+        }
+    }
+}
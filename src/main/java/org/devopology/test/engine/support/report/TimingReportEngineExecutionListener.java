@@ -0,0 +1,262 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.report;
+
+import org.devopology.test.engine.support.TestEnginePhase;
+import org.devopology.test.engine.support.TestEnginePhaseTimings;
+import org.devopology.test.engine.support.descriptor.TestEngineAbstractTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineClassTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineParameterTestDescriptor;
+import org.devopology.test.engine.support.descriptor.TestEngineTestMethodTestDescriptor;
+import org.devopology.test.engine.support.logger.Logger;
+import org.devopology.test.engine.support.util.Histogram;
+import org.devopology.test.engine.support.util.TopN;
+import org.junit.platform.engine.EngineExecutionListener;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+
+import java.util.List;
+
+/**
+ * Class to implement an EngineExecutionListener that records class, parameter,
+ * and method durations in fixed memory histograms, keeping the slowest of each
+ * <p>
+ * Lifecycle phase times are summed over all classes, and broken down for the slowest classes,
+ * to show where time is spent (fixtures vs test bodies)
+ */
+public class TimingReportEngineExecutionListener implements EngineExecutionListener {
+
+    private final Histogram classHistogram;
+    private final Histogram parameterHistogram;
+    private final Histogram methodHistogram;
+    private final TopN<TestEngineClassTestDescriptor> slowestClasses;
+    private final TopN<TestEngineParameterTestDescriptor> slowestParameters;
+    private final TopN<TestEngineTestMethodTestDescriptor> slowestMethods;
+    private final TopN<TestEngineTestMethodTestDescriptor> mostCpuMethods;
+    private final TopN<TestEngineTestMethodTestDescriptor> mostAllocatingMethods;
+    private final TestEnginePhaseTimings testEnginePhaseTimings;
+
+    /**
+     * Constructor
+     *
+     * @param top the number of slowest classes, parameters, and methods to report
+     */
+    public TimingReportEngineExecutionListener(int top) {
+        this.classHistogram = new Histogram();
+        this.parameterHistogram = new Histogram();
+        this.methodHistogram = new Histogram();
+        this.slowestClasses = new TopN<>(top);
+        this.slowestParameters = new TopN<>(top);
+        this.slowestMethods = new TopN<>(top);
+        this.mostCpuMethods = new TopN<>(top);
+        this.mostAllocatingMethods = new TopN<>(top);
+        this.testEnginePhaseTimings = new TestEnginePhaseTimings();
+    }
+
+    @Override
+    public void executionFinished(TestDescriptor testDescriptor, TestExecutionResult testExecutionResult) {
+        if (!(testDescriptor instanceof TestEngineAbstractTestDescriptor)) {
+            return;
+        }
+
+        long durationNanoTime = ((TestEngineAbstractTestDescriptor) testDescriptor).getDurationNanoTime();
+
+        if (testDescriptor instanceof TestEngineTestMethodTestDescriptor) {
+            TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor = (TestEngineTestMethodTestDescriptor) testDescriptor;
+            methodHistogram.record(durationNanoTime);
+            slowestMethods.add(testEngineTestMethodTestDescriptor, durationNanoTime);
+
+            long cpuNanoTime = testEngineTestMethodTestDescriptor.getCpuNanoTime();
+            if (cpuNanoTime >= 0) {
+                mostCpuMethods.add(testEngineTestMethodTestDescriptor, cpuNanoTime);
+            }
+
+            long allocatedBytes = testEngineTestMethodTestDescriptor.getAllocatedBytes();
+            if (allocatedBytes >= 0) {
+                mostAllocatingMethods.add(testEngineTestMethodTestDescriptor, allocatedBytes);
+            }
+        } else if (testDescriptor instanceof TestEngineParameterTestDescriptor) {
+            parameterHistogram.record(durationNanoTime);
+            slowestParameters.add((TestEngineParameterTestDescriptor) testDescriptor, durationNanoTime);
+        } else if (testDescriptor instanceof TestEngineClassTestDescriptor) {
+            TestEngineClassTestDescriptor testEngineClassTestDescriptor = (TestEngineClassTestDescriptor) testDescriptor;
+            classHistogram.record(durationNanoTime);
+            slowestClasses.add(testEngineClassTestDescriptor, durationNanoTime);
+            testEnginePhaseTimings.add(testEngineClassTestDescriptor.getTestEnginePhaseTimings());
+        }
+    }
+
+    /**
+     * Method to log the timing report
+     *
+     * @param logger
+     */
+    public void report(Logger logger) {
+        logger.infoRaw("Timing (ms)          COUNT          P50          P90          P99          MAX");
+        report(logger, "classes", classHistogram);
+        report(logger, "parameters", parameterHistogram);
+        report(logger, "methods", methodHistogram);
+
+        if (testEnginePhaseTimings.getTotalNanoTime() > 0) {
+            logger.infoRaw("");
+            logger.infoRaw("Phases");
+            report(logger, testEnginePhaseTimings);
+        }
+
+        List<TopN.Entry<TestEngineClassTestDescriptor>> classEntries = slowestClasses.getEntries();
+        if (!classEntries.isEmpty()) {
+            logger.infoRaw("");
+            logger.infoRaw("Slowest classes");
+            for (TopN.Entry<TestEngineClassTestDescriptor> entry : classEntries) {
+                logger.infoRaw(toMilliseconds(entry.getValue()) + "  " + entry.getItem().getTestClass().getName());
+                report(logger, entry.getItem().getTestEnginePhaseTimings());
+            }
+        }
+
+        List<TopN.Entry<TestEngineParameterTestDescriptor>> parameterEntries = slowestParameters.getEntries();
+        if (!parameterEntries.isEmpty()) {
+            logger.infoRaw("");
+            logger.infoRaw("Slowest parameters");
+            for (TopN.Entry<TestEngineParameterTestDescriptor> entry : parameterEntries) {
+                TestEngineParameterTestDescriptor testEngineParameterTestDescriptor = entry.getItem();
+                logger.infoRaw(
+                        toMilliseconds(entry.getValue())
+                                + "  "
+                                + testEngineParameterTestDescriptor.getSummaryPrefix()
+                                + testEngineParameterTestDescriptor.getTestClass().getName());
+            }
+        }
+
+        List<TopN.Entry<TestEngineTestMethodTestDescriptor>> methodEntries = slowestMethods.getEntries();
+        if (!methodEntries.isEmpty()) {
+            logger.infoRaw("");
+            logger.infoRaw("Slowest methods");
+            for (TopN.Entry<TestEngineTestMethodTestDescriptor> entry : methodEntries) {
+                logger.infoRaw(toMilliseconds(entry.getValue()) + "  " + describe(entry.getItem()));
+            }
+        }
+
+        List<TopN.Entry<TestEngineTestMethodTestDescriptor>> cpuMethodEntries = mostCpuMethods.getEntries();
+        if (!cpuMethodEntries.isEmpty()) {
+            logger.infoRaw("");
+            logger.infoRaw("Most CPU time methods");
+            for (TopN.Entry<TestEngineTestMethodTestDescriptor> entry : cpuMethodEntries) {
+                logger.infoRaw(toMilliseconds(entry.getValue()) + "  " + describe(entry.getItem()));
+            }
+        }
+
+        List<TopN.Entry<TestEngineTestMethodTestDescriptor>> allocatingMethodEntries = mostAllocatingMethods.getEntries();
+        if (!allocatingMethodEntries.isEmpty()) {
+            logger.infoRaw("");
+            logger.infoRaw("Most allocating methods");
+            for (TopN.Entry<TestEngineTestMethodTestDescriptor> entry : allocatingMethodEntries) {
+                logger.infoRaw(toMegabytes(entry.getValue()) + "  " + describe(entry.getItem()));
+            }
+        }
+    }
+
+    /**
+     * Method to describe a TestEngineTestMethodTestDescriptor
+     *
+     * @param testEngineTestMethodTestDescriptor
+     * @return
+     */
+    private static String describe(TestEngineTestMethodTestDescriptor testEngineTestMethodTestDescriptor) {
+        return testEngineTestMethodTestDescriptor.getSummaryPrefix()
+                + testEngineTestMethodTestDescriptor.getTestClass().getName()
+                + " "
+                + testEngineTestMethodTestDescriptor.getTestMethod().getName()
+                + "()";
+    }
+
+    /**
+     * Method to log a Histogram's percentiles
+     *
+     * @param logger
+     * @param name
+     * @param histogram
+     */
+    private static void report(Logger logger, String name, Histogram histogram) {
+        logger.infoRaw(
+                String.format(
+                        "  %-12s %12d %12s %12s %12s %12s",
+                        name,
+                        histogram.getCount(),
+                        ReportUtils.toDecimal(histogram.getPercentile(50) / 1000),
+                        ReportUtils.toDecimal(histogram.getPercentile(90) / 1000),
+                        ReportUtils.toDecimal(histogram.getPercentile(99) / 1000),
+                        ReportUtils.toDecimal(histogram.getMax() / 1000)));
+    }
+
+    /**
+     * Method to log the share of time, and number of executions, of each executed TestEnginePhase
+     *
+     * @param logger
+     * @param testEnginePhaseTimings
+     */
+    private static void report(Logger logger, TestEnginePhaseTimings testEnginePhaseTimings) {
+        long totalNanoTime = testEnginePhaseTimings.getTotalNanoTime();
+        if (totalNanoTime <= 0) {
+            return;
+        }
+
+        for (TestEnginePhase testEnginePhase : TestEnginePhase.values()) {
+            long count = testEnginePhaseTimings.getCount(testEnginePhase);
+            if (count == 0) {
+                continue;
+            }
+
+            long nanoTime = testEnginePhaseTimings.getNanoTime(testEnginePhase);
+            StringBuilder stringBuilder = new StringBuilder();
+            stringBuilder
+                    .append(toMilliseconds(nanoTime))
+                    .append(String.format("  %5.1f%% in %s across %d invocation(s)", (nanoTime * 100.0d) / totalNanoTime, testEnginePhase.getDisplayName(), count));
+
+            long cpuNanoTime = testEnginePhaseTimings.getCpuNanoTime(testEnginePhase);
+            if (cpuNanoTime > 0) {
+                stringBuilder.append(", cpu ").append(ReportUtils.toDecimal(cpuNanoTime / 1000)).append(" ms");
+            }
+
+            long allocatedBytes = testEnginePhaseTimings.getAllocatedBytes(testEnginePhase);
+            if (allocatedBytes > 0) {
+                stringBuilder.append(", allocated ").append(ReportUtils.toDecimal((allocatedBytes * 1000) / (1024 * 1024))).append(" MB");
+            }
+
+            logger.infoRaw(stringBuilder.toString());
+        }
+    }
+
+    /**
+     * Method to format nanoseconds as right justified milliseconds
+     *
+     * @param nanoTime
+     * @return
+     */
+    private static String toMilliseconds(long nanoTime) {
+        return String.format("%14s ms", ReportUtils.toDecimal(nanoTime / 1000));
+    }
+
+    /**
+     * Method to format bytes as right justified megabytes
+     *
+     * @param bytes
+     * @return
+     */
+    private static String toMegabytes(long bytes) {
+        return String.format("%14s MB", ReportUtils.toDecimal((bytes * 1000) / (1024 * 1024)));
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.util;
+
+/**
+ * Class to classify garbage collectors by their GarbageCollectorMXBean name
+ */
+public final class GarbageCollectors {
+
+    private GarbageCollectors() {
+        // DO NOTHING
+    }
+
+    /**
+     * Method to return whether a garbage collector reports concurrent collection cycles,
+     * such as "ZGC Cycles", "Shenandoah Cycles", "G1 Concurrent GC", or "ConcurrentMarkSweep",
+     * whose collection time is mostly spent running alongside application threads rather
+     * than pausing them
+     *
+     * @param name
+     * @return
+     */
+    public static boolean isConcurrent(String name) {
+        return name.endsWith(" Cycles") || name.contains("Concurrent");
+    }
+}
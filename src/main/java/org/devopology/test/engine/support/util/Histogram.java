@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.util;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class to implement a fixed memory, log bucketed histogram of non-negative long values
+ * <p>
+ * Values are bucketed by their power of 2, with each power of 2 split into 16 linear
+ * sub buckets, so a recorded value is within ~6% of its bucket's upper bound.
+ * Counters are striped, so recording from multiple threads doesn't contend
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    /**
+     * Constructor
+     */
+    public Histogram() {
+        this.buckets = new LongAdder[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Method to record a value, negative values are recorded as 0
+     *
+     * @param value
+     */
+    public void record(long value) {
+        long positiveValue = Math.max(0, value);
+        buckets[toIndex(positiveValue)].increment();
+        count.increment();
+        sum.add(positiveValue);
+        max.accumulate(positiveValue);
+    }
+
+    /**
+     * Method to get the number of recorded values
+     *
+     * @return
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Method to get the sum of recorded values
+     *
+     * @return
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Method to get the maximum recorded value
+     *
+     * @return
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Method to get the value at a percentile
+     *
+     * @param percentile the percentile (0.0 - 100.0)
+     * @return the upper bound of the bucket containing the percentile, limited to the maximum value
+     */
+    public long getPercentile(double percentile) {
+        long totalCount = getCount();
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long targetCount = (long) Math.ceil((Math.min(100.0, Math.max(0.0, percentile)) / 100.0) * totalCount);
+        targetCount = Math.max(1, targetCount);
+
+        long maxValue = getMax();
+        long cumulativeCount = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += buckets[i].sum();
+            if (cumulativeCount >= targetCount) {
+                return Math.min(toUpperBound(i), maxValue);
+            }
+        }
+
+        return maxValue;
+    }
+
+    /**
+     * Method to get the bucket index of a value
+     *
+     * @param value
+     * @return
+     */
+    private static int toIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+
+        return ((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT) + subBucket;
+    }
+
+    /**
+     * Method to get the (inclusive) upper bound of a bucket
+     *
+     * @param index
+     * @return
+     */
+    private static long toUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int exponent = (index / SUB_BUCKET_COUNT) + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        long lowerBound = (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+
+        return lowerBound + width - 1;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.util;
+
+import java.io.ObjectInputFilter;
+import java.util.function.Predicate;
+
+/**
+ * Class to create ObjectInputFilters, so Java serialization only creates expected classes
+ * from data read from a file or socket
+ */
+public final class ObjectInputFilters {
+
+    private static final int MAXIMUM_DEPTH = 64;
+    private static final int MAXIMUM_REFERENCES = 100000;
+
+    private ObjectInputFilters() {
+        // DO NOTHING
+    }
+
+    /**
+     * Method to create an ObjectInputFilter that limits the object graph depth and number of
+     * references, and rejects classes (or array component classes) not allowed by a Predicate
+     * <p>
+     * Primitives, and arrays of primitives, are always allowed
+     *
+     * @param predicate
+     * @return
+     */
+    public static ObjectInputFilter of(Predicate<Class<?>> predicate) {
+        return filterInfo -> {
+            if ((filterInfo.depth() > MAXIMUM_DEPTH) || (filterInfo.references() > MAXIMUM_REFERENCES)) {
+                return ObjectInputFilter.Status.REJECTED;
+            }
+
+            Class<?> clazz = filterInfo.serialClass();
+            while ((clazz != null) && clazz.isArray()) {
+                clazz = clazz.getComponentType();
+            }
+
+            if ((clazz == null) || clazz.isPrimitive() || predicate.test(clazz)) {
+                return ObjectInputFilter.Status.UNDECIDED;
+            }
+
+            return ObjectInputFilter.Status.REJECTED;
+        };
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.devopology.test.engine.support.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Class to measure the CPU time and heap bytes allocated by the current thread
+ * <p>
+ * Allocated bytes require the HotSpot com.sun.management.ThreadMXBean extension,
+ * which may not be available on every JVM
+ */
+public final class ThreadResources {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean SUN_THREAD_MX_BEAN = getSunThreadMXBean();
+
+    private ThreadResources() {
+        // DO NOTHING
+    }
+
+    /**
+     * Method to enable thread CPU time and allocated memory measurement, where supported
+     */
+    public static void enable() {
+        try {
+            if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && !THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+                THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+            }
+
+            if ((SUN_THREAD_MX_BEAN != null)
+                    && SUN_THREAD_MX_BEAN.isThreadAllocatedMemorySupported()
+                    && !SUN_THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled()) {
+                SUN_THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+            }
+        } catch (UnsupportedOperationException e) {
+            // DO NOTHING
+        }
+    }
+
+    /**
+     * Method to get the CPU time of the current thread
+     *
+     * @return the CPU time in nanoseconds, or -1 if not supported
+     */
+    public static long getCpuNanoTime() {
+        if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+            return -1;
+        }
+
+        return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Method to get the total heap bytes allocated by the current thread
+     *
+     * @return the allocated bytes, or -1 if not supported
+     */
+    public static long getAllocatedBytes() {
+        if (SUN_THREAD_MX_BEAN == null) {
+            return -1;
+        }
+
+        return SUN_THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Method to get the total heap bytes allocated by a thread
+     *
+     * @param thread
+     * @return the allocated bytes, or -1 if not supported
+     */
+    public static long getAllocatedBytes(Thread thread) {
+        if (SUN_THREAD_MX_BEAN == null) {
+            return -1;
+        }
+
+        return SUN_THREAD_MX_BEAN.getThreadAllocatedBytes(thread.getId());
+    }
+
+    /**
+     * Method to get the HotSpot ThreadMXBean extension
+     *
+     * @return the com.sun.management.ThreadMXBean, or null if not available
+     */
+    private static com.sun.management.ThreadMXBean getSunThreadMXBean() {
+        try {
+            if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+                if (sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+                    return sunThreadMXBean;
+                }
+            }
+        } catch (Throwable t) {
+            // DO NOTHING
+        }
+
+        return null;
+    }
+}
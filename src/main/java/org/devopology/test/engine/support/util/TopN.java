@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022-2023 Douglas Hoard
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.devopology.test.engine.support.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Class to keep the N items with the largest values
+ * <p>
+ * Values that can't make the list are rejected without locking
+ *
+ * @param <T>
+ */
+public class TopN<T> {
+
+    private final int size;
+    private final PriorityQueue<Entry<T>> priorityQueue;
+    private volatile long threshold;
+
+    /**
+     * Constructor
+     *
+     * @param size
+     */
+    public TopN(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be greater than 0");
+        }
+
+        this.size = size;
+        this.priorityQueue = new PriorityQueue<>(size + 1, Comparator.comparingLong(Entry::getValue));
+        this.threshold = Long.MIN_VALUE;
+    }
+
+    /**
+     * Method to add an item
+     *
+     * @param item
+     * @param value
+     */
+    public void add(T item, long value) {
+        if (value <= threshold) {
+            return;
+        }
+
+        synchronized (priorityQueue) {
+            priorityQueue.add(new Entry<>(item, value));
+
+            if (priorityQueue.size() > size) {
+                priorityQueue.poll();
+            }
+
+            if (priorityQueue.size() == size) {
+                threshold = priorityQueue.peek().getValue();
+            }
+        }
+    }
+
+    /**
+     * Method to get the entries, largest value first
+     *
+     * @return
+     */
+    public List<Entry<T>> getEntries() {
+        List<Entry<T>> entries;
+
+        synchronized (priorityQueue) {
+            entries = new ArrayList<>(priorityQueue);
+        }
+
+        entries.sort(Comparator.comparingLong((Entry<T> entry) -> entry.getValue()).reversed());
+
+        return entries;
+    }
+
+    /**
+     * Class to implement an entry
+     *
+     * @param <T>
+     */
+    public static class Entry<T> {
+
+        private final T item;
+        private final long value;
+
+        private Entry(T item, long value) {
+            this.item = item;
+            this.value = value;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getValue() {
+            return value;
+        }
+    }
+}
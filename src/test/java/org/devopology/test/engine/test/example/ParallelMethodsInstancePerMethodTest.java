@@ -0,0 +1,91 @@
+package org.devopology.test.engine.test.example;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Example test
+ */
+@TestEngine.ParallelMethods(TestEngine.ParallelMethods.Mode.INSTANCE_PER_METHOD)
+public class ParallelMethodsInstancePerMethodTest {
+
+    private static final Set<Object> TEST_INSTANCES = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private Parameter parameter;
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return StringParameterSupplier.values();
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        this.parameter = parameter;
+    }
+
+    @TestEngine.BeforeAll
+    public void beforeAll() {
+        System.out.println("beforeAll()");
+    }
+
+    @TestEngine.BeforeEach
+    public void beforeEach() {
+        System.out.println("beforeEach()");
+    }
+
+    @TestEngine.Test
+    public void test1() {
+        System.out.println("test1(" + parameter + ")");
+        TEST_INSTANCES.add(this);
+    }
+
+    @TestEngine.Test
+    public void test2() {
+        System.out.println("test2(" + parameter + ")");
+        TEST_INSTANCES.add(this);
+    }
+
+    @TestEngine.Test
+    public void test3() {
+        System.out.println("test3(" + parameter + ")");
+        TEST_INSTANCES.add(this);
+    }
+
+    @TestEngine.AfterEach
+    public void afterEach() {
+        System.out.println("afterEach()");
+    }
+
+    @TestEngine.AfterAll
+    public void afterAll() {
+        System.out.println("afterAll()");
+    }
+
+    @TestEngine.AfterClass
+    public static void afterClass() {
+        System.out.println("afterClass()");
+
+        // Each test method of each test parameter has its own test instance
+        assertThat(TEST_INSTANCES).hasSize(30);
+    }
+
+    private static class StringParameterSupplier {
+
+        public static Stream<Parameter> values() {
+            Collection<Parameter> collection = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                collection.add(Parameter.of(String.valueOf(i)));
+            }
+            return collection.stream();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.devopology.test.engine.test.scenario;
+
+/**
+ * Class to implement the adaptive thread count scenario test methods, executed by test.sh
+ * <p>
+ * Test methods wait, so the process CPU load is low and the thread count grows, unless the
+ * Java system property "scenario.adaptive.gc" is true, when they also collect the tenured
+ * pool, so heap occupancy is measured and the thread count shrinks under heap pressure
+ */
+public class AdaptiveScenario {
+
+    private AdaptiveScenario() {
+        // DO NOTHING
+    }
+
+    /**
+     * Method to execute a test method
+     *
+     * @throws InterruptedException
+     */
+    public static void execute() throws InterruptedException {
+        if (Boolean.getBoolean("scenario.adaptive.gc")) {
+            System.gc();
+        }
+
+        Thread.sleep(1000);
+    }
+}
@@ -0,0 +1,27 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+/**
+ * Scenario test, a test method waits while the adaptive thread count adapts, executed by test.sh
+ */
+public class AdaptiveScenarioTest3 {
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.Test
+    public void test() throws InterruptedException {
+        AdaptiveScenario.execute();
+    }
+}
@@ -0,0 +1,28 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+/**
+ * Scenario test, the test class exceeds its timeout, executed by test.sh
+ */
+@TestEngine.Timeout(500)
+public class ClassTimeoutScenarioTest {
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"), Parameter.of("b"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.Test
+    public void timeout() throws InterruptedException {
+        Thread.sleep(60000);
+    }
+}
@@ -0,0 +1,55 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Scenario test, a test method is blocked by a monitor held by another thread and another waits, executed by test.sh
+ */
+public class ContentionScenarioTest {
+
+    private static final Object LOCK = new Object();
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.Test
+    public void blocked() throws InterruptedException {
+        CountDownLatch countDownLatch = new CountDownLatch(1);
+
+        Thread thread = new Thread(() -> {
+            synchronized (LOCK) {
+                countDownLatch.countDown();
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    // DO NOTHING
+                }
+            }
+        });
+        thread.start();
+
+        countDownLatch.await();
+        synchronized (LOCK) {
+            System.out.println("blocked()");
+        }
+
+        thread.join();
+    }
+
+    @TestEngine.Test
+    public void waited() throws InterruptedException {
+        Thread.sleep(500);
+        System.out.println("waited()");
+    }
+}
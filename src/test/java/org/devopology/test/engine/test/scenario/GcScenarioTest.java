@@ -0,0 +1,38 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scenario test, a test method allocates and pauses for a garbage collection, executed by test.sh
+ */
+public class GcScenarioTest {
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.Test
+    public void gc() throws InterruptedException {
+        long length = 0;
+        for (int i = 0; i < 64; i++) {
+            length += new byte[1024 * 1024].length;
+        }
+        assertThat(length).isEqualTo(64L * 1024 * 1024);
+
+        System.gc();
+
+        // GC notifications are sent asynchronously, so keep the test class in flight
+        Thread.sleep(500);
+    }
+}
@@ -0,0 +1,29 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+/**
+ * Scenario test, passes, executed by test.sh with RerunScenarioTest
+ */
+public class HistoryScenarioTest {
+
+    private Parameter parameter;
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"), Parameter.of("b"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        this.parameter = parameter;
+    }
+
+    @TestEngine.Test
+    public void test1() {
+        System.out.println("test1(" + parameter.value() + ")");
+    }
+}
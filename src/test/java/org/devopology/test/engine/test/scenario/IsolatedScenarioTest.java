@@ -0,0 +1,43 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+/**
+ * Scenario test, executes with no other test class executing, executed by test.sh
+ */
+@TestEngine.Isolated
+public class IsolatedScenarioTest {
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"), Parameter.of("b"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.BeforeClass
+    public static void beforeClass() {
+        ResourceLockScenario.enter(ResourceLockScenario.Kind.ISOLATED);
+    }
+
+    @TestEngine.Test
+    public void test1() throws InterruptedException {
+        ResourceLockScenario.execute();
+    }
+
+    @TestEngine.Test
+    public void test2() throws InterruptedException {
+        ResourceLockScenario.execute();
+    }
+
+    @TestEngine.AfterClass
+    public static void afterClass() {
+        ResourceLockScenario.exit(ResourceLockScenario.Kind.ISOLATED);
+    }
+}
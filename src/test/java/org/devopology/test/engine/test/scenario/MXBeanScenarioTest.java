@@ -0,0 +1,68 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scenario test, test methods read the live progress MBean while they are in flight, executed by test.sh
+ */
+public class MXBeanScenarioTest {
+
+    private static final MBeanServer MBEAN_SERVER = ManagementFactory.getPlatformMBeanServer();
+
+    private ObjectName objectName;
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"), Parameter.of("b"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.BeforeAll
+    public void beforeAll() throws Exception {
+        objectName = new ObjectName("org.devopology.test.engine:type=TestEngine");
+        assertThat(MBEAN_SERVER.isRegistered(objectName)).isTrue();
+    }
+
+    @TestEngine.Test
+    public void progress() throws Exception {
+        assertThat((Long) MBEAN_SERVER.getAttribute(objectName, "TestsFoundCount")).isPositive();
+        assertThat((Integer) MBEAN_SERVER.getAttribute(objectName, "TestsInFlightCount")).isPositive();
+        assertThat((Integer) MBEAN_SERVER.getAttribute(objectName, "ActiveWorkerCount")).isPositive();
+    }
+
+    @TestEngine.Test
+    public void workerTestClasses() throws Exception {
+        // A Map attribute of an MXBean is mapped to TabularData with key and value items
+        TabularData workerTestClasses = (TabularData) MBEAN_SERVER.getAttribute(objectName, "WorkerTestClasses");
+        CompositeData workerTestClass = workerTestClasses.get(new Object[] { Thread.currentThread().getName() });
+
+        assertThat(workerTestClass).isNotNull();
+        assertThat(workerTestClass.get("value")).isEqualTo(getClass().getName());
+    }
+
+    @TestEngine.Test
+    public void dumpSlowestInFlightTests() throws Exception {
+        String[] lines =
+                (String[]) MBEAN_SERVER.invoke(
+                        objectName,
+                        "dumpSlowestInFlightTests",
+                        new Object[] { 10 },
+                        new String[] { int.class.getName() });
+
+        assertThat(lines).anyMatch(line -> line.contains(Thread.currentThread().getName()) && line.contains("dumpSlowestInFlightTests"));
+    }
+}
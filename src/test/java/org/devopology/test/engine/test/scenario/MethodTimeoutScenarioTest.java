@@ -0,0 +1,41 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+/**
+ * Scenario test, test methods exceed their timeout and the default timeout, executed by test.sh
+ */
+public class MethodTimeoutScenarioTest {
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.Order(1)
+    @TestEngine.Timeout(100)
+    @TestEngine.Test
+    public void timeout() throws InterruptedException {
+        Thread.sleep(60000);
+    }
+
+    @TestEngine.Order(2)
+    @TestEngine.Test
+    public void defaultTimeout() throws InterruptedException {
+        Thread.sleep(60000);
+    }
+
+    @TestEngine.Order(3)
+    @TestEngine.Test
+    public void pass() {
+        System.out.println("pass()");
+    }
+}
@@ -0,0 +1,60 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scenario test, test methods of a test parameter overlap, executed by test.sh with more than one thread
+ */
+@TestEngine.ParallelMethods
+public class ParallelMethodsScenarioTest {
+
+    private static final AtomicInteger IN_FLIGHT_COUNT = new AtomicInteger();
+    private static final AtomicInteger MAXIMUM_IN_FLIGHT_COUNT = new AtomicInteger();
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"), Parameter.of("b"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.Test
+    public void test1() throws InterruptedException {
+        execute();
+    }
+
+    @TestEngine.Test
+    public void test2() throws InterruptedException {
+        execute();
+    }
+
+    @TestEngine.Test
+    public void test3() throws InterruptedException {
+        execute();
+    }
+
+    @TestEngine.AfterClass
+    public static void afterClass() {
+        assertThat(MAXIMUM_IN_FLIGHT_COUNT.get()).isGreaterThan(1);
+    }
+
+    private void execute() throws InterruptedException {
+        int inFlightCount = IN_FLIGHT_COUNT.incrementAndGet();
+        MAXIMUM_IN_FLIGHT_COUNT.accumulateAndGet(inFlightCount, Math::max);
+
+        try {
+            Thread.sleep(200);
+        } finally {
+            IN_FLIGHT_COUNT.decrementAndGet();
+        }
+    }
+}
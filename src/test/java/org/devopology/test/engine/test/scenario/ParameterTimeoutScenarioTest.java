@@ -0,0 +1,42 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+/**
+ * Scenario test, each test parameter exceeds its timeout, executed by test.sh
+ */
+public class ParameterTimeoutScenarioTest {
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"), Parameter.of("b"));
+    }
+
+    @TestEngine.Timeout(500)
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.Order(1)
+    @TestEngine.Test
+    public void pass() {
+        System.out.println("pass()");
+    }
+
+    @TestEngine.Order(2)
+    @TestEngine.Timeout(60000)
+    @TestEngine.Test
+    public void timeout() throws InterruptedException {
+        Thread.sleep(60000);
+    }
+
+    @TestEngine.Order(3)
+    @TestEngine.Test
+    public void skipped() {
+        System.out.println("skipped()");
+    }
+}
@@ -0,0 +1,44 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scenario test, the test class is executed by the "io" named thread pool, executed by test.sh
+ */
+@TestEngine.Pool("io")
+public class PoolScenarioTest {
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"), Parameter.of("b"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        assertPool();
+    }
+
+    @TestEngine.BeforeAll
+    public void beforeAll() {
+        assertPool();
+    }
+
+    @TestEngine.Test
+    public void test() {
+        assertPool();
+    }
+
+    @TestEngine.AfterAll
+    public void afterAll() {
+        assertPool();
+    }
+
+    private static void assertPool() {
+        assertThat(Thread.currentThread().getName()).startsWith("test-engine-io-");
+    }
+}
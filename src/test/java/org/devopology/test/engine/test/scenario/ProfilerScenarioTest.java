@@ -0,0 +1,40 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scenario test, a test method uses CPU time long enough to be sampled, executed by test.sh
+ */
+public class ProfilerScenarioTest {
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.Test
+    public void test() {
+        assertThat(spin(1000)).isNotZero();
+    }
+
+    private static long spin(long milliseconds) {
+        long deadline = System.nanoTime() + (milliseconds * 1000000);
+        long count = 0;
+
+        while (System.nanoTime() < deadline) {
+            count++;
+        }
+
+        return count;
+    }
+}
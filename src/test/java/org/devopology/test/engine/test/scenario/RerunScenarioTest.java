@@ -0,0 +1,37 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scenario test, test2 fails for test parameter "b", executed by test.sh
+ */
+public class RerunScenarioTest {
+
+    private Parameter parameter;
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"), Parameter.of("b"), Parameter.of("c"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        this.parameter = parameter;
+    }
+
+    @TestEngine.Test
+    public void test1() {
+        System.out.println("test1(" + parameter.value() + ")");
+    }
+
+    @TestEngine.Test
+    public void test2() {
+        System.out.println("test2(" + parameter.value() + ")");
+        assertThat((String) parameter.value()).isNotEqualTo("b");
+    }
+}
@@ -0,0 +1,72 @@
+package org.devopology.test.engine.test.scenario;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Class to track the resource lock scenario test classes in flight, executed by test.sh
+ * <p>
+ * A test class is in flight from its @TestEngine.BeforeClass method to its @TestEngine.AfterClass
+ * method, while it holds its resource locks
+ */
+public class ResourceLockScenario {
+
+    public enum Kind { READ_WRITE, READ, ISOLATED, UNLOCKED }
+
+    private static final int[] IN_FLIGHT_COUNTS = new int[Kind.values().length];
+    private static int inFlightCount;
+    private static int maximumReadWriteCount;
+    private static int maximumReadAlongsideReadWriteCount;
+    private static int maximumAlongsideIsolatedCount;
+
+    private ResourceLockScenario() {
+        // DO NOTHING
+    }
+
+    /**
+     * Method to record a test class starting, and the test classes it runs alongside
+     *
+     * @param kind
+     */
+    public static synchronized void enter(Kind kind) {
+        IN_FLIGHT_COUNTS[kind.ordinal()]++;
+        inFlightCount++;
+
+        int readWriteCount = IN_FLIGHT_COUNTS[Kind.READ_WRITE.ordinal()];
+
+        maximumReadWriteCount = Math.max(maximumReadWriteCount, readWriteCount);
+
+        if (readWriteCount > 0) {
+            maximumReadAlongsideReadWriteCount = Math.max(maximumReadAlongsideReadWriteCount, IN_FLIGHT_COUNTS[Kind.READ.ordinal()]);
+        }
+
+        if (IN_FLIGHT_COUNTS[Kind.ISOLATED.ordinal()] > 0) {
+            maximumAlongsideIsolatedCount = Math.max(maximumAlongsideIsolatedCount, inFlightCount - 1);
+        }
+    }
+
+    /**
+     * Method to record a test class finishing
+     *
+     * @param kind
+     */
+    public static synchronized void exit(Kind kind) {
+        IN_FLIGHT_COUNTS[kind.ordinal()]--;
+        inFlightCount--;
+    }
+
+    /**
+     * Method to keep a test class in flight, then assert READ_WRITE holders were exclusive
+     * and nothing ran alongside an isolated test class
+     *
+     * @throws InterruptedException
+     */
+    public static void execute() throws InterruptedException {
+        Thread.sleep(100);
+
+        synchronized (ResourceLockScenario.class) {
+            assertThat(maximumReadWriteCount).isLessThanOrEqualTo(1);
+            assertThat(maximumReadAlongsideReadWriteCount).isZero();
+            assertThat(maximumAlongsideIsolatedCount).isZero();
+        }
+    }
+}
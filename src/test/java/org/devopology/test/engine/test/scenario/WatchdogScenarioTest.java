@@ -0,0 +1,41 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+/**
+ * Scenario test, a test method makes no progress for 2 seconds, ignoring interrupts when
+ * the Java system property "scenario.watchdog.ignore.interrupts" is true, executed by test.sh
+ */
+public class WatchdogScenarioTest {
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        // DO NOTHING
+    }
+
+    @TestEngine.Test
+    public void hang() throws InterruptedException {
+        if (!Boolean.getBoolean("scenario.watchdog.ignore.interrupts")) {
+            Thread.sleep(2000);
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + 2000;
+
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                System.out.println("hang() interrupted");
+            }
+        }
+    }
+}
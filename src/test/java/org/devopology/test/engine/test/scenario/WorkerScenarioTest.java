@@ -0,0 +1,49 @@
+package org.devopology.test.engine.test.scenario;
+
+import org.devopology.test.engine.api.Parameter;
+import org.devopology.test.engine.api.TestEngine;
+
+import java.util.stream.Stream;
+
+/**
+ * Scenario test, a worker exits while test method test2() of test parameter b is in flight
+ * when the Java system property "scenario.worker.exit" is true, executed by test.sh
+ */
+public class WorkerScenarioTest {
+
+    private Parameter parameter;
+
+    @TestEngine.ParameterSupplier
+    public static Stream<Parameter> parameters() {
+        return Stream.of(Parameter.of("a"), Parameter.of("b"));
+    }
+
+    @TestEngine.ParameterSetter
+    public void setParameter(Parameter parameter) {
+        this.parameter = parameter;
+    }
+
+    @TestEngine.Test
+    public void test1() {
+        execute("test1");
+    }
+
+    @TestEngine.Test
+    public void test2() {
+        execute("test2");
+    }
+
+    @TestEngine.Test
+    public void test3() {
+        execute("test3");
+    }
+
+    private void execute(String method) {
+        System.out.println(String.format("WorkerScenarioTest [%s] [%s] executed", parameter.name(), method));
+
+        if (parameter.name().equals("b") && method.equals("test2") && Boolean.getBoolean("scenario.worker.exit")) {
+            // Exit without closing the connection cleanly, as if the worker was killed
+            Runtime.getRuntime().halt(1);
+        }
+    }
+}
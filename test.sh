@@ -1,5 +1,228 @@
 #!/bin/bash
 
-java \
-  -cp "target/*:target/dependencies/*" \
-  org.devopology.test.engine.TestEngine
+set -e
+
+CLASSPATH="target/*:target/dependencies/*"
+
+# Scenario tests fail, time out, or check a report on purpose, so are only executed by their scenario
+EXAMPLES="-Ddevopology.test.engine.test.class.exclude=\.test\.scenario\."
+
+# Method to run the test engine with additional Java options, writing the output to a log file
+# Usage: run <log file> [java options...]
+run() {
+  LOG=$1
+  shift
+  STATUS=0
+  java "$@" -cp "$CLASSPATH" org.devopology.test.engine.TestEngine > "$LOG" 2>&1 || STATUS=$?
+  cat "$LOG"
+  return $STATUS
+}
+
+# Method to get the summary line (TESTS : ..., PASSED : ...) of a log file
+# Usage: summary <log file>
+summary() {
+  grep "TESTS : " "$1" | sed 's/.*TESTS : /TESTS : /'
+}
+
+# Method to get the sorted test class names of JSON Lines report files, one line per test class result
+# Usage: classes <report file...>
+classes() {
+  cat "$@" | grep '"type":"class"' | sed 's/.*"type":"class","class":"\([^"]*\)".*/\1/' | sort
+}
+
+# Method to get the lines of a report section of a log file, from its title to the next empty line
+# Usage: section <log file> <title>
+section() {
+  sed -n "/INFO  $2\$/,/INFO  \$/p" "$1" | sed '1d;$d'
+}
+
+# Method to fail the script with a message
+# Usage: fail <message>
+fail() {
+  echo "test.sh : $1" >&2
+  exit 1
+}
+
+run target/test.log $EXAMPLES -Ddevopology.test.engine.report.json=target/test.jsonl
+EXPECTED=$(summary target/test.log)
+
+# Parallel test methods, test methods of a test parameter overlap with more than one thread, even on a single CPU machine
+run target/parallel-methods.log -Ddevopology.test.engine.test.class.include=\.ParallelMethods.*ScenarioTest$ -Ddevopology.test.engine.thread.count=4 || fail "parallel test methods didn't overlap"
+
+# Named thread pools, a test class is executed by its named thread pool, with another test class so thread pools are used
+run target/pool.log -Ddevopology.test.engine.test.class.include="\.PoolScenarioTest$|\.example\.ArrayTest$" -Ddevopology.test.engine.pools=io || fail "named thread pool scenario failed"
+grep -q "\[test-engine-io-01\] .* - PASS .*PoolScenarioTest test()$" target/pool.log || fail "named thread pool didn't execute the test class"
+
+# Resource locks, READ_WRITE resource lock holders are exclusive, and nothing executes alongside an isolated test class
+run target/resource-lock.log -Ddevopology.test.engine.test.class.include="\.(ReadWriteLock|ReadLock|Isolated|Unlocked)ScenarioTest[0-9]*$" -Ddevopology.test.engine.thread.count=4 || fail "resource lock scenario failed"
+
+# Two forked JVMs execute the same tests as this JVM
+run target/fork.log $EXAMPLES -Ddevopology.test.engine.fork.count=2
+[ "$(summary target/fork.log)" = "$EXPECTED" ] || fail "forked JVM summary doesn't match"
+grep -q "\[test-engine-fork-02\]" target/fork.log || fail "second forked JVM didn't execute tests"
+
+# Coordinator, a worker exits while a test class is in flight, and another worker executes only its tests that hadn't finished
+WORKER="-Ddevopology.test.engine.test.class.include=\.WorkerScenarioTest$"
+rm -f target/coordinator.log
+java $WORKER -Ddevopology.test.engine.coordinator=localhost:0 -cp "$CLASSPATH" org.devopology.test.engine.TestEngine > target/coordinator.log 2>&1 &
+COORDINATOR=$!
+PORT=""
+for ATTEMPT in $(seq 300); do
+  PORT=$(sed -n 's/.*Coordinator listening on \[localhost:\([0-9]*\)\].*/\1/p' target/coordinator.log)
+  [ -n "$PORT" ] && break
+  sleep 0.1
+done
+[ -n "$PORT" ] || fail "coordinator isn't listening"
+if run target/worker-1.log -Dscenario.worker.exit=true -Ddevopology.test.engine.worker=localhost:$PORT; then fail "worker didn't exit"; fi
+run target/worker-2.log -Ddevopology.test.engine.worker=localhost:$PORT || fail "worker failed"
+wait $COORDINATOR || { cat target/coordinator.log; fail "coordinator scenario failed"; }
+cat target/coordinator.log
+grep -q "retrying test class \[.*\.WorkerScenarioTest\]" target/coordinator.log || fail "coordinator didn't retry the test class"
+[ "$(summary target/coordinator.log)" = "TESTS : 8, PASSED : 8, FAILED : 0, SKIPPED : 0" ] || fail "coordinator summary doesn't match"
+[ "$(grep -c 'WorkerScenarioTest .* executed$' target/worker-2.log)" = "2" ] || fail "worker executed tests that had finished"
+grep -q "WorkerScenarioTest \[b\] \[test2\] executed$" target/worker-2.log || fail "worker didn't execute the test in flight"
+
+# Test plan round trip, executing the test plan executes the same tests as discovery
+run target/test-plan-export.log $EXAMPLES -Ddevopology.test.engine.plan.export=target/test-plan.bin
+run target/test-plan-import.log $EXAMPLES -Ddevopology.test.engine.plan.import=target/test-plan.bin
+[ "$(summary target/test-plan-import.log)" = "$EXPECTED" ] || fail "test plan import summary doesn't match"
+! grep -q "can't be read" target/test-plan-import.log || fail "test plan test parameters weren't read"
+
+# Sharding, every test class is executed by exactly one shard, by test class name hash and by shard timing file
+for TIMING in "" "-Ddevopology.test.engine.shard.timing.file=target/test.jsonl"; do
+  rm -f target/shard-*.jsonl
+  for SHARD_INDEX in 0 1 2; do
+    run target/shard.log $EXAMPLES $TIMING -Ddevopology.test.engine.shard.count=3 -Ddevopology.test.engine.shard.index=$SHARD_INDEX -Ddevopology.test.engine.report.json=target/shard-$SHARD_INDEX.jsonl
+    [ -s target/shard-$SHARD_INDEX.jsonl ] || fail "shard [$SHARD_INDEX] didn't execute tests"
+  done
+  [ "$(classes target/shard-*.jsonl)" = "$(classes target/test.jsonl)" ] || fail "shards don't execute every test class exactly once"
+done
+
+# Rerun file, only the recorded failure is executed again, in this JVM and by two forked JVMs
+RERUN="-Ddevopology.test.engine.test.class.include=\.RerunScenarioTest$ -Ddevopology.test.engine.rerun.file=target/rerun.txt"
+rm -f target/rerun.txt
+if run target/rerun.log $RERUN; then fail "rerun scenario passed"; fi
+[ "$(grep -vc '^#' target/rerun.txt)" = "1" ] || fail "rerun file doesn't contain one failure"
+grep -q "RerunScenarioTest.1.b.test2$" target/rerun.txt || fail "rerun file doesn't contain the failure"
+
+for FORK_COUNT in 0 2; do
+  if run target/rerun-failed.log $RERUN -Ddevopology.test.engine.rerun.failed=true -Ddevopology.test.engine.fork.count=$FORK_COUNT; then
+    fail "rerun scenario passed"
+  fi
+  [ "$(grep -c ' - TEST .*()$' target/rerun-failed.log)" = "1" ] || fail "rerun executed more than the failure"
+  grep -q "\[b\] - FAIL .*RerunScenarioTest test2()" target/rerun-failed.log || fail "rerun didn't execute the failure"
+done
+
+# Run history, the test class that failed is executed first, and partial test classes aren't recorded
+HISTORY="-Ddevopology.test.engine.test.class.include=\.(History|Rerun)ScenarioTest$ -Ddevopology.test.engine.history.file=target/history.txt -Ddevopology.test.engine.thread.count=1"
+rm -f target/history.txt
+if run target/history.log $HISTORY; then fail "history scenario passed"; fi
+grep -m 1 " - TEST " target/history.log | grep -q "HistoryScenarioTest" || fail "history scenario order isn't by name"
+cp target/history.txt target/history-before.txt
+if run target/history-partial.log $HISTORY -Ddevopology.test.engine.test.method.include=test2; then fail "history scenario passed"; fi
+cmp -s target/history.txt target/history-before.txt || fail "run history recorded partial test classes"
+if run target/history-prioritized.log $HISTORY -Ddevopology.test.engine.history.prioritize=true; then fail "history scenario passed"; fi
+grep -m 1 " - TEST " target/history-prioritized.log | grep -q "RerunScenarioTest" || fail "run history didn't prioritize the failed test class"
+
+# Timeouts, test method, default, test parameter, and test class timeouts are reported as failures
+TIMEOUT="-Ddevopology.test.engine.test.class.include=\.(Method|Parameter|Class)TimeoutScenarioTest$ -Ddevopology.test.engine.timeout=1000 -Ddevopology.test.engine.report.json=target/timeout.jsonl -Ddevopology.test.engine.report.xml=target/timeout.xml"
+if run target/timeout.log $TIMEOUT; then fail "timeout scenario passed"; fi
+grep -q '"type":"method","class":"[^"]*\.MethodTimeoutScenarioTest","parameter":"a","method":"timeout","status":"FAILED".*Test method timed out after \[100\] ms' target/timeout.jsonl || fail "test method timeout not reported"
+grep -q '"type":"method","class":"[^"]*\.MethodTimeoutScenarioTest","parameter":"a","method":"defaultTimeout","status":"FAILED".*Test method timed out after \[1000\] ms' target/timeout.jsonl || fail "default timeout not reported"
+grep -q '"type":"method","class":"[^"]*\.MethodTimeoutScenarioTest","parameter":"a","method":"pass","status":"SUCCESSFUL"' target/timeout.jsonl || fail "test method after a timeout not executed"
+for PARAMETER in a b; do
+  grep -q '"type":"parameter","class":"[^"]*\.ParameterTimeoutScenarioTest","parameter":"'$PARAMETER'","status":"FAILED".*Test parameter timed out after \[500\] ms' target/timeout.jsonl || fail "test parameter timeout not reported"
+  grep -q '"type":"method","class":"[^"]*\.ParameterTimeoutScenarioTest","parameter":"'$PARAMETER'","method":"skipped","status":"SKIPPED"' target/timeout.jsonl || fail "test method after a test parameter timeout not skipped"
+done
+grep -q '"type":"class","class":"[^"]*\.ClassTimeoutScenarioTest","status":"FAILED".*Test class timed out after \[500\] ms' target/timeout.jsonl || fail "test class timeout not reported"
+grep -q '"type":"parameter","class":"[^"]*\.ClassTimeoutScenarioTest","parameter":"b","status":"SKIPPED"' target/timeout.jsonl || fail "test parameter after a test class timeout not skipped"
+grep -q '<error message="Test method timed out after \[100\] ms"' target/timeout.xml || fail "test method timeout not reported in the JUnit XML report"
+summary target/timeout.log | grep -q "FAILED : $(grep -c '"status":"FAILED"' target/timeout.jsonl)," || fail "summary failure count doesn't match the JSON Lines report"
+
+# Fail fast, the test class in flight on another thread is aborted, and the test class not yet started is skipped
+FAIL_FAST="-Ddevopology.test.engine.test.class.include=\.FailFastScenarioTest[0-9]$ -Ddevopology.test.engine.thread.count=2 -Ddevopology.test.engine.fail.fast=1 -Ddevopology.test.engine.report.json=target/fail-fast.jsonl"
+if run target/fail-fast.log $FAIL_FAST; then fail "fail fast scenario passed"; fi
+grep -q "Fail fast after \[1\] failure(s)" target/fail-fast.log || fail "fail fast wasn't triggered"
+grep -q '"type":"method","class":"[^"]*\.FailFastScenarioTest2","parameter":"a","method":"inFlight","status":"ABORTED"' target/fail-fast.jsonl || fail "fail fast didn't abort the test method in flight"
+grep -q '"type":"class","class":"[^"]*\.FailFastScenarioTest3","status":"SKIPPED","durationMillis":[0-9.]*,"message":"Fail fast"' target/fail-fast.jsonl || fail "fail fast didn't skip the test class not yet started"
+summary target/fail-fast.log | grep -q "FAILED : 3, SKIPPED : 2, ABORTED : $(grep -c '"type":"\(method\|parameter\)".*"status":"ABORTED"' target/fail-fast.jsonl)$" || fail "summary aborted count doesn't match the JSON Lines report"
+
+# Hang detection watchdog, a hung test method is dumped, interrupted, or abandoned, with another test class so worker threads are used
+WATCHDOG="-Ddevopology.test.engine.test.class.include=\.WatchdogScenarioTest$|\.example\.ArrayTest$ -Ddevopology.test.engine.watchdog.threshold=500 -Ddevopology.test.engine.watchdog.directory=target/watchdog -Ddevopology.test.engine.report.json=target/watchdog.jsonl"
+for POLICY in dump interrupt abandon; do
+  rm -rf target/watchdog
+  if [ "$POLICY" = "dump" ]; then
+    run target/watchdog-$POLICY.log $WATCHDOG -Ddevopology.test.engine.watchdog.policy=$POLICY || fail "watchdog [$POLICY] scenario failed"
+    grep -q '"method":"hang","status":"SUCCESSFUL"' target/watchdog.jsonl || fail "watchdog [$POLICY] didn't let the hung test finish"
+  elif [ "$POLICY" = "interrupt" ]; then
+    if run target/watchdog-$POLICY.log $WATCHDOG -Ddevopology.test.engine.watchdog.policy=$POLICY; then fail "watchdog [$POLICY] scenario passed"; fi
+    grep -q '"method":"hang","status":"FAILED".*InterruptedException' target/watchdog.jsonl || fail "watchdog [$POLICY] didn't interrupt the hung test"
+  else
+    if run target/watchdog-$POLICY.log $WATCHDOG -Ddevopology.test.engine.watchdog.policy=$POLICY -Dscenario.watchdog.ignore.interrupts=true; then fail "watchdog [$POLICY] scenario passed"; fi
+    grep -q '"type":"class","class":"[^"]*\.WatchdogScenarioTest","status":"FAILED".*Test abandoned after making no progress' target/watchdog.jsonl || fail "watchdog [$POLICY] didn't abandon the hung test class"
+    grep -q "Test class \[.*\.WatchdogScenarioTest\] abandoned on thread" target/watchdog-$POLICY.log || fail "watchdog [$POLICY] didn't log the abandoned test class"
+  fi
+  [ "$(ls target/watchdog/thread-dump-*.txt | wc -l)" = "1" ] || fail "watchdog [$POLICY] didn't write one thread dump"
+  grep -q "WatchdogScenarioTest\.hang" target/watchdog/thread-dump-*.txt || fail "watchdog [$POLICY] thread dump doesn't contain the hung test method"
+done
+
+# Adaptive thread count, grows from one thread while test classes wait, and shrinks under heap pressure
+ADAPTIVE="-Ddevopology.test.engine.test.class.include=\.AdaptiveScenarioTest[0-9]$ -Ddevopology.test.engine.adaptive=true"
+run target/adaptive-grow.log $ADAPTIVE -Ddevopology.test.engine.thread.count=1 || fail "adaptive grow scenario failed"
+grep -q "Adaptive thread count \[[0-9]*\], minimum \[1\], maximum \[[2-9]\]$" target/adaptive-grow.log || fail "adaptive thread count didn't grow"
+run target/adaptive-shrink.log -Xmx64m $ADAPTIVE -Ddevopology.test.engine.thread.count=2 -Ddevopology.test.engine.adaptive.heap.threshold=1 -Dscenario.adaptive.gc=true || fail "adaptive shrink scenario failed"
+grep -q "Adaptive thread count \[1\], minimum \[1\], maximum \[2\]$" target/adaptive-shrink.log || fail "adaptive thread count didn't shrink"
+
+# MBean, test methods read the live progress MBean while they are in flight, with another test class so worker threads are used
+run target/mxbean.log -Ddevopology.test.engine.test.class.include="\.MXBeanScenarioTest$|\.example\.ArrayTest$" || fail "MBean scenario failed"
+
+# GC report, a garbage collection pause is attributed to the test class in flight
+run target/gc.log -Ddevopology.test.engine.test.class.include=\.GcScenarioTest$ -Ddevopology.test.engine.report.gc.top=3 || fail "GC scenario failed"
+grep -q "GC pauses : [1-9][0-9]*, total [0-9]* ms, [1-9][0-9]* while tests were in flight" target/gc.log || fail "GC report doesn't contain a pause while tests were in flight"
+section target/gc.log "GC time by class" | grep -q "INFO  *[0-9]*\.[0-9]*  *[0-9]*  *[1-9][0-9]*  .*\.GcScenarioTest$" || fail "GC report doesn't attribute the pause to the test class"
+
+# Sampling profiler, a test method using CPU time is sampled in its test class collapsed stacks
+rm -rf target/profiler
+run target/profiler.log -Ddevopology.test.engine.test.class.include=\.ProfilerScenarioTest$ -Ddevopology.test.engine.profiler.directory=target/profiler || fail "profiler scenario failed"
+grep -q '\.ProfilerScenarioTest\.test;[^ ]*\.ProfilerScenarioTest\.spin [1-9][0-9]*$' target/profiler/*.ProfilerScenarioTest.collapsed || fail "sampling profiler didn't sample the test method"
+
+# Contention report, the blocked and waiting test methods are reported
+run target/contention.log -Ddevopology.test.engine.test.class.include=\.ContentionScenarioTest$ -Ddevopology.test.engine.report.contention.top=3 || fail "contention scenario failed"
+section target/contention.log "Most blocked methods" | grep -q "INFO  *[0-9]*  *[0-9]*  *[1-9][0-9][0-9][0-9]*  *[1-9][0-9]*  .*ContentionScenarioTest blocked()$" || fail "contention report doesn't contain the blocked test method"
+section target/contention.log "Most waiting methods" | grep -q "INFO  *[0-9]*  *[0-9]*  *[0-9]*  *[0-9]*  *[1-9][0-9][0-9][0-9]*  *[1-9][0-9]*  .*ContentionScenarioTest waited()$" || fail "contention report doesn't contain the waiting test method"
+section target/contention.log "Contention by class.*" | grep -q "ContentionScenarioTest$" || fail "contention report doesn't contain the test class"
+
+# Reports, the example tests with more test classes in flight, so results are counted concurrently
+REPORTS="-Ddevopology.test.engine.thread.count=16"
+REPORTS="$REPORTS -Ddevopology.test.engine.report.xml=target/report.xml -Ddevopology.test.engine.report.json=target/report.jsonl"
+REPORTS="$REPORTS -Ddevopology.test.engine.report.timing.top=3"
+REPORTS="$REPORTS -XX:StartFlightRecording=filename=target/report.jfr"
+REPORTS="$REPORTS -Ddevopology.test.engine.resource.accounting=true"
+REPORTS="$REPORTS -Ddevopology.test.engine.profiler.directory=target/report-profiler"
+rm -rf target/report-profiler
+run target/report.log $EXAMPLES $REPORTS
+[ "$(summary target/report.log)" = "$EXPECTED" ] || fail "summary with concurrent results doesn't match"
+summary target/report.log | grep -q "TESTS : $(grep -c '"type":"\(parameter\|method\)"' target/report.jsonl)," || fail "JSON Lines report doesn't contain every test"
+[ "$(grep -vc '^{"type":"[a-z]*",.*}$' target/report.jsonl)" = "0" ] || fail "JSON Lines report contains a line that isn't a result"
+[ "$(grep -c '<testcase ' target/report.xml)" = "$(grep -c '"type":"method"' target/report.jsonl)" ] || fail "JUnit XML report doesn't contain every test method"
+[ "$(grep -c '<testsuite ' target/report.xml)" = "$(grep -c '</testsuite>' target/report.xml)" ] || fail "JUnit XML report test suites aren't closed"
+[ "$(grep -c '<testsuite ' target/report.xml)" = "$(classes target/report.jsonl | wc -l)" ] || fail "JUnit XML report doesn't contain every test class"
+[ "$(tail -n 1 target/report.xml)" = "</testsuites>" ] || fail "JUnit XML report isn't complete"
+section target/report.log "Timing (ms).*" | grep -q "classes *$(classes target/report.jsonl | wc -l) " || fail "timing report doesn't contain every test class"
+section target/report.log "Timing (ms).*" | grep -q "methods *$(grep -c '"type":"method"' target/report.jsonl) " || fail "timing report doesn't contain every test method"
+[ "$(section target/report.log "Slowest parameters" | wc -l)" = "3" ] || fail "timing report doesn't contain the 3 slowest test parameters"
+[ "$(section target/report.log "Slowest methods" | grep -c ' ms  \[.*\] - .* [^ ]*()$')" = "3" ] || fail "timing report doesn't contain the 3 slowest test methods"
+section target/report.log "Phases" | grep -q "in @TestEngine.Test across $(grep -c '"type":"method"' target/report.jsonl) invocation(s)" || fail "phase timing doesn't contain every test method"
+[ "$(section target/report.log "Slowest classes" | grep -c "in @TestEngine.Test across")" = "3" ] || fail "phase timing isn't broken down for the slowest test classes"
+# The jfr tool isn't included in every JDK 11 distribution
+if command -v jfr > /dev/null; then
+  [ "$(jfr print --events org.devopology.test.engine.Phase target/report.jfr | grep -c 'phase = "@TestEngine.Test"')" = "$(grep -c '"type":"method"' target/report.jsonl)" ] || fail "Java Flight Recorder test method events don't match"
+  [ "$(jfr print --events org.devopology.test.engine.ClassDiscovery target/report.jfr | grep -c 'className = ')" = "$(classes target/report.jsonl | wc -l)" ] || fail "Java Flight Recorder test class discovery events don't match"
+fi
+[ "$(grep '"type":"method"' target/report.jsonl | grep -vc '"cpuMillis":[0-9.]*,"allocatedBytes":[0-9]*}$')" = "0" ] || fail "JSON Lines report doesn't contain the CPU time and allocated bytes of every test method"
+[ "$(section target/report.log "Most CPU time methods" | grep -c ' ms  \[.*\] - .* [^ ]*()$')" = "3" ] || fail "timing report doesn't contain the 3 test methods using the most CPU time"
+[ "$(section target/report.log "Most allocating methods" | grep -c ' MB  \[.*\] - .* [^ ]*()$')" = "3" ] || fail "timing report doesn't contain the 3 test methods allocating the most"
+for COLLAPSED in target/report-profiler/*.collapsed; do
+  classes target/report.jsonl | grep -qx "$(basename "$COLLAPSED" .collapsed)" || fail "sampling profiler wrote collapsed stacks for an unknown test class"
+done
+[ "$(cat target/report-profiler/*.collapsed | grep -vc '^[^ ;][^ ]* [1-9][0-9]*$')" = "0" ] || fail "sampling profiler collapsed stacks aren't well formed"